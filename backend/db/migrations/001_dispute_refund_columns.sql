@@ -0,0 +1,7 @@
+-- Refund dispatch columns on disputes (RefundDispatcher)
+-- Required before starting a build with the refund dispatcher against an existing database:
+-- the prod profile runs ddl-auto=validate and will not start while these columns are missing.
+-- Run once, e.g.: sqlite3 /data/disputes.db < backend/db/migrations/001_dispute_refund_columns.sql
+-- SQLite has no ADD COLUMN IF NOT EXISTS; a "duplicate column name" error means it was already applied.
+ALTER TABLE disputes ADD COLUMN bank_refund_id VARCHAR(255);
+ALTER TABLE disputes ADD COLUMN refund_error VARCHAR(255);
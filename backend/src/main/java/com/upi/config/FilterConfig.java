@@ -0,0 +1,100 @@
+package com.upi.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upi.security.AdminApiKeyFilter;
+import com.upi.security.RateLimitFilter;
+import com.upi.security.TokenBucketRateLimiter;
+import com.upi.web.AdaptiveConcurrencyLimiter;
+import com.upi.web.ConcurrencyLimitFilter;
+import com.upi.web.ServerTimingFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Servlet filters that sit outside the Spring Security chain.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class FilterConfig {
+    private static final String DISPUTES_PATH = "/api/disputes";
+    private static final String PHONE_LOGIN_PATH = "/api/auth/phone-login";
+    private static final String ADMIN_PATHS = "/api/admin/*";
+
+    @Bean
+    @ConditionalOnProperty(name = "app.ratelimit.enabled", havingValue = "true", matchIfMissing = true)
+    public RateLimitFilter rateLimitFilter(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.ratelimit.dispute.capacity:10}") long disputeCapacity,
+            @Value("${app.ratelimit.dispute.refill-per-minute:10}") long disputeRefillPerMinute,
+            @Value("${app.ratelimit.login.capacity:5}") long loginCapacity,
+            @Value("${app.ratelimit.login.refill-per-minute:5}") long loginRefillPerMinute,
+            @Value("${app.ratelimit.max-keys:100000}") int maxKeys,
+            @Value("${app.ratelimit.idle-timeout-seconds:600}") long idleTimeoutSeconds) {
+        Map<String, TokenBucketRateLimiter> limiters = Map.of(
+                DISPUTES_PATH, new TokenBucketRateLimiter("dispute", disputeCapacity, disputeRefillPerMinute, maxKeys, idleTimeoutSeconds),
+                PHONE_LOGIN_PATH, new TokenBucketRateLimiter("phone-login", loginCapacity, loginRefillPerMinute, maxKeys, idleTimeoutSeconds));
+        return new RateLimitFilter(limiters, objectMapper, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.ratelimit.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.addUrlPatterns(DISPUTES_PATH, PHONE_LOGIN_PATH);
+        // After the security chain so CORS headers are present on 429 responses
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.concurrency.enabled", havingValue = "true", matchIfMissing = true)
+    public ConcurrencyLimitFilter concurrencyLimitFilter(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.concurrency.initial-limit:50}") int initialLimit,
+            @Value("${app.concurrency.min-limit:10}") int minLimit,
+            @Value("${app.concurrency.max-limit:400}") int maxLimit) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit);
+        return new ConcurrencyLimitFilter(limiter, objectMapper, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.concurrency.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilterRegistration(ConcurrencyLimitFilter concurrencyLimitFilter) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(concurrencyLimitFilter);
+        registration.addUrlPatterns("/*");
+        // First in line, so shed requests cost as little as possible
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<AdminApiKeyFilter> adminApiKeyFilterRegistration(
+            ObjectMapper objectMapper,
+            @Value("${app.admin.api-key:}") String adminApiKey) {
+        FilterRegistrationBean<AdminApiKeyFilter> registration =
+                new FilterRegistrationBean<>(new AdminApiKeyFilter(adminApiKey, objectMapper));
+        registration.addUrlPatterns(ADMIN_PATHS);
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.server-timing.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilterRegistration() {
+        FilterRegistrationBean<ServerTimingFilter> registration = new FilterRegistrationBean<>(new ServerTimingFilter());
+        registration.addUrlPatterns("/api/*");
+        // Just inside the concurrency limiter, so auth and everything after it is timed
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
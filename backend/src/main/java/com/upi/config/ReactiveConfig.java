@@ -0,0 +1,75 @@
+package com.upi.config;
+
+import com.upi.controller.ReactiveDisputeHandler;
+import java.util.logging.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reactive profile (spring.profiles.active=dev,reactive): WebFlux on Netty instead of Tomcat.
+ *
+ * The /api/disputes routes are served by {@link ReactiveDisputeHandler} on a few event-loop threads
+ * (one per core, at least four), and the bank is called through WebClient. The auth, user and admin
+ * routes are servlet-only and stay on the default deployment.
+ *
+ * JDBC has no non-blocking driver for H2 or SQLite, so repository calls run on the jdbcScheduler
+ * bridge. It has as many threads as the Hikari pool has connections, so a bridge thread never
+ * waits for a connection. Its queue is bounded, and when it is full requests get a 503 instead of
+ * queueing without limit.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfig {
+    private static final Logger logger = Logger.getLogger(ReactiveConfig.class.getName());
+
+    // Tomcat is on the classpath for the servlet stack, and Boot would otherwise run WebFlux on it
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler jdbcScheduler(
+            @Value("${app.reactive.jdbc.threads:${spring.datasource.hikari.maximum-pool-size:10}}") int threads,
+            @Value("${app.reactive.jdbc.queue-size:10000}") int queueSize) {
+        logger.info("Reactive dispute API: JDBC bridge with " + threads + " threads, queue " + queueSize);
+        return Schedulers.newBoundedElastic(threads, queueSize, "jdbc-bridge");
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> disputeRoutes(ReactiveDisputeHandler handler) {
+        return RouterFunctions.route()
+                .POST("/api/disputes", handler::fileDispute)
+                .GET("/api/disputes/stats", handler::getDisputeStats)
+                .GET("/api/disputes/merchants/velocity", handler::getTopMerchantsByVelocity)
+                .GET("/api/disputes/user/{phone}", handler::getUserDisputes)
+                .DELETE("/api/disputes/user/{phone}", handler::deleteUserDisputes)
+                .GET("/api/disputes/{id:\\d+}", handler::getDisputeStatus)
+                .GET("/api/health", handler::health)
+                .build();
+    }
+
+    // Same rules as the servlet chain: everything is permitted, no sessions or CSRF
+    @Bean
+    public SecurityWebFilterChain reactiveSecurityFilterChain(ServerHttpSecurity http) {
+        UrlBasedCorsConfigurationSource corsSource = new UrlBasedCorsConfigurationSource();
+        corsSource.registerCorsConfiguration("/**", SecurityConfig.corsConfiguration());
+        return http.csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .cors(cors -> cors.configurationSource(corsSource))
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .authorizeExchange(exchanges -> exchanges.anyExchange().permitAll())
+                .build();
+    }
+}
@@ -0,0 +1,83 @@
+package com.upi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.concurrent.ExecutorService;
+import java.util.logging.Logger;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Opt-in virtual-thread execution (app.threads.virtual=true, Java 21+; the virtual-threads Maven
+ * profile builds a jar with it switched on).
+ *
+ * Servlet requests run on a virtual thread each, so the bank call and JDBC block a virtual thread
+ * instead of one of Tomcat's 200 platform threads; the bank client needs no change because it runs
+ * on the request thread. The auto-approval scheduler also runs on a virtual thread. BCrypt stays on
+ * {@code PasswordHashingExecutor}'s platform pool because it is CPU-bound.
+ *
+ * Pinning: the JDBC drivers (sqlite-jdbc's synchronized native calls, H2's monitors) hold their
+ * carrier thread for the whole call. With more pooled connections than carriers, database work can
+ * occupy every carrier and stall requests that are only waiting on the bank, so the Hikari pool is
+ * capped one below the carrier count; further callers park in Hikari's getConnection, which does not
+ * pin. Run with -Djdk.tracePinnedThreads=short, or look for jdk.VirtualThreadPinned in a JFR dump,
+ * to find new pinning spots.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.threads.virtual", havingValue = "true")
+public class VirtualThreadConfig {
+    private static final Logger logger = Logger.getLogger(VirtualThreadConfig.class.getName());
+
+    public VirtualThreadConfig() {
+        if (!VirtualThreads.isSupported()) {
+            throw new IllegalStateException("app.threads.virtual=true needs Java 21 or newer, running on "
+                    + Runtime.version());
+        }
+        logger.info("Virtual threads enabled for request handling and scheduling, "
+                + carrierThreads() + " carrier threads");
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService tomcatVirtualThreadExecutor() {
+        return VirtualThreads.perTaskExecutor("tomcat-vt-");
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(
+            ExecutorService tomcatVirtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(tomcatVirtualThreadExecutor);
+    }
+
+    // Replaces Spring Boot's single platform-thread scheduler
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadFactory(VirtualThreads.factory("scheduling-vt-"));
+        return scheduler;
+    }
+
+    @Bean
+    public static BeanPostProcessor virtualThreadConnectionPoolCap() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    int cap = Math.max(1, carrierThreads() - 1);
+                    if (dataSource.getMaximumPoolSize() > cap) {
+                        logger.info("Capping JDBC pool at " + cap + " connections (was "
+                                + dataSource.getMaximumPoolSize() + ") so pinned JDBC calls leave a carrier free");
+                        dataSource.setMaximumPoolSize(cap);
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+
+    static int carrierThreads() {
+        return Integer.getInteger("jdk.virtualThreadScheduler.parallelism", Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -0,0 +1,43 @@
+package com.upi.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Virtual thread factories and executors, looked up reflectively so the default build still
+ * compiles and runs on Java 17. Only call these after {@link #isSupported()} returned true.
+ */
+final class VirtualThreads {
+    private VirtualThreads() {}
+
+    static boolean isSupported() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    /**
+     * Factory for virtual threads named prefix0, prefix1, ...
+     */
+    static ThreadFactory factory(String prefix) {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads are not available on Java " + Runtime.version(), e);
+        }
+    }
+
+    /**
+     * Executor that starts a new virtual thread per task.
+     */
+    static ExecutorService perTaskExecutor(String prefix) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory(prefix));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads are not available on Java " + Runtime.version(), e);
+        }
+    }
+}
@@ -1,62 +1,54 @@
 package com.upi.controller;
 
 import com.upi.dto.LoginRequest;
-import com.upi.dto.LoginResponse;
 import com.upi.dto.PhoneLoginRequest;
 import com.upi.dto.RegisterRequest;
 import com.upi.dto.UpdateProfileRequest;
 import com.upi.dto.UserResponse;
 import com.upi.service.AuthService;
+import com.upi.service.PasswordHashingExecutor;
 import jakarta.validation.Valid;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "*")
 public class AuthController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    // Register and login hash or verify a password, so they run on the hashing pool
+    // and complete asynchronously instead of holding a request thread.
+
     @PostMapping("/register")
-    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request) {
-        try {
-            UserResponse user = authService.register(request);
-            return new ResponseEntity<>(user, HttpStatus.CREATED);
-        } catch (Exception e) {
-            Map<String, String> error = new HashMap<>();
-            error.put("error", e.getMessage());
-            return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
-        }
+    public CompletableFuture<ResponseEntity<?>> register(@Valid @RequestBody RegisterRequest request) {
+        return hashing(() -> authService.register(request), HttpStatus.CREATED, HttpStatus.BAD_REQUEST);
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
-        try {
-            LoginResponse response = authService.login(request);
-            return new ResponseEntity<>(response, HttpStatus.OK);
-        } catch (Exception e) {
-            Map<String, String> error = new HashMap<>();
-            error.put("error", e.getMessage());
-            return new ResponseEntity<>(error, HttpStatus.UNAUTHORIZED);
-        }
+    public CompletableFuture<ResponseEntity<?>> login(@Valid @RequestBody LoginRequest request) {
+        return hashing(() -> authService.login(request), HttpStatus.OK, HttpStatus.UNAUTHORIZED);
     }
 
     @PostMapping("/phone-login")
-    public ResponseEntity<?> phoneLogin(@Valid @RequestBody PhoneLoginRequest request) {
-        try {
-            LoginResponse response = authService.phoneLogin(request);
-            return new ResponseEntity<>(response, HttpStatus.OK);
-        } catch (Exception e) {
-            Map<String, String> error = new HashMap<>();
-            error.put("error", e.getMessage());
-            return new ResponseEntity<>(error, HttpStatus.UNAUTHORIZED);
-        }
+    public CompletableFuture<ResponseEntity<?>> phoneLogin(@Valid @RequestBody PhoneLoginRequest request) {
+        return hashing(() -> authService.phoneLogin(request), HttpStatus.OK, HttpStatus.UNAUTHORIZED);
     }
 
     @GetMapping("/profile")
@@ -98,4 +90,25 @@ public class AuthController {
         response.put("message", "Logged out successfully");
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
+
+    private CompletableFuture<ResponseEntity<?>> hashing(Callable<?> operation, HttpStatus success, HttpStatus failure) {
+        try {
+            return passwordHashingExecutor.submit(operation)
+                    .handle((body, ex) -> {
+                        if (ex == null) {
+                            return new ResponseEntity<>(body, success);
+                        }
+                        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                        Map<String, String> error = new HashMap<>();
+                        error.put("error", cause.getMessage());
+                        return new ResponseEntity<>(error, failure);
+                    });
+        } catch (RejectedExecutionException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Authentication service is busy. Please retry shortly.");
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(HttpHeaders.RETRY_AFTER, "1");
+            return CompletableFuture.completedFuture(new ResponseEntity<>(error, headers, HttpStatus.SERVICE_UNAVAILABLE));
+        }
+    }
 }
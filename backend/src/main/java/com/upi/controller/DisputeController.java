@@ -2,20 +2,26 @@ package com.upi.controller;
 
 import com.upi.dto.DisputeRequest;
 import com.upi.dto.DisputeResponse;
+import com.upi.dto.DisputeStatsResponse;
+import com.upi.dto.MerchantVelocityResponse;
 import com.upi.service.DisputeService;
 import jakarta.validation.Valid;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.logging.Logger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api")
 @CrossOrigin(origins = "*")
 public class DisputeController {
-    private static final Logger logger = Logger.getLogger(DisputeController.class.getName());
+    private static final Logger logger = LoggerFactory.getLogger(DisputeController.class);
     private final DisputeService disputeService;
 
     public DisputeController(DisputeService disputeService) {
@@ -25,17 +31,16 @@ public class DisputeController {
     @PostMapping("/disputes")
     public ResponseEntity<?> fileDispute(@Valid @RequestBody DisputeRequest request) {
         try {
-            logger.info("POST /api/disputes - Filing new dispute");
             DisputeResponse response = disputeService.fileDispute(request);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (IllegalArgumentException e) {
-            logger.severe("Validation error: " + e.getMessage());
+            logger.debug("Dispute rejected: {}", e.getMessage());
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
             error.put("message", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
         } catch (Exception e) {
-            logger.severe("Error filing dispute: " + e.getMessage());
+            logger.error("Error filing dispute for transaction {}", request.getTransactionId(), e);
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to file dispute");
             error.put("message", e.getMessage());
@@ -43,14 +48,26 @@ public class DisputeController {
         }
     }
 
+    @GetMapping("/disputes/stats")
+    public ResponseEntity<DisputeStatsResponse> getDisputeStats(
+            @RequestParam(defaultValue = "20") int merchants,
+            @RequestParam(defaultValue = "24") int hours) {
+        return ResponseEntity.ok(disputeService.getDisputeStats(merchants, hours));
+    }
+
+    @GetMapping("/disputes/merchants/velocity")
+    public ResponseEntity<List<MerchantVelocityResponse>> getTopMerchantsByVelocity(
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(disputeService.getTopMerchantsByVelocity(limit));
+    }
+
     @GetMapping("/disputes/{id}")
     public ResponseEntity<DisputeResponse> getDisputeStatus(@PathVariable Long id) {
         try {
-            logger.info("GET /api/disputes/" + id + " - Fetching status");
             DisputeResponse response = disputeService.getDisputeStatus(id);
             return ResponseEntity.ok(response);
         } catch (IllegalArgumentException e) {
-            logger.severe("Dispute not found: " + e.getMessage());
+            logger.debug("Dispute {} not found", id);
             return ResponseEntity.notFound().build();
         }
     }
@@ -58,11 +75,10 @@ public class DisputeController {
     @GetMapping("/disputes/user/{phone}")
     public ResponseEntity<?> getUserDisputes(@PathVariable String phone) {
         try {
-            logger.info("GET /api/disputes/user/" + phone + " - Fetching user disputes");
             var disputes = disputeService.getUserDisputes(phone);
             return ResponseEntity.ok(disputes);
         } catch (Exception e) {
-            logger.severe("Error fetching user disputes: " + e.getMessage());
+            logger.error("Error fetching disputes for phone {}", phone, e);
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
@@ -72,13 +88,12 @@ public class DisputeController {
     @DeleteMapping("/disputes/user/{phone}")
     public ResponseEntity<?> deleteUserDisputes(@PathVariable String phone) {
         try {
-            logger.info("DELETE /api/disputes/user/" + phone + " - Deleting user disputes");
             disputeService.deleteUserDisputes(phone);
             Map<String, String> response = new HashMap<>();
             response.put("message", "All disputes deleted for phone: " + phone);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
-            logger.severe("Error deleting user disputes: " + e.getMessage());
+            logger.error("Error deleting disputes for phone {}", phone, e);
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
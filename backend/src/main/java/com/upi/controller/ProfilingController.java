@@ -0,0 +1,77 @@
+package com.upi.controller;
+
+import com.upi.jfr.FlightRecordingManager;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Starts, dumps and stops the continuous JFR recording. Requires the X-Admin-Key header.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/admin/jfr")
+public class ProfilingController {
+    @Autowired
+    private FlightRecordingManager flightRecordingManager;
+
+    @GetMapping
+    public ResponseEntity<?> getStatus() {
+        return new ResponseEntity<>(flightRecordingManager.status(), HttpStatus.OK);
+    }
+
+    @PostMapping("/start")
+    public ResponseEntity<?> startRecording() {
+        try {
+            return new ResponseEntity<>(flightRecordingManager.start(), HttpStatus.OK);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Downloads a snapshot of the running recording. Open it with JDK Mission Control or {@code jfr print}.
+     * The dump file is kept on the server only if {@code keep} is true.
+     */
+    @PostMapping("/dump")
+    public void dumpRecording(@RequestParam(defaultValue = "false") boolean keep, HttpServletResponse response)
+            throws IOException {
+        Path file;
+        try {
+            file = flightRecordingManager.dump();
+        } catch (IllegalStateException e) {
+            response.sendError(HttpStatus.CONFLICT.value(), e.getMessage());
+            return;
+        }
+
+        try {
+            response.setContentType("application/octet-stream");
+            response.setContentLengthLong(Files.size(file));
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"" + file.getFileName() + "\"");
+            Files.copy(file, response.getOutputStream());
+        } finally {
+            if (!keep) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @PostMapping("/stop")
+    public ResponseEntity<?> stopRecording() {
+        Map<String, String> response = new HashMap<>();
+        response.put("message", flightRecordingManager.stop() ? "Recording stopped" : "No recording was running");
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+}
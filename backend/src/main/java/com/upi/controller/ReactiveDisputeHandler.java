@@ -0,0 +1,159 @@
+package com.upi.controller;
+
+import com.upi.dto.DisputeRequest;
+import com.upi.service.DisputeService;
+import com.upi.service.ReactiveDisputeService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Functional handlers for the /api/disputes routes in the reactive profile. Status codes and
+ * bodies match {@link DisputeController}; routes are registered in ReactiveConfig.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveDisputeHandler {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveDisputeHandler.class);
+    private final ReactiveDisputeService reactiveDisputeService;
+    private final DisputeService disputeService;
+    private final Validator validator;
+
+    public ReactiveDisputeHandler(ReactiveDisputeService reactiveDisputeService, DisputeService disputeService,
+                                  Validator validator) {
+        this.reactiveDisputeService = reactiveDisputeService;
+        this.disputeService = disputeService;
+        this.validator = validator;
+    }
+
+    public Mono<ServerResponse> fileDispute(ServerRequest request) {
+        return request.bodyToMono(DisputeRequest.class).flatMap(disputeRequest -> {
+            Set<ConstraintViolation<DisputeRequest>> violations = validator.validate(disputeRequest);
+            if (!violations.isEmpty()) {
+                String message = violations.iterator().next().getMessage();
+                return error(HttpStatus.BAD_REQUEST, message, message);
+            }
+            return reactiveDisputeService.fileDispute(disputeRequest)
+                    .flatMap(response -> ServerResponse.status(HttpStatus.CREATED).bodyValue(response))
+                    .onErrorResume(IllegalArgumentException.class, e -> {
+                        logger.debug("Dispute rejected: {}", e.getMessage());
+                        return error(HttpStatus.BAD_REQUEST, e.getMessage(), e.getMessage());
+                    })
+                    .onErrorResume(RejectedExecutionException.class, e -> overloaded())
+                    .onErrorResume(e -> {
+                        logger.error("Error filing dispute for transaction {}", disputeRequest.getTransactionId(), e);
+                        return error(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to file dispute", e.getMessage());
+                    });
+        });
+    }
+
+    public Mono<ServerResponse> getDisputeStats(ServerRequest request) {
+        int merchants;
+        int hours;
+        try {
+            merchants = intParam(request, "merchants", 20);
+            hours = intParam(request, "hours", 24);
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.BAD_REQUEST, "Bad Request", e.getMessage());
+        }
+        return ServerResponse.ok().bodyValue(disputeService.getDisputeStats(merchants, hours));
+    }
+
+    public Mono<ServerResponse> getTopMerchantsByVelocity(ServerRequest request) {
+        int limit;
+        try {
+            limit = intParam(request, "limit", 10);
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.BAD_REQUEST, "Bad Request", e.getMessage());
+        }
+        return ServerResponse.ok().bodyValue(disputeService.getTopMerchantsByVelocity(limit));
+    }
+
+    public Mono<ServerResponse> getDisputeStatus(ServerRequest request) {
+        Long id = Long.valueOf(request.pathVariable("id"));
+        return reactiveDisputeService.getDisputeStatus(id)
+                .flatMap(response -> ServerResponse.ok().bodyValue(response))
+                .onErrorResume(IllegalArgumentException.class, e -> {
+                    logger.debug("Dispute {} not found", id);
+                    return ServerResponse.notFound().build();
+                })
+                .onErrorResume(RejectedExecutionException.class, e -> overloaded());
+    }
+
+    public Mono<ServerResponse> getUserDisputes(ServerRequest request) {
+        String phone = request.pathVariable("phone");
+        return reactiveDisputeService.getUserDisputes(phone)
+                .flatMap(disputes -> ServerResponse.ok().bodyValue(disputes))
+                .onErrorResume(RejectedExecutionException.class, e -> overloaded())
+                .onErrorResume(e -> {
+                    logger.error("Error fetching disputes for phone {}", phone, e);
+                    return error(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage(), null);
+                });
+    }
+
+    public Mono<ServerResponse> deleteUserDisputes(ServerRequest request) {
+        String phone = request.pathVariable("phone");
+        return reactiveDisputeService.deleteUserDisputes(phone)
+                .then(Mono.defer(() -> {
+                    Map<String, String> response = new HashMap<>();
+                    response.put("message", "All disputes deleted for phone: " + phone);
+                    return ServerResponse.ok().bodyValue(response);
+                }))
+                .onErrorResume(RejectedExecutionException.class, e -> overloaded())
+                .onErrorResume(e -> {
+                    logger.error("Error deleting disputes for phone {}", phone, e);
+                    return error(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage(), null);
+                });
+    }
+
+    public Mono<ServerResponse> health(ServerRequest request) {
+        Map<String, String> response = new HashMap<>();
+        response.put("status", "ok");
+        response.put("service", "UPI Dispute Resolution API");
+        return ServerResponse.ok().bodyValue(response);
+    }
+
+    // The JDBC bridge queue is full: shed like the servlet stack's concurrency limiter does
+    private static Mono<ServerResponse> overloaded() {
+        return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .bodyValue(errorBody("Service overloaded", "Server is at capacity. Please retry shortly."));
+    }
+
+    private static Mono<ServerResponse> error(HttpStatus status, String error, String message) {
+        return ServerResponse.status(status).bodyValue(errorBody(error, message));
+    }
+
+    private static Map<String, String> errorBody(String error, String message) {
+        Map<String, String> body = new HashMap<>();
+        body.put("error", error);
+        if (message != null) {
+            body.put("message", message);
+        }
+        return body;
+    }
+
+    // A value that is not an integer is a 400, as @RequestParam int is on the servlet stack
+    private static int intParam(ServerRequest request, String name, int defaultValue) {
+        String value = request.queryParam(name).orElse(null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parameter '" + name + "' must be an integer");
+        }
+    }
+}
@@ -1,38 +1,48 @@
 package com.upi.controller;
 
 import com.upi.dto.UserResponse;
+import com.upi.model.User;
 import com.upi.repository.UserRepository;
+import com.upi.service.UserCache;
+import com.upi.service.UserExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/users")
 @CrossOrigin(origins = "*")
 public class UserController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private UserExportService userExportService;
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @GetMapping("/{userId}")
     public ResponseEntity<?> getUserById(@PathVariable Long userId) {
         try {
-            return userRepository.findById(userId)
-                    .map(user -> new UserResponse(
-                            user.getId(),
-                            user.getUsername(),
-                            user.getEmail(),
-                            user.getFullName(),
-                            user.getPhone(),
-                            user.getAddress(),
-                            user.getIsActive(),
-                            user.getIsVerified(),
-                            user.getCreatedAt()
-                    ))
+            return userCache.findById(userId)
+                    .map(UserCache.CachedUser::toResponse)
                     .map(user -> new ResponseEntity<>(user, HttpStatus.OK))
                     .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
         } catch (Exception e) {
@@ -45,18 +55,8 @@ public class UserController {
     @GetMapping("/by-username/{username}")
     public ResponseEntity<?> getUserByUsername(@PathVariable String username) {
         try {
-            return userRepository.findByUsername(username)
-                    .map(user -> new UserResponse(
-                            user.getId(),
-                            user.getUsername(),
-                            user.getEmail(),
-                            user.getFullName(),
-                            user.getPhone(),
-                            user.getAddress(),
-                            user.getIsActive(),
-                            user.getIsVerified(),
-                            user.getCreatedAt()
-                    ))
+            return userCache.findByUsername(username)
+                    .map(UserCache.CachedUser::toResponse)
                     .map(user -> new ResponseEntity<>(user, HttpStatus.OK))
                     .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
         } catch (Exception e) {
@@ -66,10 +66,20 @@ public class UserController {
         }
     }
 
+    /**
+     * One page of users ordered by id. Pass the X-Next-Cursor header of a response as
+     * {@code after} to fetch the next page; {@code page} is offset-based and kept for simple clients.
+     */
     @GetMapping
-    public ResponseEntity<?> getAllUsers() {
+    public ResponseEntity<?> getAllUsers(@RequestParam(required = false) Long after,
+                                         @RequestParam(defaultValue = "0") int page,
+                                         @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
         try {
-            List<UserResponse> users = userRepository.findAll().stream()
+            int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+            Slice<User> slice = after != null
+                    ? userRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, pageSize))
+                    : userRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(Math.max(page, 0), pageSize));
+            List<UserResponse> users = slice.getContent().stream()
                     .map(user -> new UserResponse(
                             user.getId(),
                             user.getUsername(),
@@ -82,7 +92,12 @@ public class UserController {
                             user.getCreatedAt()
                     ))
                     .collect(Collectors.toList());
-            return new ResponseEntity<>(users, HttpStatus.OK);
+
+            HttpHeaders headers = new HttpHeaders();
+            if (slice.hasNext()) {
+                headers.set(NEXT_CURSOR_HEADER, String.valueOf(users.get(users.size() - 1).getId()));
+            }
+            return new ResponseEntity<>(users, headers, HttpStatus.OK);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -90,11 +105,33 @@ public class UserController {
         }
     }
 
+    /**
+     * Streams every user as NDJSON (default) or CSV without loading them into memory.
+     */
+    @GetMapping("/export")
+    public void exportUsers(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response)
+            throws IOException {
+        UserExportService.Format exportFormat;
+        try {
+            exportFormat = UserExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "format must be ndjson or csv");
+            return;
+        }
+
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"users." + exportFormat.getExtension() + "\"");
+        userExportService.export(exportFormat, response.getOutputStream());
+    }
+
     @DeleteMapping("/{userId}")
     public ResponseEntity<?> deleteUser(@PathVariable Long userId) {
         try {
             if (userRepository.existsById(userId)) {
                 userRepository.deleteById(userId);
+                userCache.invalidate(userId);
                 Map<String, String> response = new HashMap<>();
                 response.put("message", "User deleted successfully");
                 return new ResponseEntity<>(response, HttpStatus.OK);
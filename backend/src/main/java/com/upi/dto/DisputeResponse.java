@@ -11,6 +11,7 @@ public class DisputeResponse {
     private String phone;
     private String status;
     private String neftReference;
+    private String bankRefundId;
     private String remarks;
     private LocalDateTime createdAt;
     private LocalDateTime verifiedAt;
@@ -99,6 +100,14 @@ public class DisputeResponse {
         this.neftReference = neftReference;
     }
 
+    public String getBankRefundId() {
+        return bankRefundId;
+    }
+
+    public void setBankRefundId(String bankRefundId) {
+        this.bankRefundId = bankRefundId;
+    }
+
     public String getRemarks() {
         return remarks;
     }
@@ -0,0 +1,93 @@
+package com.upi.dto;
+
+import java.util.Map;
+
+public class DisputeStatsResponse {
+    private long totalCount;
+    private double totalAmount;
+    private Map<String, Bucket> byStatus;
+    private Map<String, Bucket> byMerchant;
+    private Map<String, Bucket> byHour;
+
+    // Constructors
+    public DisputeStatsResponse() {}
+
+    public DisputeStatsResponse(long totalCount, double totalAmount, Map<String, Bucket> byStatus,
+                                Map<String, Bucket> byMerchant, Map<String, Bucket> byHour) {
+        this.totalCount = totalCount;
+        this.totalAmount = totalAmount;
+        this.byStatus = byStatus;
+        this.byMerchant = byMerchant;
+        this.byHour = byHour;
+    }
+
+    // Getters and Setters
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public void setTotalCount(long totalCount) {
+        this.totalCount = totalCount;
+    }
+
+    public double getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(double totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public Map<String, Bucket> getByStatus() {
+        return byStatus;
+    }
+
+    public void setByStatus(Map<String, Bucket> byStatus) {
+        this.byStatus = byStatus;
+    }
+
+    public Map<String, Bucket> getByMerchant() {
+        return byMerchant;
+    }
+
+    public void setByMerchant(Map<String, Bucket> byMerchant) {
+        this.byMerchant = byMerchant;
+    }
+
+    public Map<String, Bucket> getByHour() {
+        return byHour;
+    }
+
+    public void setByHour(Map<String, Bucket> byHour) {
+        this.byHour = byHour;
+    }
+
+    // Count and amount sum for one aggregation key
+    public static class Bucket {
+        private long count;
+        private double amount;
+
+        public Bucket() {}
+
+        public Bucket(long count, double amount) {
+            this.count = count;
+            this.amount = amount;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+
+        public double getAmount() {
+            return amount;
+        }
+
+        public void setAmount(double amount) {
+            this.amount = amount;
+        }
+    }
+}
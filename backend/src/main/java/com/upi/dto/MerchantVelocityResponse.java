@@ -0,0 +1,41 @@
+package com.upi.dto;
+
+public class MerchantVelocityResponse {
+    private String merchantUPI;
+    private long disputes;
+    private boolean hot;
+
+    // Constructors
+    public MerchantVelocityResponse() {}
+
+    public MerchantVelocityResponse(String merchantUPI, long disputes, boolean hot) {
+        this.merchantUPI = merchantUPI;
+        this.disputes = disputes;
+        this.hot = hot;
+    }
+
+    // Getters and Setters
+    public String getMerchantUPI() {
+        return merchantUPI;
+    }
+
+    public void setMerchantUPI(String merchantUPI) {
+        this.merchantUPI = merchantUPI;
+    }
+
+    public long getDisputes() {
+        return disputes;
+    }
+
+    public void setDisputes(long disputes) {
+        this.disputes = disputes;
+    }
+
+    public boolean isHot() {
+        return hot;
+    }
+
+    public void setHot(boolean hot) {
+        this.hot = hot;
+    }
+}
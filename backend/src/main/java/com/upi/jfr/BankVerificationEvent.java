@@ -0,0 +1,22 @@
+package com.upi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.upi.BankVerification")
+@Label("Bank Verification")
+@Category({"UPI", "Bank"})
+@Description("Transaction lookup against the bank; the event's start and duration are the call's")
+@StackTrace(false)
+public class BankVerificationEvent extends Event {
+    @Label("Transaction Id")
+    public String transactionId;
+
+    @Label("Outcome")
+    @Description("Decision from the bank's answer, or exception when the bank could not be reached")
+    public String outcome;
+}
@@ -0,0 +1,22 @@
+package com.upi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.upi.DbWriteBatch")
+@Label("DB Write Batch")
+@Category({"UPI", "Database"})
+@Description("A group of dispute rows written together")
+@StackTrace(false)
+public class DbWriteBatchEvent extends Event {
+    @Label("Operation")
+    @Description("e.g. dispute.insert, dispute.approve, dispute.delete")
+    public String operation;
+
+    @Label("Rows")
+    public int rows;
+}
@@ -0,0 +1,34 @@
+package com.upi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.upi.DisputeFiled")
+@Label("Dispute Filed")
+@Category({"UPI", "Disputes"})
+@Description("Filing of one dispute, from request to saved row, including bank verification")
+@StackTrace(false)
+public class DisputeFiledEvent extends Event {
+    @Label("Dispute Id")
+    public long disputeId;
+
+    @Label("Transaction Id")
+    public String transactionId;
+
+    @Label("Merchant UPI")
+    public String merchantUPI;
+
+    @Label("Amount")
+    public double amount;
+
+    @Label("Bank Outcome")
+    public String bankOutcome;
+
+    @Label("Status")
+    @Description("Resulting dispute status, or rejected/error when nothing was saved")
+    public String status;
+}
@@ -0,0 +1,145 @@
+package com.upi.jfr;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Owns the application's continuous JFR recording.
+ *
+ * The recording uses the JDK's "default" settings, which are designed to stay under 1% CPU,
+ * and keeps a bounded ring of data on disk (max age / max size) so it can run indefinitely.
+ * Dumps copy that ring to a file without stopping the recording. The com.upi.* events are
+ * enabled with no threshold, so every dispute, bank call, scheduler tick and write batch
+ * in the window is in the dump.
+ */
+@Component
+public class FlightRecordingManager {
+    private static final Logger logger = Logger.getLogger(FlightRecordingManager.class.getName());
+
+    private static final String RECORDING_NAME = "dispute-api";
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final String settings;
+    private final Duration maxAge;
+    private final long maxSizeBytes;
+    private final Path dumpDir;
+    private final boolean startOnBoot;
+
+    private Recording recording;
+
+    public FlightRecordingManager(@Value("${app.jfr.settings:default}") String settings,
+                                  @Value("${app.jfr.max-age-minutes:30}") long maxAgeMinutes,
+                                  @Value("${app.jfr.max-size-mb:100}") long maxSizeMb,
+                                  @Value("${app.jfr.dump-dir:${java.io.tmpdir}}") String dumpDir,
+                                  @Value("${app.jfr.start-on-boot:false}") boolean startOnBoot) {
+        this.settings = settings;
+        this.maxAge = Duration.ofMinutes(maxAgeMinutes);
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+        this.dumpDir = Paths.get(dumpDir);
+        this.startOnBoot = startOnBoot;
+    }
+
+    @PostConstruct
+    void startIfConfigured() throws IOException, ParseException {
+        if (startOnBoot) {
+            start();
+        }
+    }
+
+    /**
+     * Starts the continuous recording. Does nothing if it is already running.
+     */
+    public synchronized Map<String, Object> start() throws IOException, ParseException {
+        if (isRunning()) {
+            return status();
+        }
+        Recording newRecording = new Recording(Configuration.getConfiguration(settings));
+        newRecording.setName(RECORDING_NAME);
+        newRecording.setToDisk(true);
+        newRecording.setMaxAge(maxAge);
+        newRecording.setMaxSize(maxSizeBytes);
+        newRecording.enable(DisputeFiledEvent.class).withThreshold(Duration.ZERO);
+        newRecording.enable(BankVerificationEvent.class).withThreshold(Duration.ZERO);
+        newRecording.enable(SchedulerTickEvent.class).withThreshold(Duration.ZERO);
+        newRecording.enable(DbWriteBatchEvent.class).withThreshold(Duration.ZERO);
+        // Virtual threads blocking while pinned to their carrier (Java 21+; ignored on older JDKs)
+        newRecording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(20));
+        newRecording.start();
+        recording = newRecording;
+        logger.info("Started JFR recording with '" + settings + "' settings, max age " + maxAge
+                + ", max size " + maxSizeBytes + " bytes");
+        return status();
+    }
+
+    /**
+     * Writes what the running recording currently holds to a new file in the dump directory.
+     * The recording keeps running.
+     *
+     * @throws IllegalStateException if no recording is running
+     */
+    public synchronized Path dump() throws IOException {
+        if (!isRunning()) {
+            throw new IllegalStateException("No JFR recording is running");
+        }
+        Files.createDirectories(dumpDir);
+        Path file = dumpDir.resolve(RECORDING_NAME + "-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".jfr");
+        recording.dump(file);
+        logger.info("Dumped JFR recording to " + file);
+        return file;
+    }
+
+    /**
+     * Stops and discards the recording.
+     *
+     * @return false if no recording was running
+     */
+    public synchronized boolean stop() {
+        if (recording == null) {
+            return false;
+        }
+        boolean wasRunning = isRunning();
+        recording.close();
+        recording = null;
+        logger.info("Stopped JFR recording");
+        return wasRunning;
+    }
+
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", isRunning());
+        status.put("settings", settings);
+        status.put("maxAgeMinutes", maxAge.toMinutes());
+        status.put("maxSizeBytes", maxSizeBytes);
+        if (recording != null) {
+            status.put("id", recording.getId());
+            status.put("state", recording.getState().toString());
+            status.put("startTime", String.valueOf(recording.getStartTime()));
+        }
+        return status;
+    }
+
+    private boolean isRunning() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+
+    @PreDestroy
+    void close() {
+        stop();
+    }
+}
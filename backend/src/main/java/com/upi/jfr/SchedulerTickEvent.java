@@ -0,0 +1,22 @@
+package com.upi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.upi.SchedulerTick")
+@Label("Auto-Approval Scheduler Tick")
+@Category({"UPI", "Scheduler"})
+@StackTrace(false)
+public class SchedulerTickEvent extends Event {
+    @Label("Disputes Scanned")
+    public int scanned;
+
+    @Label("Disputes Due")
+    public int due;
+
+    @Label("Disputes Approved")
+    public int approved;
+}
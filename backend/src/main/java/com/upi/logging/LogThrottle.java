@@ -0,0 +1,81 @@
+package com.upi.logging;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits how often one log call site fires on a hot path, either to a number of lines per second
+ * or to one call in N. Declare one per call site as a static final field and guard the log
+ * statement with {@link #tryAcquire()}; pass {@link #suppressed()} along as a key-value so the
+ * dropped count is not lost.
+ *
+ * Lock-free. At a window boundary a few extra lines may get through.
+ */
+public final class LogThrottle {
+    private static final long SECOND_NANOS = 1_000_000_000L;
+
+    private final int permitsPerSecond;
+    private final int sampleOneIn;
+    private final LongSupplier nanoClock;
+
+    private final AtomicLong windowStart;
+    private final AtomicInteger usedInWindow = new AtomicInteger();
+    private final AtomicLong calls = new AtomicLong();
+    private final LongAdder suppressed = new LongAdder();
+
+    LogThrottle(int permitsPerSecond, int sampleOneIn, LongSupplier nanoClock) {
+        if (permitsPerSecond < 1 || sampleOneIn < 1) {
+            throw new IllegalArgumentException("permitsPerSecond and sampleOneIn must be positive");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.sampleOneIn = sampleOneIn;
+        this.nanoClock = nanoClock;
+        this.windowStart = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * At most permitsPerSecond lines per second.
+     */
+    public static LogThrottle perSecond(int permitsPerSecond) {
+        return new LogThrottle(permitsPerSecond, 1, System::nanoTime);
+    }
+
+    /**
+     * Every Nth call, starting with the first.
+     */
+    public static LogThrottle sampled(int oneIn) {
+        return new LogThrottle(Integer.MAX_VALUE, oneIn, System::nanoTime);
+    }
+
+    /**
+     * True if this call should log. Calls that may not log are counted as suppressed.
+     */
+    public boolean tryAcquire() {
+        if (sampleOneIn > 1 && (calls.getAndIncrement() % sampleOneIn) != 0) {
+            suppressed.increment();
+            return false;
+        }
+        if (permitsPerSecond == Integer.MAX_VALUE) {
+            return true;
+        }
+        long now = nanoClock.getAsLong();
+        long start = windowStart.get();
+        if (now - start >= SECOND_NANOS && windowStart.compareAndSet(start, now)) {
+            usedInWindow.set(0);
+        }
+        if (usedInWindow.incrementAndGet() <= permitsPerSecond) {
+            return true;
+        }
+        suppressed.increment();
+        return false;
+    }
+
+    /**
+     * Calls suppressed since the last time this was called.
+     */
+    public long suppressed() {
+        return suppressed.sumThenReset();
+    }
+}
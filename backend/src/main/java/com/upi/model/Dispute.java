@@ -30,6 +30,12 @@ public class Dispute {
     private String remarks;
     private String neftReference;
 
+    // Refund id returned by the bank once it has settled the refund
+    private String bankRefundId;
+
+    // Why the bank declined the refund; set disputes are no longer dispatched
+    private String refundError;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -128,6 +134,22 @@ public class Dispute {
         this.neftReference = neftReference;
     }
 
+    public String getBankRefundId() {
+        return bankRefundId;
+    }
+
+    public void setBankRefundId(String bankRefundId) {
+        this.bankRefundId = bankRefundId;
+    }
+
+    public String getRefundError() {
+        return refundError;
+    }
+
+    public void setRefundError(String refundError) {
+        this.refundError = refundError;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -1,14 +1,71 @@
 package com.upi.repository;
 
 import com.upi.model.Dispute;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface DisputeRepository extends JpaRepository<Dispute, Long> {
     Optional<Dispute> findByTransactionId(String transactionId);
     List<Dispute> findByPhone(String phone);
     void deleteByPhone(String phone);
+
+    /**
+     * Ids of disputes waiting for their refund to be sent to the bank, oldest first.
+     */
+    @Query("select d.id from Dispute d where d.status = :status and d.bankRefundId is null and d.refundError is null order by d.id")
+    List<Long> findIdsAwaitingRefund(@Param("status") Dispute.DisputeStatus status, Pageable pageable);
+
+    /**
+     * Records the bank's refund and resolves the dispute, unless it has left VERIFIED_FAILURE meanwhile.
+     * @return 1 if the dispute was updated, 0 otherwise
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Dispute d set d.status = :resolved, d.bankRefundId = :bankRefundId, d.remarks = :remarks, "
+            + "d.updatedAt = :now where d.id = :id and d.status = :verified")
+    int markRefundSettled(@Param("id") Long id, @Param("bankRefundId") String bankRefundId,
+                          @Param("remarks") String remarks, @Param("now") LocalDateTime now,
+                          @Param("verified") Dispute.DisputeStatus verified,
+                          @Param("resolved") Dispute.DisputeStatus resolved);
+
+    /**
+     * Records why the bank declined the refund, unless the dispute has left VERIFIED_FAILURE meanwhile.
+     * @return 1 if the dispute was updated, 0 otherwise
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Dispute d set d.refundError = :refundError, d.remarks = :remarks, d.updatedAt = :now "
+            + "where d.id = :id and d.status = :verified")
+    int markRefundDeclined(@Param("id") Long id, @Param("refundError") String refundError,
+                           @Param("remarks") String remarks, @Param("now") LocalDateTime now,
+                           @Param("verified") Dispute.DisputeStatus verified);
+
+    /**
+     * Forward-only scan of the columns the in-memory aggregates need.
+     * Rows are projections, so they are never attached to the persistence context.
+     * Must be consumed inside a transaction and closed by the caller.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select d.status as status, d.merchantUPI as merchantUPI, d.amount as amount, d.createdAt as createdAt from Dispute d")
+    Stream<StatsRow> streamStatsRows();
+
+    interface StatsRow {
+        Dispute.DisputeStatus getStatus();
+        String getMerchantUPI();
+        Double getAmount();
+        LocalDateTime getCreatedAt();
+    }
 }
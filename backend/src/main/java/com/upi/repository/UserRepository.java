@@ -2,6 +2,8 @@ package com.upi.repository;
 
 import com.upi.model.User;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -13,4 +15,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
     Optional<User> findByUsernameOrEmail(String username, String email);
+
+    // Keyset page: no count query, and the cost does not grow with the offset
+    Slice<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
 }
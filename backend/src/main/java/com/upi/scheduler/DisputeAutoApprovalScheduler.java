@@ -1,26 +1,54 @@
 package com.upi.scheduler;
 
+import com.upi.jfr.DbWriteBatchEvent;
+import com.upi.jfr.SchedulerTickEvent;
 import com.upi.model.Dispute;
 import com.upi.repository.DisputeRepository;
+import com.upi.service.DisputeStatsService;
+import com.upi.service.MerchantVelocityTracker;
+import com.upi.service.RefundDispatcher;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
-import java.util.logging.Logger;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 @Component
 public class DisputeAutoApprovalScheduler {
-    private static final Logger logger = Logger.getLogger(DisputeAutoApprovalScheduler.class.getName());
+    private static final Logger logger = LoggerFactory.getLogger(DisputeAutoApprovalScheduler.class);
     private final DisputeRepository disputeRepository;
+    private final DisputeStatsService disputeStatsService;
+    private final MerchantVelocityTracker merchantVelocityTracker;
+    private final RefundDispatcher refundDispatcher;
+    private final Timer tickTimer;
+    private final DistributionSummary approvalsPerTick;
 
     // Auto-approve after 5 seconds for testing
     private static final long AUTO_APPROVE_SECONDS = 5;
 
-    public DisputeAutoApprovalScheduler(DisputeRepository disputeRepository) {
+    public DisputeAutoApprovalScheduler(DisputeRepository disputeRepository, DisputeStatsService disputeStatsService,
+                                        MerchantVelocityTracker merchantVelocityTracker, RefundDispatcher refundDispatcher,
+                                        MeterRegistry meterRegistry) {
         this.disputeRepository = disputeRepository;
+        this.disputeStatsService = disputeStatsService;
+        this.merchantVelocityTracker = merchantVelocityTracker;
+        this.refundDispatcher = refundDispatcher;
+        this.tickTimer = Timer.builder("dispute.scheduler.tick")
+                .description("Duration of one auto-approval scheduler run")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.approvalsPerTick = DistributionSummary.builder("dispute.scheduler.approvals")
+                .description("Disputes auto-approved per scheduler run")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     /**
@@ -29,52 +57,82 @@ public class DisputeAutoApprovalScheduler {
      */
     @Scheduled(fixedDelay = 10000, initialDelay = 10000) // Every 10 seconds, start after 10 seconds
     public void autoApproveDisputes() {
-        logger.info("Running auto-approval check for disputes...");
-        
+        logger.debug("Running auto-approval check for disputes");
+        SchedulerTickEvent tick = new SchedulerTickEvent();
+        tick.begin();
+        long started = System.nanoTime();
+        int approvedCount = 0;
+
         try {
-            // Find all disputes in MANUAL_REVIEW status
-            List<Dispute> manualReviewDisputes = disputeRepository.findAll().stream()
-                .filter(d -> d.getStatus() == Dispute.DisputeStatus.MANUAL_REVIEW)
-                .toList();
-            
-            if (manualReviewDisputes.isEmpty()) {
-                logger.info("No disputes pending manual review");
+            LocalDateTime now = LocalDateTime.now();
+            List<Dispute> disputes = disputeRepository.findAll();
+            List<Dispute> dueDisputes = selectDueForApproval(disputes, now, merchantVelocityTracker::isHot);
+            tick.scanned = disputes.size();
+            tick.due = dueDisputes.size();
+
+            if (dueDisputes.isEmpty()) {
+                logger.debug("No disputes ready for auto-approval");
                 return;
             }
-            
-            logger.info("Found " + manualReviewDisputes.size() + " disputes in manual review");
-            
-            int approvedCount = 0;
-            LocalDateTime now = LocalDateTime.now();
-            
-            for (Dispute dispute : manualReviewDisputes) {
-                long secondsElapsed = ChronoUnit.SECONDS.between(dispute.getCreatedAt(), now);
-                
-                if (secondsElapsed >= AUTO_APPROVE_SECONDS) {
-                    // Auto-approve the dispute
-                    dispute.setStatus(Dispute.DisputeStatus.VERIFIED_FAILURE);
-                    dispute.setNeftReference("NEFT" + UUID.randomUUID().toString().substring(0, 12).toUpperCase());
-                    dispute.setRemarks("Auto-approved after manual review period. Refund initiated.");
-                    dispute.setVerifiedAt(now);
-                    
-                    disputeRepository.save(dispute);
-                    approvedCount++;
-                    
-                    logger.info("Auto-approved dispute: " + dispute.getId() + 
-                               " (Transaction: " + dispute.getTransactionId() + 
-                               ") - NEFT: " + dispute.getNeftReference());
-                }
+
+            logger.debug("Found {} disputes due for auto-approval", dueDisputes.size());
+
+            DbWriteBatchEvent write = new DbWriteBatchEvent();
+            write.begin();
+            for (Dispute dispute : dueDisputes) {
+                // Auto-approve the dispute
+                dispute.setStatus(Dispute.DisputeStatus.VERIFIED_FAILURE);
+                dispute.setRemarks("Auto-approved after manual review period. Refund initiated.");
+                dispute.setVerifiedAt(now);
+
+                disputeRepository.save(dispute);
+                disputeStatsService.recordTransition(dispute, Dispute.DisputeStatus.MANUAL_REVIEW);
+                refundDispatcher.submit(dispute.getId());
+                approvedCount++;
+
+                logger.debug("Auto-approved dispute {} (transaction {})", dispute.getId(), dispute.getTransactionId());
             }
-            
-            if (approvedCount > 0) {
-                logger.info("Auto-approved " + approvedCount + " dispute(s) successfully");
-            } else {
-                logger.info("No disputes ready for auto-approval yet");
+            write.end();
+            if (write.shouldCommit()) {
+                write.operation = "dispute.approve";
+                write.rows = approvedCount;
+                write.commit();
             }
+
+            logger.atInfo().setMessage("Auto-approval run complete")
+                    .addKeyValue("scanned", disputes.size())
+                    .addKeyValue("approved", approvedCount)
+                    .log();
             
         } catch (Exception e) {
-            logger.severe("Error during auto-approval process: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Error during auto-approval process", e);
+        } finally {
+            tickTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            approvalsPerTick.record(approvedCount);
+            tick.end();
+            if (tick.shouldCommit()) {
+                tick.approved = approvedCount;
+                tick.commit();
+            }
+        }
+    }
+
+    /**
+     * Disputes in MANUAL_REVIEW for at least AUTO_APPROVE_SECONDS whose merchant is not
+     * currently seeing a burst of disputes.
+     */
+    public static List<Dispute> selectDueForApproval(List<Dispute> disputes, LocalDateTime now,
+                                                     Predicate<String> merchantIsHot) {
+        LocalDateTime cutoff = now.minusSeconds(AUTO_APPROVE_SECONDS);
+        List<Dispute> due = new ArrayList<>();
+        for (Dispute dispute : disputes) {
+            if (dispute.getStatus() == Dispute.DisputeStatus.MANUAL_REVIEW
+                    && !dispute.getCreatedAt().isAfter(cutoff)
+                    // Hold auto-approval while the merchant is still seeing a burst of disputes
+                    && !merchantIsHot.test(dispute.getMerchantUPI())) {
+                due.add(dispute);
+            }
         }
+        return due;
     }
 }
@@ -0,0 +1,47 @@
+package com.upi.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Guards the /api/admin endpoints with a shared key in the X-Admin-Key header.
+ * With no key configured every admin request is refused.
+ */
+public class AdminApiKeyFilter extends OncePerRequestFilter {
+    static final String HEADER = "X-Admin-Key";
+
+    private final byte[] apiKey;
+    private final ObjectMapper objectMapper;
+
+    public AdminApiKeyFilter(String apiKey, ObjectMapper objectMapper) {
+        this.apiKey = apiKey == null ? new byte[0] : apiKey.getBytes(StandardCharsets.UTF_8);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String presented = request.getHeader(HEADER);
+        if (apiKey.length == 0 || presented == null
+                || !MessageDigest.isEqual(apiKey, presented.getBytes(StandardCharsets.UTF_8))) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", apiKey.length == 0 ? "Admin API is disabled" : "Invalid or missing " + HEADER);
+            response.setStatus(HttpStatus.FORBIDDEN.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), error);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -1,11 +1,14 @@
 package com.upi.security;
 
+import com.upi.web.RequestTiming;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import org.springframework.beans.factory.annotation.Autowired;
+import java.util.concurrent.TimeUnit;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -13,24 +16,51 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
-    @Autowired
-    private JwtTokenProvider tokenProvider;
+    private final JwtTokenProvider tokenProvider;
+    private final Timer authenticatedTimer;
+    private final Timer rejectedTimer;
+    private final Timer anonymousTimer;
+
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, MeterRegistry meterRegistry) {
+        this.tokenProvider = tokenProvider;
+        this.authenticatedTimer = filterTimer("authenticated", meterRegistry);
+        this.rejectedTimer = filterTimer("rejected", meterRegistry);
+        this.anonymousTimer = filterTimer("anonymous", meterRegistry);
+    }
+
+    private static Timer filterTimer(String result, MeterRegistry meterRegistry) {
+        return Timer.builder("auth.jwt.filter")
+                .description("Time spent authenticating the request's bearer token")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
+        long started = System.nanoTime();
+        Timer timer = anonymousTimer;
         try {
             String jwt = getJwtFromRequest(request);
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
+            // Verify and extract in one parse; null means invalid or expired
+            String username = StringUtils.hasText(jwt) ? tokenProvider.resolveUsername(jwt) : null;
+            if (username != null) {
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(username, null);
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+                timer = authenticatedTimer;
+            } else if (StringUtils.hasText(jwt)) {
+                timer = rejectedTimer;
             }
         } catch (Exception ex) {
+            timer = rejectedTimer;
             logger.error("Could not set user authentication", ex);
         }
+        long elapsed = System.nanoTime() - started;
+        timer.record(elapsed, TimeUnit.NANOSECONDS);
+        RequestTiming.record(RequestTiming.Phase.AUTH, elapsed);
         filterChain.doFilter(request, response);
     }
 
@@ -1,24 +1,59 @@
 package com.upi.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
 import javax.crypto.SecretKey;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 @Component
 public class JwtTokenProvider {
-    @Value("${app.jwt.secret:your_secret_key_min_32_characters_long_2024}")
-    private String jwtSecret;
+    private final long jwtExpirationMs;
+    private final int verifiedCacheSize;
 
-    @Value("${app.jwt.expiration:86400000}")
-    private long jwtExpirationMs;
+    // Built once; the JJWT parser is immutable and thread-safe
+    private final SecretKey signingKey;
+    private final JwtParser parser;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    // SHA-256 digest of recently verified tokens -> subject and expiry, so raw tokens are never retained.
+    // Access-ordered, so a full cache drops its least recently used token in O(1); guarded by cacheLock
+    private final LinkedHashMap<String, VerifiedToken> verifiedTokens;
+    private final ReentrantLock cacheLock = new ReentrantLock();
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    public JwtTokenProvider(@Value("${app.jwt.secret:your_secret_key_min_32_characters_long_2024}") String jwtSecret,
+                            @Value("${app.jwt.expiration:86400000}") long jwtExpirationMs,
+                            @Value("${app.jwt.verified-cache-size:10000}") int verifiedCacheSize) {
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.verifiedCacheSize = verifiedCacheSize;
+        this.verifiedTokens = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                return size() > JwtTokenProvider.this.verifiedCacheSize;
+            }
+        };
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
     }
 
     public String generateToken(String username, Long userId) {
@@ -27,10 +62,85 @@ public class JwtTokenProvider {
                 .claim("userId", userId)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
+    /**
+     * Verifies the token and returns its subject in a single parse.
+     * Tokens verified recently are answered from a bounded LRU cache until they expire.
+     *
+     * @return the username, or null if the token is invalid or expired
+     */
+    public String resolveUsername(String token) {
+        String digest = digest(token);
+        if (verifiedCacheSize > 0) {
+            VerifiedToken cached;
+            cacheLock.lock();
+            try {
+                cached = verifiedTokens.get(digest);
+                if (cached != null && cached.expiresAtMillis <= System.currentTimeMillis()) {
+                    verifiedTokens.remove(digest);
+                    return null;
+                }
+            } finally {
+                cacheLock.unlock();
+            }
+            if (cached != null) {
+                return cached.username;
+            }
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        if (claims.getExpiration() != null && verifiedCacheSize > 0) {
+            VerifiedToken verified = new VerifiedToken(claims.getSubject(), claims.getExpiration().getTime());
+            cacheLock.lock();
+            try {
+                verifiedTokens.put(digest, verified);
+            } finally {
+                cacheLock.unlock();
+            }
+        }
+        return claims.getSubject();
+    }
+
+    /**
+     * Drops expired tokens, so the cache does not hold them until they become least recently used.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.verified-cache-prune-interval-ms:60000}")
+    public void pruneExpiredTokens() {
+        long now = System.currentTimeMillis();
+        cacheLock.lock();
+        try {
+            verifiedTokens.values().removeIf(v -> v.expiresAtMillis <= now);
+        } finally {
+            cacheLock.unlock();
+        }
+    }
+
+    boolean isCached(String token) {
+        cacheLock.lock();
+        try {
+            return verifiedTokens.containsKey(digest(token));
+        } finally {
+            cacheLock.unlock();
+        }
+    }
+
+    int cachedTokens() {
+        cacheLock.lock();
+        try {
+            return verifiedTokens.size();
+        } finally {
+            cacheLock.unlock();
+        }
+    }
+
     public String getUsernameFromToken(String token) {
         return getClaims(token).getSubject();
     }
@@ -41,10 +151,7 @@ public class JwtTokenProvider {
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
+            parser.parseSignedClaims(token);
             return true;
         } catch (Exception e) {
             return false;
@@ -52,11 +159,7 @@ public class JwtTokenProvider {
     }
 
     private Claims getClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     public boolean isTokenExpired(String token) {
@@ -67,5 +170,11 @@ public class JwtTokenProvider {
             return true;
         }
     }
-}
 
+    private static String digest(String token) {
+        byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().withoutPadding().encodeToString(hash);
+    }
+
+    private record VerifiedToken(String username, long expiresAtMillis) {}
+}
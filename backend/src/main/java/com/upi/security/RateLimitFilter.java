@@ -0,0 +1,117 @@
+package com.upi.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upi.web.CachedBodyHttpServletRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Per-phone rate limiting for the expensive POST endpoints (dispute filing hits the bank,
+ * phone login hashes a password). The phone is read from the JSON body, which is buffered
+ * so the controller can still bind it; requests without a phone are keyed by remote address.
+ * Chunked bodies are buffered like the others, so dropping Content-Length does not dodge the
+ * per-phone limit; a body over 16KB, declared or not, is rejected with 413.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final int MAX_BUFFERED_BODY = 16 * 1024;
+
+    private final Map<String, TokenBucketRateLimiter> limitersByPath;
+    private final Map<String, Counter> rejectedByPath = new HashMap<>();
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(Map<String, TokenBucketRateLimiter> limitersByPath, ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry) {
+        this.limitersByPath = limitersByPath;
+        this.objectMapper = objectMapper;
+        for (Map.Entry<String, TokenBucketRateLimiter> entry : limitersByPath.entrySet()) {
+            TokenBucketRateLimiter limiter = entry.getValue();
+            rejectedByPath.put(entry.getKey(), Counter.builder("ratelimit.rejected")
+                    .description("Requests rejected by the per-phone rate limiter")
+                    .tag("limiter", limiter.getName())
+                    .register(meterRegistry));
+            Gauge.builder("ratelimit.buckets", limiter, TokenBucketRateLimiter::size)
+                    .description("Active rate limit buckets")
+                    .tag("limiter", limiter.getName())
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !limitersByPath.containsKey(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getServletPath();
+        long length = request.getContentLengthLong();
+        if (length > MAX_BUFFERED_BODY) {
+            writeError(response, HttpStatus.PAYLOAD_TOO_LARGE, "Payload too large",
+                    "Request body must not exceed " + MAX_BUFFERED_BODY + " bytes.");
+            return;
+        }
+        // Content-Length is -1 for a chunked body; read one byte past the cap to tell if it is over
+        byte[] body = request.getInputStream().readNBytes(MAX_BUFFERED_BODY + 1);
+        if (body.length > MAX_BUFFERED_BODY) {
+            writeError(response, HttpStatus.PAYLOAD_TOO_LARGE, "Payload too large",
+                    "Request body must not exceed " + MAX_BUFFERED_BODY + " bytes.");
+            return;
+        }
+        HttpServletRequest effectiveRequest = new CachedBodyHttpServletRequest(request, body);
+        String key = phoneFromBody(body);
+        if (key == null) {
+            key = "ip:" + request.getRemoteAddr();
+        }
+
+        long retryAfterMillis = limitersByPath.get(path).tryAcquire(key);
+        if (retryAfterMillis > 0) {
+            rejectedByPath.get(path).increment();
+            long retryAfterSeconds = Math.max(1, (retryAfterMillis + 999) / 1000);
+            response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+            writeError(response, HttpStatus.TOO_MANY_REQUESTS, "Too many requests",
+                    "Rate limit exceeded. Retry after " + retryAfterSeconds + " seconds.");
+            return;
+        }
+        filterChain.doFilter(effectiveRequest, response);
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String error, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        Map<String, String> body = new HashMap<>();
+        body.put("error", error);
+        body.put("message", message);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    // Idle buckets are dropped here rather than on the request path
+    @Scheduled(fixedDelayString = "${app.ratelimit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        limitersByPath.values().forEach(TokenBucketRateLimiter::evictIdle);
+    }
+
+    private String phoneFromBody(byte[] body) {
+        try {
+            JsonNode phone = objectMapper.readTree(body).path("phone");
+            return phone.isTextual() && !phone.asText().isBlank() ? "phone:" + phone.asText() : null;
+        } catch (IOException e) {
+            // Malformed JSON is rejected by the controller; key it by address here
+            return null;
+        }
+    }
+}
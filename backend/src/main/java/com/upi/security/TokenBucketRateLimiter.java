@@ -0,0 +1,140 @@
+package com.upi.security;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory token buckets keyed by client (phone number or remote address).
+ *
+ * Buckets live in a ConcurrentHashMap, so contention is limited to callers that share a key.
+ * Memory is bounded by maxKeys: idle buckets are evicted on a schedule (evictIdle), and when
+ * the map is full the least recently used tenth of the buckets is dropped in one pass, so a
+ * flood of new keys costs an amortised sort per key rather than a full scan, and a new key is
+ * never refused. An evicted client starts again with a full bucket.
+ */
+public class TokenBucketRateLimiter {
+    private final String name;
+    private final long capacity;
+    private final double tokensPerNano;
+    private final int maxKeys;
+    private final long idleTimeoutNanos;
+    private final LongSupplier nanoClock;
+
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    // One thread evicts for a full map; the others insert meanwhile, overshooting maxKeys by at most their number
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    public TokenBucketRateLimiter(String name, long capacity, long refillPerMinute, int maxKeys, long idleTimeoutSeconds) {
+        this(name, capacity, refillPerMinute, maxKeys, idleTimeoutSeconds, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(String name, long capacity, long refillPerMinute, int maxKeys, long idleTimeoutSeconds,
+                           LongSupplier nanoClock) {
+        this.name = name;
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        this.maxKeys = maxKeys;
+        this.idleTimeoutNanos = TimeUnit.SECONDS.toNanos(idleTimeoutSeconds);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Takes one token for the key.
+     *
+     * @return 0 if the request is allowed, otherwise the number of milliseconds until a token is available
+     */
+    public long tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                evictLeastRecentlyUsed();
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket(capacity, now));
+        }
+        return bucket.tryAcquire(now);
+    }
+
+    /**
+     * Drops buckets unused for the idle timeout; run periodically, not per request.
+     */
+    public void evictIdle() {
+        long cutoff = nanoClock.getAsLong() - idleTimeoutNanos;
+        buckets.forEach((key, bucket) -> {
+            if (bucket.lastUsed() < cutoff) {
+                buckets.remove(key, bucket);
+            }
+        });
+    }
+
+    private void evictLeastRecentlyUsed() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            if (buckets.size() < maxKeys) {
+                return;
+            }
+            long[] lastUsed = buckets.values().stream().mapToLong(Bucket::lastUsed).toArray();
+            if (lastUsed.length == 0) {
+                return;
+            }
+            Arrays.sort(lastUsed);
+            long cutoff = lastUsed[Math.min(lastUsed.length - 1, Math.max(1, lastUsed.length / 10) - 1)];
+            for (Map.Entry<String, Bucket> entry : buckets.entrySet()) {
+                if (entry.getValue().lastUsed() <= cutoff) {
+                    buckets.remove(entry.getKey(), entry.getValue());
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    // A ReentrantLock rather than synchronized: a virtual thread waiting on a monitor pins its carrier
+    private final class Bucket {
+        private final ReentrantLock lock = new ReentrantLock();
+        private double tokens;
+        // Written under the lock; volatile so eviction can read it without taking every bucket's lock
+        private volatile long lastRefill;
+
+        Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.lastRefill = now;
+        }
+
+        long tryAcquire(long now) {
+            lock.lock();
+            try {
+                if (now > lastRefill) {
+                    tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+                    lastRefill = now;
+                }
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return 0;
+                }
+                long waitNanos = (long) Math.ceil((1 - tokens) / tokensPerNano);
+                return Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long lastUsed() {
+            return lastRefill;
+        }
+    }
+}
@@ -8,13 +8,16 @@ import com.upi.dto.UserResponse;
 import com.upi.model.User;
 import com.upi.repository.UserRepository;
 import com.upi.security.JwtTokenProvider;
+import com.upi.service.UserCache.CachedUser;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class AuthService {
     @Autowired
     private UserRepository userRepository;
@@ -25,6 +28,9 @@ public class AuthService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserCache userCache;
+
     public UserResponse register(RegisterRequest request) throws Exception{
         if (userRepository.existsByUsername(request.getUsername())) {
             throw new Exception("Username is already registered");
@@ -44,6 +50,7 @@ public class AuthService {
         user.setAddress(request.getAddress());
 
         User savedUser = userRepository.save(user);
+        userCache.invalidate(savedUser);
         return convertToResponse(savedUser);
     }
 
@@ -66,54 +73,55 @@ public class AuthService {
     public LoginResponse phoneLogin(PhoneLoginRequest request) throws Exception {
         String phone = request.getPhone();
         String password = request.getPassword();
-        
-        // Check if user with this phone exists
-        Optional<User> existingUser = userRepository.findByPhone(phone);
-        
-        User user;
-        if (existingUser.isPresent()) {
+
+        // Find or create in one step; concurrent first logins for a phone share one insert
+        AtomicBoolean created = new AtomicBoolean();
+        CachedUser user = userCache.findOrCreateByPhone(phone, () -> {
+            created.set(true);
+            return userRepository.save(newPhoneUser(phone, password));
+        });
+
+        if (!created.get()) {
             // User exists - verify password if provided
-            user = existingUser.get();
-            
-            if (!user.getIsActive()) {
+            if (!user.active()) {
                 throw new Exception("Account is disabled");
             }
-            
+
             // If password is provided, verify it
             if (password != null && !password.isEmpty()) {
-                if (!passwordEncoder.matches(password, user.getPassword())) {
+                if (!passwordEncoder.matches(password, user.passwordHash())) {
                     throw new Exception("Invalid password");
                 }
             }
+        }
+
+        String token = jwtTokenProvider.generateToken(user.username(), user.id());
+        return new LoginResponse(token, user.username(), user.email(), user.fullName(), user.id(), user.verified(), user.createdAt());
+    }
+
+    private User newPhoneUser(String phone, String password) {
+        User user = new User();
+        user.setPhone(phone);
+        user.setUsername("user_" + phone.replaceAll("[^0-9]", "")); // username from phone
+        user.setEmail(phone.replaceAll("[^0-9]", "") + "@upi.temp"); // temp email
+
+        // Use provided password or auto-generate one
+        if (password != null && !password.isEmpty()) {
+            user.setPassword(passwordEncoder.encode(password));
         } else {
-            // User doesn't exist - create new profile
-            user = new User();
-            user.setPhone(phone);
-            user.setUsername("user_" + phone.replaceAll("[^0-9]", "")); // username from phone
-            user.setEmail(phone.replaceAll("[^0-9]", "") + "@upi.temp"); // temp email
-            
-            // Use provided password or auto-generate one
-            if (password != null && !password.isEmpty()) {
-                user.setPassword(passwordEncoder.encode(password));
-            } else {
-                user.setPassword(passwordEncoder.encode("temp_" + System.currentTimeMillis())); // auto-generated password
-            }
-            
-            user.setFullName("User " + phone);
-            user.setIsActive(true);
-            user.setIsVerified(false);
-            
-            user = userRepository.save(user);
+            user.setPassword(passwordEncoder.encode("temp_" + System.currentTimeMillis())); // auto-generated password
         }
-        
-        String token = jwtTokenProvider.generateToken(user.getUsername(), user.getId());
-        return new LoginResponse(token, user.getUsername(), user.getEmail(), user.getFullName(), user.getId(), user.getIsVerified(), user.getCreatedAt());
+
+        user.setFullName("User " + phone);
+        user.setIsActive(true);
+        user.setIsVerified(false);
+        return user;
     }
 
     public UserResponse getUserProfile(String username) throws Exception {
-        User user = userRepository.findByUsername(username)
+        return userCache.findByUsername(username)
+                .map(CachedUser::toResponse)
                 .orElseThrow(() -> new Exception("User not found"));
-        return convertToResponse(user);
     }
 
     public UserResponse updateUserProfile(String username, RegisterRequest request) throws Exception {
@@ -125,6 +133,7 @@ public class AuthService {
         user.setAddress(request.getAddress());
 
         User updatedUser = userRepository.save(user);
+        userCache.invalidate(updatedUser);
         return convertToResponse(updatedUser);
     }
 
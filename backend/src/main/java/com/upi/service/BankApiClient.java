@@ -0,0 +1,368 @@
+package com.upi.service;
+
+import com.upi.jfr.BankVerificationEvent;
+import com.upi.logging.LogThrottle;
+import com.upi.web.RequestTiming;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Client for the mock bank API.
+ */
+@Component
+public class BankApiClient {
+    private static final Logger logger = LoggerFactory.getLogger(BankApiClient.class);
+    // When the bank is down every filing fails the same way; one stack trace a second is plenty
+    private static final LogThrottle FAILURE_LOG = LogThrottle.perSecond(1);
+    private static final LogThrottle ANOMALY_LOG = LogThrottle.perSecond(10);
+
+    private final String bankApiUrl;
+    private final String bankApiKey;
+    private final RestTemplate restTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timersByOutcome = new ConcurrentHashMap<>();
+    private final Map<String, Timer> refundTimersByOutcome = new ConcurrentHashMap<>();
+
+    public BankApiClient(@Value("${app.bank.url:http://host.docker.internal:8080}") String bankApiUrl,
+                         @Value("${app.bank.api-key:upi-dispute-resolver-secret-key-2024}") String bankApiKey,
+                         MeterRegistry meterRegistry) {
+        this.bankApiUrl = bankApiUrl;
+        this.bankApiKey = bankApiKey;
+        this.restTemplate = new RestTemplate();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Looks the transaction up in the bank and decides the verification outcome.
+     * Never throws: if the bank cannot be reached the outcome falls back on the amount.
+     *
+     * @return one of the {@link BankVerificationDecision} outcomes
+     */
+    public String verifyTransaction(String transactionId, Double disputeAmount) {
+        BankVerificationEvent event = new BankVerificationEvent();
+        event.begin();
+        long started = System.nanoTime();
+        String outcome = "exception";
+        try {
+            outcome = callBank(transactionId, disputeAmount);
+            return outcome;
+        } catch (Exception e) {
+            return whenCallFailed(transactionId, disputeAmount, e);
+        } finally {
+            long elapsed = System.nanoTime() - started;
+            RequestTiming.record(RequestTiming.Phase.BANK, elapsed);
+            recordVerification(event, transactionId, outcome, elapsed);
+        }
+    }
+
+    private String callBank(String transactionId, Double disputeAmount) {
+        logger.debug("Calling mock bank API for transaction {}", transactionId);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("x-api-key", bankApiKey);
+        HttpEntity<String> entity = new HttpEntity<>(headers);
+
+        String url = bankApiUrl + "/bank/transaction/" + transactionId;
+        ResponseEntity<BankApiResponse> response = restTemplate.exchange(
+            url,
+            HttpMethod.GET,
+            entity,
+            BankApiResponse.class
+        );
+        return decide(transactionId, disputeAmount, response.getStatusCode().value(), response.getBody());
+    }
+
+    // Shared with ReactiveBankApiClient so both stacks reach the same outcome for the same answer
+
+    /**
+     * Turns the bank's answer into a verification outcome, logging (throttled) when it looks wrong.
+     */
+    static String decide(String transactionId, Double disputeAmount, int httpStatus, BankApiResponse body) {
+        if (httpStatus >= 200 && httpStatus < 300 && body != null && body.getData() != null) {
+            BankTransactionData bankData = body.getData();
+            logger.debug("Bank API response for {}: status={} amount={}", transactionId, bankData.getStatus(), bankData.getAmount());
+
+            String decision = BankVerificationDecision.decide(bankData.getStatus(), bankData.getAmount(), disputeAmount);
+            if (BankVerificationDecision.AMOUNT_MISMATCH.equals(decision) && ANOMALY_LOG.tryAcquire()) {
+                logger.atWarn().setMessage("Amount mismatch between bank and dispute")
+                        .addKeyValue("transactionId", transactionId)
+                        .addKeyValue("bankAmount", bankData.getAmount())
+                        .addKeyValue("disputeAmount", disputeAmount)
+                        .addKeyValue("suppressed", ANOMALY_LOG.suppressed())
+                        .log();
+            }
+            return decision;
+        }
+
+        if (ANOMALY_LOG.tryAcquire()) {
+            logger.atWarn().setMessage("Bank API returned no transaction")
+                    .addKeyValue("transactionId", transactionId)
+                    .addKeyValue("httpStatus", httpStatus)
+                    .addKeyValue("suppressed", ANOMALY_LOG.suppressed())
+                    .log();
+        }
+        return BankVerificationDecision.UNKNOWN;
+    }
+
+    /**
+     * Outcome when the bank could not be asked or answered with an error: falls back on the amount.
+     */
+    static String whenCallFailed(String transactionId, Double disputeAmount, Throwable e) {
+        if (FAILURE_LOG.tryAcquire()) {
+            logger.atError().setMessage("Bank API call failed; falling back on the amount")
+                    .addKeyValue("transactionId", transactionId)
+                    .addKeyValue("suppressed", FAILURE_LOG.suppressed())
+                    .setCause(e)
+                    .log();
+        }
+        return BankVerificationDecision.whenBankUnavailable(disputeAmount);
+    }
+
+    /**
+     * Records the verification timer and commits the JFR event. The outcome is "exception" when
+     * the bank gave no answer and the amount fallback applied.
+     */
+    void recordVerification(BankVerificationEvent event, String transactionId, String outcome, long elapsedNanos) {
+        timer(outcome).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        event.end();
+        if (event.shouldCommit()) {
+            event.transactionId = transactionId;
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
+    private Timer timer(String outcome) {
+        return timersByOutcome.computeIfAbsent(outcome, o -> Timer.builder("bank.verification")
+                .description("Latency of transaction verification calls to the bank")
+                .tag("outcome", o)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    /**
+     * Sends refunds to the bank's batch endpoint in one call. Does not retry: that is up to the caller.
+     *
+     * @return the bank's result for each item, in request order
+     * @throws RestClientException if the bank cannot be reached, answers with an error status, or
+     *                             does not return one result per item
+     */
+    public List<BankRefundResult> submitRefunds(List<RefundItem> items) {
+        long started = System.nanoTime();
+        String outcome = "exception";
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set("x-api-key", bankApiKey);
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            HttpEntity<BatchRefundRequest> entity = new HttpEntity<>(new BatchRefundRequest(items), headers);
+
+            ResponseEntity<BatchRefundApiResponse> response = restTemplate.exchange(
+                bankApiUrl + "/bank/refund/batch",
+                HttpMethod.POST,
+                entity,
+                BatchRefundApiResponse.class
+            );
+            BatchRefundApiResponse body = response.getBody();
+            if (body == null || body.getData() == null || body.getData().getResults() == null
+                    || body.getData().getResults().size() != items.size()) {
+                throw new RestClientException("Bank returned no per-item results for a batch of " + items.size());
+            }
+            outcome = "ok";
+            return body.getData().getResults();
+        } catch (HttpStatusCodeException e) {
+            outcome = Integer.toString(e.getStatusCode().value());
+            throw e;
+        } finally {
+            refundTimer(outcome).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Tagged "ok", the HTTP status of an error answer, or "exception"
+    private Timer refundTimer(String outcome) {
+        return refundTimersByOutcome.computeIfAbsent(outcome, o -> Timer.builder("bank.refund.batch")
+                .description("Latency of batch refund calls to the bank")
+                .tag("outcome", o)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    // Inner class for bank API response wrapper
+    static class BankApiResponse {
+        private boolean success;
+        private String message;
+        private BankTransactionData data;
+
+        public boolean isSuccess() { return success; }
+        public void setSuccess(boolean success) { this.success = success; }
+
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+
+        public BankTransactionData getData() { return data; }
+        public void setData(BankTransactionData data) { this.data = data; }
+    }
+
+    // Inner class for actual transaction data
+    static class BankTransactionData {
+        private String transaction_id;
+        private Double amount;
+        private String status;
+        private String timestamp;
+        private String payer_id;
+        private String payee_id;
+        private String description;
+
+        public String getTransaction_id() { return transaction_id; }
+        public void setTransaction_id(String transaction_id) { this.transaction_id = transaction_id; }
+
+        public Double getAmount() { return amount; }
+        public void setAmount(Double amount) { this.amount = amount; }
+
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+
+        public String getTimestamp() { return timestamp; }
+        public void setTimestamp(String timestamp) { this.timestamp = timestamp; }
+
+        public String getPayer_id() { return payer_id; }
+        public void setPayer_id(String payer_id) { this.payer_id = payer_id; }
+
+        public String getPayee_id() { return payee_id; }
+        public void setPayee_id(String payee_id) { this.payee_id = payee_id; }
+
+        public String getDescription() { return description; }
+        public void setDescription(String description) { this.description = description; }
+    }
+
+    // One refund in a batch refund request
+    static class RefundItem {
+        private String transactionId;
+        private String reason;
+        private String idempotencyKey;
+        // The bank only refunds FAILED transactions as dispute reversals; plain refunds need SUCCESS ones
+        private boolean disputeReversal;
+
+        RefundItem(String transactionId, String reason, String idempotencyKey, boolean disputeReversal) {
+            this.transactionId = transactionId;
+            this.reason = reason;
+            this.idempotencyKey = idempotencyKey;
+            this.disputeReversal = disputeReversal;
+        }
+
+        public String getTransactionId() { return transactionId; }
+        public String getReason() { return reason; }
+        public String getIdempotencyKey() { return idempotencyKey; }
+        public boolean isDisputeReversal() { return disputeReversal; }
+    }
+
+    // Inner class for the batch refund request body
+    static class BatchRefundRequest {
+        private List<RefundItem> refunds;
+
+        BatchRefundRequest(List<RefundItem> refunds) {
+            this.refunds = refunds;
+        }
+
+        public List<RefundItem> getRefunds() { return refunds; }
+    }
+
+    // Inner class for the batch refund response wrapper
+    static class BatchRefundApiResponse {
+        private boolean success;
+        private String message;
+        private BatchRefundData data;
+
+        public boolean isSuccess() { return success; }
+        public void setSuccess(boolean success) { this.success = success; }
+
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+
+        public BatchRefundData getData() { return data; }
+        public void setData(BatchRefundData data) { this.data = data; }
+    }
+
+    // Inner class for batch refund totals and per-item results
+    static class BatchRefundData {
+        private int total;
+        private int succeeded;
+        private int failed;
+        private List<BankRefundResult> results;
+
+        public int getTotal() { return total; }
+        public void setTotal(int total) { this.total = total; }
+
+        public int getSucceeded() { return succeeded; }
+        public void setSucceeded(int succeeded) { this.succeeded = succeeded; }
+
+        public int getFailed() { return failed; }
+        public void setFailed(int failed) { this.failed = failed; }
+
+        public List<BankRefundResult> getResults() { return results; }
+        public void setResults(List<BankRefundResult> results) { this.results = results; }
+    }
+
+    // Inner class for the outcome of one refund in a batch
+    static class BankRefundResult {
+        private String transaction_id;
+        private boolean success;
+        private int status_code;
+        private String error;
+        private BankRefundData refund;
+
+        public String getTransaction_id() { return transaction_id; }
+        public void setTransaction_id(String transaction_id) { this.transaction_id = transaction_id; }
+
+        public boolean isSuccess() { return success; }
+        public void setSuccess(boolean success) { this.success = success; }
+
+        public int getStatus_code() { return status_code; }
+        public void setStatus_code(int status_code) { this.status_code = status_code; }
+
+        public String getError() { return error; }
+        public void setError(String error) { this.error = error; }
+
+        public BankRefundData getRefund() { return refund; }
+        public void setRefund(BankRefundData refund) { this.refund = refund; }
+    }
+
+    // Inner class for a refund recorded by the bank
+    static class BankRefundData {
+        private Long refund_id;
+        private String transaction_id;
+        private Double amount;
+        private String status;
+        private String idempotency_key;
+
+        public Long getRefund_id() { return refund_id; }
+        public void setRefund_id(Long refund_id) { this.refund_id = refund_id; }
+
+        public String getTransaction_id() { return transaction_id; }
+        public void setTransaction_id(String transaction_id) { this.transaction_id = transaction_id; }
+
+        public Double getAmount() { return amount; }
+        public void setAmount(Double amount) { this.amount = amount; }
+
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+
+        public String getIdempotency_key() { return idempotency_key; }
+        public void setIdempotency_key(String idempotency_key) { this.idempotency_key = idempotency_key; }
+    }
+}
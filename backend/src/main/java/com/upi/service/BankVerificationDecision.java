@@ -0,0 +1,50 @@
+package com.upi.service;
+
+/**
+ * Decides a dispute's verification outcome from what the bank reports for the transaction.
+ * Pure and side-effect free, so it can be tested and benchmarked without a bank.
+ */
+public final class BankVerificationDecision {
+    public static final String VERIFIED_FAILURE = "VERIFIED_FAILURE";
+    public static final String FALSE_CLAIM = "FALSE_CLAIM";
+    public static final String HIGH_AMOUNT = "HIGH_AMOUNT";
+    public static final String AMOUNT_MISMATCH = "AMOUNT_MISMATCH";
+    public static final String UNKNOWN = "UNKNOWN";
+
+    public static final double HIGH_AMOUNT_THRESHOLD = 5000.0;
+    private static final double AMOUNT_TOLERANCE = 0.01;
+
+    private BankVerificationDecision() {}
+
+    /**
+     * @param bankStatus    transaction status reported by the bank, e.g. FAILED or SUCCESS
+     * @param bankAmount    transaction amount reported by the bank
+     * @param disputeAmount amount claimed in the dispute
+     */
+    public static String decide(String bankStatus, double bankAmount, double disputeAmount) {
+        // Transaction succeeded in the bank - this is a false claim
+        if (!"FAILED".equalsIgnoreCase(bankStatus)) {
+            return FALSE_CLAIM;
+        }
+
+        // Check if amounts match (with tolerance for floating point)
+        if (Math.abs(bankAmount - disputeAmount) > AMOUNT_TOLERANCE) {
+            return AMOUNT_MISMATCH;
+        }
+
+        // For high amounts, send to manual review
+        if (disputeAmount >= HIGH_AMOUNT_THRESHOLD) {
+            return HIGH_AMOUNT;
+        }
+
+        // Low amount failed transaction - auto approve refund
+        return VERIFIED_FAILURE;
+    }
+
+    /**
+     * Outcome when the bank cannot be reached: approve small amounts, review large amounts.
+     */
+    public static String whenBankUnavailable(double disputeAmount) {
+        return disputeAmount < HIGH_AMOUNT_THRESHOLD ? VERIFIED_FAILURE : HIGH_AMOUNT;
+    }
+}
@@ -2,38 +2,91 @@ package com.upi.service;
 
 import com.upi.dto.DisputeRequest;
 import com.upi.dto.DisputeResponse;
+import com.upi.dto.DisputeStatsResponse;
+import com.upi.dto.MerchantVelocityResponse;
+import com.upi.jfr.DbWriteBatchEvent;
+import com.upi.jfr.DisputeFiledEvent;
+import com.upi.logging.LogThrottle;
 import com.upi.model.Dispute;
 import com.upi.repository.DisputeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
-import java.util.logging.Logger;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 public class DisputeService {
-    private static final Logger logger = Logger.getLogger(DisputeService.class.getName());
-    private static final String MOCK_BANK_API_URL = "http://host.docker.internal:8080";
-    private static final String MOCK_BANK_API_KEY = "upi-dispute-resolver-secret-key-2024";
-    private static final double HIGH_AMOUNT_THRESHOLD = 5000.0;
-    
+    private static final Logger logger = LoggerFactory.getLogger(DisputeService.class);
+    // One summary line per filed dispute, capped so a filing burst cannot flood the log
+    private static final LogThrottle FILED_LOG = LogThrottle.perSecond(50);
+    private static final LogThrottle HOT_MERCHANT_LOG = LogThrottle.perSecond(5);
+
     private final DisputeRepository disputeRepository;
-    private final RestTemplate restTemplate;
+    private final DisputeStatsService disputeStatsService;
+    private final MerchantVelocityTracker merchantVelocityTracker;
+    private final BankApiClient bankApiClient;
+    private final RefundDispatcher refundDispatcher;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> fileTimersByOutcome = new ConcurrentHashMap<>();
 
-    public DisputeService(DisputeRepository disputeRepository) {
+    public DisputeService(DisputeRepository disputeRepository, DisputeStatsService disputeStatsService,
+                          MerchantVelocityTracker merchantVelocityTracker, BankApiClient bankApiClient,
+                          RefundDispatcher refundDispatcher, MeterRegistry meterRegistry) {
         this.disputeRepository = disputeRepository;
-        this.restTemplate = new RestTemplate();
+        this.disputeStatsService = disputeStatsService;
+        this.merchantVelocityTracker = merchantVelocityTracker;
+        this.bankApiClient = bankApiClient;
+        this.refundDispatcher = refundDispatcher;
+        this.meterRegistry = meterRegistry;
     }
 
     public DisputeResponse fileDispute(DisputeRequest request) {
-        logger.info("Filing dispute for transaction: " + request.getTransactionId());
+        DisputeFiledEvent event = new DisputeFiledEvent();
+        event.begin();
+        long started = System.nanoTime();
+        String outcome = "error";
+        try {
+            DisputeResponse response = fileAndVerify(request, event);
+            outcome = response.getStatus();
+            event.disputeId = response.getId() == null ? 0 : response.getId();
+            return response;
+        } catch (IllegalArgumentException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            recordFiling(request, event, outcome, started);
+        }
+    }
+
+    private DisputeResponse fileAndVerify(DisputeRequest request, DisputeFiledEvent event) {
+        Dispute dispute = newDispute(request);
+
+        long merchantVelocity = recordMerchantDispute(request.getMerchantUPI());
+        String verificationResult = bankApiClient.verifyTransaction(request.getTransactionId(), request.getAmount());
+        event.bankOutcome = verificationResult;
+
+        applyVerification(dispute, verificationResult, merchantVelocity);
+        return mapToResponse(saveFiled(dispute, verificationResult));
+    }
+
+    // The filing steps below are shared with ReactiveDisputeService, which runs the bank call
+    // between them without blocking
+
+    /**
+     * Rejects a duplicate filing and builds the unsaved dispute. Blocking: reads the database.
+     */
+    Dispute newDispute(DisputeRequest request) {
+        logger.debug("Filing dispute for transaction {}", request.getTransactionId());
 
         // Check for duplicates
         Optional<Dispute> existing = disputeRepository.findByTransactionId(request.getTransactionId());
@@ -41,30 +94,44 @@ public class DisputeService {
             throw new IllegalArgumentException("Dispute already filed for this transaction");
         }
 
-        // Create new dispute
         Dispute dispute = new Dispute();
         dispute.setTransactionId(request.getTransactionId());
         dispute.setMerchantUPI(request.getMerchantUPI());
         dispute.setAmount(request.getAmount());
         dispute.setPhone(request.getPhone());
         dispute.setReason(request.getReason());
+        return dispute;
+    }
 
-        // Simulate bank verification API call (2 second delay)
-        String verificationResult = callBankVerificationAPI(request.getTransactionId(), request.getAmount());
-        logger.info("Bank verification result: " + verificationResult);
+    // Track dispute velocity against this merchant (bursts indicate fraud rings or merchant outages)
+    long recordMerchantDispute(String merchantUPI) {
+        return merchantVelocityTracker.record(merchantUPI);
+    }
 
-        // Decide dispute outcome based on amount and verification
-        if (verificationResult.equals("VERIFIED_FAILURE")) {
+    /**
+     * Decides the dispute outcome from the bank's verification result and the merchant's recent
+     * dispute count.
+     */
+    void applyVerification(Dispute dispute, String verificationResult, long merchantVelocity) {
+        if (verificationResult.equals("VERIFIED_FAILURE") && merchantVelocityTracker.isHot(merchantVelocity)) {
+            // Burst of disputes against this merchant - hold the refund for review
+            dispute.setStatus(Dispute.DisputeStatus.MANUAL_REVIEW);
+            dispute.setRemarks("Unusual dispute volume for this merchant - pending review.");
+            if (HOT_MERCHANT_LOG.tryAcquire()) {
+                logger.atWarn().setMessage("Unusual dispute volume for merchant - routing to manual review")
+                        .addKeyValue("merchantUPI", dispute.getMerchantUPI())
+                        .addKeyValue("recentDisputes", merchantVelocity)
+                        .addKeyValue("suppressed", HOT_MERCHANT_LOG.suppressed())
+                        .log();
+            }
+        } else if (verificationResult.equals("VERIFIED_FAILURE")) {
             // Small amount disputes - auto approve immediately
             dispute.setStatus(Dispute.DisputeStatus.VERIFIED_FAILURE);
-            dispute.setNeftReference("NEFT" + UUID.randomUUID().toString().substring(0, 12).toUpperCase());
             dispute.setRemarks("Transaction verified as failed. Refund initiated.");
-            logger.info("Refund initiated with NEFT reference: " + dispute.getNeftReference());
         } else if (verificationResult.equals("FALSE_CLAIM")) {
             // Transaction was successful - reject the claim
             dispute.setStatus(Dispute.DisputeStatus.FALSE_CLAIM);
             dispute.setRemarks("Transaction completed successfully. No refund applicable.");
-            logger.info("False claim detected - Dispute rejected");
         } else if (verificationResult.equals("HIGH_AMOUNT")) {
             // High amount disputes - send to manual review (will be auto-approved by scheduler in 5 seconds)
             dispute.setStatus(Dispute.DisputeStatus.MANUAL_REVIEW);
@@ -74,11 +141,56 @@ public class DisputeService {
             dispute.setStatus(Dispute.DisputeStatus.MANUAL_REVIEW);
             dispute.setRemarks("Requires manual review by bank");
         }
+    }
 
-        // Save to database
+    /**
+     * Saves the decided dispute, counts it in the stats and queues its refund if it was approved.
+     * Blocking: writes the database, but never waits on the refund itself.
+     */
+    Dispute saveFiled(Dispute dispute, String verificationResult) {
+        DbWriteBatchEvent write = new DbWriteBatchEvent();
+        write.begin();
         dispute = disputeRepository.save(dispute);
+        commitWrite(write, "dispute.insert", 1);
+        disputeStatsService.recordCreated(dispute);
+        if (dispute.getStatus() == Dispute.DisputeStatus.VERIFIED_FAILURE) {
+            refundDispatcher.submit(dispute.getId());
+        }
 
-        return mapToResponse(dispute);
+        if (logger.isInfoEnabled() && FILED_LOG.tryAcquire()) {
+            logger.atInfo().setMessage("Dispute filed")
+                    .addKeyValue("disputeId", dispute.getId())
+                    .addKeyValue("transactionId", dispute.getTransactionId())
+                    .addKeyValue("status", dispute.getStatus())
+                    .addKeyValue("bankOutcome", verificationResult)
+                    .addKeyValue("suppressed", FILED_LOG.suppressed())
+                    .log();
+        }
+        return dispute;
+    }
+
+    /**
+     * Records the filing timer and commits the JFR event once the outcome is known.
+     */
+    void recordFiling(DisputeRequest request, DisputeFiledEvent event, String outcome, long started) {
+        fileTimer(outcome).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        event.end();
+        if (event.shouldCommit()) {
+            event.transactionId = request.getTransactionId();
+            event.merchantUPI = request.getMerchantUPI();
+            event.amount = request.getAmount() == null ? 0 : request.getAmount();
+            event.status = outcome;
+            event.commit();
+        }
+    }
+
+    // Tagged by the resulting dispute status, "rejected" for duplicates, or "error"
+    private Timer fileTimer(String outcome) {
+        return fileTimersByOutcome.computeIfAbsent(outcome, o -> Timer.builder("dispute.file")
+                .description("End to end time to file a dispute, including bank verification")
+                .tag("outcome", o)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
     }
 
     public DisputeResponse getDisputeStatus(Long disputeId) {
@@ -88,127 +200,58 @@ public class DisputeService {
     }
 
     public List<DisputeResponse> getUserDisputes(String phone) {
-        logger.info("Fetching disputes for phone: " + phone);
+        logger.debug("Fetching disputes for phone {}", phone);
         List<Dispute> disputes = disputeRepository.findByPhone(phone);
         return disputes.stream()
-            .map(this::mapToResponse)
+            .map(DisputeService::mapToResponse)
             .collect(Collectors.toList());
     }
 
+    public DisputeStatsResponse getDisputeStats(int merchantLimit, int hours) {
+        return disputeStatsService.getStats(merchantLimit, hours);
+    }
+
+    public List<MerchantVelocityResponse> getTopMerchantsByVelocity(int limit) {
+        return merchantVelocityTracker.topMerchants(limit);
+    }
+
     @Transactional
     public void deleteUserDisputes(String phone) {
-        logger.info("Deleting all disputes for phone: " + phone);
-        disputeRepository.deleteByPhone(phone);
-        logger.info("Successfully deleted disputes for phone: " + phone);
+        logger.info("Deleting all disputes for phone {}", phone);
+        List<Dispute> disputes = disputeRepository.findByPhone(phone);
+        DbWriteBatchEvent write = new DbWriteBatchEvent();
+        write.begin();
+        disputeRepository.deleteAll(disputes);
+        commitWrite(write, "dispute.delete", disputes.size());
+        // The stats must not drop disputes whose delete is then rolled back
+        afterCommit(() -> disputes.forEach(disputeStatsService::recordRemoved));
+        logger.info("Deleted {} disputes for phone {}", disputes.size(), phone);
     }
 
-    private String callBankVerificationAPI(String transactionId, Double disputeAmount) {
-        try {
-            logger.info("Calling mock bank API for transaction: " + transactionId);
-            
-            // Call actual mock bank API
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("x-api-key", MOCK_BANK_API_KEY);
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            
-            String url = MOCK_BANK_API_URL + "/bank/transaction/" + transactionId;
-            ResponseEntity<BankApiResponse> response = restTemplate.exchange(
-                url, 
-                HttpMethod.GET, 
-                entity, 
-                BankApiResponse.class
-            );
-            
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null && response.getBody().getData() != null) {
-                BankTransactionData bankData = response.getBody().getData();
-                logger.info("Bank API response - Status: " + bankData.getStatus() + ", Amount: " + bankData.getAmount());
-                
-                // Check if transaction failed in bank
-                if ("FAILED".equalsIgnoreCase(bankData.getStatus())) {
-                    logger.info("Transaction failed in bank - Processing refund");
-                    
-                    // Check if amounts match (with tolerance for floating point)
-                    if (Math.abs(bankData.getAmount() - disputeAmount) > 0.01) {
-                        logger.warning("Amount mismatch! Bank: " + bankData.getAmount() + ", Dispute: " + disputeAmount);
-                        return "AMOUNT_MISMATCH";
-                    }
-                    
-                    // For high amounts, send to manual review
-                    if (disputeAmount >= HIGH_AMOUNT_THRESHOLD) {
-                        logger.info("High amount failed transaction (>=" + HIGH_AMOUNT_THRESHOLD + ") - Sending to manual review");
-                        return "HIGH_AMOUNT";
-                    }
-                    
-                    // Low amount failed transaction - auto approve refund
-                    logger.info("Transaction verified as failed - Auto approving refund");
-                    return "VERIFIED_FAILURE";
-                }
-                
-                // Transaction succeeded - this is a false claim!
-                logger.warning("Transaction was successful - Rejecting false claim");
-                return "FALSE_CLAIM";
+    // Runs the action once the surrounding transaction commits, or at once when there is none
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
             }
-            
-            logger.warning("Bank API returned non-success status: " + response.getStatusCode());
-            return "UNKNOWN";
-            
-        } catch (Exception e) {
-            logger.severe("Bank API call failed: " + e.getMessage());
-            e.printStackTrace();
-            // On API failure, approve small amounts, review large amounts
-            return disputeAmount < HIGH_AMOUNT_THRESHOLD ? "VERIFIED_FAILURE" : "HIGH_AMOUNT";
+        });
+    }
+
+    private static void commitWrite(DbWriteBatchEvent write, String operation, int rows) {
+        write.end();
+        if (write.shouldCommit()) {
+            write.operation = operation;
+            write.rows = rows;
+            write.commit();
         }
     }
-    
-    // Inner class for bank API response wrapper
-    private static class BankApiResponse {
-        private boolean success;
-        private String message;
-        private BankTransactionData data;
-        
-        public boolean isSuccess() { return success; }
-        public void setSuccess(boolean success) { this.success = success; }
-        
-        public String getMessage() { return message; }
-        public void setMessage(String message) { this.message = message; }
-        
-        public BankTransactionData getData() { return data; }
-        public void setData(BankTransactionData data) { this.data = data; }
-    }
-    
-    // Inner class for actual transaction data
-    private static class BankTransactionData {
-        private String transaction_id;
-        private Double amount;
-        private String status;
-        private String timestamp;
-        private String payer_id;
-        private String payee_id;
-        private String description;
-        
-        public String getTransaction_id() { return transaction_id; }
-        public void setTransaction_id(String transaction_id) { this.transaction_id = transaction_id; }
-        
-        public Double getAmount() { return amount; }
-        public void setAmount(Double amount) { this.amount = amount; }
-        
-        public String getStatus() { return status; }
-        public void setStatus(String status) { this.status = status; }
-        
-        public String getTimestamp() { return timestamp; }
-        public void setTimestamp(String timestamp) { this.timestamp = timestamp; }
-        
-        public String getPayer_id() { return payer_id; }
-        public void setPayer_id(String payer_id) { this.payer_id = payer_id; }
-        
-        public String getPayee_id() { return payee_id; }
-        public void setPayee_id(String payee_id) { this.payee_id = payee_id; }
-        
-        public String getDescription() { return description; }
-        public void setDescription(String description) { this.description = description; }
-    }
-
-    private DisputeResponse mapToResponse(Dispute dispute) {
+
+    public static DisputeResponse mapToResponse(Dispute dispute) {
         DisputeResponse response = new DisputeResponse();
         response.setId(dispute.getId());
         response.setDisputeId("DIS_" + String.format("%06d", dispute.getId()));
@@ -218,6 +261,7 @@ public class DisputeService {
         response.setPhone(dispute.getPhone());
         response.setStatus(dispute.getStatus().toString());
         response.setNeftReference(dispute.getNeftReference());
+        response.setBankRefundId(dispute.getBankRefundId());
         response.setRemarks(dispute.getRemarks());
         response.setCreatedAt(dispute.getCreatedAt());
         response.setVerifiedAt(dispute.getVerifiedAt());
@@ -0,0 +1,234 @@
+package com.upi.service;
+
+import com.upi.dto.DisputeStatsResponse;
+import com.upi.model.Dispute;
+import com.upi.repository.DisputeRepository;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-memory dispute aggregates for the ops dashboard.
+ *
+ * Counts and amount sums are kept per status, per merchant and per creation hour,
+ * and are updated incrementally by DisputeService and the auto-approval scheduler,
+ * so reading them never touches the database. The aggregates are rebuilt once with
+ * a streaming scan before the web server starts accepting requests.
+ *
+ * Memory stays bounded: hourly buckets are kept for app.stats.hour-retention-hours and
+ * pruned on a schedule, and a merchant whose count drops to zero is removed. A snapshot is
+ * reused for app.stats.cache-ttl-ms, so a dashboard polling the same view walks the
+ * merchants once per TTL rather than once per request.
+ */
+@Service
+public class DisputeStatsService implements SmartInitializingSingleton {
+    private static final Logger logger = Logger.getLogger(DisputeStatsService.class.getName());
+
+    private final DisputeRepository disputeRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Dispute.DisputeStatus, Aggregate> byStatus = new EnumMap<>(Dispute.DisputeStatus.class);
+    private final ConcurrentHashMap<String, Aggregate> byMerchant = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<LocalDateTime, Aggregate> byHour = new ConcurrentHashMap<>();
+    private final Aggregate total = new Aggregate();
+    private final int hourRetentionHours;
+    private final long cacheTtlMs;
+    private final Clock clock;
+
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public DisputeStatsService(DisputeRepository disputeRepository, PlatformTransactionManager transactionManager,
+                               @Value("${app.stats.hour-retention-hours:168}") int hourRetentionHours,
+                               @Value("${app.stats.cache-ttl-ms:1000}") long cacheTtlMs) {
+        this(disputeRepository, transactionManager, hourRetentionHours, cacheTtlMs, Clock.systemDefaultZone());
+    }
+
+    DisputeStatsService(DisputeRepository disputeRepository, PlatformTransactionManager transactionManager,
+                        int hourRetentionHours, long cacheTtlMs, Clock clock) {
+        this.disputeRepository = disputeRepository;
+        this.hourRetentionHours = Math.max(1, hourRetentionHours);
+        this.cacheTtlMs = cacheTtlMs;
+        this.clock = clock;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        // Status keys are fixed, so this map is fully populated up front and never mutated again
+        for (Dispute.DisputeStatus status : Dispute.DisputeStatus.values()) {
+            byStatus.put(status, new Aggregate());
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long started = System.nanoTime();
+        long rows = transactionTemplate.execute(tx -> {
+            try (Stream<DisputeRepository.StatsRow> stream = disputeRepository.streamStatsRows()) {
+                return stream.mapToLong(row -> {
+                    add(row.getStatus(), row.getMerchantUPI(), row.getAmount(), row.getCreatedAt(), 1);
+                    return 1;
+                }).sum();
+            }
+        });
+        logger.info("Dispute stats rebuilt from " + rows + " rows in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) + " ms");
+    }
+
+    public void recordCreated(Dispute dispute) {
+        add(dispute.getStatus(), dispute.getMerchantUPI(), dispute.getAmount(), dispute.getCreatedAt(), 1);
+    }
+
+    public void recordTransition(Dispute dispute, Dispute.DisputeStatus from) {
+        if (from == dispute.getStatus()) {
+            return;
+        }
+        double amount = amountOf(dispute.getAmount());
+        byStatus.get(from).add(-1, -amount);
+        byStatus.get(dispute.getStatus()).add(1, amount);
+    }
+
+    public void recordRemoved(Dispute dispute) {
+        add(dispute.getStatus(), dispute.getMerchantUPI(), dispute.getAmount(), dispute.getCreatedAt(), -1);
+    }
+
+    /**
+     * Snapshot of the current aggregates, at most app.stats.cache-ttl-ms old.
+     *
+     * @param merchantLimit number of merchants to return, highest dispute count first
+     * @param hours number of most recent hourly buckets to return, up to the retention
+     */
+    public DisputeStatsResponse getStats(int merchantLimit, int hours) {
+        long now = clock.millis();
+        Snapshot cached = snapshot;
+        if (cached != null && cached.merchantLimit == merchantLimit && cached.hours == hours && now < cached.expiresAt) {
+            return cached.response;
+        }
+        DisputeStatsResponse response = computeStats(merchantLimit, hours);
+        if (cacheTtlMs > 0) {
+            snapshot = new Snapshot(merchantLimit, hours, now + cacheTtlMs, response);
+        }
+        return response;
+    }
+
+    /**
+     * Drops hourly buckets older than the retention.
+     */
+    @Scheduled(fixedDelayString = "${app.stats.prune-interval-ms:600000}")
+    public void pruneHours() {
+        LocalDateTime oldest = oldestRetainedHour();
+        byHour.keySet().removeIf(hour -> hour.isBefore(oldest));
+    }
+
+    int trackedMerchants() {
+        return byMerchant.size();
+    }
+
+    int trackedHours() {
+        return byHour.size();
+    }
+
+    private DisputeStatsResponse computeStats(int merchantLimit, int hours) {
+        Map<String, DisputeStatsResponse.Bucket> statuses = new LinkedHashMap<>();
+        byStatus.forEach((status, aggregate) -> statuses.put(status.name(), aggregate.toBucket()));
+
+        int window = Math.min(Math.max(hours, 1), hourRetentionHours);
+        LocalDateTime since = hourOf(LocalDateTime.now(clock)).minusHours(window - 1L);
+        Map<String, DisputeStatsResponse.Bucket> hourly = new LinkedHashMap<>();
+        byHour.entrySet().stream()
+            .filter(e -> !e.getKey().isBefore(since))
+            .sorted(Map.Entry.comparingByKey())
+            .forEach(e -> hourly.put(e.getKey().toString(), e.getValue().toBucket()));
+
+        return new DisputeStatsResponse(total.count.sum(), total.amount.sum(), statuses,
+                topMerchants(merchantLimit), hourly);
+    }
+
+    private Map<String, DisputeStatsResponse.Bucket> topMerchants(int limit) {
+        // Bounded min-heap keeps this O(merchants * log(limit)) instead of sorting every merchant
+        Comparator<Map.Entry<String, DisputeStatsResponse.Bucket>> byCount =
+            Comparator.comparingLong(e -> e.getValue().getCount());
+        PriorityQueue<Map.Entry<String, DisputeStatsResponse.Bucket>> heap = new PriorityQueue<>(byCount);
+        int bound = Math.max(limit, 1);
+        byMerchant.forEach((merchant, aggregate) -> {
+            heap.offer(Map.entry(merchant, aggregate.toBucket()));
+            if (heap.size() > bound) {
+                heap.poll();
+            }
+        });
+        Map<String, DisputeStatsResponse.Bucket> result = new LinkedHashMap<>();
+        heap.stream()
+            .sorted(byCount.reversed())
+            .forEach(e -> result.put(e.getKey(), e.getValue()));
+        return result;
+    }
+
+    private void add(Dispute.DisputeStatus status, String merchantUPI, Double amount, LocalDateTime createdAt, int sign) {
+        double signedAmount = sign * amountOf(amount);
+        total.add(sign, signedAmount);
+        if (status != null) {
+            byStatus.get(status).add(sign, signedAmount);
+        }
+        if (merchantUPI != null) {
+            byMerchant.compute(merchantUPI, (k, aggregate) -> addOrDrop(aggregate, sign, signedAmount));
+        }
+        // Hours past the retention are no longer reported, so changes to them are not kept either
+        LocalDateTime hour = hourOf(createdAt != null ? createdAt : LocalDateTime.now(clock));
+        if (!hour.isBefore(oldestRetainedHour())) {
+            byHour.compute(hour, (k, aggregate) -> addOrDrop(aggregate, sign, signedAmount));
+        }
+    }
+
+    // Runs inside compute, under the entry's lock, so an aggregate is only dropped while nothing else updates it
+    private static Aggregate addOrDrop(Aggregate aggregate, long countDelta, double amountDelta) {
+        Aggregate target = aggregate != null ? aggregate : new Aggregate();
+        target.add(countDelta, amountDelta);
+        return target.count.sum() == 0 ? null : target;
+    }
+
+    private LocalDateTime oldestRetainedHour() {
+        return hourOf(LocalDateTime.now(clock)).minusHours(hourRetentionHours - 1L);
+    }
+
+    private static LocalDateTime hourOf(LocalDateTime time) {
+        return time.truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private static double amountOf(Double amount) {
+        return amount != null ? amount : 0.0;
+    }
+
+    private record Snapshot(int merchantLimit, int hours, long expiresAt, DisputeStatsResponse response) {
+    }
+
+    // Striped counters: LongAdder/DoubleAdder spread concurrent updates across cells
+    private static final class Aggregate {
+        private final LongAdder count = new LongAdder();
+        private final DoubleAdder amount = new DoubleAdder();
+
+        void add(long countDelta, double amountDelta) {
+            count.add(countDelta);
+            amount.add(amountDelta);
+        }
+
+        DisputeStatsResponse.Bucket toBucket() {
+            return new DisputeStatsResponse.Bucket(count.sum(), amount.sum());
+        }
+    }
+}
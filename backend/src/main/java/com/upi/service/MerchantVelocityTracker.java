@@ -0,0 +1,279 @@
+package com.upi.service;
+
+import com.upi.dto.MerchantVelocityResponse;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sliding-window count of disputes filed per merchant.
+ *
+ * Each merchant owns a ring of time buckets. A bucket packs its epoch (bucket index since
+ * the Unix epoch) and its count into one long, so a bucket update is a single CAS loop and
+ * a stale bucket is reset atomically by the first writer of the new epoch.
+ * The number of tracked merchants is bounded. A periodic sweep evicts merchants with no
+ * disputes in the current window; when the table is full, the merchants with the lowest counts
+ * and the oldest last dispute are evicted in one pass, down to nine tenths of the bound, so a
+ * new merchant is always tracked.
+ *
+ * Recording takes no lock. A window counts the writers inside it; eviction retires a window
+ * only by swapping a writer count of zero for RETIRED, then re-checks its count. A writer that
+ * finds its window retired retries against the map, where the window is about to be removed.
+ */
+@Component
+public class MerchantVelocityTracker {
+    private static final Logger logger = Logger.getLogger(MerchantVelocityTracker.class.getName());
+
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final int bucketCount;
+    private final long bucketMillis;
+    private final int maxMerchants;
+    private final long hotThreshold;
+    private final LongSupplier clock;
+
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private volatile boolean saturationLogged;
+
+    @Autowired
+    public MerchantVelocityTracker(@Value("${app.velocity.window-seconds:60}") int windowSeconds,
+                                   @Value("${app.velocity.buckets:12}") int buckets,
+                                   @Value("${app.velocity.max-merchants:10000}") int maxMerchants,
+                                   @Value("${app.velocity.hot-threshold:20}") long hotThreshold) {
+        this(windowSeconds, buckets, maxMerchants, hotThreshold, System::currentTimeMillis);
+    }
+
+    MerchantVelocityTracker(int windowSeconds, int buckets, int maxMerchants, long hotThreshold, LongSupplier clock) {
+        this.bucketCount = buckets;
+        this.bucketMillis = Math.max(1, windowSeconds * 1000L / buckets);
+        this.maxMerchants = maxMerchants;
+        this.hotThreshold = hotThreshold;
+        this.clock = clock;
+    }
+
+    /**
+     * Records one dispute against the merchant.
+     *
+     * @return the merchant's dispute count in the current window, including this one
+     */
+    public long record(String merchantUPI) {
+        long epoch = currentEpoch();
+        while (true) {
+            Window window = windows.get(merchantUPI);
+            if (window == null) {
+                if (windows.size() >= maxMerchants) {
+                    evictColdest(epoch);
+                }
+                window = windows.computeIfAbsent(merchantUPI, k -> new Window(bucketCount));
+            }
+            if (window.tryIncrement(epoch)) {
+                return window.sum(epoch);
+            }
+            // Retired by an eviction that has yet to remove it from the map
+            Thread.onSpinWait();
+        }
+    }
+
+    public long velocity(String merchantUPI) {
+        Window window = windows.get(merchantUPI);
+        return window != null ? window.sum(currentEpoch()) : 0;
+    }
+
+    public boolean isHot(String merchantUPI) {
+        return velocity(merchantUPI) >= hotThreshold;
+    }
+
+    public boolean isHot(long velocity) {
+        return velocity >= hotThreshold;
+    }
+
+    public List<MerchantVelocityResponse> topMerchants(int limit) {
+        long epoch = currentEpoch();
+        int bound = Math.max(limit, 1);
+        Comparator<MerchantVelocityResponse> byCount = Comparator.comparingLong(MerchantVelocityResponse::getDisputes);
+        PriorityQueue<MerchantVelocityResponse> heap = new PriorityQueue<>(byCount);
+        windows.forEach((merchant, window) -> {
+            long count = window.sum(epoch);
+            if (count > 0) {
+                heap.offer(new MerchantVelocityResponse(merchant, count, count >= hotThreshold));
+                if (heap.size() > bound) {
+                    heap.poll();
+                }
+            }
+        });
+        List<MerchantVelocityResponse> result = new ArrayList<>(heap);
+        result.sort(byCount.reversed());
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${app.velocity.sweep-interval-ms:60000}")
+    public void evictColdMerchants() {
+        sweep(currentEpoch());
+    }
+
+    private void sweep(long epoch) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            windows.forEach((merchant, window) -> {
+                if (window.sum(epoch) == 0) {
+                    retireAndRemove(merchant, window, 0, epoch);
+                }
+            });
+            if (windows.size() < maxMerchants) {
+                saturationLogged = false;
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    // The table is full: drop merchants down to nine tenths of maxMerchants, fewest disputes first, then oldest
+    // last dispute. A bounded heap keeps just those candidates, so ties at a low count do not empty the table.
+    // Callers that find a sweep running insert anyway; the next pass also drops what they added over the bound
+    private void evictColdest(long epoch) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (windows.size() < maxMerchants) {
+                return;
+            }
+            int evictions = Math.max(1, windows.size() - (maxMerchants - maxMerchants / 10));
+            PriorityQueue<Candidate> coldest = new PriorityQueue<>(evictions + 1, Candidate.COLDEST_LAST);
+            windows.forEach((merchant, window) -> {
+                coldest.offer(new Candidate(merchant, window, window.sum(epoch), window.lastEpoch()));
+                if (coldest.size() > evictions) {
+                    coldest.poll();
+                }
+            });
+            long warmest = 0;
+            for (Candidate candidate : coldest) {
+                if (retireAndRemove(candidate.merchant, candidate.window, candidate.disputes, epoch)) {
+                    warmest = Math.max(warmest, candidate.disputes);
+                }
+            }
+            if (warmest > 0 && !saturationLogged) {
+                saturationLogged = true;
+                logger.warning("Merchant velocity tracker is full (" + maxMerchants + " merchants); evicted "
+                        + coldest.size() + " merchants with up to " + warmest + " disputes in the window");
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    // A window recorded into since its count was read is kept
+    private boolean retireAndRemove(String merchant, Window window, long maxDisputes, long epoch) {
+        if (!window.tryRetire(maxDisputes, epoch)) {
+            return false;
+        }
+        windows.remove(merchant, window);
+        return true;
+    }
+
+    private long currentEpoch() {
+        return clock.getAsLong() / bucketMillis;
+    }
+
+    private record Candidate(String merchant, Window window, long disputes, long lastEpoch) {
+        // Head of the queue is the warmest candidate, so it is the one dropped when the heap overflows
+        static final Comparator<Candidate> COLDEST_LAST = Comparator.comparingLong(Candidate::disputes)
+                .thenComparingLong(Candidate::lastEpoch)
+                .reversed();
+    }
+
+    private static final class Window {
+        private static final int RETIRED = -1;
+
+        private final AtomicLongArray buckets;
+        // Writers inside increment, or RETIRED once an eviction has claimed the window
+        private final AtomicInteger writers = new AtomicInteger();
+
+        Window(int size) {
+            this.buckets = new AtomicLongArray(size);
+        }
+
+        boolean tryIncrement(long epoch) {
+            int current;
+            do {
+                current = writers.get();
+                if (current == RETIRED) {
+                    return false;
+                }
+            } while (!writers.compareAndSet(current, current + 1));
+            try {
+                increment(epoch);
+            } finally {
+                writers.decrementAndGet();
+            }
+            return true;
+        }
+
+        // Succeeds only with no writer inside and the count still at most maxDisputes; no writer can enter after
+        boolean tryRetire(long maxDisputes, long epoch) {
+            if (!writers.compareAndSet(0, RETIRED)) {
+                return false;
+            }
+            if (sum(epoch) > maxDisputes) {
+                writers.set(0);
+                return false;
+            }
+            return true;
+        }
+
+        long lastEpoch() {
+            long last = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                last = Math.max(last, buckets.get(i) >>> COUNT_BITS);
+            }
+            return last;
+        }
+
+        private void increment(long epoch) {
+            int index = (int) (epoch % buckets.length());
+            while (true) {
+                long current = buckets.get(index);
+                long next;
+                if ((current >>> COUNT_BITS) == epoch) {
+                    long count = current & COUNT_MASK;
+                    if (count == COUNT_MASK) {
+                        return; // saturated; far beyond any hot threshold
+                    }
+                    next = current + 1;
+                } else {
+                    next = (epoch << COUNT_BITS) | 1;
+                }
+                if (buckets.compareAndSet(index, current, next)) {
+                    return;
+                }
+            }
+        }
+
+        long sum(long epoch) {
+            long total = 0;
+            long oldest = epoch - buckets.length() + 1;
+            for (int i = 0; i < buckets.length(); i++) {
+                long value = buckets.get(i);
+                if ((value >>> COUNT_BITS) >= oldest) {
+                    total += value & COUNT_MASK;
+                }
+            }
+            return total;
+        }
+    }
+}
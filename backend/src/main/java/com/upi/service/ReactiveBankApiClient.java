@@ -0,0 +1,79 @@
+package com.upi.service;
+
+import com.upi.jfr.BankVerificationEvent;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Non-blocking client for the mock bank, used by the reactive profile.
+ *
+ * Same lookup, outcomes, logging, timer and JFR event as {@link BankApiClient}, but over Reactor
+ * Netty: a pending bank call holds a pooled connection, not a thread. The pool is bounded by
+ * app.reactive.bank.max-connections, and a call that gets no answer within
+ * app.reactive.bank.timeout-ms falls back on the amount like any other bank failure.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBankApiClient {
+    private final BankApiClient bankApiClient;
+    private final ConnectionProvider connectionProvider;
+    private final WebClient webClient;
+    private final Duration timeout;
+
+    public ReactiveBankApiClient(BankApiClient bankApiClient,
+                                 @Value("${app.bank.url:http://host.docker.internal:8080}") String bankApiUrl,
+                                 @Value("${app.bank.api-key:upi-dispute-resolver-secret-key-2024}") String bankApiKey,
+                                 @Value("${app.reactive.bank.max-connections:500}") int maxConnections,
+                                 @Value("${app.reactive.bank.timeout-ms:10000}") long timeoutMs) {
+        this.bankApiClient = bankApiClient;
+        this.connectionProvider = ConnectionProvider.builder("bank")
+                .maxConnections(maxConnections)
+                .build();
+        this.webClient = WebClient.builder()
+                .baseUrl(bankApiUrl)
+                .defaultHeader("x-api-key", bankApiKey)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)))
+                .build();
+        this.timeout = Duration.ofMillis(timeoutMs);
+    }
+
+    /**
+     * Looks the transaction up in the bank and decides the verification outcome.
+     * Never signals an error: if the bank cannot be reached the outcome falls back on the amount.
+     *
+     * @return one of the {@link BankVerificationDecision} outcomes
+     */
+    public Mono<String> verifyTransaction(String transactionId, Double disputeAmount) {
+        return Mono.defer(() -> {
+            BankVerificationEvent event = new BankVerificationEvent();
+            event.begin();
+            long started = System.nanoTime();
+            return webClient.get()
+                    .uri("/bank/transaction/{id}", transactionId)
+                    .retrieve()
+                    .toEntity(BankApiClient.BankApiResponse.class)
+                    .timeout(timeout)
+                    .map(response -> BankApiClient.decide(
+                            transactionId, disputeAmount, response.getStatusCode().value(), response.getBody()))
+                    .doOnNext(outcome -> bankApiClient.recordVerification(
+                            event, transactionId, outcome, System.nanoTime() - started))
+                    .onErrorResume(e -> {
+                        bankApiClient.recordVerification(event, transactionId, "exception", System.nanoTime() - started);
+                        return Mono.just(BankApiClient.whenCallFailed(transactionId, disputeAmount, e));
+                    });
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        connectionProvider.dispose();
+    }
+}
@@ -0,0 +1,83 @@
+package com.upi.service;
+
+import com.upi.dto.DisputeRequest;
+import com.upi.dto.DisputeResponse;
+import com.upi.jfr.DisputeFiledEvent;
+import java.util.List;
+import java.util.concurrent.Callable;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Dispute operations for the reactive profile.
+ *
+ * Filing runs {@link DisputeService}'s own steps, so both stacks make the same decisions and
+ * record the same metrics. Only the threading differs. JDBC calls go to the bounded jdbcScheduler
+ * bridge, because neither H2 nor SQLite has a non-blocking driver. The bank call goes through
+ * {@link ReactiveBankApiClient}, so no thread waits on the bank. Stats and merchant velocity are
+ * in memory and are answered on the event loop.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveDisputeService {
+    private final DisputeService disputeService;
+    private final ReactiveBankApiClient bankApiClient;
+    private final Scheduler jdbcScheduler;
+
+    public ReactiveDisputeService(DisputeService disputeService, ReactiveBankApiClient bankApiClient,
+                                  @Qualifier("jdbcScheduler") Scheduler jdbcScheduler) {
+        this.disputeService = disputeService;
+        this.bankApiClient = bankApiClient;
+        this.jdbcScheduler = jdbcScheduler;
+    }
+
+    /**
+     * Files and verifies a dispute. Signals IllegalArgumentException for a duplicate filing.
+     */
+    public Mono<DisputeResponse> fileDispute(DisputeRequest request) {
+        return Mono.defer(() -> {
+            DisputeFiledEvent event = new DisputeFiledEvent();
+            event.begin();
+            long started = System.nanoTime();
+            return blocking(() -> disputeService.newDispute(request))
+                    .flatMap(dispute -> {
+                        long merchantVelocity = disputeService.recordMerchantDispute(request.getMerchantUPI());
+                        return bankApiClient.verifyTransaction(request.getTransactionId(), request.getAmount())
+                                .publishOn(jdbcScheduler)
+                                .map(verificationResult -> {
+                                    event.bankOutcome = verificationResult;
+                                    disputeService.applyVerification(dispute, verificationResult, merchantVelocity);
+                                    return DisputeService.mapToResponse(disputeService.saveFiled(dispute, verificationResult));
+                                });
+                    })
+                    .doOnSuccess(response -> {
+                        event.disputeId = response.getId() == null ? 0 : response.getId();
+                        disputeService.recordFiling(request, event, response.getStatus(), started);
+                    })
+                    .doOnError(e -> disputeService.recordFiling(request, event,
+                            e instanceof IllegalArgumentException ? "rejected" : "error", started));
+        });
+    }
+
+    public Mono<DisputeResponse> getDisputeStatus(Long disputeId) {
+        return blocking(() -> disputeService.getDisputeStatus(disputeId));
+    }
+
+    public Mono<List<DisputeResponse>> getUserDisputes(String phone) {
+        return blocking(() -> disputeService.getUserDisputes(phone));
+    }
+
+    public Mono<Void> deleteUserDisputes(String phone) {
+        return Mono.fromRunnable(() -> disputeService.deleteUserDisputes(phone))
+                .subscribeOn(jdbcScheduler)
+                .then();
+    }
+
+    // A full bridge queue signals RejectedExecutionException, which the handler turns into a 503
+    private <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(jdbcScheduler);
+    }
+}
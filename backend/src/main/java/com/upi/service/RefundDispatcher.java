@@ -0,0 +1,329 @@
+package com.upi.service;
+
+import com.upi.logging.LogThrottle;
+import com.upi.model.Dispute;
+import com.upi.repository.DisputeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Sends the refunds of VERIFIED_FAILURE disputes to the bank in the background, so filing and
+ * approval never wait on settlement.
+ *
+ * submit() only queues the dispute id. A fixed number of workers each take up to batch-size ids
+ * off the queue and post them to the bank's batch refund endpoint, so at most concurrency calls
+ * are in flight. A failed call is retried with exponential backoff and full jitter; every refund
+ * carries an idempotency key derived from the transaction, so a retry never refunds twice. Refunds
+ * the bank confirms move the dispute to RESOLVED_REFUNDED with the bank's refund id; refunds it
+ * declines are recorded on the dispute and not sent again.
+ *
+ * The queue is in memory. Disputes it drops when full, that run out of attempts, or that were
+ * queued when the process stopped are picked up again by the periodic sweep.
+ */
+@Component
+public class RefundDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(RefundDispatcher.class);
+    // When the bank is down every batch fails the same way
+    private static final LogThrottle FAILURE_LOG = LogThrottle.perSecond(1);
+    private static final LogThrottle DECLINED_LOG = LogThrottle.perSecond(10);
+    private static final String IDEMPOTENCY_KEY_PREFIX = "dispute-";
+
+    private final DisputeRepository disputeRepository;
+    private final DisputeStatsService disputeStatsService;
+    private final BankApiClient bankApiClient;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int concurrency;
+    private final int maxAttempts;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+    private final int sweepLimit;
+
+    private final LinkedBlockingQueue<Long> queue;
+    // Ids queued or being dispatched, so the sweep does not queue them a second time
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private ExecutorService workers;
+    private volatile boolean running;
+
+    private final Timer batchTimer;
+    private final Counter settled;
+    private final Counter declined;
+    private final Counter dropped;
+    private final Counter exhausted;
+
+    public RefundDispatcher(DisputeRepository disputeRepository, DisputeStatsService disputeStatsService,
+                            BankApiClient bankApiClient,
+                            @Value("${app.refund-dispatch.enabled:true}") boolean enabled,
+                            @Value("${app.refund-dispatch.batch-size:100}") int batchSize,
+                            @Value("${app.refund-dispatch.concurrency:4}") int concurrency,
+                            @Value("${app.refund-dispatch.queue-capacity:10000}") int queueCapacity,
+                            @Value("${app.refund-dispatch.max-attempts:5}") int maxAttempts,
+                            @Value("${app.refund-dispatch.backoff-base-ms:200}") long backoffBaseMs,
+                            @Value("${app.refund-dispatch.backoff-max-ms:10000}") long backoffMaxMs,
+                            @Value("${app.refund-dispatch.sweep-limit:1000}") int sweepLimit,
+                            MeterRegistry meterRegistry) {
+        this.disputeRepository = disputeRepository;
+        this.disputeStatsService = disputeStatsService;
+        this.bankApiClient = bankApiClient;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.concurrency = Math.max(1, concurrency);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffBaseMs = Math.max(1, backoffBaseMs);
+        this.backoffMaxMs = Math.max(this.backoffBaseMs, backoffMaxMs);
+        this.sweepLimit = Math.max(1, sweepLimit);
+        this.queue = new LinkedBlockingQueue<>(Math.max(1, queueCapacity));
+
+        this.batchTimer = Timer.builder("refund.dispatch.batch")
+                .description("Time to settle one refund batch with the bank, including retries")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.settled = Counter.builder("refund.dispatch.settled")
+                .description("Refunds confirmed by the bank")
+                .register(meterRegistry);
+        this.declined = Counter.builder("refund.dispatch.declined")
+                .description("Refunds the bank declined")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("refund.dispatch.dropped")
+                .description("Refunds not queued because the queue was full; the sweep queues them later")
+                .register(meterRegistry);
+        this.exhausted = Counter.builder("refund.dispatch.exhausted")
+                .description("Refund batches that ran out of attempts; the sweep queues them later")
+                .register(meterRegistry);
+        Gauge.builder("refund.dispatch.queue.depth", queue, LinkedBlockingQueue::size)
+                .description("Refunds waiting for a dispatch worker")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            logger.info("Refund dispatch disabled; VERIFIED_FAILURE disputes are not sent to the bank");
+            return;
+        }
+        running = true;
+        workers = Executors.newFixedThreadPool(concurrency, new NamedThreadFactory());
+        for (int i = 0; i < concurrency; i++) {
+            workers.execute(this::runWorker);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Queues the refund of a VERIFIED_FAILURE dispute. Never blocks: when the queue is full the
+     * dispute is left to the sweep.
+     */
+    public void submit(Long disputeId) {
+        if (!enabled || disputeId == null || !pending.add(disputeId)) {
+            return;
+        }
+        if (!queue.offer(disputeId)) {
+            pending.remove(disputeId);
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Queues VERIFIED_FAILURE disputes whose refund is neither settled, declined nor already queued:
+     * those filed before a restart, dropped by a full queue, or whose batch ran out of attempts.
+     */
+    @Scheduled(fixedDelayString = "${app.refund-dispatch.sweep-interval-ms:30000}",
+            initialDelayString = "${app.refund-dispatch.sweep-interval-ms:30000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        int room = queue.remainingCapacity();
+        if (room == 0) {
+            return;
+        }
+        List<Long> ids = disputeRepository.findIdsAwaitingRefund(Dispute.DisputeStatus.VERIFIED_FAILURE,
+                PageRequest.of(0, Math.min(room, sweepLimit)));
+        int before = queue.size();
+        ids.forEach(this::submit);
+        int queued = queue.size() - before;
+        if (queued > 0) {
+            logger.atInfo().setMessage("Refund sweep queued disputes")
+                    .addKeyValue("awaiting", ids.size())
+                    .addKeyValue("queued", queued)
+                    .log();
+        }
+    }
+
+    private void runWorker() {
+        List<Long> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Long first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // Typically the database; the disputes stay VERIFIED_FAILURE and the sweep retries them
+                if (FAILURE_LOG.tryAcquire()) {
+                    logger.atError().setMessage("Refund dispatch failed")
+                            .addKeyValue("batchSize", batch.size())
+                            .addKeyValue("suppressed", FAILURE_LOG.suppressed())
+                            .setCause(e)
+                            .log();
+                }
+            } finally {
+                batch.forEach(pending::remove);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Sends one batch to the bank and records the outcome of each refund. Disputes that are no
+     * longer awaiting a refund are skipped.
+     */
+    void dispatch(List<Long> disputeIds) throws InterruptedException {
+        List<Dispute> disputes = new ArrayList<>(disputeIds.size());
+        for (Dispute dispute : disputeRepository.findAllById(disputeIds)) {
+            if (dispute.getStatus() == Dispute.DisputeStatus.VERIFIED_FAILURE
+                    && dispute.getBankRefundId() == null && dispute.getRefundError() == null) {
+                disputes.add(dispute);
+            }
+        }
+        if (disputes.isEmpty()) {
+            return;
+        }
+
+        List<BankApiClient.RefundItem> items = new ArrayList<>(disputes.size());
+        for (Dispute dispute : disputes) {
+            // Verified disputes are FAILED transactions that debited the payer: a reversal, not a plain refund
+            items.add(new BankApiClient.RefundItem(dispute.getTransactionId(), dispute.getReason(),
+                    idempotencyKey(dispute), true));
+        }
+        long started = System.nanoTime();
+        List<BankApiClient.BankRefundResult> results = submitWithRetry(items);
+        batchTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        if (results == null) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < disputes.size(); i++) {
+            record(disputes.get(i), results.get(i), now);
+        }
+    }
+
+    // Resending the same batch is safe: the bank answers a known idempotency key with the refund it already made
+    private List<BankApiClient.BankRefundResult> submitWithRetry(List<BankApiClient.RefundItem> items)
+            throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return bankApiClient.submitRefunds(items);
+            } catch (RestClientException e) {
+                if (!isRetryable(e) || attempt >= maxAttempts) {
+                    exhausted.increment();
+                    if (FAILURE_LOG.tryAcquire()) {
+                        logger.atError().setMessage("Refund batch not accepted by the bank; left for the sweep")
+                                .addKeyValue("refunds", items.size())
+                                .addKeyValue("attempts", attempt)
+                                .addKeyValue("suppressed", FAILURE_LOG.suppressed())
+                                .setCause(e)
+                                .log();
+                    }
+                    return null;
+                }
+                Thread.sleep(backoffMs(attempt));
+            }
+        }
+    }
+
+    private void record(Dispute dispute, BankApiClient.BankRefundResult result, LocalDateTime now) {
+        if (result.isSuccess() && result.getRefund() != null && result.getRefund().getRefund_id() != null) {
+            String bankRefundId = result.getRefund().getRefund_id().toString();
+            int updated = disputeRepository.markRefundSettled(dispute.getId(), bankRefundId,
+                    "Refund settled by the bank (refund " + bankRefundId + ").", now,
+                    Dispute.DisputeStatus.VERIFIED_FAILURE, Dispute.DisputeStatus.RESOLVED_REFUNDED);
+            if (updated == 1) {
+                dispute.setStatus(Dispute.DisputeStatus.RESOLVED_REFUNDED);
+                disputeStatsService.recordTransition(dispute, Dispute.DisputeStatus.VERIFIED_FAILURE);
+                settled.increment();
+            }
+        } else if (result.getStatus_code() >= 400 && result.getStatus_code() < 500) {
+            // 404 or a refusal such as a transaction the bank does not consider refundable: resending will not help
+            String error = result.getError() == null ? "HTTP " + result.getStatus_code() : result.getError();
+            if (disputeRepository.markRefundDeclined(dispute.getId(), error, "Bank declined the refund: " + error,
+                    now, Dispute.DisputeStatus.VERIFIED_FAILURE) == 1) {
+                declined.increment();
+            }
+            if (DECLINED_LOG.tryAcquire()) {
+                logger.atWarn().setMessage("Bank declined refund")
+                        .addKeyValue("disputeId", dispute.getId())
+                        .addKeyValue("transactionId", dispute.getTransactionId())
+                        .addKeyValue("error", error)
+                        .addKeyValue("suppressed", DECLINED_LOG.suppressed())
+                        .log();
+            }
+        }
+        // Anything else stays VERIFIED_FAILURE for the sweep
+    }
+
+    // One refund per disputed transaction, however often the dispute is resent or refiled
+    static String idempotencyKey(Dispute dispute) {
+        return IDEMPOTENCY_KEY_PREFIX + dispute.getTransactionId();
+    }
+
+    // Client errors other than 429 will fail the same way again
+    static boolean isRetryable(RestClientException e) {
+        return !(e instanceof HttpClientErrorException clientError) || clientError.getStatusCode().value() == 429;
+    }
+
+    // Full jitter: uniform in [0, min(max, base * 2^(attempt - 1))], so workers that failed together spread out
+    long backoffMs(int attempt) {
+        long ceiling = backoffBaseMs << Math.min(attempt - 1, 30);
+        return ThreadLocalRandom.current().nextLong(Math.min(backoffMaxMs, ceiling) + 1);
+    }
+
+    private static final class NamedThreadFactory implements ThreadFactory {
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "refund-dispatch-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
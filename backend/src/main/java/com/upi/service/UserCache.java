@@ -0,0 +1,277 @@
+package com.upi.service;
+
+import com.upi.dto.UserResponse;
+import com.upi.model.User;
+import com.upi.repository.UserRepository;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Read-through cache of immutable user snapshots, reachable by id, username and phone.
+ *
+ * Entries expire after a TTL. When the cache holds max-size users, the expired ones and
+ * the oldest tenth are evicted in one pass, so new users are always admitted. Writers must
+ * call invalidate() after changing or deleting a user; a load that overlaps an invalidation
+ * of one of the loaded user's keys is not cached. Invalidations are tracked per key stripe,
+ * so writes to other users do not stop loads from being cached.
+ *
+ * Find-or-create by phone is single-flight: concurrent first logins for one phone
+ * wait for the first caller instead of each inserting a user.
+ */
+@Component
+public class UserCache {
+    private final UserRepository userRepository;
+    private final long ttlMillis;
+    private final int maxSize;
+    private final LongSupplier clock;
+
+    private final ConcurrentHashMap<Long, Entry> byId = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Entry> byUsername = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Entry> byPhone = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<CachedUser>> phoneLoads = new ConcurrentHashMap<>();
+
+    private static final int INVALIDATION_STRIPES = 1024;
+
+    // Every invalidation takes the next sequence number and stores it in the stripes of the keys it drops;
+    // a load is not cached if a stripe of one of its keys moved past the sequence the load started at
+    private final AtomicLong invalidationSequence = new AtomicLong();
+    private final AtomicLongArray invalidatedAt = new AtomicLongArray(INVALIDATION_STRIPES);
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    @Autowired
+    public UserCache(UserRepository userRepository,
+                     @Value("${app.user-cache.ttl-seconds:300}") long ttlSeconds,
+                     @Value("${app.user-cache.max-size:10000}") int maxSize) {
+        this(userRepository, ttlSeconds, maxSize, System::currentTimeMillis);
+    }
+
+    UserCache(UserRepository userRepository, long ttlSeconds, int maxSize, LongSupplier clock) {
+        this.userRepository = userRepository;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    public Optional<CachedUser> findById(Long id) {
+        return lookup(byId, id, userRepository::findById);
+    }
+
+    public Optional<CachedUser> findByUsername(String username) {
+        return lookup(byUsername, username, userRepository::findByUsername);
+    }
+
+    public Optional<CachedUser> findByPhone(String phone) {
+        return lookup(byPhone, phone, userRepository::findByPhone);
+    }
+
+    /**
+     * Returns the user with this phone, calling creator to insert one if none exists.
+     * Only one caller per phone runs the lookup and creator; the others wait for its result.
+     */
+    public CachedUser findOrCreateByPhone(String phone, Supplier<User> creator) {
+        CachedUser cached = get(byPhone, phone);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<CachedUser> load = new CompletableFuture<>();
+        CompletableFuture<CachedUser> inFlight = phoneLoads.putIfAbsent(phone, load);
+        if (inFlight != null) {
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+
+        try {
+            long startSequence = invalidationSequence.get();
+            User user = userRepository.findByPhone(phone).orElseGet(creator);
+            CachedUser snapshot = CachedUser.of(user);
+            put(snapshot, startSequence);
+            load.complete(snapshot);
+            return snapshot;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            phoneLoads.remove(phone, load);
+        }
+    }
+
+    /**
+     * Drops every key of the cached user with this id, plus the username and phone of
+     * the given user, so renamed or re-numbered users are not served under old keys.
+     */
+    public void invalidate(User user) {
+        long sequence = invalidationSequence.incrementAndGet();
+        if (user.getId() != null) {
+            markInvalidated(user.getId(), sequence);
+            invalidate(user.getId());
+        }
+        if (user.getUsername() != null) {
+            markInvalidated(user.getUsername(), sequence);
+            byUsername.remove(user.getUsername());
+        }
+        if (user.getPhone() != null) {
+            markInvalidated(user.getPhone(), sequence);
+            byPhone.remove(user.getPhone());
+        }
+    }
+
+    public void invalidate(Long id) {
+        markInvalidated(id, invalidationSequence.incrementAndGet());
+        Entry entry = byId.remove(id);
+        if (entry != null) {
+            remove(entry.user);
+        }
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    private <K> Optional<CachedUser> lookup(ConcurrentHashMap<K, Entry> index, K key, Function<K, Optional<User>> loader) {
+        CachedUser cached = get(index, key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long startSequence = invalidationSequence.get();
+        Optional<CachedUser> loaded = loader.apply(key).map(CachedUser::of);
+        loaded.ifPresent(user -> put(user, startSequence));
+        return loaded;
+    }
+
+    private <K> CachedUser get(ConcurrentHashMap<K, Entry> index, K key) {
+        if (key == null) {
+            return null;
+        }
+        Entry entry = index.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis <= clock.getAsLong()) {
+            index.remove(key, entry);
+            return null;
+        }
+        return entry.user;
+    }
+
+    private void put(CachedUser user, long startSequence) {
+        if (maxSize <= 0 || user.id() == null) {
+            return;
+        }
+        long now = clock.getAsLong();
+        if (byId.size() >= maxSize && !byId.containsKey(user.id())) {
+            evictOldest(now);
+        }
+
+        Entry entry = new Entry(user, now + ttlMillis);
+        Entry previous = byId.put(user.id(), entry);
+        if (previous != null) {
+            remove(previous.user);
+        }
+        if (user.username() != null) {
+            byUsername.put(user.username(), entry);
+        }
+        if (user.phone() != null) {
+            byPhone.put(user.phone(), entry);
+        }
+        // An invalidation of one of this user's keys raced with the load; the snapshot may predate it
+        if (invalidatedSince(user, startSequence)) {
+            byId.remove(user.id(), entry);
+            remove(user);
+        }
+    }
+
+    private boolean invalidatedSince(CachedUser user, long startSequence) {
+        return invalidatedAt.get(stripe(user.id())) > startSequence
+                || (user.username() != null && invalidatedAt.get(stripe(user.username())) > startSequence)
+                || (user.phone() != null && invalidatedAt.get(stripe(user.phone())) > startSequence);
+    }
+
+    private void markInvalidated(Object key, long sequence) {
+        invalidatedAt.accumulateAndGet(stripe(key), sequence, Math::max);
+    }
+
+    private static int stripe(Object key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (INVALIDATION_STRIPES - 1);
+    }
+
+    private void remove(CachedUser user) {
+        if (user.username() != null) {
+            byUsername.remove(user.username());
+        }
+        if (user.phone() != null) {
+            byPhone.remove(user.phone());
+        }
+    }
+
+    // Entries share one TTL, so the earliest expiry is the oldest entry. Callers that find an eviction
+    // running insert anyway, overshooting max-size by at most their number
+    private void evictOldest(long now) {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            if (byId.size() < maxSize) {
+                return;
+            }
+            long[] expiries = byId.values().stream().mapToLong(Entry::expiresAtMillis).toArray();
+            if (expiries.length == 0) {
+                return;
+            }
+            Arrays.sort(expiries);
+            long cutoff = Math.max(now, expiries[Math.min(expiries.length - 1, Math.max(1, expiries.length / 10) - 1)]);
+            byId.forEach((id, entry) -> {
+                if (entry.expiresAtMillis <= cutoff && byId.remove(id, entry)) {
+                    if (entry.user.username() != null) {
+                        byUsername.remove(entry.user.username(), entry);
+                    }
+                    if (entry.user.phone() != null) {
+                        byPhone.remove(entry.user.phone(), entry);
+                    }
+                }
+            });
+            byUsername.values().removeIf(e -> e.expiresAtMillis <= now);
+            byPhone.values().removeIf(e -> e.expiresAtMillis <= now);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private record Entry(CachedUser user, long expiresAtMillis) {}
+
+    /**
+     * Immutable copy of the user row. Holds the password hash so logins can be
+     * verified without another query; never serialize it directly.
+     */
+    public record CachedUser(Long id, String username, String email, String passwordHash, String fullName,
+                             String phone, String address, boolean active, boolean verified, LocalDateTime createdAt) {
+
+        static CachedUser of(User user) {
+            return new CachedUser(user.getId(), user.getUsername(), user.getEmail(), user.getPassword(),
+                    user.getFullName(), user.getPhone(), user.getAddress(),
+                    Boolean.TRUE.equals(user.getIsActive()), Boolean.TRUE.equals(user.getIsVerified()),
+                    user.getCreatedAt());
+        }
+
+        public UserResponse toResponse() {
+            return new UserResponse(id, username, email, fullName, phone, address, active, verified, createdAt);
+        }
+    }
+}
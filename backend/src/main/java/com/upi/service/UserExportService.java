@@ -0,0 +1,177 @@
+package com.upi.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.logging.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+/**
+ * Streams every user to an output stream as NDJSON or CSV.
+ *
+ * Rows come from a forward-only, read-only JDBC cursor and are written as they are read,
+ * so memory use does not depend on the number of users. Password hashes are never exported.
+ */
+@Service
+public class UserExportService {
+    private static final Logger logger = Logger.getLogger(UserExportService.class.getName());
+
+    private static final String EXPORT_SQL =
+            "select id, username, email, full_name, phone, address, is_active, is_verified, created_at from users order by id";
+    private static final String CSV_HEADER = "id,username,email,fullName,phone,address,isActive,isVerified,createdAt";
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public UserExportService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                             @Value("${app.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Writes all users to out and returns the number of rows written. Does not close out.
+     */
+    public long export(Format format, OutputStream out) throws IOException {
+        long started = System.currentTimeMillis();
+        long rows;
+        try {
+            rows = format == Format.CSV ? exportCsv(out) : exportNdjson(out);
+        } catch (UncheckedIOException e) {
+            // Usually the client went away mid-export
+            throw e.getCause();
+        }
+        logger.info("Exported " + rows + " users as " + format + " in " + (System.currentTimeMillis() - started) + "ms");
+        return rows;
+    }
+
+    private long exportNdjson(OutputStream out) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+        json.setRootValueSeparator(new SerializedString("\n"));
+        long rows = stream(rs -> {
+            json.writeStartObject();
+            json.writeNumberField("id", rs.getLong("id"));
+            json.writeStringField("username", rs.getString("username"));
+            json.writeStringField("email", rs.getString("email"));
+            json.writeStringField("fullName", rs.getString("full_name"));
+            json.writeStringField("phone", rs.getString("phone"));
+            json.writeStringField("address", rs.getString("address"));
+            json.writeBooleanField("isActive", rs.getBoolean("is_active"));
+            json.writeBooleanField("isVerified", rs.getBoolean("is_verified"));
+            json.writeStringField("createdAt", timestamp(rs.getTimestamp("created_at")));
+            json.writeEndObject();
+        });
+        if (rows > 0) {
+            json.writeRaw('\n');
+        }
+        json.flush();
+        return rows;
+    }
+
+    private long exportCsv(OutputStream out) throws IOException {
+        Writer csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 8192);
+        csv.write(CSV_HEADER);
+        csv.write('\n');
+        long rows = stream(rs -> {
+            csv.write(Long.toString(rs.getLong("id")));
+            csv.write(',');
+            csv.write(csvField(rs.getString("username")));
+            csv.write(',');
+            csv.write(csvField(rs.getString("email")));
+            csv.write(',');
+            csv.write(csvField(rs.getString("full_name")));
+            csv.write(',');
+            csv.write(csvField(rs.getString("phone")));
+            csv.write(',');
+            csv.write(csvField(rs.getString("address")));
+            csv.write(',');
+            csv.write(Boolean.toString(rs.getBoolean("is_active")));
+            csv.write(',');
+            csv.write(Boolean.toString(rs.getBoolean("is_verified")));
+            csv.write(',');
+            csv.write(csvField(timestamp(rs.getTimestamp("created_at"))));
+            csv.write('\n');
+        });
+        csv.flush();
+        return rows;
+    }
+
+    private long stream(RowWriter writer) {
+        long[] rows = {0};
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            try {
+                writer.write(rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rows[0]++;
+        });
+        return rows[0];
+    }
+
+    private static String timestamp(Timestamp value) {
+        return value == null ? null : value.toLocalDateTime().toString();
+    }
+
+    static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                quote = true;
+                break;
+            }
+        }
+        return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+    }
+}
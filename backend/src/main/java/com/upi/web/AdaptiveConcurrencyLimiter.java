@@ -0,0 +1,105 @@
+package com.upi.web;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gradient-based adaptive concurrency limit.
+ *
+ * Tracks a slow-moving average of request latency (the "no queueing" baseline) and a fast
+ * one (current conditions). When current latency rises above the baseline the limit is
+ * scaled down by the ratio; while latency is at baseline the limit grows by roughly
+ * sqrt(limit) per update, so the in-flight cap settles where queueing starts.
+ *
+ * Each priority may use a share of the limit, so lower priorities are shed first as
+ * in-flight requests approach it.
+ */
+public class AdaptiveConcurrencyLimiter {
+    private static final double LONG_RTT_ALPHA = 0.005;
+    private static final double SHORT_RTT_ALPHA = 0.1;
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    private volatile double limit;
+    private double longRttNanos;
+    private double shortRttNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * @return true if the request was admitted and must later be passed to {@link #release}
+     */
+    public boolean tryAcquire(RequestPriority priority) {
+        int allowed = Math.max(1, (int) (limit * priority.getLimitShare()));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases an admitted request.
+     *
+     * @param latencyNanos observed latency, or a negative value to release without sampling
+     */
+    public void release(long latencyNanos) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        if (latencyNanos > 0) {
+            sample(latencyNanos, inFlightAtCompletion);
+        }
+    }
+
+    private void sample(long latencyNanos, int inFlightAtCompletion) {
+        // Lossy under contention: a skipped sample costs nothing, a blocked request thread does
+        if (!updateLock.tryLock()) {
+            return;
+        }
+        try {
+            if (longRttNanos == 0) {
+                longRttNanos = latencyNanos;
+                shortRttNanos = latencyNanos;
+                return;
+            }
+            shortRttNanos += SHORT_RTT_ALPHA * (latencyNanos - shortRttNanos);
+            longRttNanos += LONG_RTT_ALPHA * (latencyNanos - longRttNanos);
+
+            // Let the baseline recover quickly after a sustained slow period ends
+            if (longRttNanos > 2 * shortRttNanos) {
+                longRttNanos = 2 * shortRttNanos;
+            }
+
+            double current = limit;
+            // Application-limited: no evidence the limit is too low, so don't grow it
+            if (inFlightAtCompletion < current / 2) {
+                return;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, longRttNanos / shortRttNanos));
+            double target = current * gradient + Math.sqrt(current);
+            double next = current * (1 - SMOOTHING) + target * SMOOTHING;
+            limit = Math.max(minLimit, Math.min(maxLimit, next));
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,111 @@
+package com.upi.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Sheds load with 503 once in-flight requests exceed the adaptive limit for their priority,
+ * instead of letting them queue in Tomcat until everything times out.
+ * Async requests hold their slot until the async cycle completes.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final Map<RequestPriority, Counter> shedByPriority = new EnumMap<>(RequestPriority.class);
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+        for (RequestPriority priority : RequestPriority.values()) {
+            shedByPriority.put(priority, Counter.builder("concurrency.shed")
+                    .description("Requests rejected by the adaptive concurrency limiter")
+                    .tag("priority", priority.name())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests currently admitted by the concurrency limiter")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestPriority priority = RequestPriority.of(request);
+        if (!limiter.tryAcquire(priority)) {
+            shedByPriority.get(priority).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Service overloaded");
+            error.put("message", "Server is at capacity. Please retry shortly.");
+            objectMapper.writeValue(response.getOutputStream(), error);
+            return;
+        }
+
+        // Critical requests are cheap and always admitted first, and exports are long by design;
+        // keep both out of the latency signal
+        boolean sample = priority != RequestPriority.CRITICAL && !RequestPriority.isStreaming(request);
+        long started = System.nanoTime();
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                async = true;
+                request.getAsyncContext().addListener(new ReleaseOnComplete(started, sample));
+            }
+        } finally {
+            if (!async) {
+                limiter.release(sample ? System.nanoTime() - started : -1);
+            }
+        }
+    }
+
+    private final class ReleaseOnComplete implements AsyncListener {
+        private final long started;
+        private final boolean sample;
+
+        ReleaseOnComplete(long started, boolean sample) {
+            this.started = started;
+            this.sample = sample;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            limiter.release(sample ? System.nanoTime() - started : -1);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // onComplete follows a timeout; nothing to release here
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            // onComplete follows an error; nothing to release here
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
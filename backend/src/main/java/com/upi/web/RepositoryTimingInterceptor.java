@@ -0,0 +1,23 @@
+package com.upi.web;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Adds the time of each repository call to the current request's DB phase. Installed as the
+ * outermost advice on repository proxies, so transaction commit is included.
+ */
+public class RepositoryTimingInterceptor implements MethodInterceptor {
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (RequestTiming.current() == null) {
+            return invocation.proceed();
+        }
+        long started = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            RequestTiming.record(RequestTiming.Phase.DB, System.nanoTime() - started);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.upi.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Load-shedding classes. A request may only be admitted while in-flight requests are below
+ * its share of the adaptive limit, so BULK traffic is shed first and CRITICAL last.
+ */
+public enum RequestPriority {
+    /** Health checks, metric scrapes and single-dispute status reads; allowed to overrun the limit a little. */
+    CRITICAL(1.25),
+    /** Auth, profile, dispute lists and stats, and everything else. */
+    NORMAL(1.0),
+    /** Dispute filing, user listing and export. */
+    BULK(0.75);
+
+    private final double limitShare;
+
+    RequestPriority(double limitShare) {
+        this.limitShare = limitShare;
+    }
+
+    public double getLimitShare() {
+        return limitShare;
+    }
+
+    public static RequestPriority of(HttpServletRequest request) {
+        String path = request.getServletPath();
+        String method = request.getMethod();
+        // Health checks and metric scrapes must keep working while overloaded, or nobody can see it
+        if (path.equals("/api/health") || path.startsWith("/actuator/health") || path.equals("/actuator/prometheus")) {
+            return CRITICAL;
+        }
+        if (path.startsWith("/api/disputes")) {
+            if ("GET".equals(method)) {
+                return isDisputeStatus(path) ? CRITICAL : NORMAL;
+            }
+            return "POST".equals(method) ? BULK : NORMAL;
+        }
+        if (path.equals("/api/users") || isStreaming(request)) {
+            return BULK;
+        }
+        return NORMAL;
+    }
+
+    // Only GET /api/disputes/{id} is a status read; lists, per-user reads and stats scan many rows
+    private static boolean isDisputeStatus(String path) {
+        String prefix = "/api/disputes/";
+        if (!path.startsWith(prefix)) {
+            return false;
+        }
+        String id = path.substring(prefix.length());
+        return !id.isEmpty() && id.indexOf('/') < 0 && !id.equals("stats");
+    }
+
+    /**
+     * Exports run for as long as the data takes to stream, so their latency says nothing about load.
+     */
+    public static boolean isStreaming(HttpServletRequest request) {
+        return request.getServletPath().equals("/api/users/export");
+    }
+}
@@ -0,0 +1,119 @@
+package com.upi.web;
+
+import java.util.Locale;
+import org.slf4j.spi.LoggingEventBuilder;
+
+/**
+ * Where one request's time went: auth, database, bank and JSON serialization.
+ *
+ * Bound to the request thread by {@link ServerTimingFilter}; code that does timed work calls
+ * {@link #record} and it is a no-op outside a request. Rendered as the Server-Timing header
+ * and the access-log line.
+ */
+public final class RequestTiming {
+    public enum Phase {
+        AUTH("auth"),
+        DB("db"),
+        BANK("bank"),
+        JSON("json");
+
+        private final String metricName;
+
+        Phase(String metricName) {
+            this.metricName = metricName;
+        }
+
+        public String getMetricName() {
+            return metricName;
+        }
+    }
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+    private static final Phase[] PHASES = Phase.values();
+
+    private final long startedNanos;
+    private final long[] nanos = new long[PHASES.length];
+    private final int[] counts = new int[PHASES.length];
+
+    RequestTiming(long startedNanos) {
+        this.startedNanos = startedNanos;
+    }
+
+    /**
+     * The timing of the request being handled on this thread, or null.
+     */
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    static void bind(RequestTiming timing) {
+        CURRENT.set(timing);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Adds elapsed time to a phase of the current request, if there is one.
+     */
+    public static void record(Phase phase, long elapsedNanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.add(phase, elapsedNanos);
+        }
+    }
+
+    void add(Phase phase, long elapsedNanos) {
+        nanos[phase.ordinal()] += elapsedNanos;
+        counts[phase.ordinal()]++;
+    }
+
+    public long getNanos(Phase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    public int getCount(Phase phase) {
+        return counts[phase.ordinal()];
+    }
+
+    public long elapsedNanos(long nowNanos) {
+        return nowNanos - startedNanos;
+    }
+
+    /**
+     * Server-Timing header value, e.g. {@code db;dur=3.1;desc="2 calls", bank;dur=41.0, app;dur=45.6}.
+     * Phases that did not run are left out; app is the time in the application so far.
+     */
+    public String toServerTiming(long nowNanos) {
+        StringBuilder header = new StringBuilder(96);
+        for (Phase phase : PHASES) {
+            int count = counts[phase.ordinal()];
+            if (count == 0) {
+                continue;
+            }
+            header.append(phase.getMetricName()).append(";dur=").append(millis(nanos[phase.ordinal()]));
+            if (count > 1) {
+                header.append(";desc=\"").append(count).append(" calls\"");
+            }
+            header.append(", ");
+        }
+        return header.append("app;dur=").append(millis(elapsedNanos(nowNanos))).toString();
+    }
+
+    /**
+     * Adds total_ms and per-phase {@code <phase>_ms} / {@code <phase>_calls} key-values to a log line.
+     */
+    public LoggingEventBuilder addKeyValues(LoggingEventBuilder line, long nowNanos) {
+        line.addKeyValue("total_ms", millis(elapsedNanos(nowNanos)));
+        for (Phase phase : PHASES) {
+            line.addKeyValue(phase.getMetricName() + "_ms", millis(nanos[phase.ordinal()]));
+            line.addKeyValue(phase.getMetricName() + "_calls", counts[phase.ordinal()]);
+        }
+        return line;
+    }
+
+    static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,53 @@
+package com.upi.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Binds a {@link RequestTiming} to each API request and writes one structured access-log
+ * line (key-values on the com.upi.access logger) when it completes.
+ *
+ * The Server-Timing header itself is added by {@link ServerTimingJsonConverter}, just before the
+ * JSON body is written, because by the time this filter regains control the response is committed.
+ * Async requests (auth endpoints) keep their timing in a request attribute and are logged once,
+ * after the async dispatch that writes the response.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+    private static final Logger accessLog = LoggerFactory.getLogger("com.upi.access");
+    private static final String TIMING_ATTRIBUTE = RequestTiming.class.getName();
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestTiming timing = (RequestTiming) request.getAttribute(TIMING_ATTRIBUTE);
+        if (timing == null) {
+            timing = new RequestTiming(System.nanoTime());
+            request.setAttribute(TIMING_ATTRIBUTE, timing);
+        }
+        RequestTiming.bind(timing);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTiming.unbind();
+            if (!request.isAsyncStarted() && accessLog.isInfoEnabled()) {
+                timing.addKeyValues(accessLog.atInfo().setMessage("request")
+                                .addKeyValue("method", request.getMethod())
+                                .addKeyValue("path", request.getRequestURI())
+                                .addKeyValue("status", response.getStatus()),
+                        System.nanoTime())
+                        .log();
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.upi.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+/**
+ * Jackson converter that serializes into a buffer first, so serialization time can be measured
+ * and the Server-Timing header added while headers can still be changed. The buffered body also
+ * gets an exact Content-Length. Outside a timed request it behaves like the stock converter.
+ */
+public class ServerTimingJsonConverter extends MappingJackson2HttpMessageConverter {
+    public static final String HEADER = "Server-Timing";
+
+    public ServerTimingJsonConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        RequestTiming timing = RequestTiming.current();
+        if (timing == null) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+
+        long started = System.nanoTime();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(512);
+        super.writeInternal(object, type, new BufferedOutputMessage(buffer, outputMessage.getHeaders()));
+        long finished = System.nanoTime();
+        timing.add(RequestTiming.Phase.JSON, finished - started);
+
+        HttpHeaders headers = outputMessage.getHeaders();
+        headers.set(HEADER, timing.toServerTiming(finished));
+        headers.setContentLength(buffer.size());
+        buffer.writeTo(outputMessage.getBody());
+    }
+
+    private static final class BufferedOutputMessage implements HttpOutputMessage {
+        private final OutputStream body;
+        private final HttpHeaders headers;
+
+        BufferedOutputMessage(OutputStream body, HttpHeaders headers) {
+            this.body = body;
+            this.headers = headers;
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
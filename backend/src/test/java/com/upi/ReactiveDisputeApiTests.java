@@ -0,0 +1,85 @@
+package com.upi;
+
+import com.upi.dto.DisputeRequest;
+import com.upi.dto.DisputeResponse;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+// Nothing listens on port 9, so every bank call takes the amount fallback
+@SpringBootTest(classes = DisputeApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.bank.url=http://127.0.0.1:9")
+@ActiveProfiles({"dev", "reactive"})
+class ReactiveDisputeApiTests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void testFileDisputeAndReadItBack() {
+        // Arrange
+        DisputeRequest request = new DisputeRequest("TXN_REACTIVE_1", "merchant@upi", 500.0, "9876543210", "Not received");
+
+        // Act
+        DisputeResponse filed = webTestClient.post().uri("/api/disputes").bodyValue(request)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(DisputeResponse.class).returnResult().getResponseBody();
+
+        // Assert
+        assertNotNull(filed);
+        assertEquals("VERIFIED_FAILURE", filed.getStatus());
+        // The refund reference comes from the bank once it settles; nothing is invented locally
+        assertNull(filed.getNeftReference());
+        webTestClient.get().uri("/api/disputes/{id}", filed.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.transactionId").isEqualTo("TXN_REACTIVE_1")
+                .jsonPath("$.status").isEqualTo("VERIFIED_FAILURE");
+    }
+
+    @Test
+    void testDuplicateAndInvalidFilingsAreRejected() {
+        // Arrange
+        DisputeRequest request = new DisputeRequest("TXN_REACTIVE_2", "merchant@upi", 500.0, "9876543210", "Not received");
+        DisputeRequest invalid = new DisputeRequest("TXN_REACTIVE_3", "merchant@upi", 500.0, "123", "Not received");
+        webTestClient.post().uri("/api/disputes").bodyValue(request).exchange().expectStatus().isCreated();
+
+        // Act & Assert
+        webTestClient.post().uri("/api/disputes").bodyValue(request)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.BAD_REQUEST)
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Dispute already filed for this transaction");
+        webTestClient.post().uri("/api/disputes").bodyValue(invalid)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.BAD_REQUEST)
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Phone must be 10 digits");
+        webTestClient.get().uri("/api/disputes/{id}", 999_999)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void testNonNumericParametersAreBadRequests() {
+        // Act & Assert
+        webTestClient.get().uri("/api/disputes/stats?hours=abc")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.BAD_REQUEST)
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Bad Request")
+                .jsonPath("$.message").isEqualTo("Parameter 'hours' must be an integer");
+        webTestClient.get().uri("/api/disputes/merchants/velocity?limit=ten")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.BAD_REQUEST);
+        webTestClient.get().uri("/api/disputes/stats?hours=12")
+                .exchange()
+                .expectStatus().isOk();
+    }
+}
@@ -0,0 +1,122 @@
+package com.upi.controller;
+
+import com.upi.dto.LoginRequest;
+import com.upi.dto.LoginResponse;
+import com.upi.service.AuthService;
+import com.upi.service.PasswordHashingExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.Mock;
+import static org.mockito.Mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+@ExtendWith(MockitoExtension.class)
+public class AuthControllerTest {
+    private static final String LOGIN = "{\"usernameOrEmail\":\"asha\",\"password\":\"secret123\"}";
+
+    @Mock
+    private AuthService authService;
+
+    private PasswordHashingExecutor passwordHashingExecutor;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        passwordHashingExecutor = new PasswordHashingExecutor(1, 1, new SimpleMeterRegistry());
+        AuthController controller = new AuthController();
+        ReflectionTestUtils.setField(controller, "authService", authService);
+        ReflectionTestUtils.setField(controller, "passwordHashingExecutor", passwordHashingExecutor);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingExecutor.shutdown();
+    }
+
+    @Test
+    void testLoginCompletesAsynchronouslyOnTheHashingPool() throws Exception {
+        // Arrange
+        AtomicReference<String> hashingThread = new AtomicReference<>();
+        when(authService.login(any(LoginRequest.class))).thenAnswer(invocation -> {
+            hashingThread.set(Thread.currentThread().getName());
+            return new LoginResponse("jwt-token", "asha", "asha@example.com", "Asha", 1L, true, null);
+        });
+
+        // Act
+        MvcResult started = mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(LOGIN))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String requestThread = Thread.currentThread().getName();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("jwt-token"));
+        assertTrue(hashingThread.get().startsWith("password-hashing-"), hashingThread.get());
+        assertNotEquals(requestThread, hashingThread.get());
+    }
+
+    @Test
+    void testFailedLoginIsUnauthorizedWithTheCause() throws Exception {
+        // Arrange
+        when(authService.login(any(LoginRequest.class))).thenThrow(new RuntimeException("Invalid credentials"));
+
+        // Act
+        MvcResult started = mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(LOGIN))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.error").value("Invalid credentials"));
+    }
+
+    @Test
+    void testFullHashingQueueAnswers503WithRetryAfter() throws Exception {
+        // Arrange - block the only hashing thread, then take the only queue slot
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(authService.login(any(LoginRequest.class))).thenAnswer(invocation -> {
+            running.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new LoginResponse("jwt-token", "asha", "asha@example.com", "Asha", 1L, true, null);
+        });
+        MvcResult busy = mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(LOGIN))
+                .andReturn();
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        MvcResult queued = mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(LOGIN))
+                .andReturn();
+
+        // Act
+        MvcResult rejected = mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(LOGIN))
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(rejected))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.error").value("Authentication service is busy. Please retry shortly."));
+        release.countDown();
+        mockMvc.perform(asyncDispatch(busy)).andExpect(status().isOk());
+        mockMvc.perform(asyncDispatch(queued)).andExpect(status().isOk());
+        verify(authService, times(2)).login(any(LoginRequest.class));
+    }
+}
@@ -0,0 +1,63 @@
+package com.upi.jfr;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class FlightRecordingManagerTest {
+
+    @TempDir
+    Path dumpDir;
+
+    private FlightRecordingManager manager;
+
+    @BeforeEach
+    void setUp() {
+        manager = new FlightRecordingManager("default", 5, 10, dumpDir.toString(), false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        manager.close();
+    }
+
+    @Test
+    void testDumpContainsApplicationEventsAndRecordingKeepsRunning() throws Exception {
+        // Arrange
+        manager.start();
+        BankVerificationEvent event = new BankVerificationEvent();
+        event.begin();
+        event.end();
+        event.transactionId = "TXN123456";
+        event.outcome = "VERIFIED_FAILURE";
+        event.commit();
+
+        // Act
+        Path file = manager.dump();
+
+        // Assert
+        assertTrue(Files.size(file) > 0);
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals("com.upi.BankVerification"))
+                .collect(Collectors.toList());
+        assertEquals(1, events.size());
+        assertEquals("TXN123456", events.get(0).getString("transactionId"));
+        assertEquals("VERIFIED_FAILURE", events.get(0).getString("outcome"));
+        assertEquals(true, manager.status().get("running"));
+    }
+
+    @Test
+    void testDumpWithoutRunningRecordingFails() {
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> manager.dump());
+        assertFalse(manager.stop());
+    }
+}
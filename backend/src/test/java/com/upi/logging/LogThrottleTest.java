@@ -0,0 +1,44 @@
+package com.upi.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class LogThrottleTest {
+
+    @Test
+    void testPerSecondLimitResetsEachWindow() {
+        // Arrange
+        AtomicLong clock = new AtomicLong(0);
+        LogThrottle throttle = new LogThrottle(2, 1, clock::get);
+
+        // Act & Assert
+        assertTrue(throttle.tryAcquire());
+        assertTrue(throttle.tryAcquire());
+        assertFalse(throttle.tryAcquire());
+        assertFalse(throttle.tryAcquire());
+        assertEquals(2, throttle.suppressed());
+        assertEquals(0, throttle.suppressed());
+
+        clock.set(1_000_000_000L);
+        assertTrue(throttle.tryAcquire());
+    }
+
+    @Test
+    void testSamplingLetsEveryNthCallThrough() {
+        // Arrange
+        LogThrottle throttle = new LogThrottle(Integer.MAX_VALUE, 3, () -> 0L);
+
+        // Act
+        int logged = 0;
+        for (int i = 0; i < 9; i++) {
+            if (throttle.tryAcquire()) {
+                logged++;
+            }
+        }
+
+        // Assert
+        assertEquals(3, logged);
+        assertEquals(6, throttle.suppressed());
+    }
+}
@@ -0,0 +1,50 @@
+package com.upi.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class JwtTokenProviderTest {
+    private static final String SECRET = "test_secret_key_min_64_characters_long_for_hs512_signing_2024_upi";
+
+    @Test
+    void testFullCacheDropsLeastRecentlyUsedAndCachesNewTokens() {
+        // Arrange
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 86_400_000L, 2);
+        String alice = provider.generateToken("alice", 1L);
+        String bob = provider.generateToken("bob", 2L);
+        String carol = provider.generateToken("carol", 3L);
+        provider.resolveUsername(alice);
+        provider.resolveUsername(bob);
+        provider.resolveUsername(alice);
+
+        // Act
+        String username = provider.resolveUsername(carol);
+
+        // Assert
+        assertEquals("carol", username);
+        assertEquals(2, provider.cachedTokens());
+        assertTrue(provider.isCached(alice));
+        assertTrue(provider.isCached(carol));
+        assertFalse(provider.isCached(bob));
+        assertEquals("bob", provider.resolveUsername(bob));
+        assertNull(provider.resolveUsername(bob + "x"));
+    }
+
+    @Test
+    void testPruneDropsOnlyExpiredTokens() throws InterruptedException {
+        // Arrange - JWT expiry has one second resolution, so give the short-lived token two
+        JwtTokenProvider shortLived = new JwtTokenProvider(SECRET, 2_000L, 10);
+        String token = shortLived.generateToken("alice", 1L);
+        assertEquals("alice", shortLived.resolveUsername(token));
+        shortLived.pruneExpiredTokens();
+        assertEquals(1, shortLived.cachedTokens());
+
+        // Act
+        Thread.sleep(2_100);
+        shortLived.pruneExpiredTokens();
+
+        // Assert
+        assertEquals(0, shortLived.cachedTokens());
+        assertNull(shortLived.resolveUsername(token));
+    }
+}
@@ -0,0 +1,176 @@
+package com.upi.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class RateLimitFilterTest {
+    private static final String BODY = "{\"phone\":\"9876543210\",\"transactionId\":\"TXN1\"}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimitFilter filter = new RateLimitFilter(
+            Map.of("/api/disputes", new TokenBucketRateLimiter("dispute", 1, 1, 100, 600)),
+            objectMapper, meterRegistry);
+
+    @Test
+    void testSecondRequestFromOnePhoneGets429WithRetryAfterAndJsonBody() throws Exception {
+        // Arrange
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        MockFilterChain secondChain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(post(BODY), first, new MockFilterChain());
+        filter.doFilter(post(BODY), second, secondChain);
+
+        // Assert
+        assertEquals(200, first.getStatus());
+        assertEquals(429, second.getStatus());
+        assertNull(secondChain.getRequest(), "rejected request must not reach the controller");
+        assertEquals("60", second.getHeader("Retry-After"));
+        assertEquals("application/json", second.getContentType());
+        JsonNode error = objectMapper.readTree(second.getContentAsByteArray());
+        assertEquals("Too many requests", error.path("error").asText());
+        assertEquals("Rate limit exceeded. Retry after 60 seconds.", error.path("message").asText());
+        assertEquals(1.0, meterRegistry.get("ratelimit.rejected").tag("limiter", "dispute").counter().count());
+    }
+
+    @Test
+    void testControllerCanReadTheBufferedBodyAgain() throws Exception {
+        // Arrange
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(post(BODY), new MockHttpServletResponse(), chain);
+        ServletRequest downstream = chain.getRequest();
+
+        // Assert
+        assertEquals(BODY, new String(downstream.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+        assertEquals(BODY, downstream.getReader().readLine());
+        assertEquals(BODY.length(), downstream.getContentLength());
+    }
+
+    @Test
+    void testReadListenerOnTheBufferedBodyIsCalledBackAtOnce() throws Exception {
+        // Arrange
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(post(BODY), new MockHttpServletResponse(), chain);
+        ServletInputStream in = chain.getRequest().getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        List<String> events = new ArrayList<>();
+
+        // Act
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                events.add("data");
+                byte[] buffer = new byte[8];
+                while (in.isReady() && !in.isFinished()) {
+                    read.write(buffer, 0, in.read(buffer));
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.add("done");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                events.add("error");
+            }
+        });
+
+        // Assert
+        assertEquals(List.of("data", "done"), events);
+        assertEquals(BODY, read.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testRequestsWithoutPhoneAreKeyedByRemoteAddress() throws Exception {
+        // Arrange
+        MockHttpServletRequest fromA = post("{}");
+        fromA.setRemoteAddr("10.0.0.1");
+        MockHttpServletRequest fromB = post("not json");
+        fromB.setRemoteAddr("10.0.0.2");
+        MockHttpServletRequest fromAAgain = post("{\"phone\":\" \"}");
+        fromAAgain.setRemoteAddr("10.0.0.1");
+        MockHttpServletResponse lastResponse = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(fromA, new MockHttpServletResponse(), new MockFilterChain());
+        MockHttpServletResponse responseB = new MockHttpServletResponse();
+        filter.doFilter(fromB, responseB, new MockFilterChain());
+        filter.doFilter(fromAAgain, lastResponse, new MockFilterChain());
+
+        // Assert
+        assertEquals(200, responseB.getStatus());
+        assertEquals(429, lastResponse.getStatus());
+    }
+
+    @Test
+    void testChunkedBodiesAreKeyedByPhoneAndCappedAt16Kb() throws Exception {
+        // Arrange - no Content-Length, as with Transfer-Encoding: chunked
+        MockHttpServletRequest fromA = chunked(post(BODY));
+        fromA.setRemoteAddr("10.0.0.1");
+        MockHttpServletRequest fromB = chunked(post(BODY));
+        fromB.setRemoteAddr("10.0.0.2");
+        MockHttpServletRequest oversized = chunked(post("{\"phone\":\"" + "9".repeat(16 * 1024) + "\"}"));
+        MockHttpServletResponse responseB = new MockHttpServletResponse();
+        MockHttpServletResponse oversizedResponse = new MockHttpServletResponse();
+        MockFilterChain oversizedChain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(fromA, new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(fromB, responseB, new MockFilterChain());
+        filter.doFilter(oversized, oversizedResponse, oversizedChain);
+
+        // Assert
+        assertEquals(429, responseB.getStatus(), "same phone from another address shares the bucket");
+        assertEquals(413, oversizedResponse.getStatus());
+        assertNull(oversizedChain.getRequest());
+        assertEquals("Payload too large",
+                objectMapper.readTree(oversizedResponse.getContentAsByteArray()).path("error").asText());
+    }
+
+    private static MockHttpServletRequest chunked(MockHttpServletRequest request) {
+        MockHttpServletRequest chunked = new MockHttpServletRequest("POST", "/api/disputes") {
+            @Override
+            public int getContentLength() {
+                return -1;
+            }
+
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        chunked.setServletPath(request.getServletPath());
+        chunked.setContentType(request.getContentType());
+        chunked.setContent(request.getContentAsByteArray());
+        return chunked;
+    }
+
+    private static MockHttpServletRequest post(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/disputes");
+        request.setServletPath("/api/disputes");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,75 @@
+package com.upi.security;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class TokenBucketRateLimiterTest {
+    private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+    @Test
+    void testBucketEmptiesThenRefillsAtTheConfiguredRate() {
+        // Arrange
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("test", 3, 60, 100, 600, clock::get);
+
+        // Act & Assert
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("phone:1"));
+        }
+        // 60 per minute is one token a second
+        assertEquals(1000, limiter.tryAcquire("phone:1"));
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(400));
+        assertEquals(600, limiter.tryAcquire("phone:1"));
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+        assertEquals(0, limiter.tryAcquire("phone:1"));
+        assertTrue(limiter.tryAcquire("phone:1") > 0);
+        // Other keys have their own bucket, and a long pause refills only up to capacity
+        assertEquals(0, limiter.tryAcquire("phone:2"));
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(10));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("phone:1"));
+        }
+        assertTrue(limiter.tryAcquire("phone:1") > 0);
+    }
+
+    @Test
+    void testSaturatedTableEvictsLeastRecentlyUsedAndStillAdmitsNewKeys() {
+        // Arrange
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("test", 1, 1, 100, 600, clock::get);
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire("phone:" + i);
+            clock.incrementAndGet();
+        }
+        // phone:0 is used again, so phone:1 to phone:10 are now the least recently used
+        limiter.tryAcquire("phone:0");
+
+        // Act
+        long newKey = limiter.tryAcquire("phone:new");
+
+        // Assert
+        assertEquals(0, newKey);
+        assertEquals(91, limiter.size());
+        assertTrue(limiter.tryAcquire("phone:0") > 0, "recently used bucket was kept");
+        assertTrue(limiter.tryAcquire("phone:11") > 0, "bucket outside the oldest tenth was kept");
+        assertEquals(0, limiter.tryAcquire("phone:5"), "evicted client starts with a full bucket");
+    }
+
+    @Test
+    void testEvictIdleDropsOnlyBucketsPastTheIdleTimeout() {
+        // Arrange
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("test", 1, 1, 100, 60, clock::get);
+        limiter.tryAcquire("phone:old");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(45));
+        limiter.tryAcquire("phone:recent");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+        // Act
+        limiter.evictIdle();
+
+        // Assert
+        assertEquals(1, limiter.size());
+        assertTrue(limiter.tryAcquire("phone:recent") > 0, "recent bucket kept its state");
+        assertEquals(0, limiter.tryAcquire("phone:old"), "evicted client starts with a full bucket");
+    }
+}
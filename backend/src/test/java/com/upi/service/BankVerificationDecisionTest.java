@@ -0,0 +1,26 @@
+package com.upi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class BankVerificationDecisionTest {
+
+    @Test
+    void testSuccessfulTransactionIsFalseClaim() {
+        assertEquals(BankVerificationDecision.FALSE_CLAIM, BankVerificationDecision.decide("SUCCESS", 1000.0, 1000.0));
+    }
+
+    @Test
+    void testFailedTransactionOutcomes() {
+        assertEquals(BankVerificationDecision.VERIFIED_FAILURE, BankVerificationDecision.decide("FAILED", 1000.0, 1000.0));
+        assertEquals(BankVerificationDecision.VERIFIED_FAILURE, BankVerificationDecision.decide("failed", 1000.0, 1000.005));
+        assertEquals(BankVerificationDecision.AMOUNT_MISMATCH, BankVerificationDecision.decide("FAILED", 1000.0, 999.0));
+        assertEquals(BankVerificationDecision.HIGH_AMOUNT, BankVerificationDecision.decide("FAILED", 5000.0, 5000.0));
+    }
+
+    @Test
+    void testBankUnavailableFallsBackOnAmount() {
+        assertEquals(BankVerificationDecision.VERIFIED_FAILURE, BankVerificationDecision.whenBankUnavailable(4999.0));
+        assertEquals(BankVerificationDecision.HIGH_AMOUNT, BankVerificationDecision.whenBankUnavailable(5000.0));
+    }
+}
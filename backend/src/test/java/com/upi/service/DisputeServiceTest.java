@@ -4,6 +4,9 @@ import com.upi.dto.DisputeRequest;
 import com.upi.dto.DisputeResponse;
 import com.upi.model.Dispute;
 import com.upi.repository.DisputeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
 import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,8 +14,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import static org.mockito.Mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @ExtendWith(MockitoExtension.class)
 public class DisputeServiceTest {
@@ -20,6 +26,21 @@ public class DisputeServiceTest {
     @Mock
     private DisputeRepository disputeRepository;
 
+    @Mock
+    private DisputeStatsService disputeStatsService;
+
+    @Mock
+    private MerchantVelocityTracker merchantVelocityTracker;
+
+    @Mock
+    private BankApiClient bankApiClient;
+
+    @Mock
+    private RefundDispatcher refundDispatcher;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private DisputeService disputeService;
 
@@ -49,6 +70,7 @@ public class DisputeServiceTest {
     void testFileDisputeSuccess() {
         // Arrange
         when(disputeRepository.findByTransactionId("TXN123456")).thenReturn(Optional.empty());
+        when(bankApiClient.verifyTransaction("TXN123456", 1000.0)).thenReturn(BankVerificationDecision.VERIFIED_FAILURE);
         when(disputeRepository.save(any(Dispute.class))).thenReturn(mockDispute);
 
         // Act
@@ -67,6 +89,42 @@ public class DisputeServiceTest {
         verify(disputeRepository, times(1)).save(any(Dispute.class));
     }
 
+    @Test
+    void testFileDisputeRecordsTimerByOutcome() {
+        // Arrange
+        when(disputeRepository.findByTransactionId("TXN123456")).thenReturn(Optional.empty());
+        when(bankApiClient.verifyTransaction("TXN123456", 1000.0)).thenReturn(BankVerificationDecision.VERIFIED_FAILURE);
+        when(disputeRepository.save(any(Dispute.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        disputeService.fileDispute(validRequest);
+
+        // Assert
+        assertEquals(1, meterRegistry.get("dispute.file").tag("outcome", "VERIFIED_FAILURE").timer().count());
+    }
+
+    @Test
+    void testFileDisputeQueuesRefundOnlyWhenVerified() {
+        // Arrange
+        DisputeRequest falseClaim = new DisputeRequest("TXN654321", "merchant@upi", 1000.0, "9876543210", "Not received");
+        when(disputeRepository.findByTransactionId(anyString())).thenReturn(Optional.empty());
+        when(bankApiClient.verifyTransaction("TXN123456", 1000.0)).thenReturn(BankVerificationDecision.VERIFIED_FAILURE);
+        when(bankApiClient.verifyTransaction("TXN654321", 1000.0)).thenReturn(BankVerificationDecision.FALSE_CLAIM);
+        when(disputeRepository.save(any(Dispute.class))).thenAnswer(invocation -> {
+            Dispute saved = invocation.getArgument(0);
+            saved.setId("TXN123456".equals(saved.getTransactionId()) ? 1L : 2L);
+            return saved;
+        });
+
+        // Act
+        disputeService.fileDispute(validRequest);
+        disputeService.fileDispute(falseClaim);
+
+        // Assert
+        verify(refundDispatcher, times(1)).submit(1L);
+        verify(refundDispatcher, never()).submit(2L);
+    }
+
     @Test
     void testFileDisputeDuplicate() {
         // Arrange
@@ -137,6 +195,7 @@ public class DisputeServiceTest {
     void testDisputeIdFormattingCorrect() {
         // Arrange
         when(disputeRepository.findByTransactionId("TXN123456")).thenReturn(Optional.empty());
+        when(bankApiClient.verifyTransaction("TXN123456", 1000.0)).thenReturn(BankVerificationDecision.VERIFIED_FAILURE);
         when(disputeRepository.save(any(Dispute.class))).thenReturn(mockDispute);
 
         // Act
@@ -147,4 +206,24 @@ public class DisputeServiceTest {
         assertTrue(response.getDisputeId().startsWith("DIS_"));
         assertTrue(response.getDisputeId().length() >= 9); // DIS_XXXXXX format
     }
+
+    @Test
+    void testDeletedDisputesLeaveTheStatsOnlyOnceTheTransactionCommits() {
+        // Arrange
+        when(disputeRepository.findByPhone("9876543210")).thenReturn(List.of(mockDispute));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            disputeService.deleteUserDisputes("9876543210");
+
+            // Assert
+            verify(disputeRepository).deleteAll(List.of(mockDispute));
+            verify(disputeStatsService, never()).recordRemoved(any());
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+            verify(disputeStatsService).recordRemoved(mockDispute);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
 }
@@ -0,0 +1,156 @@
+package com.upi.service;
+
+import com.upi.dto.DisputeStatsResponse;
+import com.upi.model.Dispute;
+import com.upi.repository.DisputeRepository;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+public class DisputeStatsServiceTest {
+
+    @Mock
+    private DisputeRepository disputeRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DisputeStatsService statsService;
+
+    private Instant now = Instant.parse("2024-06-01T12:30:00Z");
+
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        // No snapshot caching, so every read sees the latest update
+        statsService = new DisputeStatsService(disputeRepository, transactionManager, 48, 0, clock);
+    }
+
+    @Test
+    void testCreateTransitionAndRemoveAreReflectedInStats() {
+        // Arrange
+        Dispute first = dispute("merchant-a@upi", 100.0, Dispute.DisputeStatus.MANUAL_REVIEW);
+        Dispute second = dispute("merchant-a@upi", 50.0, Dispute.DisputeStatus.FALSE_CLAIM);
+        Dispute third = dispute("merchant-b@upi", 25.0, Dispute.DisputeStatus.VERIFIED_FAILURE);
+
+        // Act
+        statsService.recordCreated(first);
+        statsService.recordCreated(second);
+        statsService.recordCreated(third);
+        first.setStatus(Dispute.DisputeStatus.VERIFIED_FAILURE);
+        statsService.recordTransition(first, Dispute.DisputeStatus.MANUAL_REVIEW);
+        statsService.recordRemoved(second);
+        DisputeStatsResponse stats = statsService.getStats(10, 24);
+
+        // Assert
+        assertEquals(2, stats.getTotalCount());
+        assertEquals(125.0, stats.getTotalAmount(), 0.001);
+        assertEquals(0, stats.getByStatus().get("MANUAL_REVIEW").getCount());
+        assertEquals(0, stats.getByStatus().get("FALSE_CLAIM").getCount());
+        assertEquals(2, stats.getByStatus().get("VERIFIED_FAILURE").getCount());
+        assertEquals(125.0, stats.getByStatus().get("VERIFIED_FAILURE").getAmount(), 0.001);
+        assertEquals(1, stats.getByMerchant().get("merchant-a@upi").getCount());
+        assertEquals(1, stats.getByHour().size());
+    }
+
+    @Test
+    void testMerchantLimitKeepsBusiestMerchants() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            statsService.recordCreated(dispute("busy@upi", 10.0, Dispute.DisputeStatus.MANUAL_REVIEW));
+        }
+        statsService.recordCreated(dispute("quiet@upi", 10.0, Dispute.DisputeStatus.MANUAL_REVIEW));
+
+        // Act
+        DisputeStatsResponse stats = statsService.getStats(1, 24);
+
+        // Assert
+        assertEquals(1, stats.getByMerchant().size());
+        assertEquals(3, stats.getByMerchant().get("busy@upi").getCount());
+    }
+
+    @Test
+    void testMerchantsAtZeroAndHoursPastRetentionAreDropped() {
+        // Arrange
+        Dispute old = dispute("old@upi", 10.0, Dispute.DisputeStatus.MANUAL_REVIEW);
+        statsService.recordCreated(old);
+        Dispute kept = dispute("kept@upi", 10.0, Dispute.DisputeStatus.MANUAL_REVIEW);
+        statsService.recordCreated(kept);
+
+        // Act
+        statsService.recordRemoved(old);
+        now = now.plusSeconds(47 * 3600);
+        statsService.recordCreated(dispute("new@upi", 10.0, Dispute.DisputeStatus.MANUAL_REVIEW));
+        statsService.pruneHours();
+        int hoursWithinRetention = statsService.trackedHours();
+        now = now.plusSeconds(3600);
+        statsService.pruneHours();
+        // A removal landing in an hour already pruned changes the totals but does not bring the hour back
+        statsService.recordRemoved(kept);
+        DisputeStatsResponse stats = statsService.getStats(10, 1000);
+
+        // Assert
+        assertEquals(2, hoursWithinRetention);
+        assertEquals(1, statsService.trackedHours());
+        assertEquals(1, statsService.trackedMerchants());
+        assertEquals(1, stats.getTotalCount());
+        assertEquals(1, stats.getByHour().size());
+        assertEquals(1, stats.getByMerchant().get("new@upi").getCount());
+        assertNull(stats.getByMerchant().get("old@upi"));
+    }
+
+    @Test
+    void testSnapshotIsReusedForTheSameViewUntilItExpires() {
+        // Arrange
+        DisputeStatsService cached = new DisputeStatsService(disputeRepository, transactionManager, 48, 1000, clock);
+        cached.recordCreated(dispute("a@upi", 10.0, Dispute.DisputeStatus.MANUAL_REVIEW));
+        DisputeStatsResponse first = cached.getStats(10, 24);
+
+        // Act
+        cached.recordCreated(dispute("a@upi", 10.0, Dispute.DisputeStatus.MANUAL_REVIEW));
+        DisputeStatsResponse sameView = cached.getStats(10, 24);
+        DisputeStatsResponse otherView = cached.getStats(5, 24);
+        now = now.plusMillis(1000);
+        DisputeStatsResponse expired = cached.getStats(10, 24);
+
+        // Assert
+        assertSame(first, sameView);
+        assertEquals(2, otherView.getTotalCount());
+        assertEquals(2, expired.getTotalCount());
+    }
+
+    private Dispute dispute(String merchantUPI, double amount, Dispute.DisputeStatus status) {
+        Dispute dispute = new Dispute();
+        dispute.setMerchantUPI(merchantUPI);
+        dispute.setAmount(amount);
+        dispute.setStatus(status);
+        dispute.setCreatedAt(LocalDateTime.now(clock));
+        return dispute;
+    }
+}
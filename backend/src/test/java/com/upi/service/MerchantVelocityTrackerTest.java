@@ -0,0 +1,133 @@
+package com.upi.service;
+
+import com.upi.dto.MerchantVelocityResponse;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class MerchantVelocityTrackerTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+
+    // 60 second window split into 6 buckets of 10 seconds
+    private MerchantVelocityTracker tracker(int maxMerchants) {
+        return new MerchantVelocityTracker(60, 6, maxMerchants, 3, now::get);
+    }
+
+    @Test
+    void testCountsExpireAsWindowSlides() {
+        MerchantVelocityTracker tracker = tracker(100);
+
+        tracker.record("merchant@upi");
+        now.addAndGet(30_000);
+        tracker.record("merchant@upi");
+        assertEquals(2, tracker.velocity("merchant@upi"));
+
+        now.addAndGet(35_000);
+        assertEquals(1, tracker.velocity("merchant@upi"));
+
+        now.addAndGet(30_000);
+        assertEquals(0, tracker.velocity("merchant@upi"));
+    }
+
+    @Test
+    void testHotMerchantsRankedFirst() {
+        MerchantVelocityTracker tracker = tracker(100);
+        for (int i = 0; i < 4; i++) {
+            tracker.record("busy@upi");
+        }
+        tracker.record("quiet@upi");
+
+        List<MerchantVelocityResponse> top = tracker.topMerchants(1);
+
+        assertEquals(1, top.size());
+        assertEquals("busy@upi", top.get(0).getMerchantUPI());
+        assertTrue(top.get(0).isHot());
+        assertTrue(tracker.isHot("busy@upi"));
+        assertFalse(tracker.isHot("quiet@upi"));
+    }
+
+    @Test
+    void testColdMerchantsEvictedWhenFull() {
+        MerchantVelocityTracker tracker = tracker(2);
+        tracker.record("a@upi");
+        tracker.record("b@upi");
+
+        // Once the window has passed, a and b are cold and the sweep evicts them
+        now.addAndGet(120_000);
+        tracker.evictColdMerchants();
+        assertEquals(1, tracker.record("c@upi"));
+        assertEquals(0, tracker.velocity("a@upi"));
+        assertEquals(0, tracker.velocity("b@upi"));
+    }
+
+    @Test
+    void testFullTableEvictsTheColdestWarmMerchantForANewOne() {
+        MerchantVelocityTracker tracker = tracker(10);
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j <= i; j++) {
+                tracker.record("m" + i + "@upi");
+            }
+        }
+
+        // Every merchant is warm; the one with the fewest disputes makes room
+        assertEquals(1, tracker.record("new@upi"));
+        assertEquals(0, tracker.velocity("m0@upi"));
+        assertEquals(2, tracker.velocity("m1@upi"));
+        assertEquals(10, tracker.velocity("m9@upi"));
+        assertEquals(1, tracker.velocity("new@upi"));
+    }
+
+    @Test
+    void testFullTableOfEqualCountsEvictsOnlyTheOldestTenth() {
+        MerchantVelocityTracker tracker = tracker(100);
+        for (int i = 0; i < 10; i++) {
+            tracker.record("early" + i + "@upi");
+        }
+        now.addAndGet(10_000);
+        for (int i = 0; i < 90; i++) {
+            tracker.record("late" + i + "@upi");
+        }
+
+        // Every merchant has one dispute; the ten whose dispute is oldest make room, the rest are kept
+        assertEquals(1, tracker.record("new@upi"));
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, tracker.velocity("early" + i + "@upi"));
+        }
+        for (int i = 0; i < 90; i++) {
+            assertEquals(1, tracker.velocity("late" + i + "@upi"));
+        }
+        assertEquals(91, tracker.topMerchants(200).size());
+    }
+
+    @Test
+    void testConcurrentRecordsSurviveEvictions() throws Exception {
+        MerchantVelocityTracker tracker = tracker(50);
+        int threads = 8;
+        int perThread = 20_000;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    tracker.record("hot@upi");
+                    // A stream of one-off merchants keeps the table full and evicting
+                    tracker.record("once-" + Thread.currentThread().getId() + "-" + i + "@upi");
+                }
+            });
+            workers[t].start();
+        }
+        Thread sweeper = new Thread(() -> {
+            for (int i = 0; i < 2_000; i++) {
+                tracker.evictColdMerchants();
+            }
+        });
+        sweeper.start();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        sweeper.join();
+
+        assertEquals((long) threads * perThread, tracker.velocity("hot@upi"));
+    }
+}
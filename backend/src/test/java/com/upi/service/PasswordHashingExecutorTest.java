@@ -0,0 +1,66 @@
+package com.upi.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class PasswordHashingExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1, meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void testTaskRunsOnAHashingThreadAndCompletesTheFuture() throws Exception {
+        // Act
+        CompletableFuture<String> thread = executor.submit(() -> Thread.currentThread().getName());
+        CompletableFuture<String> failed = executor.submit(() -> {
+            throw new IllegalStateException("Invalid credentials");
+        });
+
+        // Assert
+        assertEquals("password-hashing-1", thread.get(5, TimeUnit.SECONDS));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertEquals("Invalid credentials", e.getCause().getMessage());
+        // The execution time is recorded just after the future completes
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("auth.hashing.execution").timer().count() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(2, meterRegistry.get("auth.hashing.execution").timer().count());
+        assertEquals(2, meterRegistry.get("auth.hashing.queue.wait").timer().count());
+    }
+
+    @Test
+    void testFullQueueRejectsAtOnceAndRecovers() throws Exception {
+        // Arrange - the only thread is busy and the only queue slot is taken
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> busy = executor.submit(() -> {
+            running.countDown();
+            release.await();
+            return "first";
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = executor.submit(() -> "second");
+
+        // Act & Assert
+        assertThrows(RejectedExecutionException.class, () -> executor.submit(() -> "third"));
+        assertEquals(1.0, meterRegistry.get("auth.hashing.rejected").counter().count());
+        assertEquals(1.0, meterRegistry.get("auth.hashing.queue.depth").gauge().value());
+        release.countDown();
+        assertEquals("first", busy.get(5, TimeUnit.SECONDS));
+        assertEquals("second", queued.get(5, TimeUnit.SECONDS));
+        assertEquals("fourth", executor.submit(() -> "fourth").get(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,236 @@
+package com.upi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upi.model.Dispute;
+import com.upi.repository.DisputeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class RefundDispatcherTest {
+
+    @Mock
+    private DisputeRepository disputeRepository;
+
+    @Mock
+    private DisputeStatsService disputeStatsService;
+
+    @Mock
+    private BankApiClient bankApiClient;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RefundDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = dispatcher(10, 4, 3);
+        when(disputeRepository.markRefundSettled(anyLong(), anyString(), anyString(), any(LocalDateTime.class),
+                any(), any())).thenReturn(1);
+        when(disputeRepository.markRefundDeclined(anyLong(), anyString(), anyString(), any(LocalDateTime.class),
+                any())).thenReturn(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void testDispatchSettlesConfirmedRefundsAndRecordsDeclinedOnes() throws Exception {
+        // Arrange
+        Dispute settled = dispute(1L, "TXN1", Dispute.DisputeStatus.VERIFIED_FAILURE);
+        Dispute declined = dispute(2L, "TXN2", Dispute.DisputeStatus.VERIFIED_FAILURE);
+        Dispute alreadyResolved = dispute(3L, "TXN3", Dispute.DisputeStatus.RESOLVED_REFUNDED);
+        when(disputeRepository.findAllById(List.of(1L, 2L, 3L))).thenReturn(List.of(settled, declined, alreadyResolved));
+        when(bankApiClient.submitRefunds(anyList())).thenReturn(List.of(
+                settledResult("TXN1", 501L), declinedResult("TXN2", 400, "Transaction already refunded")));
+
+        // Act
+        dispatcher.dispatch(List.of(1L, 2L, 3L));
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<BankApiClient.RefundItem>> items = ArgumentCaptor.forClass(List.class);
+        verify(bankApiClient).submitRefunds(items.capture());
+        assertEquals(List.of("dispute-TXN1", "dispute-TXN2"),
+                items.getValue().stream().map(BankApiClient.RefundItem::getIdempotencyKey).toList());
+        // Verified disputes are FAILED transactions, which the bank only refunds as dispute reversals
+        assertTrue(items.getValue().stream().allMatch(BankApiClient.RefundItem::isDisputeReversal));
+        assertTrue(new ObjectMapper().writeValueAsString(items.getValue().get(0)).contains("\"disputeReversal\":true"));
+        verify(disputeRepository).markRefundSettled(eq(1L), eq("501"), anyString(), any(LocalDateTime.class),
+                eq(Dispute.DisputeStatus.VERIFIED_FAILURE), eq(Dispute.DisputeStatus.RESOLVED_REFUNDED));
+        verify(disputeRepository).markRefundDeclined(eq(2L), eq("Transaction already refunded"),
+                anyString(), any(LocalDateTime.class), eq(Dispute.DisputeStatus.VERIFIED_FAILURE));
+        verify(disputeStatsService).recordTransition(settled, Dispute.DisputeStatus.VERIFIED_FAILURE);
+        assertEquals(Dispute.DisputeStatus.RESOLVED_REFUNDED, settled.getStatus());
+        assertEquals(1, meterRegistry.get("refund.dispatch.settled").counter().count());
+        assertEquals(1, meterRegistry.get("refund.dispatch.declined").counter().count());
+    }
+
+    @Test
+    void testDispatchRetriesTransientFailuresWithTheSameKeys() throws Exception {
+        // Arrange
+        when(disputeRepository.findAllById(List.of(1L))).thenReturn(
+                List.of(dispute(1L, "TXN1", Dispute.DisputeStatus.VERIFIED_FAILURE)));
+        when(bankApiClient.submitRefunds(anyList()))
+                .thenThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE))
+                .thenThrow(new ResourceAccessException("Connection reset"))
+                .thenReturn(List.of(settledResult("TXN1", 7L)));
+
+        // Act
+        dispatcher.dispatch(List.of(1L));
+
+        // Assert
+        verify(bankApiClient, times(3)).submitRefunds(anyList());
+        verify(disputeRepository).markRefundSettled(eq(1L), eq("7"), anyString(), any(LocalDateTime.class),
+                any(), any());
+    }
+
+    @Test
+    void testDispatchGivesUpAfterMaxAttemptsAndOnClientErrors() throws Exception {
+        // Arrange
+        when(disputeRepository.findAllById(anyIterable())).thenAnswer(invocation -> List.of(
+                dispute(1L, "TXN1", Dispute.DisputeStatus.VERIFIED_FAILURE)));
+        when(bankApiClient.submitRefunds(anyList()))
+                .thenThrow(new HttpServerErrorException(HttpStatus.BAD_GATEWAY))
+                .thenThrow(new HttpServerErrorException(HttpStatus.BAD_GATEWAY))
+                .thenThrow(new HttpServerErrorException(HttpStatus.BAD_GATEWAY))
+                .thenThrow(new HttpClientErrorException(HttpStatus.UNAUTHORIZED));
+
+        // Act
+        dispatcher.dispatch(List.of(1L));
+        dispatcher.dispatch(List.of(1L));
+
+        // Assert
+        verify(bankApiClient, times(4)).submitRefunds(anyList());
+        verify(disputeRepository, never()).markRefundSettled(anyLong(), anyString(), anyString(),
+                any(LocalDateTime.class), any(), any());
+        verify(disputeRepository, never()).markRefundDeclined(anyLong(), anyString(), anyString(),
+                any(LocalDateTime.class), any());
+        assertEquals(2, meterRegistry.get("refund.dispatch.exhausted").counter().count());
+        assertTrue(RefundDispatcher.isRetryable(new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS)));
+    }
+
+    @Test
+    void testWorkersBatchSubmissionsWithBoundedConcurrency() throws Exception {
+        // Arrange
+        when(disputeRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            List<Dispute> disputes = new ArrayList<>();
+            for (Long id : invocation.<Iterable<Long>>getArgument(0)) {
+                disputes.add(dispute(id, "TXN" + id, Dispute.DisputeStatus.VERIFIED_FAILURE));
+            }
+            return disputes;
+        });
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        AtomicInteger largestBatch = new AtomicInteger();
+        when(bankApiClient.submitRefunds(anyList())).thenAnswer(invocation -> {
+            List<BankApiClient.RefundItem> items = invocation.getArgument(0);
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            largestBatch.accumulateAndGet(items.size(), Math::max);
+            Thread.sleep(5);
+            inFlight.decrementAndGet();
+            List<BankApiClient.BankRefundResult> results = new ArrayList<>();
+            for (BankApiClient.RefundItem item : items) {
+                results.add(settledResult(item.getTransactionId(), 1L));
+            }
+            return results;
+        });
+        Set<Long> settled = ConcurrentHashMap.newKeySet();
+        when(disputeRepository.markRefundSettled(anyLong(), anyString(), anyString(), any(LocalDateTime.class),
+                any(), any())).thenAnswer(invocation -> settled.add(invocation.getArgument(0)) ? 1 : 0);
+
+        // Act
+        dispatcher.start();
+        for (long id = 1; id <= 500; id++) {
+            dispatcher.submit(id);
+            dispatcher.submit(id);
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        // The counter is bumped after markRefundSettled returns, so wait for it rather than for the set
+        while (meterRegistry.get("refund.dispatch.settled").counter().count() < 500 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // Assert
+        assertEquals(500, settled.size());
+        assertTrue(maxInFlight.get() <= 4, "at most 4 bank calls in flight, saw " + maxInFlight.get());
+        assertTrue(largestBatch.get() <= 10, "batches of at most 10, saw " + largestBatch.get());
+        assertEquals(500, meterRegistry.get("refund.dispatch.settled").counter().count());
+    }
+
+    @Test
+    void testBackoffStaysWithinTheJitterCeiling() {
+        // Arrange
+        RefundDispatcher slow = new RefundDispatcher(disputeRepository, disputeStatsService, bankApiClient,
+                false, 10, 1, 100, 5, 100, 1000, 100, new SimpleMeterRegistry());
+
+        // Act & Assert
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(slow.backoffMs(1) <= 100);
+            assertTrue(slow.backoffMs(3) <= 400);
+            assertTrue(slow.backoffMs(20) <= 1000);
+        }
+    }
+
+    private RefundDispatcher dispatcher(int batchSize, int concurrency, int maxAttempts) {
+        return new RefundDispatcher(disputeRepository, disputeStatsService, bankApiClient,
+                true, batchSize, concurrency, 10_000, maxAttempts, 1, 5, 100, meterRegistry);
+    }
+
+    private static Dispute dispute(Long id, String transactionId, Dispute.DisputeStatus status) {
+        Dispute dispute = new Dispute();
+        dispute.setId(id);
+        dispute.setTransactionId(transactionId);
+        dispute.setMerchantUPI("merchant@upi");
+        dispute.setAmount(100.0);
+        dispute.setPhone("9876543210");
+        dispute.setReason("Not received");
+        dispute.setStatus(status);
+        return dispute;
+    }
+
+    private static BankApiClient.BankRefundResult settledResult(String transactionId, Long refundId) {
+        BankApiClient.BankRefundData refund = new BankApiClient.BankRefundData();
+        refund.setRefund_id(refundId);
+        refund.setTransaction_id(transactionId);
+        BankApiClient.BankRefundResult result = new BankApiClient.BankRefundResult();
+        result.setTransaction_id(transactionId);
+        result.setSuccess(true);
+        result.setStatus_code(201);
+        result.setRefund(refund);
+        return result;
+    }
+
+    private static BankApiClient.BankRefundResult declinedResult(String transactionId, int statusCode, String error) {
+        BankApiClient.BankRefundResult result = new BankApiClient.BankRefundResult();
+        result.setTransaction_id(transactionId);
+        result.setSuccess(false);
+        result.setStatus_code(statusCode);
+        result.setError(error);
+        return result;
+    }
+}
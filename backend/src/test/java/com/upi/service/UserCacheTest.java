@@ -0,0 +1,185 @@
+package com.upi.service;
+
+import com.upi.model.User;
+import com.upi.repository.UserRepository;
+import com.upi.service.UserCache.CachedUser;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.*;
+
+public class UserCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private UserRepository userRepository;
+    private UserCache cache;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        cache = new UserCache(userRepository, 60, 100, now::get);
+    }
+
+    private User user(Long id, String username, String phone) {
+        User user = new User(username, username + "@example.com", "hash", "Test User");
+        user.setId(id);
+        user.setPhone(phone);
+        return user;
+    }
+
+    @Test
+    void testLoadByOneKeyServesTheOthers() {
+        // Arrange
+        when(userRepository.findByPhone("9876543210")).thenReturn(Optional.of(user(1L, "alice", "9876543210")));
+
+        // Act
+        cache.findByPhone("9876543210");
+        Optional<CachedUser> byId = cache.findById(1L);
+        Optional<CachedUser> byUsername = cache.findByUsername("alice");
+
+        // Assert
+        assertEquals("alice", byId.get().username());
+        assertEquals(1L, byUsername.get().id());
+        verify(userRepository, times(1)).findByPhone("9876543210");
+        verify(userRepository, never()).findById(any());
+        verify(userRepository, never()).findByUsername(any());
+    }
+
+    @Test
+    void testEntriesExpireAfterTtl() {
+        // Arrange
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user(1L, "alice", "9876543210")));
+        cache.findById(1L);
+
+        // Act
+        now.addAndGet(61_000);
+        cache.findById(1L);
+
+        // Assert
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void testMissesAreNotCached() {
+        // Arrange
+        when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        // Act
+        cache.findByUsername("ghost");
+        cache.findByUsername("ghost");
+
+        // Assert
+        verify(userRepository, times(2)).findByUsername("ghost");
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testInvalidateDropsOldAndNewKeys() {
+        // Arrange
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user(1L, "alice", "9876543210")));
+        cache.findById(1L);
+
+        // Act - phone number changed
+        cache.invalidate(user(1L, "alice", "9000000000"));
+        when(userRepository.findByPhone("9876543210")).thenReturn(Optional.empty());
+
+        // Assert
+        assertTrue(cache.findByPhone("9876543210").isEmpty());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testEvictsOldestWhenFull() {
+        // Arrange
+        UserCache small = new UserCache(userRepository, 60, 2, now::get);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user(1L, "alice", "1")));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(user(2L, "bob", "2")));
+        when(userRepository.findById(3L)).thenReturn(Optional.of(user(3L, "carol", "3")));
+        small.findById(1L);
+        now.addAndGet(1_000);
+        small.findById(2L);
+        now.addAndGet(1_000);
+
+        // Act
+        small.findById(3L);
+
+        // Assert
+        assertEquals(2, small.size());
+        assertTrue(small.findById(2L).isPresent());
+        assertTrue(small.findById(3L).isPresent());
+        verify(userRepository, times(1)).findById(2L);
+        verify(userRepository, times(1)).findById(3L);
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.empty());
+        assertTrue(small.findByUsername("alice").isEmpty());
+    }
+
+    @Test
+    void testLoadRacingAnInvalidationIsCachedOnlyForOtherUsers() {
+        // Arrange - each load sees a write land while it reads the row
+        when(userRepository.findById(1L)).thenAnswer(invocation -> {
+            cache.invalidate(user(2L, "bob", "9000000000"));
+            return Optional.of(user(1L, "alice", "9876543210"));
+        });
+        when(userRepository.findById(3L)).thenAnswer(invocation -> {
+            cache.invalidate(user(3L, "carol", "9111111111"));
+            return Optional.of(user(3L, "carol", "9111111111"));
+        });
+
+        // Act
+        cache.findById(1L);
+        cache.findById(1L);
+        cache.findById(3L);
+        cache.findById(3L);
+
+        // Assert
+        verify(userRepository, times(1)).findById(1L);
+        verify(userRepository, times(2)).findById(3L);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testConcurrentFirstLoginsCreateOneUser() throws Exception {
+        // Arrange
+        int callers = 8;
+        AtomicInteger creates = new AtomicInteger();
+        CountDownLatch creating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.findByPhone("9876543210")).thenReturn(Optional.empty());
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+
+        // Act
+        List<Future<CachedUser>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(pool.submit(() -> cache.findOrCreateByPhone("9876543210", () -> {
+                creates.incrementAndGet();
+                creating.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return user(7L, "user_9876543210", "9876543210");
+            })));
+        }
+        assertTrue(creating.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        release.countDown();
+
+        // Assert
+        for (Future<CachedUser> result : results) {
+            assertEquals(7L, result.get(5, TimeUnit.SECONDS).id());
+        }
+        pool.shutdown();
+        assertEquals(1, creates.get());
+    }
+}
@@ -0,0 +1,80 @@
+package com.upi.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+public class UserExportServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private EmbeddedDatabase database;
+    private UserExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("create table users (id bigint primary key, username varchar(255), email varchar(255), "
+                + "password varchar(255), full_name varchar(255), phone varchar(255), address varchar(500), "
+                + "is_active boolean, is_verified boolean, created_at timestamp, updated_at timestamp)");
+        jdbcTemplate.update("insert into users values (2, 'bob', 'bob@example.com', 'hash', 'Bob, Jr.', '9000000002', "
+                + "'Flat \"A\"', true, false, timestamp '2024-01-02 10:00:00', null)");
+        jdbcTemplate.update("insert into users values (1, 'alice', 'alice@example.com', 'hash', 'Alice', '9000000001', "
+                + "null, true, true, timestamp '2024-01-01 09:30:00', null)");
+        exportService = new UserExportService(jdbcTemplate, objectMapper, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void testNdjsonWritesOneObjectPerLineInIdOrder() throws Exception {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long rows = exportService.export(UserExportService.Format.NDJSON, out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, rows);
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(1, first.get("id").asLong());
+        assertEquals("alice", first.get("username").asText());
+        assertTrue(first.get("address").isNull());
+        assertEquals("2024-01-01T09:30", first.get("createdAt").asText());
+        assertFalse(first.has("password"));
+        assertEquals("bob", objectMapper.readTree(lines[1]).get("username").asText());
+    }
+
+    @Test
+    void testCsvQuotesFieldsThatNeedIt() throws Exception {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long rows = exportService.export(UserExportService.Format.CSV, out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, rows);
+        assertEquals("id,username,email,fullName,phone,address,isActive,isVerified,createdAt", lines[0]);
+        assertEquals("1,alice,alice@example.com,Alice,9000000001,,true,true,2024-01-01T09:30", lines[1]);
+        assertEquals("2,bob,bob@example.com,\"Bob, Jr.\",9000000002,\"Flat \"\"A\"\"\",true,false,2024-01-02T10:00", lines[2]);
+    }
+}
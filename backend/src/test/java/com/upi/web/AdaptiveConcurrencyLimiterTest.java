@@ -0,0 +1,65 @@
+package com.upi.web;
+
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    void testBulkShedBeforeCritical() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 4, 100);
+
+        // Act - fill up to the bulk share (75% of 8)
+        for (int i = 0; i < 6; i++) {
+            assertTrue(limiter.tryAcquire(RequestPriority.BULK));
+        }
+
+        // Assert
+        assertFalse(limiter.tryAcquire(RequestPriority.BULK));
+        assertTrue(limiter.tryAcquire(RequestPriority.NORMAL));
+        assertTrue(limiter.tryAcquire(RequestPriority.NORMAL));
+        assertFalse(limiter.tryAcquire(RequestPriority.NORMAL));
+        assertTrue(limiter.tryAcquire(RequestPriority.CRITICAL));
+        assertTrue(limiter.tryAcquire(RequestPriority.CRITICAL));
+        assertFalse(limiter.tryAcquire(RequestPriority.CRITICAL));
+        assertEquals(10, limiter.getInFlight());
+    }
+
+    @Test
+    void testLimitShrinksWhenLatencyRisesAndRecovers() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(40, 4, 100);
+        long fast = TimeUnit.MILLISECONDS.toNanos(10);
+        long slow = TimeUnit.MILLISECONDS.toNanos(200);
+
+        // Act - steady state at the baseline latency with the limit fully used
+        runAtLatency(limiter, fast, 500);
+        int steadyLimit = limiter.getLimit();
+
+        runAtLatency(limiter, slow, 50);
+        int congestedLimit = limiter.getLimit();
+
+        runAtLatency(limiter, fast, 200);
+        int recoveredLimit = limiter.getLimit();
+
+        // Assert
+        assertTrue(congestedLimit < steadyLimit / 2, "limit should drop under queueing: " + congestedLimit);
+        assertTrue(recoveredLimit > congestedLimit, "limit should recover: " + recoveredLimit);
+    }
+
+    private void runAtLatency(AdaptiveConcurrencyLimiter limiter, long latencyNanos, int samples) {
+        for (int i = 0; i < samples; i++) {
+            int admitted = 0;
+            while (limiter.tryAcquire(RequestPriority.CRITICAL)) {
+                admitted++;
+            }
+            // Complete one request with the given latency while the rest are still in flight
+            limiter.release(latencyNanos);
+            for (int j = 1; j < admitted; j++) {
+                limiter.release(-1);
+            }
+        }
+    }
+}
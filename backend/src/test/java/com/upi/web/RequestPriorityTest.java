@@ -0,0 +1,27 @@
+package com.upi.web;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+public class RequestPriorityTest {
+
+    private static RequestPriority of(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        return RequestPriority.of(request);
+    }
+
+    @Test
+    void testOnlySingleDisputeStatusReadsAreCritical() {
+        // Act & Assert
+        assertEquals(RequestPriority.CRITICAL, of("GET", "/api/disputes/42"));
+        assertEquals(RequestPriority.CRITICAL, of("GET", "/api/health"));
+        assertEquals(RequestPriority.NORMAL, of("GET", "/api/disputes/stats"));
+        assertEquals(RequestPriority.NORMAL, of("GET", "/api/disputes/merchants/velocity"));
+        assertEquals(RequestPriority.NORMAL, of("GET", "/api/disputes/user/9876543210"));
+        assertEquals(RequestPriority.NORMAL, of("GET", "/api/disputes"));
+        assertEquals(RequestPriority.BULK, of("POST", "/api/disputes"));
+        assertEquals(RequestPriority.BULK, of("GET", "/api/users/export"));
+    }
+}
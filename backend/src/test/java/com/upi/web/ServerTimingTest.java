@@ -0,0 +1,64 @@
+package com.upi.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class ServerTimingTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestTiming.unbind();
+    }
+
+    @Test
+    void testHeaderListsOnlyPhasesThatRan() {
+        // Arrange
+        RequestTiming timing = new RequestTiming(0);
+        timing.add(RequestTiming.Phase.DB, 1_000_000);
+        timing.add(RequestTiming.Phase.DB, 2_500_000);
+        timing.add(RequestTiming.Phase.BANK, 40_000_000);
+
+        // Act
+        String header = timing.toServerTiming(45_000_000);
+
+        // Assert
+        assertEquals("db;dur=3.50;desc=\"2 calls\", bank;dur=40.00, app;dur=45.00", header);
+    }
+
+    @Test
+    void testRecordOutsideRequestIsIgnored() {
+        // Act & Assert
+        assertNull(RequestTiming.current());
+        RequestTiming.record(RequestTiming.Phase.DB, 1_000_000);
+        assertNull(RequestTiming.current());
+    }
+
+    @Test
+    void testConverterAddsHeaderAndContentLengthBeforeBody() throws Exception {
+        // Arrange
+        RequestTiming timing = new RequestTiming(System.nanoTime());
+        timing.add(RequestTiming.Phase.AUTH, 200_000);
+        RequestTiming.bind(timing);
+        ServerTimingJsonConverter converter = new ServerTimingJsonConverter(new ObjectMapper());
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        // Act
+        converter.write(Map.of("status", "VERIFIED_FAILURE"), MediaType.APPLICATION_JSON,
+                new ServletServerHttpResponse(servletResponse));
+
+        // Assert
+        String header = servletResponse.getHeader(ServerTimingJsonConverter.HEADER);
+        assertNotNull(header);
+        assertTrue(header.startsWith("auth;dur=0.20, json;dur="));
+        assertTrue(header.contains(", app;dur="));
+        assertEquals(1, timing.getCount(RequestTiming.Phase.JSON));
+        assertEquals("{\"status\":\"VERIFIED_FAILURE\"}", servletResponse.getContentAsString());
+        assertEquals(servletResponse.getContentAsByteArray().length, servletResponse.getContentLength());
+    }
+}
@@ -0,0 +1,66 @@
+package com.upi.benchmarks;
+
+import com.upi.model.Dispute;
+import com.upi.scheduler.DisputeAutoApprovalScheduler;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * The auto-approval scheduler's selection step over the full dispute table.
+ * 5% of rows are in MANUAL_REVIEW and 2% of merchants are hot.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class AutoApprovalSelectionBenchmark {
+    private static final int MERCHANTS = 5_000;
+
+    @Param({"10000", "1000000"})
+    public int rows;
+
+    private List<Dispute> disputes;
+    private Set<String> hotMerchants;
+    private LocalDateTime now;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        now = LocalDateTime.of(2024, 1, 15, 12, 0, 0);
+        Dispute.DisputeStatus[] settled = {
+                Dispute.DisputeStatus.VERIFIED_FAILURE, Dispute.DisputeStatus.FALSE_CLAIM,
+                Dispute.DisputeStatus.RESOLVED_REFUNDED, Dispute.DisputeStatus.REJECTED};
+
+        disputes = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Dispute dispute = new Dispute();
+            dispute.setId((long) i);
+            dispute.setTransactionId("TXN" + i);
+            dispute.setMerchantUPI("merchant" + random.nextInt(MERCHANTS) + "@upi");
+            dispute.setAmount(100.0 + random.nextInt(10_000));
+            dispute.setStatus(random.nextInt(100) < 5
+                    ? Dispute.DisputeStatus.MANUAL_REVIEW
+                    : settled[random.nextInt(settled.length)]);
+            dispute.setCreatedAt(now.minusSeconds(random.nextInt(3_600)));
+            disputes.add(dispute);
+        }
+
+        hotMerchants = new HashSet<>();
+        for (int i = 0; i < MERCHANTS / 50; i++) {
+            hotMerchants.add("merchant" + random.nextInt(MERCHANTS) + "@upi");
+        }
+    }
+
+    @Benchmark
+    public List<Dispute> selectDueForApproval() {
+        return DisputeAutoApprovalScheduler.selectDueForApproval(disputes, now, hotMerchants::contains);
+    }
+}
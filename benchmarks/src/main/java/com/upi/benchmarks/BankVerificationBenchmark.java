@@ -0,0 +1,72 @@
+package com.upi.benchmarks;
+
+import com.sun.net.httpserver.HttpServer;
+import com.upi.service.BankApiClient;
+import com.upi.service.BankVerificationDecision;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Dispute verification against the bank.
+ *
+ * decide is the pure decision logic; verifyStubbedBank is the whole client call
+ * (RestTemplate, JSON binding, decision) against an in-process stub bank on loopback,
+ * so it measures our overhead rather than the bank's latency.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BankVerificationBenchmark {
+    @Param({"FAILED", "SUCCESS"})
+    public String bankStatus;
+
+    private HttpServer bank;
+    private BankApiClient client;
+
+    @Setup
+    public void setUp() throws Exception {
+        byte[] bankResponse = ("{\"success\":true,\"message\":\"Transaction found\",\"data\":"
+                + "{\"transaction_id\":\"TXN123\",\"amount\":1000.0,\"status\":\"" + bankStatus + "\","
+                + "\"timestamp\":\"2024-01-15T10:30:00\",\"payer_id\":\"9876543210\",\"payee_id\":\"merchant@upi\","
+                + "\"description\":\"UPI payment\"}}").getBytes(StandardCharsets.UTF_8);
+        // Without TCP_NODELAY the stub's separate header and body writes stall on delayed ACKs (~40ms)
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        bank = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        bank.createContext("/bank/transaction/", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bankResponse.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(bankResponse);
+            }
+        });
+        bank.setExecutor(Executors.newFixedThreadPool(4));
+        bank.start();
+
+        client = new BankApiClient("http://127.0.0.1:" + bank.getAddress().getPort(), "benchmark-key",
+                new SimpleMeterRegistry());
+    }
+
+    @TearDown
+    public void tearDown() {
+        bank.stop(0);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String decide() {
+        return BankVerificationDecision.decide(bankStatus, 1000.0, 1000.0);
+    }
+
+    @Benchmark
+    public String verifyStubbedBank() {
+        return client.verifyTransaction("TXN123", 1000.0);
+    }
+}
@@ -0,0 +1,28 @@
+package com.upi.benchmarks;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.openjdk.jmh.Main;
+
+/**
+ * Entry point of benchmarks.jar. Runs JMH with the given arguments and, unless a result
+ * format is given, also writes machine-readable results to results/jmh-&lt;timestamp&gt;.json
+ * for {@link CompareResults}.
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        List<String> jmhArgs = new ArrayList<>(Arrays.asList(args));
+        boolean listOrHelp = jmhArgs.contains("-h") || jmhArgs.contains("-l") || jmhArgs.contains("-lp")
+                || jmhArgs.contains("-lrf") || jmhArgs.contains("-lprof");
+        if (!listOrHelp && !jmhArgs.contains("-rf") && !jmhArgs.contains("-rff")) {
+            String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+            new java.io.File("results").mkdirs();
+            jmhArgs.addAll(List.of("-rf", "json", "-rff", "results/jmh-" + stamp + ".json"));
+        }
+        Main.main(jmhArgs.toArray(new String[0]));
+    }
+}
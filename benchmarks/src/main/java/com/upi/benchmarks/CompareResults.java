@@ -0,0 +1,82 @@
+package com.upi.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files and flags regressions.
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.upi.benchmarks.CompareResults baseline.json current.json [threshold%]
+ * </pre>
+ *
+ * A benchmark regresses when it is worse than the baseline by more than the threshold
+ * (default 10%) and by more than the two runs' combined score error. Exits with status 1
+ * if anything regressed, so it can gate a CI job.
+ */
+public class CompareResults {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("usage: CompareResults <baseline.json> <current.json> [threshold%]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) / 100.0 : 0.10;
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, JsonNode> baseline = index(mapper.readTree(new File(args[0])));
+        Map<String, JsonNode> current = index(mapper.readTree(new File(args[1])));
+
+        int regressions = 0;
+        System.out.printf("%-70s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode now = entry.getValue();
+            JsonNode before = baseline.get(entry.getKey());
+            String unit = now.path("primaryMetric").path("scoreUnit").asText();
+            double score = now.path("primaryMetric").path("score").asDouble();
+            if (before == null) {
+                System.out.printf("%-70s %14s %14.3f %9s  %s%n", entry.getKey(), "-", score, "new", unit);
+                continue;
+            }
+            double baseScore = before.path("primaryMetric").path("score").asDouble();
+            double error = errorOf(before) + errorOf(now);
+            double change = (score - baseScore) / baseScore;
+            // Throughput: higher is better; every other mode is a time, where lower is better
+            boolean higherIsBetter = "thrpt".equals(now.path("mode").asText());
+            double worse = higherIsBetter ? -change : change;
+            boolean regressed = worse > threshold && Math.abs(score - baseScore) > error;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-70s %14.3f %14.3f %+8.1f%%  %s%s%n", entry.getKey(), baseScore, score, change * 100,
+                    unit, regressed ? "  REGRESSION" : "");
+        }
+        System.out.println(regressions == 0 ? "No regressions" : regressions + " regression(s)");
+        System.exit(regressions == 0 ? 0 : 1);
+    }
+
+    private static double errorOf(JsonNode result) {
+        double error = result.path("primaryMetric").path("scoreError").asDouble(0);
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+    // Keyed by benchmark name, mode and parameters, e.g. "...selectDueForApproval avgt rows=10000"
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText()
+                    .replace("com.upi.benchmarks.", ""))
+                    .append(' ').append(result.path("mode").asText());
+            Iterator<Map.Entry<String, JsonNode>> params = result.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            byKey.put(key.toString(), result);
+        }
+        return byKey;
+    }
+}
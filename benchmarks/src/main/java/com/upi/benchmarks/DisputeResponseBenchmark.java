@@ -0,0 +1,59 @@
+package com.upi.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upi.dto.DisputeResponse;
+import com.upi.model.Dispute;
+import com.upi.service.DisputeService;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Cost of turning a dispute into the JSON body returned by the dispute endpoints.
+ * The ObjectMapper is built the way Spring Boot builds the one used by the controllers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DisputeResponseBenchmark {
+    private ObjectMapper objectMapper;
+    private Dispute dispute;
+    private DisputeResponse response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        dispute = new Dispute();
+        dispute.setId(123456L);
+        dispute.setTransactionId("TXN9876543210");
+        dispute.setMerchantUPI("merchant@upi");
+        dispute.setAmount(1499.0);
+        dispute.setPhone("9876543210");
+        dispute.setReason("Transaction not received");
+        dispute.setStatus(Dispute.DisputeStatus.VERIFIED_FAILURE);
+        dispute.setNeftReference("NEFT1A2B3C4D-5E6");
+        dispute.setRemarks("Transaction verified as failed. Refund initiated.");
+        dispute.setCreatedAt(LocalDateTime.of(2024, 1, 15, 10, 30, 0));
+        dispute.setVerifiedAt(LocalDateTime.of(2024, 1, 15, 10, 30, 2));
+        response = DisputeService.mapToResponse(dispute);
+    }
+
+    @Benchmark
+    public DisputeResponse mapToResponse() {
+        return DisputeService.mapToResponse(dispute);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerialize() throws Exception {
+        return objectMapper.writeValueAsBytes(DisputeService.mapToResponse(dispute));
+    }
+}
@@ -0,0 +1,65 @@
+package com.upi.benchmarks;
+
+import com.upi.security.JwtAuthenticationFilter;
+import com.upi.security.JwtTokenProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * JWT cost on the request path.
+ *
+ * doubleParse is the old filter logic (validateToken, then getUsernameFromToken);
+ * singleParse is one verify-and-extract with the verified-token cache disabled;
+ * filterCached is the full filter with the cache enabled, i.e. a returning client.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtFilterBenchmark {
+    private static final String SECRET = "your_super_secret_key_min_64_characters_long_2024_upi_dispute_resolution_agent";
+
+    private JwtTokenProvider uncachedProvider;
+    private JwtAuthenticationFilter cachedFilter;
+    private String token;
+    private FilterChain chain;
+
+    @Setup
+    public void setUp() {
+        uncachedProvider = new JwtTokenProvider(SECRET, 86_400_000L, 0);
+        JwtTokenProvider cachedProvider = new JwtTokenProvider(SECRET, 86_400_000L, 10_000);
+        cachedFilter = new JwtAuthenticationFilter(cachedProvider, new SimpleMeterRegistry());
+        token = cachedProvider.generateToken("user_9876543210", 42L);
+        chain = (request, response) -> { };
+    }
+
+    @Benchmark
+    public void doubleParse(Blackhole bh) {
+        if (uncachedProvider.validateToken(token)) {
+            bh.consume(uncachedProvider.getUsernameFromToken(token));
+        }
+    }
+
+    @Benchmark
+    public String singleParse() {
+        return uncachedProvider.resolveUsername(token);
+    }
+
+    @Benchmark
+    public Object filterCached() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/disputes/1");
+        request.addHeader("Authorization", "Bearer " + token);
+        cachedFilter.doFilter(request, new MockHttpServletResponse(), chain);
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+}
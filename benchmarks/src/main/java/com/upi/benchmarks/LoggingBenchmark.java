@@ -0,0 +1,163 @@
+package com.upi.benchmarks;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.FileAppender;
+import com.upi.logging.LogThrottle;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.bridge.SLF4JBridgeHandler;
+
+/**
+ * Logging cost of one filed dispute on the request thread, at the production INFO level,
+ * with four threads filing at once.
+ *
+ * legacySync is the statements the controller, service and bank client used to make:
+ * six java.util.logging lines built by string concatenation, bridged to logback, and written
+ * synchronously under the appender lock. asyncStructured is what they make now: DEBUG lines
+ * that are skipped, one throttled key-value summary, and the access-log line, through the
+ * async appender. asyncUnthrottled is the same without the throttle, to separate the two gains.
+ *
+ * Every appender writes to a temp file with the application's console pattern. Once the async
+ * queue fills up, INFO events are dropped rather than queued, as they would be in the app.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+    private static final String PATTERN = "%d{HH:mm:ss.SSS} [%thread] %-5level %logger{36} - %msg %kvp%n";
+
+    private java.util.logging.Logger legacyController;
+    private java.util.logging.Logger legacyService;
+    private java.util.logging.Logger legacyBank;
+    private Logger service;
+    private Logger bank;
+    private Logger access;
+    private LogThrottle filedLog;
+    private LoggerContext context;
+    private File logFile;
+
+    @State(Scope.Thread)
+    public static class Request {
+        long sequence;
+
+        String transactionId() {
+            return "TXN" + (++sequence);
+        }
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        logFile = Files.createTempFile("logging-benchmark", ".log").toFile();
+
+        FileAppender<ILoggingEvent> syncFile = fileAppender("SYNC_FILE");
+        FileAppender<ILoggingEvent> asyncFile = fileAppender("ASYNC_FILE");
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setName("ASYNC");
+        async.setQueueSize(8192);
+        async.setNeverBlock(true);
+        async.addAppender(asyncFile);
+        async.start();
+
+        SLF4JBridgeHandler.removeHandlersForRootLogger();
+        SLF4JBridgeHandler.install();
+        legacyController = java.util.logging.Logger.getLogger("com.upi.legacy.DisputeController");
+        legacyService = java.util.logging.Logger.getLogger("com.upi.legacy.DisputeService");
+        legacyBank = java.util.logging.Logger.getLogger("com.upi.legacy.BankApiClient");
+        attach("com.upi.legacy", syncFile);
+
+        service = LoggerFactory.getLogger("com.upi.current.DisputeService");
+        bank = LoggerFactory.getLogger("com.upi.current.BankApiClient");
+        access = LoggerFactory.getLogger("com.upi.current.access");
+        attach("com.upi.current", async);
+
+        filedLog = LogThrottle.perSecond(50);
+    }
+
+    private FileAppender<ILoggingEvent> fileAppender(String name) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(context);
+        appender.setName(name);
+        appender.setFile(logFile.getAbsolutePath());
+        appender.setEncoder(encoder);
+        appender.start();
+        return appender;
+    }
+
+    private void attach(String loggerName, ch.qos.logback.core.Appender<ILoggingEvent> appender) {
+        ch.qos.logback.classic.Logger logger = context.getLogger(loggerName);
+        logger.setLevel(Level.INFO);
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.getLogger("com.upi.current").detachAndStopAllAppenders();
+        context.getLogger("com.upi.legacy").detachAndStopAllAppenders();
+        SLF4JBridgeHandler.uninstall();
+        logFile.delete();
+    }
+
+    @Benchmark
+    public void legacySync(Request request) {
+        String transactionId = request.transactionId();
+        legacyController.info("POST /api/disputes - Filing new dispute");
+        legacyService.info("Filing dispute for transaction: " + transactionId);
+        legacyBank.info("Calling mock bank API for transaction: " + transactionId);
+        legacyBank.info("Bank API response - Status: " + "FAILED" + ", Amount: " + 1000.0);
+        legacyService.info("Bank verification result: " + "VERIFIED_FAILURE");
+        legacyService.info("Refund initiated with NEFT reference: " + "NEFT1A2B3C4D5E6F");
+    }
+
+    @Benchmark
+    public void asyncStructured(Request request) {
+        current(request.transactionId(), true);
+    }
+
+    @Benchmark
+    public void asyncUnthrottled(Request request) {
+        current(request.transactionId(), false);
+    }
+
+    private void current(String transactionId, boolean throttled) {
+        service.debug("Filing dispute for transaction {}", transactionId);
+        bank.debug("Calling mock bank API for transaction {}", transactionId);
+        bank.debug("Bank API response for {}: status={} amount={}", transactionId, "FAILED", 1000.0);
+        if (service.isInfoEnabled() && (!throttled || filedLog.tryAcquire())) {
+            service.atInfo().setMessage("Dispute filed")
+                    .addKeyValue("disputeId", 42L)
+                    .addKeyValue("transactionId", transactionId)
+                    .addKeyValue("status", "VERIFIED_FAILURE")
+                    .addKeyValue("bankOutcome", "VERIFIED_FAILURE")
+                    .addKeyValue("neftReference", "NEFT1A2B3C4D5E6F")
+                    .addKeyValue("suppressed", throttled ? filedLog.suppressed() : 0)
+                    .log();
+        }
+        access.atInfo().setMessage("request")
+                .addKeyValue("method", "POST")
+                .addKeyValue("path", "/api/disputes")
+                .addKeyValue("status", 201)
+                .addKeyValue("total_ms", "42.17")
+                .addKeyValue("db_ms", "3.20")
+                .addKeyValue("bank_ms", "37.90")
+                .log();
+    }
+}
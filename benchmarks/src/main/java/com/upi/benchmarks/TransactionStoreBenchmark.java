@@ -0,0 +1,103 @@
+package com.upi.benchmarks;
+
+import com.mockbank.entity.Transaction;
+import com.mockbank.repository.InMemoryTransactionStore;
+import com.mockbank.repository.JpaTransactionStore;
+import com.mockbank.repository.TransactionRepository;
+import com.mockbank.repository.TransactionStore;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Mock bank transaction lookups by ID: the H2/JPA store vs the in-memory store (app.store.mode).
+ * Both are loaded with the same transactions and looked up with random existing IDs.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class TransactionStoreBenchmark {
+    private static final int BATCH = 10_000;
+    private static final String[] STATUSES = {"SUCCESS", "SUCCESS", "SUCCESS", "FAILED", "REFUNDED"};
+
+    @Param({"jpa", "memory"})
+    public String mode;
+
+    @Param({"100000"})
+    public int transactions;
+
+    private ConfigurableApplicationContext context;
+    private TransactionStore store;
+    private String[] ids;
+
+    // Just the mock bank's JPA layer on an in-memory H2 database, like its default profile
+    @Configuration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = Transaction.class)
+    @EnableJpaRepositories(basePackageClasses = TransactionRepository.class)
+    @Import(JpaTransactionStore.class)
+    static class JpaStoreConfig {
+    }
+
+    @Setup
+    public void setUp() {
+        if ("jpa".equals(mode)) {
+            context = new SpringApplicationBuilder(JpaStoreConfig.class)
+                    .web(WebApplicationType.NONE)
+                    .logStartupInfo(false)
+                    // A config name of its own keeps the backend's and the bank's application files out
+                    .run("--spring.config.name=transaction-store-benchmark",
+                            "--spring.datasource.url=jdbc:h2:mem:mockbankdb;DB_CLOSE_DELAY=-1",
+                            "--spring.jpa.hibernate.ddl-auto=create-drop",
+                            "--spring.jpa.open-in-view=false",
+                            "--logging.level.root=WARN");
+            store = context.getBean(TransactionStore.class);
+        } else {
+            store = new InMemoryTransactionStore(transactions);
+        }
+
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        ids = new String[transactions];
+        List<Transaction> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < transactions; i++) {
+            ids[i] = String.format("TXN%013d%08X", 1_704_067_200_000L + i, random.nextInt());
+            batch.add(new Transaction(ids[i], 10.0 + random.nextInt(100_000) / 100.0,
+                    STATUSES[random.nextInt(STATUSES.length)], start.plusSeconds(i),
+                    "CUST" + random.nextInt(50_000), "MERCHANT" + random.nextInt(5_000), "UPI payment"));
+            if (batch.size() == BATCH) {
+                store.saveAll(batch);
+                batch.clear();
+            }
+        }
+        store.saveAll(batch);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public Optional<Transaction> findById() {
+        return store.findById(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+}
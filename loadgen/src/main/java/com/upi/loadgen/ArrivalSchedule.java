@@ -0,0 +1,39 @@
+package com.upi.loadgen;
+
+import java.util.Random;
+
+/**
+ * Open-model arrival times: when each request is meant to start, decided up front from the
+ * rate profile and never delayed by slow responses. Latency is measured from these intended
+ * times, which is what corrects for coordinated omission.
+ */
+public final class ArrivalSchedule {
+    // How far to skip ahead while the profile's rate is zero
+    private static final long IDLE_STEP_NANOS = 100_000_000L;
+
+    private final RateProfile profile;
+    private final boolean poisson;
+    private final Random random;
+
+    public ArrivalSchedule(RateProfile profile, boolean poisson, Random random) {
+        this.profile = profile;
+        this.poisson = poisson;
+        this.random = random;
+    }
+
+    /**
+     * @param elapsedNanos intended time of the previous arrival, relative to the start of the run
+     * @return intended time of the next arrival, relative to the start of the run
+     */
+    public long next(long elapsedNanos) {
+        long t = elapsedNanos;
+        while (true) {
+            double rate = profile.rateAt(t / 1e9);
+            if (rate > 0) {
+                double intervalSeconds = poisson ? -Math.log(1.0 - random.nextDouble()) / rate : 1.0 / rate;
+                return t + (long) (intervalSeconds * 1e9);
+            }
+            t += IDLE_STEP_NANOS;
+        }
+    }
+}
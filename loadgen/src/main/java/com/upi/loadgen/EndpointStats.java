@@ -0,0 +1,135 @@
+package com.upi.loadgen;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latency and outcome counts for one operation.
+ *
+ * Response time runs from the request's intended start (its slot in the arrival schedule)
+ * to the last byte of the response, so time spent queued behind a stalled server or a
+ * saturated client is included. Service time runs from the actual send and is what a
+ * closed-loop tool would report; the gap between the two is the coordinated omission.
+ */
+public final class EndpointStats {
+    private final Operation operation;
+    private final Recorder responseTime = new Recorder(3);
+    private final Recorder serviceTime = new Recorder(3);
+
+    // Totals, only touched by the reporting thread
+    private final Histogram totalResponseTime = new Histogram(3);
+    private final Histogram totalServiceTime = new Histogram(3);
+    private Histogram intervalResponseTime;
+    private Histogram intervalServiceTime;
+
+    private final LongAdder success = new LongAdder();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public EndpointStats(Operation operation) {
+        this.operation = operation;
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public void recordResponse(int status, long intendedNanos, long sentNanos, long completedNanos) {
+        responseTime.recordValue(TimeUnit.NANOSECONDS.toMicros(completedNanos - intendedNanos));
+        serviceTime.recordValue(TimeUnit.NANOSECONDS.toMicros(completedNanos - sentNanos));
+        if (status < 400) {
+            success.increment();
+        } else if (status == 429) {
+            rateLimited.increment();
+        } else if (status == 503) {
+            shed.increment();
+        } else if (status < 500) {
+            clientErrors.increment();
+        } else {
+            serverErrors.increment();
+        }
+    }
+
+    /** Timeouts and connection errors; they still count towards response time. */
+    public void recordFailure(long intendedNanos, long completedNanos) {
+        responseTime.recordValue(TimeUnit.NANOSECONDS.toMicros(completedNanos - intendedNanos));
+        failures.increment();
+    }
+
+    public void recordDropped() {
+        dropped.increment();
+    }
+
+    /** Moves everything recorded since the last call into the totals. Reporting thread only. */
+    public void roll() {
+        intervalResponseTime = responseTime.getIntervalHistogram(intervalResponseTime);
+        intervalServiceTime = serviceTime.getIntervalHistogram(intervalServiceTime);
+        totalResponseTime.add(intervalResponseTime);
+        totalServiceTime.add(intervalServiceTime);
+    }
+
+    public Histogram getIntervalResponseTime() {
+        return intervalResponseTime;
+    }
+
+    public Histogram getTotalResponseTime() {
+        return totalResponseTime;
+    }
+
+    public Histogram getTotalServiceTime() {
+        return totalServiceTime;
+    }
+
+    /** Discards everything recorded so far, e.g. at the end of the warmup. */
+    public void reset() {
+        roll();
+        totalResponseTime.reset();
+        totalServiceTime.reset();
+        success.reset();
+        clientErrors.reset();
+        rateLimited.reset();
+        shed.reset();
+        serverErrors.reset();
+        failures.reset();
+        dropped.reset();
+    }
+
+    public long getSuccess() {
+        return success.sum();
+    }
+
+    public long getClientErrors() {
+        return clientErrors.sum();
+    }
+
+    public long getRateLimited() {
+        return rateLimited.sum();
+    }
+
+    public long getShed() {
+        return shed.sum();
+    }
+
+    public long getServerErrors() {
+        return serverErrors.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /** Every request that was sent and finished, whatever the outcome. */
+    public long getCompleted() {
+        return getSuccess() + getClientErrors() + getRateLimited() + getShed() + getServerErrors() + getFailures();
+    }
+}
@@ -0,0 +1,177 @@
+package com.upi.loadgen;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Command line options, given as {@code --name=value}. Run with --help for the list.
+ */
+public final class LoadConfig {
+    static final String USAGE = String.join("\n",
+            "Usage: java -jar loadgen.jar [--name=value ...]",
+            "",
+            "Targets",
+            "  --backend=http://localhost:8000      dispute API base URL",
+            "  --bank=http://localhost:8080         mock bank base URL (transactions are seeded here)",
+            "  --bank-api-key=...                   mock bank x-api-key",
+            "",
+            "Load",
+            "  --profile=constant|ramp|steps        arrival rate profile (default constant)",
+            "  --rate=50                            target requests/s (constant, and end rate of ramp)",
+            "  --start-rate=1                       ramp start rate",
+            "  --ramp=30s                           ramp length",
+            "  --steps=10,25,50,100                 rates for the steps profile",
+            "  --step-duration=30s                  length of each step",
+            "  --duration=60s                       run length for constant and ramp",
+            "  --warmup=10s                         leading time excluded from the results",
+            "  --arrivals=poisson|uniform           inter-arrival distribution (default poisson)",
+            "  --mix=file=10,status=60,list=5,login=25",
+            "                                       operation weights",
+            "",
+            "Data and limits",
+            "  --phones=10000                       distinct phone numbers (keeps per-phone rate limits out of the way)",
+            "  --merchants=500                      distinct merchants",
+            "  --failed-share=0.7                   share of seeded transactions that FAILED in the bank",
+            "  --max-in-flight=10000                requests beyond this are dropped and counted, not sent",
+            "  --timeout=10s                        per-request timeout",
+            "  --report-interval=5s                 progress line interval",
+            "  --json=path                          also write the final results as JSON",
+            "  --server-metrics=URL|off             backend Prometheus endpoint sampled each interval for",
+            "                                       threads, heap and CPU (default <backend>/actuator/prometheus)",
+            "  --seed=42                            random seed");
+
+    private static final Set<String> KNOWN = Set.of("backend", "bank", "bank-api-key", "profile", "rate", "start-rate",
+            "ramp", "steps", "step-duration", "duration", "warmup", "arrivals", "mix", "phones", "merchants",
+            "failed-share", "max-in-flight", "timeout", "report-interval", "json", "server-metrics", "seed");
+
+    private final Map<String, String> values;
+
+    private LoadConfig(Map<String, String> values) {
+        this.values = values;
+    }
+
+    public static LoadConfig parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got '" + arg + "'");
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            if (!KNOWN.contains(name)) {
+                throw new IllegalArgumentException("Unknown option --" + name);
+            }
+            values.put(name, arg.substring(arg.indexOf('=') + 1));
+        }
+        return new LoadConfig(values);
+    }
+
+    public String backendUrl() {
+        return trimSlash(get("backend", "http://localhost:8000"));
+    }
+
+    public String bankUrl() {
+        return trimSlash(get("bank", "http://localhost:8080"));
+    }
+
+    public String bankApiKey() {
+        return get("bank-api-key", "upi-dispute-resolver-secret-key-2024");
+    }
+
+    public RateProfile rateProfile() {
+        String profile = get("profile", "constant");
+        double rate = Double.parseDouble(get("rate", "50"));
+        double duration = seconds("duration", "60s");
+        switch (profile) {
+            case "constant":
+                return new RateProfile.Constant(rate, duration);
+            case "ramp":
+                return new RateProfile.Ramp(Double.parseDouble(get("start-rate", "1")), rate, seconds("ramp", "30s"), duration);
+            case "steps":
+                double[] rates = Arrays.stream(get("steps", "10,25,50,100").split(","))
+                        .mapToDouble(s -> Double.parseDouble(s.trim()))
+                        .toArray();
+                return new RateProfile.Steps(rates, seconds("step-duration", "30s"));
+            default:
+                throw new IllegalArgumentException("Unknown profile '" + profile + "', expected constant, ramp or steps");
+        }
+    }
+
+    public double warmupSeconds() {
+        return seconds("warmup", "10s");
+    }
+
+    public boolean poissonArrivals() {
+        String arrivals = get("arrivals", "poisson");
+        if (!arrivals.equals("poisson") && !arrivals.equals("uniform")) {
+            throw new IllegalArgumentException("Unknown arrivals '" + arrivals + "', expected poisson or uniform");
+        }
+        return arrivals.equals("poisson");
+    }
+
+    public Mix mix() {
+        return Mix.parse(get("mix", "file=10,status=60,list=5,login=25"));
+    }
+
+    public int phones() {
+        return Integer.parseInt(get("phones", "10000"));
+    }
+
+    public int merchants() {
+        return Integer.parseInt(get("merchants", "500"));
+    }
+
+    public double failedShare() {
+        return Double.parseDouble(get("failed-share", "0.7"));
+    }
+
+    public int maxInFlight() {
+        return Integer.parseInt(get("max-in-flight", "10000"));
+    }
+
+    public double timeoutSeconds() {
+        return seconds("timeout", "10s");
+    }
+
+    public double reportIntervalSeconds() {
+        return seconds("report-interval", "5s");
+    }
+
+    public String jsonOutput() {
+        return values.get("json");
+    }
+
+    /** Null when server metrics are turned off. */
+    public String serverMetricsUrl() {
+        String url = get("server-metrics", backendUrl() + "/actuator/prometheus");
+        return url.equals("off") ? null : url;
+    }
+
+    public long seed() {
+        return Long.parseLong(get("seed", "42"));
+    }
+
+    private String get(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    /** Accepts 90, 90s, 1500ms or 2m. */
+    private double seconds(String name, String defaultValue) {
+        String value = get(name, defaultValue).trim();
+        if (value.endsWith("ms")) {
+            return Double.parseDouble(value.substring(0, value.length() - 2)) / 1000.0;
+        }
+        if (value.endsWith("m")) {
+            return Double.parseDouble(value.substring(0, value.length() - 1)) * 60;
+        }
+        if (value.endsWith("s")) {
+            return Double.parseDouble(value.substring(0, value.length() - 1));
+        }
+        return Double.parseDouble(value);
+    }
+
+    private static String trimSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
@@ -0,0 +1,161 @@
+package com.upi.loadgen;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for the dispute API.
+ *
+ * Requests are started on a schedule drawn from the rate profile, whether or not earlier
+ * requests have finished, like real users who do not wait for each other. Latency is
+ * measured from each request's scheduled start, so a stalled server shows up as the queueing
+ * delay users would see instead of as a quiet gap in the samples (coordinated omission).
+ */
+public class LoadGenerator {
+    private final LoadConfig config;
+    private final HttpClient client;
+    private final Workload workload;
+    private final ServerMetrics serverMetrics;
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public LoadGenerator(LoadConfig config) {
+        this.config = config;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors())))
+                .build();
+        this.workload = new Workload(config, client);
+        this.serverMetrics = config.serverMetricsUrl() == null ? null : new ServerMetrics(client, config.serverMetricsUrl());
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats(operation));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && (args[0].equals("--help") || args[0].equals("-h"))) {
+            System.out.println(LoadConfig.USAGE);
+            return;
+        }
+        LoadConfig config;
+        try {
+            config = LoadConfig.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadConfig.USAGE);
+            System.exit(2);
+            return;
+        }
+        new LoadGenerator(config).run();
+        System.exit(0);
+    }
+
+    public void run() throws Exception {
+        RateProfile profile = config.rateProfile();
+        Mix mix = config.mix();
+        double warmup = Math.min(config.warmupSeconds(), profile.durationSeconds());
+
+        int transactions = (int) Math.ceil(profile.expectedArrivals() * mix.share(Operation.FILE) * 1.2) + 100;
+        System.out.println("Profile:  " + profile + ", " + (config.poissonArrivals() ? "poisson" : "uniform") + " arrivals");
+        System.out.println("Mix:      " + mix);
+        System.out.println("Backend:  " + config.backendUrl() + ", bank: " + config.bankUrl());
+        System.out.println("Seeding " + transactions + " bank transactions...");
+        workload.seedTransactions(transactions);
+        workload.primeDisputes(20);
+        System.out.println("Running for " + (long) profile.durationSeconds() + "s, first " + (long) warmup
+                + "s is warmup and excluded from the results");
+
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        Report report = new Report(stats, serverMetrics, System.out);
+        long start = System.nanoTime();
+        long warmupEnd = start + (long) (warmup * 1e9);
+        long intervalNanos = (long) (config.reportIntervalSeconds() * 1e9);
+        boolean[] measuring = {warmup == 0};
+        reporter.scheduleAtFixedRate(() -> {
+            long now = System.nanoTime();
+            report.printInterval((now - start) / 1e9, config.reportIntervalSeconds(), inFlight.get(),
+                    profile.rateAt((now - start) / 1e9));
+            if (!measuring[0] && now >= warmupEnd) {
+                stats.values().forEach(EndpointStats::reset);
+                if (serverMetrics != null) {
+                    serverMetrics.reset();
+                }
+                measuring[0] = true;
+            }
+        }, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+
+        dispatch(profile, mix, start);
+        long dispatchEnd = System.nanoTime();
+
+        // Let stragglers finish (or time out) so they are counted
+        long drainDeadline = dispatchEnd + (long) ((config.timeoutSeconds() + 1) * 1e9);
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(50);
+        }
+        reporter.shutdown();
+        reporter.awaitTermination(5, TimeUnit.SECONDS);
+        stats.values().forEach(EndpointStats::roll);
+
+        double measuredSeconds = (dispatchEnd - Math.max(start, warmupEnd)) / 1e9;
+        report.printSummary(measuredSeconds, workload.getTransactionsExhausted());
+        if (config.jsonOutput() != null) {
+            report.writeJson(config.jsonOutput(), profile, mix, measuredSeconds);
+            System.out.println("Results written to " + config.jsonOutput());
+        }
+    }
+
+    private void dispatch(RateProfile profile, Mix mix, long start) {
+        Random random = new Random(config.seed());
+        ArrivalSchedule schedule = new ArrivalSchedule(profile, config.poissonArrivals(), random);
+        long durationNanos = (long) (profile.durationSeconds() * 1e9);
+        int maxInFlight = config.maxInFlight();
+
+        long intended = schedule.next(0);
+        while (intended < durationNanos) {
+            long intendedNanos = start + intended;
+            long wait = intendedNanos - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+                continue;
+            }
+            // Behind schedule: send immediately, latency still counts from the intended time
+            Operation operation = mix.pick(random);
+            EndpointStats endpoint = stats.get(operation);
+            if (inFlight.get() >= maxInFlight) {
+                endpoint.recordDropped();
+            } else {
+                send(operation, workload.build(operation, random), endpoint, intendedNanos);
+            }
+            intended = schedule.next(intended);
+        }
+    }
+
+    private void send(Operation operation, HttpRequest request, EndpointStats endpoint, long intendedNanos) {
+        inFlight.incrementAndGet();
+        long sent = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+            long completed = System.nanoTime();
+            try {
+                if (error != null) {
+                    endpoint.recordFailure(intendedNanos, completed);
+                } else {
+                    endpoint.recordResponse(response.statusCode(), intendedNanos, sent, completed);
+                    workload.onResponse(operation, response);
+                }
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+    }
+}
@@ -0,0 +1,71 @@
+package com.upi.loadgen;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Weighted choice of operation, parsed from e.g. {@code file=10,status=60,list=5,login=25}.
+ */
+public final class Mix {
+    private final Operation[] operations;
+    private final double[] cumulative;
+    private final Map<Operation, Double> shares = new EnumMap<>(Operation.class);
+
+    private Mix(Map<Operation, Double> weights) {
+        double total = weights.values().stream().mapToDouble(Double::doubleValue).sum();
+        if (total <= 0) {
+            throw new IllegalArgumentException("Mix needs at least one positive weight");
+        }
+        operations = weights.keySet().toArray(new Operation[0]);
+        cumulative = new double[operations.length];
+        double running = 0;
+        for (int i = 0; i < operations.length; i++) {
+            double share = weights.get(operations[i]) / total;
+            shares.put(operations[i], share);
+            running += share;
+            cumulative[i] = running;
+        }
+    }
+
+    public static Mix parse(String spec) {
+        Map<Operation, Double> weights = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] keyValue = part.trim().split("=");
+            if (keyValue.length != 2) {
+                throw new IllegalArgumentException("Bad mix entry '" + part + "', expected name=weight");
+            }
+            double weight = Double.parseDouble(keyValue[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Mix weight must not be negative: " + part);
+            }
+            if (weight > 0) {
+                weights.put(Operation.fromKey(keyValue[0].trim()), weight);
+            }
+        }
+        return new Mix(weights);
+    }
+
+    public Operation pick(Random random) {
+        double u = random.nextDouble();
+        for (int i = 0; i < cumulative.length - 1; i++) {
+            if (u < cumulative[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    /** Fraction of requests that will be this operation, 0 if it is not in the mix. */
+    public double share(Operation operation) {
+        return shares.getOrDefault(operation, 0.0);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder description = new StringBuilder();
+        shares.forEach((operation, share) -> description.append(description.length() == 0 ? "" : ", ")
+                .append(operation.getKey()).append(' ').append(Math.round(share * 100)).append('%'));
+        return description.toString();
+    }
+}
@@ -0,0 +1,36 @@
+package com.upi.loadgen;
+
+/**
+ * The requests the load generator can send, by their short name in --mix.
+ */
+public enum Operation {
+    FILE("file", "POST /api/disputes"),
+    STATUS("status", "GET /api/disputes/{id}"),
+    LIST("list", "GET /api/users"),
+    LOGIN("login", "POST /api/auth/phone-login");
+
+    private final String key;
+    private final String endpoint;
+
+    Operation(String key, String endpoint) {
+        this.key = key;
+        this.endpoint = endpoint;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equalsIgnoreCase(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation '" + key + "', expected one of file, status, list, login");
+    }
+}
@@ -0,0 +1,71 @@
+package com.upi.loadgen;
+
+import java.util.Arrays;
+
+/**
+ * Target arrival rate over the run, in requests per second.
+ */
+public interface RateProfile {
+
+    double rateAt(double seconds);
+
+    double durationSeconds();
+
+    /** Expected number of arrivals over the whole run. */
+    default double expectedArrivals() {
+        double step = 0.1;
+        double total = 0;
+        for (double t = 0; t < durationSeconds(); t += step) {
+            total += rateAt(t) * Math.min(step, durationSeconds() - t);
+        }
+        return total;
+    }
+
+    record Constant(double rate, double durationSeconds) implements RateProfile {
+        @Override
+        public double rateAt(double seconds) {
+            return rate;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("constant %.1f/s for %.0fs", rate, durationSeconds);
+        }
+    }
+
+    /** Linear ramp from startRate to rate over rampSeconds, then hold until durationSeconds. */
+    record Ramp(double startRate, double rate, double rampSeconds, double durationSeconds) implements RateProfile {
+        @Override
+        public double rateAt(double seconds) {
+            if (seconds >= rampSeconds) {
+                return rate;
+            }
+            return startRate + (rate - startRate) * seconds / rampSeconds;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ramp %.1f/s -> %.1f/s over %.0fs, then hold until %.0fs",
+                    startRate, rate, rampSeconds, durationSeconds);
+        }
+    }
+
+    /** Each rate in turn for stepSeconds; useful for finding the knee of the latency curve. */
+    record Steps(double[] rates, double stepSeconds) implements RateProfile {
+        @Override
+        public double rateAt(double seconds) {
+            int step = (int) (seconds / stepSeconds);
+            return rates[Math.min(step, rates.length - 1)];
+        }
+
+        @Override
+        public double durationSeconds() {
+            return rates.length * stepSeconds;
+        }
+
+        @Override
+        public String toString() {
+            return "steps " + Arrays.toString(rates) + "/s, " + (long) stepSeconds + "s each";
+        }
+    }
+}
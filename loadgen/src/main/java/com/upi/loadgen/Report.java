@@ -0,0 +1,171 @@
+package com.upi.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Map;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Progress lines while the run is going, and the per-endpoint summary at the end.
+ * Latencies are recorded in microseconds and printed in milliseconds.
+ */
+public final class Report {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final double MB = 1024 * 1024;
+
+    private final Map<Operation, EndpointStats> stats;
+    private final ServerMetrics serverMetrics;
+    private final PrintStream out;
+
+    /** serverMetrics may be null. */
+    public Report(Map<Operation, EndpointStats> stats, ServerMetrics serverMetrics, PrintStream out) {
+        this.stats = stats;
+        this.serverMetrics = serverMetrics;
+        this.out = out;
+    }
+
+    /** Rolls the interval histograms into the totals and prints one line. Reporting thread only. */
+    public void printInterval(double elapsedSeconds, double intervalSeconds, int inFlight, double targetRate) {
+        StringBuilder line = new StringBuilder(String.format("[%5.0fs] target %7.1f/s  in-flight %5d",
+                elapsedSeconds, targetRate, inFlight));
+        for (EndpointStats endpoint : stats.values()) {
+            endpoint.roll();
+            Histogram interval = endpoint.getIntervalResponseTime();
+            if (interval.getTotalCount() == 0) {
+                continue;
+            }
+            line.append(String.format(" | %s %.1f/s p99 %s", endpoint.getOperation().getKey(),
+                    interval.getTotalCount() / intervalSeconds, millis(interval.getValueAtPercentile(99))));
+        }
+        ServerMetrics.Sample sample = serverMetrics == null ? null : serverMetrics.sample();
+        if (sample != null) {
+            line.append(String.format(" | server threads %.0f heap %.0fMB cpu %.0f%%",
+                    sample.liveThreads, sample.heapUsedBytes / MB, sample.processCpu * 100));
+        }
+        out.println(line);
+    }
+
+    public void printSummary(double measuredSeconds, long transactionsExhausted) {
+        out.println();
+        out.printf("Results over %.1fs (warmup excluded)%n%n", measuredSeconds);
+        out.printf("%-30s %9s %9s %9s %7s %7s %7s %7s %7s %7s%n",
+                "Endpoint", "Requests", "Thrpt/s", "OK", "4xx", "429", "503", "5xx", "Error", "Drop");
+        Histogram allResponses = new Histogram(3);
+        long[] totals = new long[8];
+        for (EndpointStats endpoint : stats.values()) {
+            long[] counts = counts(endpoint);
+            if (counts[0] == 0 && endpoint.getDropped() == 0) {
+                continue;
+            }
+            for (int i = 0; i < counts.length; i++) {
+                totals[i] += counts[i];
+            }
+            allResponses.add(endpoint.getTotalResponseTime());
+            printCounts(endpoint.getOperation().getEndpoint(), counts, measuredSeconds);
+        }
+        printCounts("Total", totals, measuredSeconds);
+
+        out.println();
+        out.println("Latency in ms. Response time is measured from each request's scheduled start,");
+        out.println("so it includes queueing (coordinated omission corrected); service time is from the actual send.");
+        out.printf("%-30s %-9s %9s %9s %9s %9s %9s%n", "Endpoint", "", "p50", "p90", "p99", "p99.9", "max");
+        for (EndpointStats endpoint : stats.values()) {
+            if (endpoint.getTotalResponseTime().getTotalCount() == 0) {
+                continue;
+            }
+            printLatency(endpoint.getOperation().getEndpoint(), "response", endpoint.getTotalResponseTime());
+            printLatency("", "service", endpoint.getTotalServiceTime());
+        }
+        printLatency("Total", "response", allResponses);
+
+        if (serverMetrics != null && serverMetrics.getSamples() > 0) {
+            out.println();
+            out.printf("Server JVM over %d samples: live threads avg %.0f max %.0f, heap used avg %.0fMB max %.0fMB, "
+                            + "process CPU avg %.0f%%%n", serverMetrics.getSamples(), serverMetrics.averageThreads(),
+                    serverMetrics.maxThreads(), serverMetrics.averageHeapBytes() / MB,
+                    serverMetrics.maxHeapBytes() / MB, serverMetrics.averageCpu() * 100);
+        }
+
+        if (transactionsExhausted > 0) {
+            out.println();
+            out.println("Note: seeded bank transactions ran out; " + transactionsExhausted
+                    + " disputes were filed against transactions unknown to the bank.");
+        }
+    }
+
+    public void writeJson(String path, RateProfile profile, Mix mix, double measuredSeconds) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode root = mapper.createObjectNode();
+        root.put("profile", profile.toString());
+        root.put("mix", mix.toString());
+        root.put("measuredSeconds", measuredSeconds);
+        ArrayNode endpoints = root.putArray("endpoints");
+        for (EndpointStats endpoint : stats.values()) {
+            long[] counts = counts(endpoint);
+            if (counts[0] == 0 && endpoint.getDropped() == 0) {
+                continue;
+            }
+            ObjectNode node = endpoints.addObject();
+            node.put("operation", endpoint.getOperation().getKey());
+            node.put("endpoint", endpoint.getOperation().getEndpoint());
+            node.put("requests", counts[0]);
+            node.put("throughput", counts[0] / measuredSeconds);
+            node.put("ok", counts[1]);
+            node.put("clientErrors", counts[2]);
+            node.put("rateLimited", counts[3]);
+            node.put("shed", counts[4]);
+            node.put("serverErrors", counts[5]);
+            node.put("failures", counts[6]);
+            node.put("dropped", counts[7]);
+            node.set("responseTimeMs", percentiles(mapper, endpoint.getTotalResponseTime()));
+            node.set("serviceTimeMs", percentiles(mapper, endpoint.getTotalServiceTime()));
+        }
+        if (serverMetrics != null && serverMetrics.getSamples() > 0) {
+            ObjectNode server = root.putObject("server");
+            server.put("samples", serverMetrics.getSamples());
+            server.put("liveThreadsAvg", serverMetrics.averageThreads());
+            server.put("liveThreadsMax", serverMetrics.maxThreads());
+            server.put("heapUsedMbAvg", serverMetrics.averageHeapBytes() / MB);
+            server.put("heapUsedMbMax", serverMetrics.maxHeapBytes() / MB);
+            server.put("processCpuAvg", serverMetrics.averageCpu());
+        }
+        mapper.writerWithDefaultPrettyPrinter().writeValue(new File(path), root);
+    }
+
+    private static long[] counts(EndpointStats endpoint) {
+        return new long[] {endpoint.getCompleted(), endpoint.getSuccess(), endpoint.getClientErrors(),
+                endpoint.getRateLimited(), endpoint.getShed(), endpoint.getServerErrors(), endpoint.getFailures(),
+                endpoint.getDropped()};
+    }
+
+    private void printCounts(String name, long[] counts, double seconds) {
+        out.printf("%-30s %9d %9.1f %9d %7d %7d %7d %7d %7d %7d%n", name, counts[0], counts[0] / seconds,
+                counts[1], counts[2], counts[3], counts[4], counts[5], counts[6], counts[7]);
+    }
+
+    private void printLatency(String name, String kind, Histogram histogram) {
+        out.printf("%-30s %-9s", name, kind);
+        for (double percentile : PERCENTILES) {
+            out.printf(" %9s", millis(histogram.getValueAtPercentile(percentile)));
+        }
+        out.printf(" %9s%n", millis(histogram.getMaxValue()));
+    }
+
+    private static ObjectNode percentiles(ObjectMapper mapper, Histogram histogram) {
+        ObjectNode node = mapper.createObjectNode();
+        node.put("p50", histogram.getValueAtPercentile(50) / 1000.0);
+        node.put("p90", histogram.getValueAtPercentile(90) / 1000.0);
+        node.put("p99", histogram.getValueAtPercentile(99) / 1000.0);
+        node.put("p999", histogram.getValueAtPercentile(99.9) / 1000.0);
+        node.put("max", histogram.getMaxValue() / 1000.0);
+        return node;
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.2f", micros / 1000.0);
+    }
+}
@@ -0,0 +1,126 @@
+package com.upi.loadgen;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Samples the backend's JVM from its Prometheus endpoint once per report interval: live platform
+ * threads, heap in use and process CPU. Virtual threads are not counted as live threads, which is
+ * the point when comparing the two execution modes. Reporting thread only.
+ */
+final class ServerMetrics {
+    /** One scrape; a value is NaN when the metric was missing. */
+    static final class Sample {
+        final double liveThreads;
+        final double heapUsedBytes;
+        final double processCpu;
+
+        Sample(double liveThreads, double heapUsedBytes, double processCpu) {
+            this.liveThreads = liveThreads;
+            this.heapUsedBytes = heapUsedBytes;
+            this.processCpu = processCpu;
+        }
+    }
+
+    private final HttpClient client;
+    private final URI uri;
+    private boolean warned;
+
+    private long samples;
+    private double threadsSum;
+    private double threadsMax;
+    private double heapSum;
+    private double heapMax;
+    private double cpuSum;
+
+    ServerMetrics(HttpClient client, String url) {
+        this.client = client;
+        this.uri = URI.create(url);
+    }
+
+    /** Scrapes once and adds the sample to the totals; null if the scrape failed. */
+    Sample sample() {
+        try {
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri)
+                    .timeout(Duration.ofSeconds(2)).GET().build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("HTTP " + response.statusCode());
+            }
+            Sample sample = parse(response.body());
+            add(sample);
+            return sample;
+        } catch (Exception e) {
+            // An overloaded server may miss a scrape; skip the interval rather than stall the run
+            if (!warned) {
+                warned = true;
+                System.out.println("Server metrics scrape from " + uri + " failed (" + e.getMessage()
+                        + "); intervals without a sample are skipped");
+            }
+            return null;
+        }
+    }
+
+    void reset() {
+        samples = 0;
+        threadsSum = threadsMax = heapSum = heapMax = cpuSum = 0;
+    }
+
+    private void add(Sample sample) {
+        samples++;
+        threadsSum += sample.liveThreads;
+        threadsMax = Math.max(threadsMax, sample.liveThreads);
+        heapSum += sample.heapUsedBytes;
+        heapMax = Math.max(heapMax, sample.heapUsedBytes);
+        cpuSum += sample.processCpu;
+    }
+
+    long getSamples() {
+        return samples;
+    }
+
+    double averageThreads() {
+        return threadsSum / samples;
+    }
+
+    double maxThreads() {
+        return threadsMax;
+    }
+
+    double averageHeapBytes() {
+        return heapSum / samples;
+    }
+
+    double maxHeapBytes() {
+        return heapMax;
+    }
+
+    double averageCpu() {
+        return cpuSum / samples;
+    }
+
+    static Sample parse(String prometheusText) {
+        double threads = Double.NaN;
+        double heap = Double.NaN;
+        double cpu = Double.NaN;
+        for (String line : prometheusText.split("\n")) {
+            if (line.isEmpty() || line.charAt(0) == '#') {
+                continue;
+            }
+            if (line.startsWith("jvm_threads_live_threads")) {
+                threads = value(line);
+            } else if (line.startsWith("jvm_memory_used_bytes") && line.contains("area=\"heap\"")) {
+                heap = (Double.isNaN(heap) ? 0 : heap) + value(line);
+            } else if (line.startsWith("process_cpu_usage")) {
+                cpu = value(line);
+            }
+        }
+        return new Sample(threads, heap, cpu);
+    }
+
+    private static double value(String line) {
+        return Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1));
+    }
+}
@@ -0,0 +1,191 @@
+package com.upi.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Test data and request building: seeds bank transactions for disputes to be filed against,
+ * remembers filed dispute ids for status polling, and spreads requests over many phones
+ * and merchants so per-phone rate limits and merchant velocity holds stay out of the way.
+ */
+public final class Workload {
+    private static final String PASSWORD = "loadgen-password";
+    private static final int RECENT_DISPUTES = 4096;
+    private static final int SEED_CONCURRENCY = 32;
+
+    private final LoadConfig config;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Duration timeout;
+
+    private final ConcurrentLinkedQueue<SeededTransaction> unclaimed = new ConcurrentLinkedQueue<>();
+    private final AtomicLongArray recentDisputeIds = new AtomicLongArray(RECENT_DISPUTES);
+    private final AtomicLong disputesSeen = new AtomicLong();
+    private final AtomicLong transactionsExhausted = new AtomicLong();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36).toUpperCase();
+
+    private record SeededTransaction(String transactionId, double amount, String merchant) {}
+
+    public Workload(LoadConfig config, HttpClient client) {
+        this.config = config;
+        this.client = client;
+        this.timeout = Duration.ofMillis((long) (config.timeoutSeconds() * 1000));
+    }
+
+    /**
+     * Creates count transactions in the mock bank for disputes to be filed against.
+     * Most are FAILED (refund paths), the rest SUCCESS (false claims); some are above the
+     * high amount threshold so the manual review path is exercised too.
+     */
+    public void seedTransactions(int count) throws Exception {
+        Random random = new Random(config.seed());
+        Semaphore permits = new Semaphore(SEED_CONCURRENCY);
+        List<CompletableFuture<HttpResponse<Void>>> pending = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String transactionId = "LG" + runId + String.format("%08d", i);
+            double amount = random.nextInt(10) == 0 ? 5000 + random.nextInt(20_000) : 100 + random.nextInt(4_800);
+            String merchant = merchant(random.nextInt(config.merchants()));
+            String status = random.nextDouble() < config.failedShare() ? "FAILED" : "SUCCESS";
+            String body = objectMapper.createObjectNode()
+                    .put("transactionId", transactionId)
+                    .put("amount", amount)
+                    .put("status", status)
+                    .put("payerId", "LOADGEN")
+                    .put("payeeId", merchant)
+                    .put("description", "Load generator transaction")
+                    .toString();
+            HttpRequest request = HttpRequest.newBuilder(URI.create(config.bankUrl() + "/bank/transaction"))
+                    .timeout(timeout)
+                    .header("Content-Type", "application/json")
+                    .header("x-api-key", config.bankApiKey())
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+
+            permits.acquire();
+            pending.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        permits.release();
+                        if (error == null && response.statusCode() == 201) {
+                            unclaimed.add(new SeededTransaction(transactionId, amount, merchant));
+                        }
+                    }));
+        }
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).exceptionally(e -> null).join();
+        if (unclaimed.size() < count) {
+            throw new IllegalStateException("Only " + unclaimed.size() + " of " + count
+                    + " bank transactions were created; is the mock bank running at " + config.bankUrl() + "?");
+        }
+    }
+
+    /** Files a few disputes before the run so status polling has ids from the first second. */
+    public void primeDisputes(int count) throws Exception {
+        for (int i = 0; i < count; i++) {
+            HttpRequest request = build(Operation.FILE, ThreadLocalRandom.current());
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() >= 300) {
+                throw new IllegalStateException("Could not file a dispute (HTTP " + response.statusCode() + "): "
+                        + response.body() + "; is the backend running at " + config.backendUrl()
+                        + " and pointed at this mock bank with --app.bank.url?");
+            }
+            onResponse(Operation.FILE, response);
+        }
+    }
+
+    public HttpRequest build(Operation operation, Random random) {
+        switch (operation) {
+            case FILE:
+                return fileDispute(random);
+            case STATUS:
+                long seen = disputesSeen.get();
+                if (seen == 0) {
+                    return fileDispute(random);
+                }
+                long id = recentDisputeIds.get((int) (random.nextInt((int) Math.min(seen, RECENT_DISPUTES))));
+                return get("/api/disputes/" + id);
+            case LIST:
+                return get("/api/users?size=50");
+            case LOGIN:
+                return post("/api/auth/phone-login", objectMapper.createObjectNode()
+                        .put("phone", phone(random))
+                        .put("password", PASSWORD)
+                        .toString());
+            default:
+                throw new IllegalArgumentException("Unhandled operation " + operation);
+        }
+    }
+
+    /** Remembers ids of filed disputes. Called from HTTP client threads. */
+    public void onResponse(Operation operation, HttpResponse<String> response) {
+        if (operation != Operation.FILE || response.statusCode() >= 300) {
+            return;
+        }
+        try {
+            JsonNode id = objectMapper.readTree(response.body()).get("id");
+            if (id != null) {
+                long slot = disputesSeen.getAndIncrement();
+                recentDisputeIds.set((int) (slot % RECENT_DISPUTES), id.asLong());
+            }
+        } catch (Exception e) {
+            // Not a dispute body; nothing to remember
+        }
+    }
+
+    /** Disputes filed against made-up transactions because the seeded ones ran out. */
+    public long getTransactionsExhausted() {
+        return transactionsExhausted.get();
+    }
+
+    private HttpRequest fileDispute(Random random) {
+        SeededTransaction transaction = unclaimed.poll();
+        if (transaction == null) {
+            // Unknown to the bank; the backend falls back to its bank-unavailable rules
+            transactionsExhausted.incrementAndGet();
+            transaction = new SeededTransaction("LGX" + runId + random.nextLong(), 100 + random.nextInt(4_800),
+                    merchant(random.nextInt(config.merchants())));
+        }
+        return post("/api/disputes", objectMapper.createObjectNode()
+                .put("transactionId", transaction.transactionId())
+                .put("merchantUPI", transaction.merchant())
+                .put("amount", transaction.amount())
+                .put("phone", phone(random))
+                .put("reason", "Load generator dispute")
+                .toString());
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(config.backendUrl() + path))
+                .timeout(timeout)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(config.backendUrl() + path))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private String phone(Random random) {
+        return Long.toString(9_000_000_000L + random.nextInt(config.phones()));
+    }
+
+    private static String merchant(int index) {
+        return "loadgen-merchant" + index + "@upi";
+    }
+}
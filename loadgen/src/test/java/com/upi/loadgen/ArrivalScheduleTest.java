@@ -0,0 +1,65 @@
+package com.upi.loadgen;
+
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class ArrivalScheduleTest {
+
+    private static int arrivals(RateProfile profile, boolean poisson) {
+        ArrivalSchedule schedule = new ArrivalSchedule(profile, poisson, new Random(7));
+        long end = (long) (profile.durationSeconds() * 1e9);
+        int count = 0;
+        for (long t = schedule.next(0); t < end; t = schedule.next(t)) {
+            count++;
+        }
+        return count;
+    }
+
+    @Test
+    void testUniformArrivalsMatchRate() {
+        assertEquals(999, arrivals(new RateProfile.Constant(100, 10), false), 1);
+    }
+
+    @Test
+    void testPoissonArrivalsAverageToRate() {
+        int count = arrivals(new RateProfile.Constant(200, 60), true);
+        // 12000 expected; 5 standard deviations is about 550
+        assertEquals(12_000, count, 550);
+    }
+
+    @Test
+    void testRampExpectedArrivals() {
+        RateProfile ramp = new RateProfile.Ramp(0, 100, 10, 20);
+        assertEquals(100, ramp.rateAt(15));
+        assertEquals(50, ramp.rateAt(5), 1e-9);
+        // 500 during the ramp, 1000 while holding
+        assertEquals(1_500, ramp.expectedArrivals(), 10);
+        assertEquals(1_500, arrivals(ramp, false), 20);
+    }
+
+    @Test
+    void testStepsHoldEachRate() {
+        RateProfile steps = new RateProfile.Steps(new double[] {10, 0, 30}, 5);
+        assertEquals(15, steps.durationSeconds());
+        assertEquals(0, steps.rateAt(7));
+        assertEquals(200, arrivals(steps, false), 2);
+    }
+
+    @Test
+    void testMixSharesAndParsing() {
+        Mix mix = Mix.parse("file=1,status=3,login=0");
+        assertEquals(0.25, mix.share(Operation.FILE), 1e-9);
+        assertEquals(0.0, mix.share(Operation.LOGIN));
+        assertThrows(IllegalArgumentException.class, () -> Mix.parse("refund=1"));
+
+        Random random = new Random(1);
+        int files = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (mix.pick(random) == Operation.FILE) {
+                files++;
+            }
+        }
+        assertEquals(2_500, files, 200);
+    }
+}
@@ -0,0 +1,29 @@
+package com.upi.loadgen;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class ServerMetricsTest {
+
+    @Test
+    void testParseSumsHeapPoolsAndIgnoresOtherMetrics() {
+        // Arrange
+        String scrape = String.join("\n",
+                "# HELP jvm_threads_live_threads The current number of live threads",
+                "# TYPE jvm_threads_live_threads gauge",
+                "jvm_threads_live_threads{application=\"dispute-api\",} 42.0",
+                "jvm_threads_peak_threads{application=\"dispute-api\",} 230.0",
+                "jvm_memory_used_bytes{application=\"dispute-api\",area=\"heap\",id=\"G1 Eden Space\",} 1048576.0",
+                "jvm_memory_used_bytes{application=\"dispute-api\",area=\"heap\",id=\"G1 Old Gen\",} 2097152.0",
+                "jvm_memory_used_bytes{application=\"dispute-api\",area=\"nonheap\",id=\"Metaspace\",} 9.9E7",
+                "process_cpu_usage{application=\"dispute-api\",} 0.25");
+
+        // Act
+        ServerMetrics.Sample sample = ServerMetrics.parse(scrape);
+
+        // Assert
+        assertEquals(42.0, sample.liveThreads);
+        assertEquals(3145728.0, sample.heapUsedBytes);
+        assertEquals(0.25, sample.processCpu);
+    }
+}
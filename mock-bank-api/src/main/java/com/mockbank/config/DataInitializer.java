@@ -1,10 +1,14 @@
 package com.mockbank.config;
 
+import com.mockbank.dto.SeedRequest;
+import com.mockbank.dto.SeedResult;
 import com.mockbank.entity.Transaction;
-import com.mockbank.repository.TransactionRepository;
+import com.mockbank.repository.TransactionStore;
+import com.mockbank.service.SyntheticDataService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -13,6 +17,7 @@ import java.time.LocalDateTime;
 /**
  * Data Initialization Configuration
  * Seeds sample transaction data for testing purposes
+ * and, when app.seed.rows is above zero, synthetic transactions (see SyntheticDataService)
  */
 @Configuration
 @Slf4j
@@ -22,7 +27,7 @@ public class DataInitializer {
      * Initialize sample data on application startup
      */
     @Bean
-    public CommandLineRunner initializeData(TransactionRepository transactionRepository) {
+    public CommandLineRunner initializeData(TransactionStore transactionStore) {
         return args -> {
             log.info("Initializing sample transaction data...");
 
@@ -35,7 +40,7 @@ public class DataInitializer {
             txn1.setPayerId("CUST001");
             txn1.setPayeeId("MERCHANT001");
             txn1.setDescription("Payment for grocery shopping");
-            transactionRepository.save(txn1);
+            transactionStore.save(txn1);
 
             // Sample transaction 2: SUCCESS
             Transaction txn2 = new Transaction();
@@ -46,7 +51,7 @@ public class DataInitializer {
             txn2.setPayerId("CUST002");
             txn2.setPayeeId("MERCHANT002");
             txn2.setDescription("Bill payment");
-            transactionRepository.save(txn2);
+            transactionStore.save(txn2);
 
             // Sample transaction 3: FAILED
             Transaction txn3 = new Transaction();
@@ -57,7 +62,7 @@ public class DataInitializer {
             txn3.setPayerId("CUST003");
             txn3.setPayeeId("MERCHANT003");
             txn3.setDescription("Failed transaction - insufficient funds");
-            transactionRepository.save(txn3);
+            transactionStore.save(txn3);
 
             // Sample transaction 4: SUCCESS
             Transaction txn4 = new Transaction();
@@ -68,7 +73,7 @@ public class DataInitializer {
             txn4.setPayerId("CUST001");
             txn4.setPayeeId("MERCHANT004");
             txn4.setDescription("Online shopping purchase");
-            transactionRepository.save(txn4);
+            transactionStore.save(txn4);
 
             // Sample transaction 5: FAILED
             Transaction txn5 = new Transaction();
@@ -79,9 +84,31 @@ public class DataInitializer {
             txn5.setPayerId("CUST004");
             txn5.setPayeeId("MERCHANT005");
             txn5.setDescription("Transaction timeout");
-            transactionRepository.save(txn5);
+            transactionStore.save(txn5);
 
             log.info("Sample data initialization completed");
         };
     }
+
+    /**
+     * Synthetic data settings for startup, bound from app.seed.*
+     */
+    @Bean
+    @ConfigurationProperties(prefix = "app.seed")
+    public SeedRequest startupSeedRequest() {
+        return new SeedRequest();
+    }
+
+    /**
+     * Generate synthetic transactions on startup
+     */
+    @Bean
+    public CommandLineRunner seedSyntheticData(SeedRequest startupSeedRequest, SyntheticDataService syntheticDataService) {
+        return args -> {
+            if (startupSeedRequest.getRows() > 0) {
+                SeedResult result = syntheticDataService.seed(startupSeedRequest);
+                log.info("Startup seeding completed: {}", result);
+            }
+        };
+    }
 }
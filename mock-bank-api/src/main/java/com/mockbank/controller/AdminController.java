@@ -0,0 +1,159 @@
+package com.mockbank.controller;
+
+import com.mockbank.dto.ApiResponse;
+import com.mockbank.dto.SeedRequest;
+import com.mockbank.dto.SeedResult;
+import com.mockbank.fault.FaultInjectionService;
+import com.mockbank.fault.FaultRule;
+import com.mockbank.service.SyntheticDataService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * REST Controller for test setup operations
+ * Endpoints:
+ * - POST /bank/admin/seed - Generate synthetic transactions
+ * - GET/POST/PUT/DELETE /bank/admin/faults - Manage latency and fault injection rules
+ */
+@RestController
+@RequestMapping("/bank/admin")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Admin", description = "Test Setup API")
+public class AdminController {
+
+    private final SyntheticDataService syntheticDataService;
+    private final FaultInjectionService faultInjectionService;
+
+    /**
+     * Generate synthetic transactions
+     * Runs synchronously; large row counts take minutes, so use a generous client timeout
+     *
+     * @param request SeedRequest with row count, status mix, amount distribution and cardinalities
+     * @return ResponseEntity with ApiResponse containing the counts and load rate
+     */
+    @PostMapping("/seed")
+    @Operation(summary = "Generate synthetic transactions",
+            description = "Bulk-loads reproducible synthetic transactions and optionally writes matching dispute requests as NDJSON.")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "201", description = "Transactions generated successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class))),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid seed request"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized - Invalid API key")
+    })
+    public ResponseEntity<ApiResponse<SeedResult>> seed(
+            @RequestBody SeedRequest request,
+            @RequestHeader(value = "x-api-key", required = true) String apiKey) throws IOException {
+
+        log.info("POST /bank/admin/seed - Generating {} transactions", request.getRows());
+        SeedResult result = syntheticDataService.seed(request);
+
+        ApiResponse<SeedResult> apiResponse = new ApiResponse<>(
+                true,
+                "Synthetic transactions generated successfully",
+                result
+        );
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(apiResponse);
+    }
+
+    /**
+     * Fetch the active fault rules in match order, with how often each matched and injected its fault
+     *
+     * @return ResponseEntity with ApiResponse containing the rules
+     */
+    @GetMapping("/faults")
+    @Operation(summary = "Fetch fault rules",
+            description = "Lists the active latency and fault injection rules in match order.")
+    public ResponseEntity<ApiResponse<List<FaultRule>>> getFaultRules(
+            @RequestHeader(value = "x-api-key", required = true) String apiKey) {
+
+        return ResponseEntity.ok(new ApiResponse<>(true, "Fault rules retrieved successfully", faultInjectionService.getRules()));
+    }
+
+    /**
+     * Add a fault rule after the existing ones
+     *
+     * @param rule FaultRule with scope, latency profile and fault
+     * @return ResponseEntity with ApiResponse containing the rule with its ID
+     */
+    @PostMapping("/faults")
+    @Operation(summary = "Add a fault rule",
+            description = "Adds a latency and fault injection rule. It applies to requests that no earlier rule matches.")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "201", description = "Rule added",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class))),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid rule"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized - Invalid API key")
+    })
+    public ResponseEntity<ApiResponse<FaultRule>> addFaultRule(
+            @RequestBody FaultRule rule,
+            @RequestHeader(value = "x-api-key", required = true) String apiKey) {
+
+        log.info("POST /bank/admin/faults - Adding {} rule for {}", rule.getFault(), rule.getPath());
+        FaultRule added = faultInjectionService.addRule(rule);
+        return ResponseEntity.status(HttpStatus.CREATED).body(new ApiResponse<>(true, "Fault rule added successfully", added));
+    }
+
+    /**
+     * Replace all fault rules, e.g. to switch between saved profiles
+     *
+     * @param rules FaultRules in match order
+     * @return ResponseEntity with ApiResponse containing the new rules
+     */
+    @PutMapping("/faults")
+    @Operation(summary = "Replace fault rules",
+            description = "Replaces all latency and fault injection rules at once. Nothing changes if any rule is invalid.")
+    public ResponseEntity<ApiResponse<List<FaultRule>>> replaceFaultRules(
+            @RequestBody List<FaultRule> rules,
+            @RequestHeader(value = "x-api-key", required = true) String apiKey) {
+
+        log.info("PUT /bank/admin/faults - Replacing fault rules with {} rules", rules.size());
+        return ResponseEntity.ok(new ApiResponse<>(true, "Fault rules replaced successfully", faultInjectionService.replaceRules(rules)));
+    }
+
+    /**
+     * Remove one fault rule
+     *
+     * @param id The rule ID
+     * @return ResponseEntity with ApiResponse; 404 if there is no such rule
+     */
+    @DeleteMapping("/faults/{id}")
+    @Operation(summary = "Remove a fault rule", description = "Removes one latency and fault injection rule by ID.")
+    public ResponseEntity<ApiResponse<Void>> removeFaultRule(
+            @PathVariable String id,
+            @RequestHeader(value = "x-api-key", required = true) String apiKey) {
+
+        log.info("DELETE /bank/admin/faults/{} - Removing fault rule", id);
+        if (!faultInjectionService.removeRule(id)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse<>(false, "Fault rule not found: " + id, null));
+        }
+        return ResponseEntity.ok(new ApiResponse<>(true, "Fault rule removed successfully", null));
+    }
+
+    /**
+     * Remove all fault rules, so the bank answers normally again
+     *
+     * @return ResponseEntity with ApiResponse
+     */
+    @DeleteMapping("/faults")
+    @Operation(summary = "Remove all fault rules", description = "Removes every latency and fault injection rule.")
+    public ResponseEntity<ApiResponse<Void>> clearFaultRules(
+            @RequestHeader(value = "x-api-key", required = true) String apiKey) {
+
+        log.info("DELETE /bank/admin/faults - Removing all fault rules");
+        faultInjectionService.clearRules();
+        return ResponseEntity.ok(new ApiResponse<>(true, "Fault rules removed successfully", null));
+    }
+}
@@ -1,27 +1,37 @@
 package com.mockbank.controller;
 
 import com.mockbank.dto.ApiResponse;
+import com.mockbank.dto.BatchRefundRequest;
+import com.mockbank.dto.BatchRefundResponse;
+import com.mockbank.dto.CursorPage;
 import com.mockbank.dto.RefundRequest;
 import com.mockbank.dto.RefundResponse;
+import com.mockbank.repository.RefundQueryRepository;
+import com.mockbank.service.BatchRefundService;
 import com.mockbank.service.RefundService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.IOException;
 
 /**
  * REST Controller for Refund operations
  * Endpoints:
  * - POST /bank/refund - Trigger a refund
- * - GET /bank/refunds - Fetch all refunds
+ * - POST /bank/refund/batch - Trigger many refunds in one call
+ * - GET /bank/refund/all - Fetch refunds a page at a time
+ * - GET /bank/refund/all/stream - Stream all matching refunds as NDJSON
  */
 @RestController
 @RequestMapping("/bank/refund")
@@ -31,6 +41,7 @@ import java.util.List;
 public class RefundController {
 
     private final RefundService refundService;
+    private final BatchRefundService batchRefundService;
 
     /**
      * Process a refund for a transaction
@@ -44,7 +55,8 @@ public class RefundController {
      */
     @PostMapping
     @Operation(summary = "Process a refund",
-            description = "Processes a refund for a transaction. The transaction must have SUCCESS status to be refundable.")
+            description = "Processes a refund for a transaction. The transaction must have SUCCESS status to be refundable. "
+                    + "Resubmitting with the same idempotencyKey returns the original refund.")
     @ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "201", description = "Refund processed successfully",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class))),
@@ -69,30 +81,110 @@ public class RefundController {
     }
 
     /**
-     * Fetch all refunds
+     * Process many refunds in one call
+     * Each item gets the result POST /bank/refund would have given it; one failing item does not affect the others
      *
-     * @return ResponseEntity with ApiResponse containing list of all refunds
+     * @param request BatchRefundRequest with the refunds
+     * @return ResponseEntity with ApiResponse containing per-item results in request order
+     */
+    @PostMapping("/batch")
+    @Operation(summary = "Process a batch of refunds",
+            description = "Processes up to app.refund.batch.max-items refunds with a fixed number of queries and reports "
+                    + "success or error per item. Idempotency keys behave as for a single refund.")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Batch processed; see per-item results",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class))),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Batch is empty or too large"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized - Invalid API key")
+    })
+    public ResponseEntity<ApiResponse<BatchRefundResponse>> processRefunds(
+            @RequestBody BatchRefundRequest request,
+            @RequestHeader(value = "x-api-key", required = true) String apiKey) {
+
+        log.info("POST /bank/refund/batch - Processing {} refunds",
+                request.getRefunds() == null ? 0 : request.getRefunds().size());
+        BatchRefundResponse response = batchRefundService.processRefunds(request);
+
+        ApiResponse<BatchRefundResponse> apiResponse = new ApiResponse<>(
+                true,
+                "Batch processed: " + response.getSucceeded() + " succeeded, " + response.getFailed() + " failed",
+                response
+        );
+
+        return ResponseEntity.status(HttpStatus.OK).body(apiResponse);
+    }
+
+    /**
+     * Fetch refunds a page at a time, oldest first
+     *
+     * @param from earliest refund time, inclusive (yyyy-MM-dd or yyyy-MM-ddTHH:mm:ss)
+     * @param to latest refund time, exclusive
+     * @param status refund status, e.g. SUCCESS
+     * @param cursor next_cursor of the previous page
+     * @param limit page size, 1 to 1000 (default 100)
+     * @return ResponseEntity with ApiResponse containing the page and the cursor of the next one
      */
     @GetMapping("/all")
-    @Operation(summary = "Fetch all refunds",
-            description = "Retrieves the list of all refunds processed by the bank.")
+    @Operation(summary = "Fetch refunds",
+            description = "Retrieves refunds oldest first, one page at a time. Pass next_cursor back as cursor, "
+                    + "with the same filters, for the following page.")
     @ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Refunds retrieved successfully",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class))),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid filter, cursor or limit"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized - Invalid API key")
     })
-    public ResponseEntity<ApiResponse<List<RefundResponse>>> getAllRefunds(
+    public ResponseEntity<ApiResponse<CursorPage<RefundResponse>>> getRefunds(
+            @Parameter(description = "Earliest refund time, inclusive") @RequestParam(required = false) String from,
+            @Parameter(description = "Latest refund time, exclusive") @RequestParam(required = false) String to,
+            @Parameter(description = "Refund status") @RequestParam(required = false) String status,
+            @Parameter(description = "next_cursor of the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, 1 to 1000") @RequestParam(required = false) Integer limit,
             @RequestHeader(value = "x-api-key", required = true) String apiKey) {
 
-        log.info("GET /bank/refunds - Fetching all refunds");
-        List<RefundResponse> refunds = refundService.getAllRefunds();
+        log.info("GET /bank/refund/all - Fetching refunds page");
+        RefundQueryRepository.Filter filter = refundService.refundFilter(from, to, status);
+        CursorPage<RefundResponse> page = refundService.getRefunds(filter, cursor, limit);
 
-        ApiResponse<List<RefundResponse>> apiResponse = new ApiResponse<>(
+        ApiResponse<CursorPage<RefundResponse>> apiResponse = new ApiResponse<>(
                 true,
                 "Refunds retrieved successfully",
-                refunds
+                page
         );
 
         return ResponseEntity.status(HttpStatus.OK).body(apiResponse);
     }
+
+    /**
+     * Stream every refund matching the filters as NDJSON, one refund per line, oldest first
+     * For reconciliation jobs: memory use does not grow with the number of refunds
+     *
+     * @param from earliest refund time, inclusive
+     * @param to latest refund time, exclusive
+     * @param status refund status
+     */
+    @GetMapping(value = "/all/stream", produces = "application/x-ndjson")
+    @Operation(summary = "Stream refunds as NDJSON",
+            description = "Writes every matching refund as one JSON object per line, oldest first, in constant memory.")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Refunds streamed"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid filter"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized - Invalid API key")
+    })
+    public void streamRefunds(
+            @Parameter(description = "Earliest refund time, inclusive") @RequestParam(required = false) String from,
+            @Parameter(description = "Latest refund time, exclusive") @RequestParam(required = false) String to,
+            @Parameter(description = "Refund status") @RequestParam(required = false) String status,
+            @RequestHeader(value = "x-api-key", required = true) String apiKey,
+            HttpServletResponse response) throws IOException {
+
+        log.info("GET /bank/refund/all/stream - Streaming refunds");
+        // Validated before anything is written, so a bad filter still gets an ApiResponse error
+        RefundQueryRepository.Filter filter = refundService.refundFilter(from, to, status);
+
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"refunds.ndjson\"");
+        refundService.streamRefunds(filter, response.getOutputStream());
+    }
 }
@@ -2,7 +2,9 @@ package com.mockbank.controller;
 
 import com.mockbank.dto.ApiResponse;
 import com.mockbank.dto.CreateTransactionRequest;
+import com.mockbank.dto.CursorPage;
 import com.mockbank.dto.TransactionResponse;
+import com.mockbank.repository.TransactionStore;
 import com.mockbank.service.TransactionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -20,6 +22,7 @@ import org.springframework.web.bind.annotation.*;
  * REST Controller for Transaction operations
  * Endpoints:
  * - POST /bank/transaction - Create a transaction
+ * - GET /bank/transaction - Fetch a payer's or payee's transactions a page at a time
  * - GET /bank/transaction/{transactionId} - Fetch transaction details
  */
 @RestController
@@ -93,4 +96,49 @@ public class TransactionController {
 
         return ResponseEntity.status(HttpStatus.OK).body(apiResponse);
     }
+
+    /**
+     * Fetch the transactions of a payer or payee a page at a time, oldest first
+     *
+     * @param payerId payer to list
+     * @param payeeId payee to list; at least one of payerId and payeeId is required
+     * @param from earliest transaction time, inclusive (yyyy-MM-dd or yyyy-MM-ddTHH:mm:ss)
+     * @param to latest transaction time, exclusive
+     * @param status transaction status, e.g. SUCCESS
+     * @param cursor next_cursor of the previous page
+     * @param limit page size, 1 to 1000 (default 100)
+     * @return ResponseEntity with ApiResponse containing the page and the cursor of the next one
+     */
+    @GetMapping
+    @Operation(summary = "Fetch transactions of a payer or payee",
+            description = "Retrieves a payer's or payee's transactions oldest first, one page at a time. Pass next_cursor "
+                    + "back as cursor, with the same filters, for the following page.")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Transactions retrieved successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class))),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "No payer or payee, or invalid filter, cursor or limit"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized - Invalid API key")
+    })
+    public ResponseEntity<ApiResponse<CursorPage<TransactionResponse>>> getTransactions(
+            @Parameter(description = "Payer ID", example = "CUST001") @RequestParam(required = false) String payerId,
+            @Parameter(description = "Payee ID", example = "MERCHANT001") @RequestParam(required = false) String payeeId,
+            @Parameter(description = "Earliest transaction time, inclusive") @RequestParam(required = false) String from,
+            @Parameter(description = "Latest transaction time, exclusive") @RequestParam(required = false) String to,
+            @Parameter(description = "Transaction status") @RequestParam(required = false) String status,
+            @Parameter(description = "next_cursor of the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, 1 to 1000") @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = "x-api-key", required = true) String apiKey) {
+
+        log.info("GET /bank/transaction - Fetching transactions page");
+        TransactionStore.Filter filter = transactionService.transactionFilter(payerId, payeeId, from, to, status);
+        CursorPage<TransactionResponse> page = transactionService.getTransactions(filter, cursor, limit);
+
+        ApiResponse<CursorPage<TransactionResponse>> apiResponse = new ApiResponse<>(
+                true,
+                "Transactions retrieved successfully",
+                page
+        );
+
+        return ResponseEntity.status(HttpStatus.OK).body(apiResponse);
+    }
 }
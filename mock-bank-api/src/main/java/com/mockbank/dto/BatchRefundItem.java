@@ -0,0 +1,33 @@
+package com.mockbank.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Outcome of one refund in a batch: the refund, or the error and the status POST /bank/refund would have returned
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRefundItem {
+
+    @JsonProperty("index")
+    private Integer index;
+
+    @JsonProperty("transaction_id")
+    private String transactionId;
+
+    @JsonProperty("success")
+    private Boolean success;
+
+    @JsonProperty("status_code")
+    private Integer statusCode;
+
+    @JsonProperty("error")
+    private String error;
+
+    @JsonProperty("refund")
+    private RefundResponse refund;
+}
@@ -0,0 +1,19 @@
+package com.mockbank.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request DTO for refunding many transactions in one call
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRefundRequest {
+
+    private List<RefundRequest> refunds = new ArrayList<>();
+}
@@ -0,0 +1,32 @@
+package com.mockbank.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Response DTO for a batch refund, with one result per request in request order
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRefundResponse {
+
+    @JsonProperty("total")
+    private Integer total;
+
+    @JsonProperty("succeeded")
+    private Integer succeeded;
+
+    @JsonProperty("failed")
+    private Integer failed;
+
+    @JsonProperty("elapsed_ms")
+    private Long elapsedMs;
+
+    @JsonProperty("results")
+    private List<BatchRefundItem> results;
+}
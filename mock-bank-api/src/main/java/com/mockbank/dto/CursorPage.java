@@ -0,0 +1,30 @@
+package com.mockbank.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Response DTO for one page of a cursor-paginated listing
+ * Pass next_cursor back as cursor, with the same filters, to get the following page; it is null on the last page
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    @JsonProperty("items")
+    private List<T> items;
+
+    @JsonProperty("count")
+    private Integer count;
+
+    @JsonProperty("next_cursor")
+    private String nextCursor;
+
+    @JsonProperty("has_more")
+    private Boolean hasMore;
+}
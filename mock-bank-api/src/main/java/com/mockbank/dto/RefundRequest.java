@@ -14,4 +14,19 @@ public class RefundRequest {
 
     private String transactionId;
     private String reason;
+
+    /**
+     * Optional; a request repeating an earlier key gets the earlier refund back instead of a new one
+     */
+    private String idempotencyKey;
+
+    /**
+     * Dispute reversal: returns the money of a FAILED transaction the payer was debited for anyway
+     * Only FAILED transactions can be reversed; a plain refund needs a SUCCESS one
+     */
+    private boolean disputeReversal;
+
+    public RefundRequest(String transactionId, String reason, String idempotencyKey) {
+        this(transactionId, reason, idempotencyKey, false);
+    }
 }
@@ -30,4 +30,7 @@ public class RefundResponse {
 
     @JsonProperty("reason")
     private String reason;
+
+    @JsonProperty("idempotency_key")
+    private String idempotencyKey;
 }
@@ -0,0 +1,46 @@
+package com.mockbank.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request DTO for generating synthetic transactions
+ * Defaults are used for any field left out; the same request and seed always produce the same data
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeedRequest {
+
+    public enum AmountDistribution { LOG_NORMAL, UNIFORM }
+
+    private long rows = 0;
+    private long seed = 42;
+    private String idPrefix = "SYN";
+
+    // Status mix; REFUNDED gets whatever is left
+    private double successShare = 0.80;
+    private double failedShare = 0.15;
+
+    // LOG_NORMAL: amountMedian * e^(amountSigma * N(0,1)); UNIFORM: between the bounds. Clamped to the bounds either way
+    private AmountDistribution amountDistribution = AmountDistribution.LOG_NORMAL;
+    private double amountMedian = 500.0;
+    private double amountSigma = 1.0;
+    private double amountMin = 1.0;
+    private double amountMax = 200000.0;
+
+    // Distinct payers (CUST...) and payees (MERCHANT...)
+    private int payers = 1_000_000;
+    private int payees = 50_000;
+
+    // Timestamps spread evenly over this many days from startDate (yyyy-MM-dd)
+    private String startDate = "2024-01-01";
+    private int days = 30;
+
+    private int batchSize = 5_000;
+
+    // Optional NDJSON file of backend DisputeRequests, one per disputed SUCCESS or FAILED transaction
+    private String disputesFile;
+    private double disputeShare = 0.01;
+}
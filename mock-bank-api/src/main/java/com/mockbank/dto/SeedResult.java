@@ -0,0 +1,39 @@
+package com.mockbank.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Response DTO for a synthetic data run
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeedResult {
+
+    @JsonProperty("rows")
+    private Long rows;
+
+    @JsonProperty("success")
+    private Long success;
+
+    @JsonProperty("failed")
+    private Long failed;
+
+    @JsonProperty("refunded")
+    private Long refunded;
+
+    @JsonProperty("disputes")
+    private Long disputes;
+
+    @JsonProperty("disputes_file")
+    private String disputesFile;
+
+    @JsonProperty("elapsed_ms")
+    private Long elapsedMs;
+
+    @JsonProperty("rows_per_minute")
+    private Long rowsPerMinute;
+}
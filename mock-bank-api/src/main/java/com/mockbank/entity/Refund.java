@@ -11,7 +11,11 @@ import java.time.LocalDateTime;
  * Maps to the 'refunds' table in H2 database
  */
 @Entity
-@Table(name = "refunds")
+@Table(name = "refunds", indexes = {
+        // Keyset order of GET /bank/refund/all: time range scans without a sort
+        @Index(name = "idx_refunds_timestamp_id", columnList = "refund_timestamp, refund_id"),
+        @Index(name = "idx_refunds_transaction_id", columnList = "transaction_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -36,4 +40,8 @@ public class Refund {
 
     @Column(name = "reason")
     private String reason;
+
+    // Client-chosen key; unique, so a resubmitted refund finds the original instead of creating a second one
+    @Column(name = "idempotency_key", unique = true)
+    private String idempotencyKey;
 }
@@ -11,7 +11,12 @@ import java.time.LocalDateTime;
  * Maps to the 'transactions' table in H2 database
  */
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        // GET /bank/transaction by payer or payee: leading (party, timestamp) for the range, transaction_id for the
+        // keyset order, and the other filter columns so a page's IDs are found without reading a single row
+        @Index(name = "idx_transactions_payer_timestamp", columnList = "payer_id, timestamp, transaction_id, payee_id, status"),
+        @Index(name = "idx_transactions_payee_timestamp", columnList = "payee_id, timestamp, transaction_id, payer_id, status")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
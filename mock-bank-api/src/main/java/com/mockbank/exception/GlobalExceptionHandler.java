@@ -51,6 +51,17 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
     }
 
+    /**
+     * Handle IllegalArgumentException from request validation
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ApiResponse<?>> handleIllegalArgumentException(IllegalArgumentException ex) {
+        log.error("Invalid request: {}", ex.getMessage());
+        ApiResponse<?> response = new ApiResponse<>(false, ex.getMessage(), null);
+        response.setTimestamp(LocalDateTime.now().toString());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
     /**
      * Handle generic RuntimeException
      */
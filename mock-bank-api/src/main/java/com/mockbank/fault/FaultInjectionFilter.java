@@ -0,0 +1,144 @@
+package com.mockbank.fault;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mockbank.dto.ApiResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.catalina.connector.ClientAbortException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+
+/**
+ * Applies FaultInjectionService rules to /bank requests
+ * - latency: the request thread sleeps before the controller runs
+ * - ERROR / RATE_LIMIT: an ApiResponse error with the rule's 5xx status, or 429 with Retry-After
+ * - CONNECTION_RESET: the status line and headers promise a body, then Tomcat closes the socket
+ * - SLOW_BODY: the real response, sent in small chunks at the rule's bytes per second
+ * The transaction ID comes from /bank/transaction/{id} or the JSON body's transactionId, and is only
+ * looked up when a rule scoped by transaction ID could match
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FaultInjectionFilter extends OncePerRequestFilter {
+
+    private static final String TRANSACTION_PATH = "/bank/transaction/";
+    private static final int SLOW_BODY_CHUNKS_PER_SECOND = 10;
+
+    private final FaultInjectionService faultInjectionService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !faultInjectionService.isActive() || !request.getRequestURI().startsWith("/bank/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String method = request.getMethod();
+        String path = request.getRequestURI();
+        HttpServletRequest effectiveRequest = request;
+        String transactionId = null;
+        if (faultInjectionService.needsTransactionId(method, path)) {
+            transactionId = pathTransactionId(path);
+            if (transactionId == null && request.getContentType() != null && request.getContentType().contains("json")) {
+                CachedBodyHttpServletRequest cached = new CachedBodyHttpServletRequest(request);
+                effectiveRequest = cached;
+                transactionId = bodyTransactionId(cached.getBody());
+            }
+        }
+
+        Optional<FaultInjectionService.Injection> decision = faultInjectionService.decide(method, path, transactionId);
+        if (decision.isEmpty()) {
+            chain.doFilter(effectiveRequest, response);
+            return;
+        }
+        FaultInjectionService.Injection injection = decision.get();
+        if (injection.delayMs() > 0) {
+            try {
+                Thread.sleep(injection.delayMs());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException("Interrupted during injected latency", e);
+            }
+        }
+
+        switch (injection.fault()) {
+            case ERROR -> writeError(response, injection.errorStatus(), "Injected fault: bank unavailable");
+            case RATE_LIMIT -> {
+                response.setHeader("Retry-After", Integer.toString(injection.retryAfterSeconds()));
+                writeError(response, 429, "Injected fault: too many requests");
+            }
+            case CONNECTION_RESET -> resetConnection(response);
+            case SLOW_BODY -> sendSlowly(effectiveRequest, response, chain, injection.bytesPerSecond());
+            case NONE -> chain.doFilter(effectiveRequest, response);
+        }
+    }
+
+    private void writeError(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType("application/json");
+        response.getWriter().write(objectMapper.writeValueAsString(new ApiResponse<>(false, message, null)));
+    }
+
+    // Once the response is committed, an exception makes Tomcat's ErrorReportValve close the connection at once.
+    // ClientAbortException is the one Tomcat neither logs nor answers with Spring Boot's /error page
+    private static void resetConnection(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType("application/json");
+        response.setContentLength(1024);
+        response.flushBuffer();
+        throw new ClientAbortException("Injected connection reset");
+    }
+
+    private static void sendSlowly(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
+                                   int bytesPerSecond) throws IOException, ServletException {
+        ContentCachingResponseWrapper buffered = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, buffered);
+        byte[] body = buffered.getContentAsByteArray();
+
+        response.setContentLength(body.length);
+        OutputStream out = response.getOutputStream();
+        int chunk = Math.max(1, bytesPerSecond / SLOW_BODY_CHUNKS_PER_SECOND);
+        long pauseMs = 1000L * chunk / bytesPerSecond;
+        try {
+            for (int offset = 0; offset < body.length; offset += chunk) {
+                out.write(body, offset, Math.min(chunk, body.length - offset));
+                out.flush();
+                Thread.sleep(pauseMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServletException("Interrupted during slow body", e);
+        }
+    }
+
+    private static String pathTransactionId(String path) {
+        if (!path.startsWith(TRANSACTION_PATH) || path.length() == TRANSACTION_PATH.length()) {
+            return null;
+        }
+        String id = path.substring(TRANSACTION_PATH.length());
+        return id.indexOf('/') < 0 ? id : null;
+    }
+
+    private String bodyTransactionId(byte[] body) {
+        try {
+            JsonNode transactionId = objectMapper.readTree(body).path("transactionId");
+            return transactionId.isTextual() ? transactionId.asText() : null;
+        } catch (IOException e) {
+            log.debug("Request body is not JSON; transaction ID rules will not match: {}", e.getMessage());
+            return null;
+        }
+    }
+}
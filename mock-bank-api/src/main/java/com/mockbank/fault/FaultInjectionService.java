@@ -0,0 +1,286 @@
+package com.mockbank.fault;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Service class for latency and fault injection
+ * Holds the active rules, which can be changed at runtime, and decides per request what FaultInjectionFilter injects
+ * The /bank/admin endpoints are never affected, so a misconfigured rule can always be removed
+ */
+@Service
+@Slf4j
+public class FaultInjectionService {
+
+    private static final String ADMIN_PATH = "/bank/admin/";
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    // Replaced as a whole on every change, so a request always sees one consistent rule list
+    private volatile List<ActiveRule> rules = List.of();
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    /**
+     * What to do with one request: wait delayMs, then apply the fault (NONE lets it through)
+     */
+    public record Injection(long delayMs, FaultRule.FaultType fault, int errorStatus, int retryAfterSeconds,
+                            int bytesPerSecond) {
+    }
+
+    public FaultInjectionService(FaultProperties properties) {
+        for (FaultRule rule : properties.getRules()) {
+            addRule(rule);
+        }
+    }
+
+    public boolean isActive() {
+        return !rules.isEmpty();
+    }
+
+    public List<FaultRule> getRules() {
+        List<FaultRule> snapshot = new ArrayList<>();
+        for (ActiveRule active : rules) {
+            snapshot.add(active.snapshot());
+        }
+        return snapshot;
+    }
+
+    /**
+     * Append a rule; it applies to requests no earlier rule matches
+     * @throws IllegalArgumentException if the rule is invalid
+     */
+    public synchronized FaultRule addRule(FaultRule rule) {
+        ActiveRule active = compile(rule);
+        List<ActiveRule> updated = new ArrayList<>(rules);
+        updated.add(active);
+        rules = List.copyOf(updated);
+        log.info("Fault rule {} added: {} {} latency={} fault={}", rule.getId(), rule.getMethod(), rule.getPath(),
+                rule.getLatency(), rule.getFault());
+        return active.snapshot();
+    }
+
+    /**
+     * Replace all rules at once; nothing changes if any rule is invalid
+     */
+    public synchronized List<FaultRule> replaceRules(List<FaultRule> newRules) {
+        List<ActiveRule> compiled = new ArrayList<>();
+        for (FaultRule rule : newRules) {
+            compiled.add(compile(rule));
+        }
+        rules = List.copyOf(compiled);
+        log.info("Fault rules replaced: {} active", compiled.size());
+        return getRules();
+    }
+
+    public synchronized boolean removeRule(String id) {
+        List<ActiveRule> updated = new ArrayList<>(rules);
+        boolean removed = updated.removeIf(active -> active.rule.getId().equals(id));
+        rules = List.copyOf(updated);
+        if (removed) {
+            log.info("Fault rule {} removed", id);
+        }
+        return removed;
+    }
+
+    public synchronized void clearRules() {
+        rules = List.of();
+        log.info("All fault rules removed");
+    }
+
+    /**
+     * Whether a rule with a transaction ID pattern could match this request, so the ID has to be found first
+     */
+    public boolean needsTransactionId(String method, String path) {
+        for (ActiveRule active : rules) {
+            if (active.transactionIdPattern != null && active.matchesRoute(method, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Decide what to inject for a request
+     * @param transactionId the request's transaction ID, or null if it has none or it was not needed
+     * @return the injection of the first matching rule, or empty if no rule matches
+     */
+    public Optional<Injection> decide(String method, String path, String transactionId) {
+        if (path.startsWith(ADMIN_PATH)) {
+            return Optional.empty();
+        }
+        for (ActiveRule active : rules) {
+            if (active.matches(method, path, transactionId)) {
+                return Optional.of(active.sample());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private ActiveRule compile(FaultRule rule) {
+        validate(rule);
+        Pattern transactionIdPattern = null;
+        if (rule.getTransactionIdPattern() != null) {
+            try {
+                transactionIdPattern = Pattern.compile(rule.getTransactionIdPattern());
+            } catch (PatternSyntaxException e) {
+                throw new IllegalArgumentException("Invalid transactionIdPattern: " + e.getDescription());
+            }
+        }
+        rule.setId(Long.toString(nextId.getAndIncrement()));
+        return new ActiveRule(rule, transactionIdPattern);
+    }
+
+    private static void validate(FaultRule rule) {
+        if (rule.getPath() == null || rule.getPath().isBlank() || !rule.getPath().startsWith("/")) {
+            throw new IllegalArgumentException("path must be an Ant pattern starting with /");
+        }
+        if (rule.getLatency() == null || rule.getFault() == null) {
+            throw new IllegalArgumentException("latency and fault are required");
+        }
+        switch (rule.getLatency()) {
+            case FIXED -> {
+                if (rule.getFixedMs() < 0) {
+                    throw new IllegalArgumentException("fixedMs must not be negative");
+                }
+            }
+            case UNIFORM -> {
+                if (rule.getMinMs() < 0 || rule.getMinMs() > rule.getMaxMs()) {
+                    throw new IllegalArgumentException("UNIFORM latency needs 0 <= minMs <= maxMs");
+                }
+            }
+            case LOG_NORMAL -> {
+                if (rule.getMedianMs() <= 0 || rule.getSigma() < 0 || rule.getMaxMs() < 0) {
+                    throw new IllegalArgumentException("LOG_NORMAL latency needs medianMs > 0 and sigma >= 0");
+                }
+            }
+            case HISTOGRAM -> {
+                long total = 0;
+                if (rule.getHistogram() != null) {
+                    for (FaultRule.HistogramBucket bucket : rule.getHistogram()) {
+                        if (bucket.getFromMs() < 0 || bucket.getFromMs() > bucket.getToMs() || bucket.getCount() < 0) {
+                            throw new IllegalArgumentException("Histogram buckets need 0 <= fromMs <= toMs and count >= 0");
+                        }
+                        total += bucket.getCount();
+                    }
+                }
+                if (total == 0) {
+                    throw new IllegalArgumentException("HISTOGRAM latency needs buckets with a positive total count");
+                }
+            }
+            default -> {
+            }
+        }
+        if (rule.getFaultProbability() < 0 || rule.getFaultProbability() > 1) {
+            throw new IllegalArgumentException("faultProbability must be between 0 and 1");
+        }
+        if (rule.getFault() == FaultRule.FaultType.ERROR && (rule.getErrorStatus() < 500 || rule.getErrorStatus() > 599)) {
+            throw new IllegalArgumentException("errorStatus must be a 5xx status");
+        }
+        if (rule.getRetryAfterSeconds() < 0 || rule.getBytesPerSecond() < 1) {
+            throw new IllegalArgumentException("retryAfterSeconds must not be negative and bytesPerSecond must be at least 1");
+        }
+    }
+
+    /**
+     * A validated rule with its compiled pattern, histogram and counters
+     */
+    private static final class ActiveRule {
+        private final FaultRule rule;
+        private final Pattern transactionIdPattern;
+        private final long[] cumulativeCounts;
+        private final AtomicLong matched = new AtomicLong();
+        private final AtomicLong injected = new AtomicLong();
+
+        ActiveRule(FaultRule rule, Pattern transactionIdPattern) {
+            this.rule = rule;
+            this.transactionIdPattern = transactionIdPattern;
+            if (rule.getLatency() == FaultRule.LatencyType.HISTOGRAM) {
+                cumulativeCounts = new long[rule.getHistogram().size()];
+                long total = 0;
+                for (int i = 0; i < cumulativeCounts.length; i++) {
+                    total += rule.getHistogram().get(i).getCount();
+                    cumulativeCounts[i] = total;
+                }
+            } else {
+                cumulativeCounts = null;
+            }
+        }
+
+        boolean matchesRoute(String method, String path) {
+            return (rule.getMethod() == null || rule.getMethod().equalsIgnoreCase(method))
+                    && PATH_MATCHER.match(rule.getPath(), path);
+        }
+
+        boolean matches(String method, String path, String transactionId) {
+            if (!matchesRoute(method, path)) {
+                return false;
+            }
+            return transactionIdPattern == null
+                    || (transactionId != null && transactionIdPattern.matcher(transactionId).matches());
+        }
+
+        Injection sample() {
+            matched.incrementAndGet();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            FaultRule.FaultType fault = rule.getFault() != FaultRule.FaultType.NONE
+                    && random.nextDouble() < rule.getFaultProbability() ? rule.getFault() : FaultRule.FaultType.NONE;
+            if (fault != FaultRule.FaultType.NONE) {
+                injected.incrementAndGet();
+            }
+            return new Injection(sampleLatency(random), fault, rule.getErrorStatus(), rule.getRetryAfterSeconds(),
+                    rule.getBytesPerSecond());
+        }
+
+        private long sampleLatency(ThreadLocalRandom random) {
+            return switch (rule.getLatency()) {
+                case FIXED -> rule.getFixedMs();
+                case UNIFORM -> rule.getMinMs() + (long) (random.nextDouble() * (rule.getMaxMs() - rule.getMinMs()));
+                case LOG_NORMAL -> {
+                    long sampled = Math.round(rule.getMedianMs() * Math.exp(rule.getSigma() * random.nextGaussian()));
+                    yield rule.getMaxMs() > 0 ? Math.min(rule.getMaxMs(), sampled) : sampled;
+                }
+                case HISTOGRAM -> {
+                    long draw = random.nextLong(cumulativeCounts[cumulativeCounts.length - 1]);
+                    int index = 0;
+                    while (cumulativeCounts[index] <= draw) {
+                        index++;
+                    }
+                    FaultRule.HistogramBucket bucket = rule.getHistogram().get(index);
+                    yield bucket.getFromMs() + (long) (random.nextDouble() * (bucket.getToMs() - bucket.getFromMs()));
+                }
+                case NONE -> 0;
+            };
+        }
+
+        FaultRule snapshot() {
+            FaultRule copy = new FaultRule();
+            copy.setId(rule.getId());
+            copy.setMethod(rule.getMethod());
+            copy.setPath(rule.getPath());
+            copy.setTransactionIdPattern(rule.getTransactionIdPattern());
+            copy.setLatency(rule.getLatency());
+            copy.setFixedMs(rule.getFixedMs());
+            copy.setMinMs(rule.getMinMs());
+            copy.setMaxMs(rule.getMaxMs());
+            copy.setMedianMs(rule.getMedianMs());
+            copy.setSigma(rule.getSigma());
+            copy.setHistogram(rule.getHistogram());
+            copy.setFault(rule.getFault());
+            copy.setFaultProbability(rule.getFaultProbability());
+            copy.setErrorStatus(rule.getErrorStatus());
+            copy.setRetryAfterSeconds(rule.getRetryAfterSeconds());
+            copy.setBytesPerSecond(rule.getBytesPerSecond());
+            copy.setMatched(matched.get());
+            copy.setInjected(injected.get());
+            return copy;
+        }
+    }
+}
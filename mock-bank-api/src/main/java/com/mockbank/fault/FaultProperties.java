@@ -0,0 +1,18 @@
+package com.mockbank.fault;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fault rules active from startup, bound from app.faults.rules
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.faults")
+public class FaultProperties {
+    private List<FaultRule> rules = new ArrayList<>();
+}
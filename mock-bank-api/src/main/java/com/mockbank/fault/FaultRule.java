@@ -0,0 +1,65 @@
+package com.mockbank.fault;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Latency and fault injection rule for /bank endpoints
+ * A request matches when its method, path and transaction ID all match; the first matching rule applies
+ */
+@Data
+@NoArgsConstructor
+public class FaultRule {
+
+    public enum LatencyType { NONE, FIXED, UNIFORM, LOG_NORMAL, HISTOGRAM }
+
+    public enum FaultType { NONE, ERROR, RATE_LIMIT, CONNECTION_RESET, SLOW_BODY }
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String id;
+
+    // Scope: HTTP method (null for any), Ant path pattern, and a regex on the transaction ID (null for any)
+    private String method;
+    private String path = "/bank/**";
+    private String transactionIdPattern;
+
+    // FIXED: fixedMs; UNIFORM: minMs..maxMs; LOG_NORMAL: medianMs * e^(sigma * N(0,1)), capped at maxMs if set;
+    // HISTOGRAM: a bucket picked by count, then uniform within it
+    private LatencyType latency = LatencyType.NONE;
+    private long fixedMs;
+    private long minMs;
+    private long maxMs;
+    private double medianMs;
+    private double sigma;
+    private List<HistogramBucket> histogram;
+
+    // Applied after the latency with faultProbability; ERROR uses errorStatus, RATE_LIMIT sends Retry-After,
+    // SLOW_BODY sends the real response at bytesPerSecond
+    private FaultType fault = FaultType.NONE;
+    private double faultProbability = 1.0;
+    private int errorStatus = 503;
+    private int retryAfterSeconds = 1;
+    private int bytesPerSecond = 256;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long matched;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long injected;
+
+    /**
+     * Latency range [fromMs, toMs) seen count times, e.g. one bar of a production latency histogram
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HistogramBucket {
+        private long fromMs;
+        private long toMs;
+        private long count;
+    }
+}
@@ -0,0 +1,520 @@
+package com.mockbank.repository;
+
+import com.mockbank.entity.Transaction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * In-memory transaction store (app.store.mode=memory)
+ * Serves lookups from primitive arrays with no ORM, SQL or entity hydration:
+ * - transaction IDs are UTF-8 bytes in 1 MB pages, found through an open-addressing int[] hash index
+ * - amount, timestamp (epoch nanos, UTC) and status are primitive columns
+ * - payer, payee and description are int codes into string dictionaries
+ * A row costs about 50 bytes plus its ID, so 50M transactions with 24-character IDs need about 4 GB of heap.
+ * Descriptions are dictionary-encoded, so they should come from a bounded set.
+ * Reads are optimistic under a StampedLock and fall back to the read lock; writes take the write lock.
+ * Status compare-and-set is not transactional itself; inside a Spring transaction it is reversed on rollback.
+ * There is no payer or payee index: a listing page compares the int columns of every row, about 50 ms per 10M rows.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.store.mode", havingValue = "memory")
+public class InMemoryTransactionStore implements TransactionStore {
+
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int NO_VALUE = -1;
+    private static final Comparator<PageEntry> PAGE_ORDER =
+            Comparator.comparingLong(PageEntry::timestamp).thenComparing(PageEntry::id);
+
+    private final StampedLock lock = new StampedLock();
+    private final IdArena ids = new IdArena();
+    private final StringDictionary statusDictionary = new StringDictionary();
+    private final StringDictionary partyDictionary = new StringDictionary();
+    private final StringDictionary descriptionDictionary = new StringDictionary();
+
+    // Hash index: row + 1 per slot, 0 for an empty slot, linear probing
+    private int[] slots;
+
+    // One entry per row
+    private int[] idHashes;
+    private long[] idAddresses;
+    private double[] amounts;
+    private long[] timestamps;
+    private byte[] statuses;
+    private int[] payerCodes;
+    private int[] payeeCodes;
+    private int[] descriptionCodes;
+    private int size;
+
+    public InMemoryTransactionStore(@Value("${app.store.memory.initial-capacity:1024}") int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        slots = new int[tableSizeFor(capacity)];
+        idHashes = new int[capacity];
+        idAddresses = new long[capacity];
+        amounts = new double[capacity];
+        timestamps = new long[capacity];
+        statuses = new byte[capacity];
+        payerCodes = new int[capacity];
+        payeeCodes = new int[capacity];
+        descriptionCodes = new int[capacity];
+        log.info("In-memory transaction store sized for {} transactions", capacity);
+    }
+
+    @Override
+    public Optional<Transaction> findById(String transactionId) {
+        if (transactionId == null) {
+            return Optional.empty();
+        }
+        byte[] key = transactionId.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(key);
+
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                Transaction transaction = read(key, hash);
+                if (lock.validate(stamp)) {
+                    return Optional.ofNullable(transaction);
+                }
+            } catch (RuntimeException e) {
+                // Torn read while a writer resized the arrays; retried under the read lock
+            }
+        }
+
+        stamp = lock.readLock();
+        try {
+            return Optional.ofNullable(read(key, hash));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public List<Transaction> findAllById(Collection<String> transactionIds) {
+        List<Transaction> found = new ArrayList<>(transactionIds.size());
+        long stamp = lock.readLock();
+        try {
+            for (String transactionId : transactionIds) {
+                if (transactionId != null) {
+                    byte[] key = transactionId.getBytes(StandardCharsets.UTF_8);
+                    Transaction transaction = read(key, hash(key));
+                    if (transaction != null) {
+                        found.add(transaction);
+                    }
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return found;
+    }
+
+    @Override
+    public Transaction save(Transaction transaction) {
+        byte[] key = encodeId(transaction);
+        long stamp = lock.writeLock();
+        try {
+            write(key, transaction);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        return transaction;
+    }
+
+    @Override
+    public Transaction insert(Transaction transaction) {
+        byte[] key = encodeId(transaction);
+        long stamp = lock.writeLock();
+        try {
+            if (findRow(key, hash(key)) >= 0) {
+                throw new DuplicateKeyException("Transaction already exists: " + transaction.getTransactionId());
+            }
+            write(key, transaction);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        return transaction;
+    }
+
+    @Override
+    public void saveAll(Collection<Transaction> transactions) {
+        byte[][] keys = new byte[transactions.size()][];
+        int i = 0;
+        for (Transaction transaction : transactions) {
+            keys[i++] = encodeId(transaction);
+        }
+
+        long stamp = lock.writeLock();
+        try {
+            ensureRowCapacity(size + keys.length);
+            i = 0;
+            for (Transaction transaction : transactions) {
+                write(keys[i++], transaction);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public long count() {
+        long stamp = lock.tryOptimisticRead();
+        int count = size;
+        if (lock.validate(stamp)) {
+            return count;
+        }
+        stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public List<Transaction> findPage(Filter filter, LocalDateTime afterTimestamp, String afterId, int limit) {
+        long stamp = lock.readLock();
+        try {
+            int payer = partyDictionary.find(filter.payerId());
+            int payee = partyDictionary.find(filter.payeeId());
+            int status = statusDictionary.find(filter.status());
+            // A value never stored matches nothing
+            if ((filter.payerId() != null && payer == NO_VALUE) || (filter.payeeId() != null && payee == NO_VALUE)
+                    || (filter.status() != null && status == NO_VALUE) || limit <= 0) {
+                return List.of();
+            }
+            long from = filter.from() == null ? Long.MIN_VALUE : toEpochNanos(filter.from());
+            long to = filter.to() == null ? Long.MAX_VALUE : toEpochNanos(filter.to());
+            long after = afterTimestamp == null ? Long.MIN_VALUE : toEpochNanos(afterTimestamp);
+
+            // The first limit matches in page order, kept in a heap whose head is the last of them
+            PriorityQueue<PageEntry> page = new PriorityQueue<>(limit + 1, PAGE_ORDER.reversed());
+            for (int row = 0; row < size; row++) {
+                if ((filter.payerId() != null && payerCodes[row] != payer)
+                        || (filter.payeeId() != null && payeeCodes[row] != payee)
+                        || (filter.status() != null && statuses[row] != status)) {
+                    continue;
+                }
+                long timestamp = timestamps[row];
+                if (timestamp < from || timestamp >= to || timestamp < after
+                        || (page.size() == limit && timestamp > page.peek().timestamp())) {
+                    continue;
+                }
+                String id = ids.read(idAddresses[row]);
+                if (afterTimestamp != null && timestamp == after && id.compareTo(afterId) <= 0) {
+                    continue;
+                }
+                page.add(new PageEntry(row, timestamp, id));
+                if (page.size() > limit) {
+                    page.poll();
+                }
+            }
+            List<PageEntry> entries = new ArrayList<>(page);
+            entries.sort(PAGE_ORDER);
+            List<Transaction> transactions = new ArrayList<>(entries.size());
+            for (PageEntry entry : entries) {
+                transactions.add(read(entry.row()));
+            }
+            return transactions;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public boolean compareAndSetStatus(String transactionId, String expectedStatus, String newStatus) {
+        return transactionId != null && compareAndSetStatuses(List.of(transactionId), expectedStatus, newStatus)[0];
+    }
+
+    @Override
+    public boolean[] compareAndSetStatuses(List<String> transactionIds, String expectedStatus, String newStatus) {
+        boolean[] updated = new boolean[transactionIds.size()];
+        List<String> changed = new ArrayList<>();
+        long stamp = lock.writeLock();
+        try {
+            for (int i = 0; i < updated.length; i++) {
+                updated[i] = setStatusIfCurrent(transactionIds.get(i), expectedStatus, newStatus);
+                if (updated[i]) {
+                    changed.add(transactionIds.get(i));
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        if (!changed.isEmpty() && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        long undoStamp = lock.writeLock();
+                        try {
+                            for (String transactionId : changed) {
+                                setStatusIfCurrent(transactionId, newStatus, expectedStatus);
+                            }
+                        } finally {
+                            lock.unlockWrite(undoStamp);
+                        }
+                    }
+                }
+            });
+        }
+        return updated;
+    }
+
+    // Caller holds the write lock
+    private boolean setStatusIfCurrent(String transactionId, String expectedStatus, String newStatus) {
+        if (transactionId == null || expectedStatus == null || newStatus == null) {
+            return false;
+        }
+        byte[] key = transactionId.getBytes(StandardCharsets.UTF_8);
+        int row = findRow(key, hash(key));
+        if (row < 0 || !expectedStatus.equals(statusDictionary.decode(statuses[row]))) {
+            return false;
+        }
+        statuses[row] = statusCode(newStatus);
+        return true;
+    }
+
+    private Transaction read(byte[] key, int hash) {
+        int row = findRow(key, hash);
+        return row < 0 ? null : read(row);
+    }
+
+    private Transaction read(int row) {
+        return new Transaction(
+                ids.read(idAddresses[row]),
+                amounts[row],
+                statusDictionary.decode(statuses[row]),
+                fromEpochNanos(timestamps[row]),
+                partyDictionary.decode(payerCodes[row]),
+                partyDictionary.decode(payeeCodes[row]),
+                descriptionDictionary.decode(descriptionCodes[row])
+        );
+    }
+
+    // Caller holds the write lock
+    private void write(byte[] key, Transaction transaction) {
+        byte status = statusCode(transaction.getStatus());
+        int hash = hash(key);
+        int row = findRow(key, hash);
+        if (row < 0) {
+            row = appendRow(key, hash);
+        }
+        amounts[row] = transaction.getAmount();
+        timestamps[row] = toEpochNanos(transaction.getTimestamp());
+        statuses[row] = status;
+        payerCodes[row] = partyDictionary.encode(transaction.getPayerId());
+        payeeCodes[row] = partyDictionary.encode(transaction.getPayeeId());
+        descriptionCodes[row] = descriptionDictionary.encode(transaction.getDescription());
+    }
+
+    private int findRow(byte[] key, int hash) {
+        int[] table = slots;
+        int mask = table.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int entry = table[slot];
+            if (entry == 0) {
+                return -1;
+            }
+            int row = entry - 1;
+            if (idHashes[row] == hash && ids.matches(idAddresses[row], key)) {
+                return row;
+            }
+        }
+    }
+
+    private int appendRow(byte[] key, int hash) {
+        // Growing the columns also grows the index, so it never passes the load factor
+        ensureRowCapacity(size + 1);
+        int row = size;
+        idHashes[row] = hash;
+        idAddresses[row] = ids.append(key);
+        insertSlot(slots, row, hash);
+        size++;
+        return row;
+    }
+
+    private static void insertSlot(int[] table, int row, int hash) {
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = row + 1;
+    }
+
+    private void rehash(int tableSize) {
+        int[] table = new int[tableSize];
+        for (int row = 0; row < size; row++) {
+            insertSlot(table, row, idHashes[row]);
+        }
+        slots = table;
+    }
+
+    private void ensureRowCapacity(int needed) {
+        if (needed <= idHashes.length) {
+            return;
+        }
+        int capacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(needed, idHashes.length * 3L / 2));
+        idHashes = Arrays.copyOf(idHashes, capacity);
+        idAddresses = Arrays.copyOf(idAddresses, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        timestamps = Arrays.copyOf(timestamps, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        payerCodes = Arrays.copyOf(payerCodes, capacity);
+        payeeCodes = Arrays.copyOf(payeeCodes, capacity);
+        descriptionCodes = Arrays.copyOf(descriptionCodes, capacity);
+        int tableSize = tableSizeFor(capacity);
+        if (tableSize > slots.length) {
+            rehash(tableSize);
+        }
+    }
+
+    private byte statusCode(String status) {
+        int code = statusDictionary.encode(status);
+        if (code > Byte.MAX_VALUE) {
+            throw new IllegalStateException("Too many distinct transaction statuses");
+        }
+        return (byte) code;
+    }
+
+    private static byte[] encodeId(Transaction transaction) {
+        if (transaction.getTransactionId() == null || transaction.getAmount() == null
+                || transaction.getStatus() == null || transaction.getTimestamp() == null) {
+            throw new IllegalArgumentException("Transaction ID, amount, status and timestamp are required");
+        }
+        byte[] key = transaction.getTransactionId().getBytes(StandardCharsets.UTF_8);
+        if (key.length > IdArena.MAX_ID_BYTES) {
+            throw new IllegalArgumentException("Transaction ID longer than " + IdArena.MAX_ID_BYTES + " bytes");
+        }
+        return key;
+    }
+
+    private static int tableSizeFor(int rows) {
+        int needed = (int) Math.min(1 << 30, (long) Math.ceil(rows / LOAD_FACTOR));
+        return Math.max(16, Integer.highestOneBit(needed - 1) << 1);
+    }
+
+    // Polynomial hash over the ID bytes, then the murmur3 finalizer so linear probing sees well-spread bits
+    private static int hash(byte[] key) {
+        int h = 0;
+        for (byte b : key) {
+            h = 31 * h + b;
+        }
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static long toEpochNanos(LocalDateTime timestamp) {
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + timestamp.getNano();
+    }
+
+    private static LocalDateTime fromEpochNanos(long nanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    /**
+     * Append-only storage for ID bytes: a length byte followed by the ID, in fixed-size pages
+     * An address is the page number in the high 32 bits and the offset in the low 32 bits
+     */
+    private static final class IdArena {
+        static final int MAX_ID_BYTES = 255;
+        private static final int PAGE_SIZE = 1 << 20;
+
+        private byte[][] pages = new byte[16][];
+        private int pageCount;
+        private int offset = PAGE_SIZE;
+
+        long append(byte[] key) {
+            if (offset + 1 + key.length > PAGE_SIZE) {
+                if (pageCount == pages.length) {
+                    pages = Arrays.copyOf(pages, pageCount * 2);
+                }
+                pages[pageCount++] = new byte[PAGE_SIZE];
+                offset = 0;
+            }
+            byte[] page = pages[pageCount - 1];
+            long address = ((long) (pageCount - 1) << 32) | offset;
+            page[offset] = (byte) key.length;
+            System.arraycopy(key, 0, page, offset + 1, key.length);
+            offset += 1 + key.length;
+            return address;
+        }
+
+        boolean matches(long address, byte[] key) {
+            byte[] page = pages[(int) (address >>> 32)];
+            int start = (int) address;
+            int length = page[start] & 0xFF;
+            return length == key.length
+                    && Arrays.equals(page, start + 1, start + 1 + length, key, 0, length);
+        }
+
+        String read(long address) {
+            byte[] page = pages[(int) (address >>> 32)];
+            int start = (int) address;
+            return new String(page, start + 1, page[start] & 0xFF, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Two-way mapping between strings and dense int codes; null is NO_VALUE
+     * encode is called under the write lock, decode may run during an optimistic read
+     */
+    private static final class StringDictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private String[] values = new String[16];
+
+        int encode(String value) {
+            if (value == null) {
+                return NO_VALUE;
+            }
+            Integer code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+            int next = codes.size();
+            if (next == values.length) {
+                values = Arrays.copyOf(values, next * 2);
+            }
+            values[next] = value;
+            codes.put(value, next);
+            return next;
+        }
+
+        String decode(int code) {
+            return code == NO_VALUE ? null : values[code];
+        }
+
+        // Caller holds the read or write lock
+        int find(String value) {
+            Integer code = value == null ? null : codes.get(value);
+            return code == null ? NO_VALUE : code;
+        }
+    }
+
+    private record PageEntry(int row, long timestamp, String id) {
+    }
+}
@@ -0,0 +1,175 @@
+package com.mockbank.repository;
+
+import com.mockbank.entity.Transaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Transaction store backed by the H2 transactions table (app.store.mode=jpa, the default)
+ * Listing pages are a deferred join: the page's IDs come from a range scan of the payer or payee index, which
+ * holds every filtered column, and only those rows are then read by primary key
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.store.mode", havingValue = "jpa", matchIfMissing = true)
+public class JpaTransactionStore implements TransactionStore {
+
+    private static final String INSERT_SQL = "INSERT INTO transactions "
+            + "(transaction_id, amount, status, timestamp, payer_id, payee_id, description) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_STATUS_SQL =
+            "UPDATE transactions SET status = ? WHERE transaction_id = ? AND status = ?";
+
+    private static final RowMapper<Transaction> ROW_MAPPER = (rs, rowNum) -> new Transaction(
+            rs.getString("transaction_id"),
+            rs.getDouble("amount"),
+            rs.getString("status"),
+            rs.getTimestamp("timestamp").toLocalDateTime(),
+            rs.getString("payer_id"),
+            rs.getString("payee_id"),
+            rs.getString("description"));
+
+    private final TransactionRepository transactionRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<Transaction> findById(String transactionId) {
+        return transactionRepository.findById(transactionId);
+    }
+
+    @Override
+    public List<Transaction> findAllById(Collection<String> transactionIds) {
+        return transactionRepository.findAllById(transactionIds);
+    }
+
+    @Override
+    public Transaction save(Transaction transaction) {
+        return transactionRepository.save(transaction);
+    }
+
+    // One INSERT, which the primary key rejects as DuplicateKeyException; repository.save would merge instead
+    @Override
+    public Transaction insert(Transaction transaction) {
+        jdbcTemplate.update(INSERT_SQL, transaction.getTransactionId(), transaction.getAmount(), transaction.getStatus(),
+                Timestamp.valueOf(transaction.getTimestamp()), transaction.getPayerId(), transaction.getPayeeId(),
+                transaction.getDescription());
+        return transaction;
+    }
+
+    @Override
+    @Transactional
+    public void saveAll(Collection<Transaction> transactions) {
+        // Plain JDBC batch: Hibernate would merge each entity with an assigned ID, a SELECT before every INSERT
+        jdbcTemplate.batchUpdate(INSERT_SQL, transactions, transactions.size(), (ps, transaction) -> {
+            ps.setString(1, transaction.getTransactionId());
+            ps.setDouble(2, transaction.getAmount());
+            ps.setString(3, transaction.getStatus());
+            ps.setTimestamp(4, Timestamp.valueOf(transaction.getTimestamp()));
+            ps.setString(5, transaction.getPayerId());
+            ps.setString(6, transaction.getPayeeId());
+            ps.setString(7, transaction.getDescription());
+        });
+    }
+
+    @Override
+    public long count() {
+        return transactionRepository.count();
+    }
+
+    @Override
+    public List<Transaction> findPage(Filter filter, LocalDateTime afterTimestamp, String afterId, int limit) {
+        List<Object> args = new ArrayList<>();
+        args.add(filter.payerId() != null ? filter.payerId() : filter.payeeId());
+        if (filter.payerId() != null && filter.payeeId() != null) {
+            args.add(filter.payeeId());
+        }
+        if (afterTimestamp != null) {
+            Timestamp after = Timestamp.valueOf(afterTimestamp);
+            args.add(after);
+            args.add(after);
+            args.add(afterId);
+        }
+        if (filter.from() != null) {
+            args.add(Timestamp.valueOf(filter.from()));
+        }
+        if (filter.to() != null) {
+            args.add(Timestamp.valueOf(filter.to()));
+        }
+        if (filter.status() != null) {
+            args.add(filter.status());
+        }
+        args.add(limit);
+        return jdbcTemplate.query(pageSql(filter, afterTimestamp != null), ROW_MAPPER, args.toArray());
+    }
+
+    /**
+     * SQL of one listing page; parameters in the order findPage binds them
+     * The inner query reads only index entries; ordering it by the leading party column too lets H2 see that the
+     * index is already in that order, so it stops after limit entries instead of sorting every match
+     */
+    static String pageSql(Filter filter, boolean afterCursor) {
+        if (filter.payerId() == null && filter.payeeId() == null) {
+            throw new IllegalArgumentException("payerId or payeeId is required");
+        }
+        String party = filter.payerId() != null ? "payer_id" : "payee_id";
+        List<String> conditions = new ArrayList<>();
+        conditions.add(party + " = ?");
+        if (filter.payerId() != null && filter.payeeId() != null) {
+            conditions.add("payee_id = ?");
+        }
+        if (afterCursor) {
+            // The plain >= is what the index range starts from; the OR only skips the rows sharing that timestamp
+            conditions.add("timestamp >= ? AND (timestamp > ? OR transaction_id > ?)");
+        }
+        if (filter.from() != null) {
+            conditions.add("timestamp >= ?");
+        }
+        if (filter.to() != null) {
+            conditions.add("timestamp < ?");
+        }
+        if (filter.status() != null) {
+            conditions.add("status = ?");
+        }
+        return "SELECT t.transaction_id, t.amount, t.status, t.timestamp, t.payer_id, t.payee_id, t.description "
+                + "FROM (SELECT transaction_id FROM transactions WHERE " + String.join(" AND ", conditions)
+                + " ORDER BY " + party + ", timestamp, transaction_id LIMIT ?) page "
+                + "JOIN transactions t ON t.transaction_id = page.transaction_id "
+                + "ORDER BY t.timestamp, t.transaction_id";
+    }
+
+    @Override
+    @Transactional
+    public boolean compareAndSetStatus(String transactionId, String expectedStatus, String newStatus) {
+        return transactionRepository.updateStatusIfCurrent(transactionId, expectedStatus, newStatus) == 1;
+    }
+
+    @Override
+    @Transactional
+    public boolean[] compareAndSetStatuses(List<String> transactionIds, String expectedStatus, String newStatus) {
+        // One JDBC batch of conditional updates; H2 reports the row count of each statement
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_STATUS_SQL, transactionIds, transactionIds.size(),
+                (ps, transactionId) -> {
+                    ps.setString(1, newStatus);
+                    ps.setString(2, transactionId);
+                    ps.setString(3, expectedStatus);
+                });
+        boolean[] updated = new boolean[transactionIds.size()];
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                updated[i++] = count == 1;
+            }
+        }
+        return updated;
+    }
+}
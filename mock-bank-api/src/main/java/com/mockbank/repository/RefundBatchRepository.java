@@ -0,0 +1,66 @@
+package com.mockbank.repository;
+
+import com.mockbank.entity.Refund;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Plain JDBC inserts of refunds for the batch endpoint
+ * One batched statement per call, instead of one Hibernate persist and identity round trip per refund
+ */
+@Repository
+@RequiredArgsConstructor
+public class RefundBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO refunds "
+            + "(transaction_id, amount, refund_timestamp, status, reason, idempotency_key) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String DELETE_SQL = "DELETE FROM refunds WHERE refund_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert the refunds as one JDBC batch in the caller's transaction and set their generated IDs
+     */
+    public void insertAll(List<Refund> refunds) {
+        if (refunds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (Refund refund : refunds) {
+                    ps.setString(1, refund.getTransactionId());
+                    ps.setDouble(2, refund.getAmount());
+                    ps.setTimestamp(3, Timestamp.valueOf(refund.getRefundTimestamp()));
+                    ps.setString(4, refund.getStatus());
+                    ps.setString(5, refund.getReason());
+                    ps.setString(6, refund.getIdempotencyKey());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    for (int i = 0; keys.next(); i++) {
+                        refunds.get(i).setRefundId(keys.getLong(1));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Delete refunds by ID as one JDBC batch, in the caller's transaction
+     */
+    public void deleteAll(List<Long> refundIds) {
+        if (!refundIds.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_SQL, refundIds, refundIds.size(), (ps, refundId) -> ps.setLong(1, refundId));
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.mockbank.repository;
+
+import com.mockbank.entity.Refund;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keyset-paginated reads of the refund ledger
+ * Pages are ordered by (refund_timestamp, refund_id) and start after the last row of the previous page, so every
+ * page is a range scan of idx_refunds_timestamp_id that reads only the rows it returns, however deep it is
+ */
+@Repository
+@RequiredArgsConstructor
+public class RefundQueryRepository {
+
+    private static final String SELECT_SQL = "SELECT refund_id, transaction_id, amount, refund_timestamp, status, "
+            + "reason, idempotency_key FROM refunds";
+
+    private static final RowMapper<Refund> ROW_MAPPER = (rs, rowNum) -> new Refund(
+            rs.getLong("refund_id"),
+            rs.getString("transaction_id"),
+            rs.getDouble("amount"),
+            rs.getTimestamp("refund_timestamp").toLocalDateTime(),
+            rs.getString("status"),
+            rs.getString("reason"),
+            rs.getString("idempotency_key"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Filters of a refund listing; null fields do not filter
+     * @param from   earliest refund_timestamp, inclusive
+     * @param to     latest refund_timestamp, exclusive
+     * @param status refund status, e.g. SUCCESS
+     */
+    public record Filter(LocalDateTime from, LocalDateTime to, String status) {
+    }
+
+    /**
+     * Refunds matching the filter, in (refund_timestamp, refund_id) order
+     * @param afterTimestamp refund_timestamp of the last row already returned, or null for the first page
+     * @param afterId        refund_id of the last row already returned; ignored without afterTimestamp
+     * @param limit          maximum number of rows
+     */
+    public List<Refund> findPage(Filter filter, LocalDateTime afterTimestamp, long afterId, int limit) {
+        List<Object> args = new ArrayList<>();
+        if (afterTimestamp != null) {
+            Timestamp after = Timestamp.valueOf(afterTimestamp);
+            args.add(after);
+            args.add(after);
+            args.add(afterId);
+        }
+        if (filter.from() != null) {
+            args.add(Timestamp.valueOf(filter.from()));
+        }
+        if (filter.to() != null) {
+            args.add(Timestamp.valueOf(filter.to()));
+        }
+        if (filter.status() != null) {
+            args.add(filter.status());
+        }
+        args.add(limit);
+        return jdbcTemplate.query(pageSql(filter, afterTimestamp != null), ROW_MAPPER, args.toArray());
+    }
+
+    /**
+     * SQL of one page; parameters in the order findPage binds them
+     */
+    static String pageSql(Filter filter, boolean afterCursor) {
+        List<String> conditions = new ArrayList<>();
+        if (afterCursor) {
+            // The plain >= is what the index range starts from; the OR only skips the rows sharing that timestamp
+            conditions.add("refund_timestamp >= ? AND (refund_timestamp > ? OR refund_id > ?)");
+        }
+        if (filter.from() != null) {
+            conditions.add("refund_timestamp >= ?");
+        }
+        if (filter.to() != null) {
+            conditions.add("refund_timestamp < ?");
+        }
+        if (filter.status() != null) {
+            conditions.add("status = ?");
+        }
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        return sql.append(" ORDER BY refund_timestamp, refund_id LIMIT ?").toString();
+    }
+}
@@ -3,7 +3,9 @@ package com.mockbank.repository;
 import com.mockbank.entity.Refund;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository for Refund entity
@@ -12,4 +14,8 @@ import java.util.List;
 @Repository
 public interface RefundRepository extends JpaRepository<Refund, Long> {
     List<Refund> findByTransactionId(String transactionId);
+
+    Optional<Refund> findByIdempotencyKey(String idempotencyKey);
+
+    List<Refund> findByIdempotencyKeyIn(Collection<String> idempotencyKeys);
 }
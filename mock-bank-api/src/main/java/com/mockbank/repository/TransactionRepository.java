@@ -2,6 +2,9 @@ package com.mockbank.repository;
 
 import com.mockbank.entity.Transaction;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -10,4 +13,16 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, String> {
+
+    /**
+     * Conditional status update in one statement; the row lock it takes makes concurrent callers wait and
+     * then see the committed status
+     * @return 1 if the status was expectedStatus and has been changed, 0 otherwise
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Transaction t SET t.status = :newStatus "
+            + "WHERE t.transactionId = :transactionId AND t.status = :expectedStatus")
+    int updateStatusIfCurrent(@Param("transactionId") String transactionId,
+                              @Param("expectedStatus") String expectedStatus,
+                              @Param("newStatus") String newStatus);
 }
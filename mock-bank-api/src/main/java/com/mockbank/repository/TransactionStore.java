@@ -0,0 +1,72 @@
+package com.mockbank.repository;
+
+import com.mockbank.entity.Transaction;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Storage for Transaction records, selected by app.store.mode
+ * - jpa (default): the H2 transactions table through TransactionRepository
+ * - memory: InMemoryTransactionStore, a primitive hash index with no ORM on the lookup path
+ */
+public interface TransactionStore {
+
+    Optional<Transaction> findById(String transactionId);
+
+    /**
+     * Look up many transactions at once (one query in jpa mode); IDs that do not exist are left out
+     */
+    List<Transaction> findAllById(Collection<String> transactionIds);
+
+    /**
+     * Insert the transaction, or overwrite the stored one with the same ID
+     */
+    Transaction save(Transaction transaction);
+
+    /**
+     * Insert a transaction with a new ID; an existing one is never overwritten
+     * The existence check and the insert are one atomic step, so of two concurrent inserts of an ID exactly one wins
+     * @throws DuplicateKeyException if a transaction with the same ID already exists
+     */
+    Transaction insert(Transaction transaction);
+
+    /**
+     * Bulk insert of transactions with new IDs, for seeding
+     */
+    void saveAll(Collection<Transaction> transactions);
+
+    long count();
+
+    /**
+     * Transactions matching the filter, in (timestamp, transaction_id) order
+     * @param afterTimestamp timestamp of the last transaction already returned, or null for the first page
+     * @param afterId        transaction ID of the last transaction already returned; ignored without afterTimestamp
+     * @param limit          maximum number of transactions
+     */
+    List<Transaction> findPage(Filter filter, LocalDateTime afterTimestamp, String afterId, int limit);
+
+    /**
+     * Atomically change the status from expectedStatus to newStatus (compare-and-set)
+     * Joins the caller's Spring transaction and is undone if it rolls back
+     * @return false if the transaction does not exist or its status is not expectedStatus
+     */
+    boolean compareAndSetStatus(String transactionId, String expectedStatus, String newStatus);
+
+    /**
+     * compareAndSetStatus for many transactions in one round trip, each one decided on its own
+     * @return per ID, in order, whether its status was changed
+     */
+    boolean[] compareAndSetStatuses(List<String> transactionIds, String expectedStatus, String newStatus);
+
+    /**
+     * Filters of a transaction listing; null fields do not filter, but payerId or payeeId must be set
+     * @param from earliest timestamp, inclusive
+     * @param to   latest timestamp, exclusive
+     */
+    record Filter(String payerId, String payeeId, LocalDateTime from, LocalDateTime to, String status) {
+    }
+}
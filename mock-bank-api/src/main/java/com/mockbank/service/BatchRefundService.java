@@ -0,0 +1,301 @@
+package com.mockbank.service;
+
+import com.mockbank.dto.BatchRefundItem;
+import com.mockbank.dto.BatchRefundRequest;
+import com.mockbank.dto.BatchRefundResponse;
+import com.mockbank.dto.RefundRequest;
+import com.mockbank.entity.Refund;
+import com.mockbank.entity.Transaction;
+import com.mockbank.exception.InvalidRefundException;
+import com.mockbank.exception.TransactionNotFoundException;
+import com.mockbank.repository.RefundBatchRepository;
+import com.mockbank.repository.RefundRepository;
+import com.mockbank.repository.TransactionStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Service class for batch refund operations
+ * Handles thousands of refunds per call with a fixed number of queries:
+ * - refunds for the batch's idempotency keys, and all referenced transactions, are loaded with one query each
+ * - every request is validated in memory against those
+ * - the rest is applied in chunks, one transaction each: a JDBC batch insert of the refunds, then JDBC batches
+ *   of SUCCESS -> REFUNDED (FAILED -> REFUNDED for dispute reversals) compare-and-sets, and the refunds whose
+ *   compare-and-set lost are deleted again
+ * The outcome of each item matches what POST /bank/refund would have returned for it.
+ */
+@Service
+@Slf4j
+public class BatchRefundService {
+
+    private static final int LOOKUP_SLICE = 1000;
+
+    private final RefundService refundService;
+    private final RefundRepository refundRepository;
+    private final RefundBatchRepository refundBatchRepository;
+    private final TransactionStore transactionStore;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxItems;
+    private final int chunkSize;
+
+    public BatchRefundService(RefundService refundService,
+                              RefundRepository refundRepository,
+                              RefundBatchRepository refundBatchRepository,
+                              TransactionStore transactionStore,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${app.refund.batch.max-items:10000}") int maxItems,
+                              @Value("${app.refund.batch.chunk-size:500}") int chunkSize) {
+        this.refundService = refundService;
+        this.refundRepository = refundRepository;
+        this.refundBatchRepository = refundBatchRepository;
+        this.transactionStore = transactionStore;
+        this.transactionTemplate = transactionTemplate;
+        this.maxItems = maxItems;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Process a batch of refunds
+     * @param request BatchRefundRequest with up to app.refund.batch.max-items refunds
+     * @return BatchRefundResponse with one result per refund, in request order
+     * @throws IllegalArgumentException if the batch is empty or too large
+     */
+    public BatchRefundResponse processRefunds(BatchRefundRequest request) {
+        List<RefundRequest> requests = request.getRefunds();
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("refunds must not be empty");
+        }
+        if (requests.size() > maxItems) {
+            throw new IllegalArgumentException("At most " + maxItems + " refunds per batch");
+        }
+        long started = System.nanoTime();
+        log.info("Processing batch of {} refunds", requests.size());
+
+        BatchRefundItem[] results = new BatchRefundItem[requests.size()];
+        // Transactions first: one refunded by a keyed request in between is then found by its key
+        Map<String, Transaction> transactions = loadTransactions(requests);
+        Map<String, Refund> previousByKey = loadPreviousRefunds(requests);
+
+        // Validate in memory; what is left can be refunded unless a concurrent request gets there first
+        Map<String, Integer> firstWithKey = new HashMap<>();
+        Map<Integer, Integer> repeatsOf = new HashMap<>();
+        Set<String> claimed = new HashSet<>();
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            RefundRequest item = requests.get(i);
+            String transactionId = item.getTransactionId();
+            if (transactionId == null || transactionId.isBlank()) {
+                results[i] = failure(i, transactionId, 400, "transactionId is required");
+                continue;
+            }
+            String idempotencyKey = RefundService.idempotencyKey(item);
+            if (idempotencyKey != null) {
+                Refund previous = previousByKey.get(idempotencyKey);
+                if (previous != null) {
+                    results[i] = replay(i, item, previous);
+                    continue;
+                }
+                Integer first = firstWithKey.putIfAbsent(idempotencyKey, i);
+                if (first != null) {
+                    repeatsOf.put(i, first);
+                    continue;
+                }
+            }
+            Transaction transaction = transactions.get(transactionId);
+            if (transaction == null) {
+                results[i] = failure(i, transactionId, 404, "Transaction not found with ID: " + transactionId);
+                continue;
+            }
+            String refusal = RefundService.refusalReason(transaction.getStatus(), item.isDisputeReversal());
+            if (refusal == null && !claimed.add(transactionId)) {
+                refusal = "Transaction already refunded";
+            }
+            if (refusal != null) {
+                results[i] = failure(i, transactionId, 400, refusal);
+                continue;
+            }
+            pending.add(i);
+        }
+
+        for (int from = 0; from < pending.size(); from += chunkSize) {
+            List<Integer> chunk = pending.subList(from, Math.min(pending.size(), from + chunkSize));
+            try {
+                transactionTemplate.executeWithoutResult(status -> applyChunk(chunk, requests, transactions, results));
+            } catch (DataIntegrityViolationException | ConcurrencyFailureException e) {
+                // A concurrent request took one of the idempotency keys: settle this chunk one refund at a time
+                log.warn("Batch chunk of {} refunds conflicted, falling back to single refunds: {}",
+                        chunk.size(), e.getMessage());
+                for (int i : chunk) {
+                    results[i] = processOne(i, requests.get(i));
+                }
+            }
+        }
+
+        // A key repeated within the batch gets the outcome of its first use
+        for (Map.Entry<Integer, Integer> repeat : repeatsOf.entrySet()) {
+            int i = repeat.getKey();
+            BatchRefundItem first = results[repeat.getValue()];
+            String transactionId = requests.get(i).getTransactionId();
+            results[i] = Objects.equals(transactionId, first.getTransactionId())
+                    ? new BatchRefundItem(i, transactionId, first.getSuccess(), first.getStatusCode(), first.getError(),
+                    first.getRefund())
+                    : failure(i, transactionId, 400, "Idempotency key already used for a different transaction");
+        }
+
+        int succeeded = (int) Arrays.stream(results).filter(BatchRefundItem::getSuccess).count();
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        log.info("Batch of {} refunds processed in {} ms: {} succeeded, {} failed",
+                requests.size(), elapsedMs, succeeded, requests.size() - succeeded);
+        return new BatchRefundResponse(requests.size(), succeeded, requests.size() - succeeded, elapsedMs,
+                Arrays.asList(results));
+    }
+
+    private Map<String, Refund> loadPreviousRefunds(List<RefundRequest> requests) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (RefundRequest item : requests) {
+            String idempotencyKey = RefundService.idempotencyKey(item);
+            if (idempotencyKey != null) {
+                keys.add(idempotencyKey);
+            }
+        }
+        Map<String, Refund> previousByKey = new HashMap<>();
+        for (List<String> slice : slices(keys)) {
+            for (Refund refund : refundRepository.findByIdempotencyKeyIn(slice)) {
+                previousByKey.put(refund.getIdempotencyKey(), refund);
+            }
+        }
+        return previousByKey;
+    }
+
+    private Map<String, Transaction> loadTransactions(List<RefundRequest> requests) {
+        Set<String> transactionIds = new LinkedHashSet<>();
+        for (RefundRequest item : requests) {
+            if (item.getTransactionId() != null && !item.getTransactionId().isBlank()) {
+                transactionIds.add(item.getTransactionId());
+            }
+        }
+        Map<String, Transaction> transactions = new HashMap<>();
+        for (List<String> slice : slices(transactionIds)) {
+            for (Transaction transaction : transactionStore.findAllById(slice)) {
+                transactions.put(transaction.getTransactionId(), transaction);
+            }
+        }
+        return transactions;
+    }
+
+    // IN lists of at most LOOKUP_SLICE values: few distinct query shapes for Hibernate to plan and cache
+    private static List<List<String>> slices(Set<String> values) {
+        List<String> all = new ArrayList<>(values);
+        List<List<String>> slices = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += LOOKUP_SLICE) {
+            slices.add(all.subList(from, Math.min(all.size(), from + LOOKUP_SLICE)));
+        }
+        return slices;
+    }
+
+    /**
+     * Runs in one transaction: any exception rolls back both the refund rows and the status changes
+     * Locks are taken in the same order as RefundService.processRefund, idempotency keys before transaction rows,
+     * and each in sorted order, so a chunk cannot deadlock with single refunds or other batches of plain refunds.
+     * Reversals lock their rows in a second sorted pass; a deadlock with a batch mixing both the other way round
+     * is a ConcurrencyFailureException, and the chunk is then settled one refund at a time
+     */
+    private void applyChunk(List<Integer> chunk, List<RefundRequest> requests, Map<String, Transaction> transactions,
+                            BatchRefundItem[] results) {
+        List<Integer> byKey = new ArrayList<>(chunk);
+        byKey.sort(Comparator.comparing(i -> RefundService.idempotencyKey(requests.get(i)),
+                Comparator.nullsLast(Comparator.naturalOrder())));
+        LocalDateTime now = LocalDateTime.now();
+        List<Refund> refunds = new ArrayList<>(byKey.size());
+        Map<Integer, Refund> refundByIndex = new HashMap<>();
+        for (int i : byKey) {
+            RefundRequest item = requests.get(i);
+            Refund refund = new Refund();
+            refund.setTransactionId(item.getTransactionId());
+            refund.setAmount(transactions.get(item.getTransactionId()).getAmount());
+            refund.setRefundTimestamp(now);
+            refund.setStatus("SUCCESS");
+            refund.setReason(item.getReason());
+            refund.setIdempotencyKey(RefundService.idempotencyKey(item));
+            refunds.add(refund);
+            refundByIndex.put(i, refund);
+        }
+        refundBatchRepository.insertAll(refunds);
+
+        List<Integer> byTransaction = new ArrayList<>(chunk);
+        byTransaction.sort(Comparator.comparing(i -> requests.get(i).getTransactionId()));
+        // Refunds move SUCCESS -> REFUNDED and dispute reversals FAILED -> REFUNDED: one batch per starting status
+        boolean[] updated = new boolean[byTransaction.size()];
+        for (String expectedStatus : List.of("SUCCESS", "FAILED")) {
+            List<Integer> positions = new ArrayList<>();
+            List<String> transactionIds = new ArrayList<>();
+            for (int j = 0; j < byTransaction.size(); j++) {
+                RefundRequest item = requests.get(byTransaction.get(j));
+                if (RefundService.refundableStatus(item).equals(expectedStatus)) {
+                    positions.add(j);
+                    transactionIds.add(item.getTransactionId());
+                }
+            }
+            if (!transactionIds.isEmpty()) {
+                boolean[] changed = transactionStore.compareAndSetStatuses(transactionIds, expectedStatus, "REFUNDED");
+                for (int k = 0; k < changed.length; k++) {
+                    updated[positions.get(k)] = changed[k];
+                }
+            }
+        }
+
+        // A concurrent refund changed the status since validation: drop the refund rows written for those
+        List<Long> lost = new ArrayList<>();
+        for (int j = 0; j < byTransaction.size(); j++) {
+            int i = byTransaction.get(j);
+            Refund refund = refundByIndex.get(i);
+            if (updated[j]) {
+                results[i] = new BatchRefundItem(i, refund.getTransactionId(), true, 201, null,
+                        refundService.convertToResponse(refund));
+            } else {
+                results[i] = failure(i, refund.getTransactionId(), 400, "Transaction already refunded");
+                lost.add(refund.getRefundId());
+            }
+        }
+        refundBatchRepository.deleteAll(lost);
+    }
+
+    private BatchRefundItem processOne(int index, RefundRequest item) {
+        try {
+            return new BatchRefundItem(index, item.getTransactionId(), true, 201, null,
+                    refundService.processRefund(item));
+        } catch (TransactionNotFoundException e) {
+            return failure(index, item.getTransactionId(), 404, e.getMessage());
+        } catch (InvalidRefundException e) {
+            return failure(index, item.getTransactionId(), 400, e.getMessage());
+        }
+    }
+
+    private BatchRefundItem replay(int index, RefundRequest item, Refund previous) {
+        if (!previous.getTransactionId().equals(item.getTransactionId())) {
+            return failure(index, item.getTransactionId(), 400, "Idempotency key already used for a different transaction");
+        }
+        return new BatchRefundItem(index, item.getTransactionId(), true, 201, null,
+                refundService.convertToResponse(previous));
+    }
+
+    private static BatchRefundItem failure(int index, String transactionId, int statusCode, String error) {
+        return new BatchRefundItem(index, transactionId, false, statusCode, error, null);
+    }
+}
@@ -0,0 +1,57 @@
+package com.mockbank.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position after the last row of a page, for keyset pagination ordered by (timestamp, id)
+ * Clients get it as an opaque URL-safe string and must not build or change it
+ */
+record PageCursor(LocalDateTime timestamp, String id) {
+
+    private static final char SEPARATOR = '|';
+
+    String encode() {
+        String raw = timestamp + String.valueOf(SEPARATOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the decoded cursor, or null if cursor is null or blank
+     * @throws IllegalArgumentException if the cursor was not produced by encode()
+     */
+    static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0 || separator == raw.length() - 1) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new PageCursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Parse a from/to query parameter: an ISO date-time, or a date meaning its start
+     * @return the time, or null if value is null or blank
+     * @throws IllegalArgumentException if the value is neither
+     */
+    static LocalDateTime parseTime(String name, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return value.length() == 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(name + " must be yyyy-MM-dd or yyyy-MM-ddTHH:mm:ss");
+        }
+    }
+}
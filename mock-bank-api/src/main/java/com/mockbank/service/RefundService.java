@@ -1,20 +1,33 @@
 package com.mockbank.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mockbank.dto.CursorPage;
 import com.mockbank.dto.RefundRequest;
 import com.mockbank.dto.RefundResponse;
 import com.mockbank.entity.Refund;
 import com.mockbank.entity.Transaction;
 import com.mockbank.exception.InvalidRefundException;
 import com.mockbank.exception.TransactionNotFoundException;
+import com.mockbank.repository.RefundQueryRepository;
 import com.mockbank.repository.RefundRepository;
-import com.mockbank.repository.TransactionRepository;
+import com.mockbank.repository.TransactionStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -24,12 +37,18 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional
 public class RefundService {
 
+    private static final int MAX_ATTEMPTS = 3;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int STREAM_PAGE_SIZE = 1000;
+
     private final RefundRepository refundRepository;
-    private final TransactionRepository transactionRepository;
-    private final TransactionService transactionService;
+    private final RefundQueryRepository refundQueryRepository;
+    private final TransactionStore transactionStore;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
 
     /**
      * Process refund for a transaction
@@ -37,66 +56,222 @@ public class RefundService {
      * - If status is SUCCESS: Create refund record and update transaction to REFUNDED
      * - If status is FAILED: Return error (Refund not allowed)
      * - If transaction not found: Return 404
+     * - If the idempotency key was seen before: Return that refund, nothing new is created
+     *
+     * Concurrency: the SUCCESS -> REFUNDED change is a single compare-and-set, so of several concurrent
+     * refunds for one transaction exactly one succeeds. The refund row is inserted before it, and the unique
+     * idempotency key makes a duplicate request wait for the original's commit and then return its refund.
      *
-     * @param request RefundRequest containing transaction ID
+     * @param request RefundRequest containing transaction ID and optional idempotency key
      * @return RefundResponse with refund details
      * @throws TransactionNotFoundException if transaction not found
      * @throws InvalidRefundException if refund is not allowed for transaction status
      */
+    // Not @Transactional: a surrounding transaction would hold a second connection for every attempt
     public RefundResponse processRefund(RefundRequest request) {
         log.info("Processing refund for transaction ID: {}", request.getTransactionId());
+        String idempotencyKey = idempotencyKey(request);
+
+        if (idempotencyKey != null) {
+            Optional<Refund> previous = refundRepository.findByIdempotencyKey(idempotencyKey);
+            if (previous.isPresent()) {
+                return replay(previous.get(), request);
+            }
+        }
 
+        // Each attempt runs in its own transaction, so a conflict can be answered after it has rolled back
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> refundOnce(request, idempotencyKey));
+            } catch (DataIntegrityViolationException | ConcurrencyFailureException e) {
+                if (idempotencyKey != null) {
+                    Optional<Refund> previous = refundRepository.findByIdempotencyKey(idempotencyKey);
+                    if (previous.isPresent()) {
+                        return replay(previous.get(), request);
+                    }
+                }
+                if (attempt == MAX_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Refund attempt {} for transaction {} conflicted, retrying: {}",
+                        attempt, request.getTransactionId(), e.getMessage());
+            }
+        }
+    }
+
+    private RefundResponse refundOnce(RefundRequest request, String idempotencyKey) {
         // Fetch the transaction
-        Transaction transaction = transactionRepository.findById(request.getTransactionId())
+        Transaction transaction = transactionStore.findById(request.getTransactionId())
                 .orElseThrow(() -> {
                     log.warn("Refund request: Transaction not found with ID: {}", request.getTransactionId());
                     return new TransactionNotFoundException("Transaction not found with ID: " + request.getTransactionId());
                 });
 
-        // Check transaction status
-        if ("FAILED".equals(transaction.getStatus())) {
-            log.warn("Refund not allowed for FAILED transaction: {}", request.getTransactionId());
-            throw new InvalidRefundException("Refund not allowed for FAILED transactions");
-        }
-
-        if ("REFUNDED".equals(transaction.getStatus())) {
-            log.warn("Transaction already refunded: {}", request.getTransactionId());
-            throw new InvalidRefundException("Transaction already refunded");
-        }
-
-        if (!"SUCCESS".equals(transaction.getStatus())) {
-            log.warn("Cannot refund transaction with status: {}", transaction.getStatus());
-            throw new InvalidRefundException("Can only refund transactions with SUCCESS status");
-        }
-
-        // Create refund record
+        // Create refund record first: a concurrent request with the same key blocks here until this one ends
         Refund refund = new Refund();
         refund.setTransactionId(request.getTransactionId());
         refund.setAmount(transaction.getAmount());
         refund.setRefundTimestamp(LocalDateTime.now());
         refund.setStatus("SUCCESS");
         refund.setReason(request.getReason());
+        refund.setIdempotencyKey(idempotencyKey);
+        Refund savedRefund = refundRepository.saveAndFlush(refund);
 
-        Refund savedRefund = refundRepository.save(refund);
-        log.info("Refund record created with ID: {}", savedRefund.getRefundId());
+        // Check transaction status; any exception rolls the refund record back
+        String refusal = refusalReason(transaction.getStatus(), request.isDisputeReversal());
+        if (refusal != null) {
+            log.warn("Refund refused for transaction {} with status {}: {}",
+                    request.getTransactionId(), transaction.getStatus(), refusal);
+            throw new InvalidRefundException(refusal);
+        }
 
-        // Update transaction status to REFUNDED
-        transactionService.updateTransactionStatus(request.getTransactionId(), "REFUNDED");
-        log.info("Transaction status updated to REFUNDED");
+        // Update transaction status to REFUNDED, unless a concurrent refund already did
+        if (!transactionStore.compareAndSetStatus(request.getTransactionId(), refundableStatus(request), "REFUNDED")) {
+            log.warn("Transaction refunded concurrently: {}", request.getTransactionId());
+            throw new InvalidRefundException("Transaction already refunded");
+        }
+        log.info("Refund record created with ID: {}, transaction status updated to REFUNDED", savedRefund.getRefundId());
 
         return convertToResponse(savedRefund);
     }
 
     /**
-     * Fetch all refunds
-     * @return List of all refunds
+     * Why a transaction with this status cannot be refunded, or reversed for a dispute, or null if it can
      */
-    public List<RefundResponse> getAllRefunds() {
-        log.info("Fetching all refunds");
-        return refundRepository.findAll()
-                .stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    static String refusalReason(String transactionStatus, boolean disputeReversal) {
+        if ("REFUNDED".equals(transactionStatus)) {
+            return "Transaction already refunded";
+        }
+        if (disputeReversal) {
+            return "FAILED".equals(transactionStatus) ? null : "Dispute reversal only applies to FAILED transactions";
+        }
+        if ("FAILED".equals(transactionStatus)) {
+            return "Refund not allowed for FAILED transactions";
+        }
+        if (!"SUCCESS".equals(transactionStatus)) {
+            return "Can only refund transactions with SUCCESS status";
+        }
+        return null;
+    }
+
+    /**
+     * The status a transaction must have to be refunded by this request: FAILED for a dispute reversal, else SUCCESS
+     */
+    static String refundableStatus(RefundRequest request) {
+        return request.isDisputeReversal() ? "FAILED" : "SUCCESS";
+    }
+
+    /**
+     * The request's idempotency key, or null if it has none
+     */
+    static String idempotencyKey(RefundRequest request) {
+        return request.getIdempotencyKey() == null || request.getIdempotencyKey().isBlank()
+                ? null : request.getIdempotencyKey();
+    }
+
+    private RefundResponse replay(Refund refund, RefundRequest request) {
+        if (!refund.getTransactionId().equals(request.getTransactionId())) {
+            log.warn("Idempotency key {} reused for transaction {}", refund.getIdempotencyKey(), request.getTransactionId());
+            throw new InvalidRefundException("Idempotency key already used for a different transaction");
+        }
+        log.info("Refund request with idempotency key {} already processed as refund {}",
+                refund.getIdempotencyKey(), refund.getRefundId());
+        return convertToResponse(refund);
+    }
+
+    /**
+     * Build the filter of a refund listing from its query parameters
+     * @param from earliest refund time, inclusive: yyyy-MM-dd or yyyy-MM-ddTHH:mm:ss, or null
+     * @param to latest refund time, exclusive, in the same format, or null
+     * @param status refund status, or null for all
+     * @throws IllegalArgumentException if a time cannot be parsed or from is not before to
+     */
+    public RefundQueryRepository.Filter refundFilter(String from, String to, String status) {
+        LocalDateTime fromTime = PageCursor.parseTime("from", from);
+        LocalDateTime toTime = PageCursor.parseTime("to", to);
+        if (fromTime != null && toTime != null && !fromTime.isBefore(toTime)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        String statusFilter = status == null || status.isBlank() ? null : status.trim().toUpperCase(Locale.ROOT);
+        return new RefundQueryRepository.Filter(fromTime, toTime, statusFilter);
+    }
+
+    /**
+     * Fetch one page of refunds, oldest first
+     * @param filter time range and status
+     * @param cursor next_cursor of the previous page, or null for the first page
+     * @param limit page size, 1 to 1000; null for 100
+     * @return CursorPage with the refunds and the cursor of the next page
+     * @throws IllegalArgumentException if the cursor or limit is invalid
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<RefundResponse> getRefunds(RefundQueryRepository.Filter filter, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        PageCursor after = PageCursor.decode(cursor);
+        log.info("Fetching refunds page: filter={}, limit={}, after={}", filter, pageSize, after);
+
+        // One extra row tells whether another page follows, without a count query
+        List<Refund> refunds = findPage(filter, after, pageSize + 1);
+        boolean hasMore = refunds.size() > pageSize;
+        if (hasMore) {
+            refunds = refunds.subList(0, pageSize);
+        }
+        String nextCursor = hasMore ? cursorAfter(refunds.get(refunds.size() - 1)).encode() : null;
+        List<RefundResponse> items = refunds.stream().map(this::convertToResponse).collect(Collectors.toList());
+        return new CursorPage<>(items, items.size(), nextCursor, hasMore);
+    }
+
+    /**
+     * Write every refund matching the filter to out as NDJSON, oldest first
+     * Reads keyset pages of STREAM_PAGE_SIZE rows and writes each before reading the next, so memory use stays
+     * the same however many refunds match, and no connection is held between pages
+     * @return number of refunds written
+     */
+    public long streamRefunds(RefundQueryRepository.Filter filter, OutputStream out) throws IOException {
+        log.info("Streaming refunds: filter={}", filter);
+        ObjectWriter writer = objectMapper.writerFor(RefundResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long written = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Every line ends in a newline instead of Jackson's space between root values
+            generator.setRootValueSeparator(null);
+            PageCursor after = null;
+            List<Refund> page;
+            do {
+                page = findPage(filter, after, STREAM_PAGE_SIZE);
+                for (Refund refund : page) {
+                    writer.writeValue(generator, convertToResponse(refund));
+                    generator.writeRaw('\n');
+                }
+                written += page.size();
+                if (!page.isEmpty()) {
+                    after = cursorAfter(page.get(page.size() - 1));
+                }
+            } while (page.size() == STREAM_PAGE_SIZE);
+        }
+        log.info("Streamed {} refunds", written);
+        return written;
+    }
+
+    private List<Refund> findPage(RefundQueryRepository.Filter filter, PageCursor after, int limit) {
+        if (after == null) {
+            return refundQueryRepository.findPage(filter, null, 0, limit);
+        }
+        long afterId;
+        try {
+            afterId = Long.parseLong(after.id());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return refundQueryRepository.findPage(filter, after.timestamp(), afterId, limit);
+    }
+
+    private static PageCursor cursorAfter(Refund refund) {
+        return new PageCursor(refund.getRefundTimestamp(), Long.toString(refund.getRefundId()));
     }
 
     /**
@@ -104,6 +279,7 @@ public class RefundService {
      * @param transactionId The transaction ID to fetch refunds for
      * @return List of refunds for the transaction
      */
+    @Transactional(readOnly = true)
     public List<RefundResponse> getRefundsByTransaction(String transactionId) {
         log.info("Fetching refunds for transaction ID: {}", transactionId);
         return refundRepository.findByTransactionId(transactionId)
@@ -115,14 +291,15 @@ public class RefundService {
     /**
      * Convert Refund entity to RefundResponse DTO
      */
-    private RefundResponse convertToResponse(Refund refund) {
+    RefundResponse convertToResponse(Refund refund) {
         return new RefundResponse(
                 refund.getRefundId(),
                 refund.getTransactionId(),
                 refund.getAmount(),
                 refund.getRefundTimestamp().toString(),
                 refund.getStatus(),
-                refund.getReason()
+                refund.getReason(),
+                refund.getIdempotencyKey()
         );
     }
 }
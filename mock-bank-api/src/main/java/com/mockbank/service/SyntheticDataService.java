@@ -0,0 +1,222 @@
+package com.mockbank.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mockbank.dto.SeedRequest;
+import com.mockbank.dto.SeedResult;
+import com.mockbank.entity.Transaction;
+import com.mockbank.repository.TransactionStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Service class for synthetic data generation
+ * Handles bulk-loading reproducible transactions through TransactionStore.saveAll (batched JDBC in jpa mode,
+ * the hash index in memory mode) and writing matching dispute requests for the backend as NDJSON
+ * - disputesFile is a relative path under app.seed.output-dir; absolute paths and ".." are rejected, since the
+ *   name comes from the request body
+ */
+@Service
+@Slf4j
+public class SyntheticDataService {
+
+    private static final int ID_DIGITS = 12;
+    private static final long NANOS_PER_DAY = 86_400_000_000_000L;
+    private static final long PROGRESS_INTERVAL = 1_000_000;
+
+    private static final String[] DESCRIPTIONS = {
+            "UPI payment", "Bill payment", "Online shopping purchase", "Payment for grocery shopping",
+            "Mobile recharge", "Food delivery", "Fuel purchase", "Subscription renewal"
+    };
+    private static final String[] DISPUTE_REASONS = {
+            "Amount debited but not received by merchant", "Goods not delivered", "Duplicate debit",
+            "Transaction failed but amount debited"
+    };
+
+    private final TransactionStore transactionStore;
+    private final ObjectMapper objectMapper;
+    private final Path outputDir;
+
+    public SyntheticDataService(TransactionStore transactionStore, ObjectMapper objectMapper,
+                                @Value("${app.seed.output-dir:seed-output}") String outputDir) {
+        this.transactionStore = transactionStore;
+        this.objectMapper = objectMapper;
+        this.outputDir = Path.of(outputDir).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Generate and store request.rows transactions
+     * Every random draw happens for every row, so the transactions depend only on the request, not on
+     * whether a disputes file is written
+     * @param request SeedRequest with the row count, mix and distributions
+     * @return SeedResult with counts and load rate
+     * @throws IllegalArgumentException if the request is out of range
+     */
+    public synchronized SeedResult seed(SeedRequest request) throws IOException {
+        validate(request);
+        log.info("Seeding {} synthetic transactions (seed {})", request.getRows(), request.getSeed());
+
+        SplittableRandom random = new SplittableRandom(request.getSeed());
+        LocalDateTime start = LocalDate.parse(request.getStartDate()).atStartOfDay();
+        long step = request.getDays() * NANOS_PER_DAY / Math.max(1, request.getRows());
+        double failedBound = request.getSuccessShare() + request.getFailedShare();
+        long[] statusCounts = new long[3];
+        long disputes = 0;
+        long started = System.nanoTime();
+
+        List<Transaction> batch = new ArrayList<>(request.getBatchSize());
+        Path disputesPath = disputesPath(request.getDisputesFile());
+        String disputesFile = disputesPath == null ? null : disputesPath.toString();
+        if (disputesPath != null) {
+            Files.createDirectories(disputesPath.getParent());
+        }
+        try (BufferedWriter disputesOut = disputesPath == null ? null : Files.newBufferedWriter(disputesPath)) {
+            for (long i = 0; i < request.getRows(); i++) {
+                double statusDraw = random.nextDouble();
+                int statusIndex = statusDraw < request.getSuccessShare() ? 0 : statusDraw < failedBound ? 1 : 2;
+                double amount = amount(random, request);
+                int payer = random.nextInt(request.getPayers());
+                int payee = random.nextInt(request.getPayees());
+                String description = DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)];
+                boolean disputed = random.nextDouble() < request.getDisputeShare() && statusIndex != 2;
+                String reason = DISPUTE_REASONS[random.nextInt(DISPUTE_REASONS.length)];
+
+                String transactionId = transactionId(request.getIdPrefix(), i);
+                batch.add(new Transaction(transactionId, amount, status(statusIndex), start.plusNanos(step * i),
+                        "CUST" + payer, "MERCHANT" + payee, description));
+                statusCounts[statusIndex]++;
+
+                if (disputed && disputesOut != null) {
+                    writeDispute(disputesOut, transactionId, payee, amount, payer, reason);
+                    disputes++;
+                }
+                if (batch.size() == request.getBatchSize()) {
+                    transactionStore.saveAll(batch);
+                    batch.clear();
+                }
+                if ((i + 1) % PROGRESS_INTERVAL == 0) {
+                    log.info("Seeded {} of {} transactions", i + 1, request.getRows());
+                }
+            }
+            if (!batch.isEmpty()) {
+                transactionStore.saveAll(batch);
+            }
+        }
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        long rowsPerMinute = request.getRows() * 60_000 / elapsedMs;
+        log.info("Seeded {} transactions in {} ms ({} rows/min), {} disputes",
+                request.getRows(), elapsedMs, rowsPerMinute, disputes);
+        return new SeedResult(request.getRows(), statusCounts[0], statusCounts[1], statusCounts[2],
+                disputes, disputesFile, elapsedMs, rowsPerMinute);
+    }
+
+    /**
+     * Resolve the requested disputes file under the output directory
+     * @return the file, or null if none was requested
+     * @throws IllegalArgumentException if the name is absolute or leaves the output directory
+     */
+    Path disputesPath(String disputesFile) {
+        if (disputesFile == null || disputesFile.isBlank()) {
+            return null;
+        }
+        Path relative;
+        try {
+            relative = Path.of(disputesFile);
+        } catch (InvalidPathException e) {
+            throw new IllegalArgumentException("Invalid disputesFile: " + disputesFile);
+        }
+        for (Path part : relative) {
+            if (part.toString().equals("..")) {
+                throw new IllegalArgumentException("disputesFile must not contain '..'");
+            }
+        }
+        Path resolved = outputDir.resolve(relative).normalize();
+        if (relative.isAbsolute() || relative.getRoot() != null || !resolved.startsWith(outputDir)
+                || resolved.equals(outputDir)) {
+            throw new IllegalArgumentException("disputesFile must be a relative path under the seed output directory");
+        }
+        return resolved;
+    }
+
+    private static double amount(SplittableRandom random, SeedRequest request) {
+        double amount = request.getAmountDistribution() == SeedRequest.AmountDistribution.UNIFORM
+                ? request.getAmountMin() + random.nextDouble() * (request.getAmountMax() - request.getAmountMin())
+                : request.getAmountMedian() * Math.exp(request.getAmountSigma() * random.nextGaussian());
+        amount = Math.min(request.getAmountMax(), Math.max(request.getAmountMin(), amount));
+        return Math.round(amount * 100) / 100.0;
+    }
+
+    private static String status(int statusIndex) {
+        return statusIndex == 0 ? "SUCCESS" : statusIndex == 1 ? "FAILED" : "REFUNDED";
+    }
+
+    // Zero-padded so IDs sort in generation order, e.g. SYN000000000042
+    private static String transactionId(String prefix, long index) {
+        String number = Long.toString(index);
+        StringBuilder id = new StringBuilder(prefix.length() + ID_DIGITS).append(prefix);
+        for (int i = number.length(); i < ID_DIGITS; i++) {
+            id.append('0');
+        }
+        return id.append(number).toString();
+    }
+
+    /**
+     * One backend DisputeRequest per line; each payer gets a stable 10-digit phone number
+     */
+    private void writeDispute(BufferedWriter out, String transactionId, int payee, double amount, int payer,
+                              String reason) throws IOException {
+        out.write(objectMapper.createObjectNode()
+                .put("transactionId", transactionId)
+                .put("merchantUPI", "merchant" + payee + "@upi")
+                .put("amount", amount)
+                .put("phone", String.format("9%09d", payer))
+                .put("reason", reason)
+                .toString());
+        out.newLine();
+    }
+
+    private static void validate(SeedRequest request) {
+        if (request.getRows() < 0) {
+            throw new IllegalArgumentException("rows must not be negative");
+        }
+        if (request.getIdPrefix() == null || request.getIdPrefix().isBlank()) {
+            throw new IllegalArgumentException("idPrefix is required");
+        }
+        if (request.getSuccessShare() < 0 || request.getFailedShare() < 0
+                || request.getSuccessShare() + request.getFailedShare() > 1) {
+            throw new IllegalArgumentException("successShare and failedShare must be non-negative and add up to at most 1");
+        }
+        if (request.getDisputeShare() < 0 || request.getDisputeShare() > 1) {
+            throw new IllegalArgumentException("disputeShare must be between 0 and 1");
+        }
+        if (request.getAmountDistribution() == null || request.getAmountMin() < 0
+                || request.getAmountMin() > request.getAmountMax()
+                || request.getAmountMedian() <= 0 || request.getAmountSigma() < 0) {
+            throw new IllegalArgumentException("Invalid amount distribution");
+        }
+        if (request.getPayers() < 1 || request.getPayers() > 1_000_000_000 || request.getPayees() < 1) {
+            throw new IllegalArgumentException("payers must be between 1 and 1000000000, payees at least 1");
+        }
+        if (request.getDays() < 1 || request.getDays() > 36_500 || request.getBatchSize() < 1) {
+            throw new IllegalArgumentException("days must be between 1 and 36500, batchSize at least 1");
+        }
+        try {
+            LocalDate.parse(String.valueOf(request.getStartDate()));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("startDate must be yyyy-MM-dd");
+        }
+    }
+}
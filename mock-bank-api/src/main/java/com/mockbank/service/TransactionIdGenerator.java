@@ -0,0 +1,117 @@
+package com.mockbank.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake-style transaction ID generator
+ * An ID is one positive long, most significant bits first:
+ * - 41 bits of milliseconds since 2024-01-01T00:00:00Z (good until 2093)
+ * - 10 bits of node ID (app.transaction-id.node-id, 0 to 1023), distinct per running instance; it may be left unset
+ *   only with a private in-memory database, where the single instance gets node 0, and startup fails otherwise
+ * - 12 bits of sequence within the millisecond
+ * It is written as "TXN" and 13 Crockford base-32 digits, 16 characters in all. The digits are fixed width and in
+ * ASCII order, so the strings sort like the longs: IDs from one node are increasing, and inserts land at the right
+ * edge of the primary key index instead of at random pages.
+ * The millisecond and sequence live in one AtomicLong updated with compare-and-set, with no lock. When a
+ * millisecond's 4096 sequence values are used up, or the clock steps back, IDs carry on from the last one issued
+ * rather than waiting, so they never repeat or go backwards; the clock catches up once load drops.
+ */
+@Component
+public class TransactionIdGenerator {
+
+    public static final String PREFIX = "TXN";
+    public static final long EPOCH_MS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    public static final int MAX_NODE_ID = 1023;
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final int NODE_BITS = 10;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int DIGITS = 13;
+    private static final byte[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PREFIX_BYTES = PREFIX.getBytes(StandardCharsets.US_ASCII);
+
+    private final long nodeBits;
+    private final LongSupplier clock;
+
+    // (milliseconds since EPOCH_MS << SEQUENCE_BITS) | sequence of the last ID issued
+    private final AtomicLong last = new AtomicLong();
+
+    @Autowired
+    public TransactionIdGenerator(@Value("${app.transaction-id.node-id:-1}") int nodeId,
+                                  @Value("${spring.datasource.url:}") String datasourceUrl) {
+        this(resolveNodeId(nodeId, datasourceUrl), System::currentTimeMillis);
+    }
+
+    public TransactionIdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    /**
+     * Next transaction ID as a string
+     */
+    public String next() {
+        return encode(nextId());
+    }
+
+    /**
+     * Next transaction ID as a long
+     */
+    public long nextId() {
+        long now = (clock.getAsLong() - EPOCH_MS) << SEQUENCE_BITS;
+        // A new millisecond restarts the sequence; otherwise take the one after the last ID, which rolls over into
+        // the next millisecond when the sequence is used up
+        long issued = last.accumulateAndGet(now, (previous, current) -> current > previous ? current : previous + 1);
+        return ((issued >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (issued & SEQUENCE_MASK);
+    }
+
+    public int nodeId() {
+        return (int) (nodeBits >>> SEQUENCE_BITS);
+    }
+
+    /**
+     * Fixed-width string form of an ID; strings of different IDs compare like the IDs
+     */
+    public static String encode(long id) {
+        byte[] chars = new byte[PREFIX_BYTES.length + DIGITS];
+        System.arraycopy(PREFIX_BYTES, 0, chars, 0, PREFIX_BYTES.length);
+        for (int i = chars.length - 1; i >= PREFIX_BYTES.length; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Milliseconds since the Unix epoch encoded in an ID
+     */
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MS;
+    }
+
+    /**
+     * Configured node ID, or 0 when unset (negative) and the database is a private in-memory one
+     * - Any other database may be shared by several instances, and two of them on one node ID would issue the same
+     *   IDs, so an unset node ID there is a startup error rather than a guess
+     */
+    static int resolveNodeId(int nodeId, String datasourceUrl) {
+        if (nodeId >= 0) {
+            return nodeId;
+        }
+        if (datasourceUrl != null && datasourceUrl.startsWith("jdbc:h2:mem:")) {
+            return 0;
+        }
+        throw new IllegalStateException("app.transaction-id.node-id must be set to a value from 0 to " + MAX_NODE_ID
+                + ", distinct per instance, when the database may be shared: " + datasourceUrl);
+    }
+}
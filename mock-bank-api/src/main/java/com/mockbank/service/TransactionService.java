@@ -1,17 +1,22 @@
 package com.mockbank.service;
 
 import com.mockbank.dto.CreateTransactionRequest;
+import com.mockbank.dto.CursorPage;
 import com.mockbank.dto.TransactionResponse;
 import com.mockbank.entity.Transaction;
 import com.mockbank.exception.TransactionNotFoundException;
-import com.mockbank.repository.TransactionRepository;
+import com.mockbank.repository.TransactionStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
 
 /**
  * Service class for Transaction operations
@@ -23,16 +28,24 @@ import java.util.UUID;
 @Transactional
 public class TransactionService {
 
-    private final TransactionRepository transactionRepository;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final TransactionStore transactionStore;
+    private final TransactionIdGenerator transactionIdGenerator;
 
     /**
      * Create a new transaction
      * @param request CreateTransactionRequest containing transaction details
      * @return TransactionResponse with created transaction details
+     * @throws IllegalArgumentException if a transaction with the provided ID already exists
      */
     public TransactionResponse createTransaction(CreateTransactionRequest request) {
         // Generate unique transaction ID if not provided
-        String transactionId = "TXN" + System.currentTimeMillis() + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        String transactionId = request.getTransactionId();
+        if (transactionId == null || transactionId.isBlank()) {
+            transactionId = transactionIdGenerator.next();
+        }
         log.info("Creating transaction with ID: {}", transactionId);
 
         Transaction transaction = new Transaction();
@@ -44,7 +57,13 @@ public class TransactionService {
         transaction.setPayeeId(request.getPayeeId());
         transaction.setDescription(request.getDescription());
 
-        Transaction savedTransaction = transactionRepository.save(transaction);
+        // Insert-only, so a concurrent create with the same ID fails here rather than overwriting this one
+        Transaction savedTransaction;
+        try {
+            savedTransaction = transactionStore.insert(transaction);
+        } catch (DuplicateKeyException e) {
+            throw new IllegalArgumentException("Transaction already exists with ID: " + transactionId);
+        }
         log.info("Transaction created successfully with ID: {}", savedTransaction.getTransactionId());
 
         return convertToResponse(savedTransaction);
@@ -56,10 +75,12 @@ public class TransactionService {
      * @return TransactionResponse with transaction details
      * @throws TransactionNotFoundException if transaction not found
      */
+    // No transaction of its own: the JPA store opens a read-only one, the in-memory store needs none
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public TransactionResponse getTransaction(String transactionId) {
         log.info("Fetching transaction with ID: {}", transactionId);
 
-        Transaction transaction = transactionRepository.findById(transactionId)
+        Transaction transaction = transactionStore.findById(transactionId)
                 .orElseThrow(() -> {
                     log.warn("Transaction not found with ID: {}", transactionId);
                     return new TransactionNotFoundException("Transaction not found with ID: " + transactionId);
@@ -68,6 +89,63 @@ public class TransactionService {
         return convertToResponse(transaction);
     }
 
+    /**
+     * Build the filter of a transaction listing from its query parameters
+     * @param payerId payer to list, or null
+     * @param payeeId payee to list, or null; at least one of payerId and payeeId is required
+     * @param from earliest transaction time, inclusive: yyyy-MM-dd or yyyy-MM-ddTHH:mm:ss, or null
+     * @param to latest transaction time, exclusive, in the same format, or null
+     * @param status transaction status, or null for all
+     * @throws IllegalArgumentException if neither party is given, a time cannot be parsed or from is not before to
+     */
+    public TransactionStore.Filter transactionFilter(String payerId, String payeeId, String from, String to,
+                                                     String status) {
+        String payer = payerId == null || payerId.isBlank() ? null : payerId.trim();
+        String payee = payeeId == null || payeeId.isBlank() ? null : payeeId.trim();
+        // Without a party there is no index to range over, only a scan of every transaction
+        if (payer == null && payee == null) {
+            throw new IllegalArgumentException("payerId or payeeId is required");
+        }
+        LocalDateTime fromTime = PageCursor.parseTime("from", from);
+        LocalDateTime toTime = PageCursor.parseTime("to", to);
+        if (fromTime != null && toTime != null && !fromTime.isBefore(toTime)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        String statusFilter = status == null || status.isBlank() ? null : status.trim().toUpperCase(Locale.ROOT);
+        return new TransactionStore.Filter(payer, payee, fromTime, toTime, statusFilter);
+    }
+
+    /**
+     * Fetch one page of a payer's or payee's transactions, oldest first
+     * @param filter party, time range and status
+     * @param cursor next_cursor of the previous page, or null for the first page
+     * @param limit page size, 1 to 1000; null for 100
+     * @return CursorPage with the transactions and the cursor of the next page
+     * @throws IllegalArgumentException if the cursor or limit is invalid
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CursorPage<TransactionResponse> getTransactions(TransactionStore.Filter filter, String cursor,
+                                                          Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        PageCursor after = PageCursor.decode(cursor);
+        log.info("Fetching transactions page: filter={}, limit={}, after={}", filter, pageSize, after);
+
+        // One extra row tells whether another page follows, without a count query
+        List<Transaction> transactions = transactionStore.findPage(filter,
+                after == null ? null : after.timestamp(), after == null ? null : after.id(), pageSize + 1);
+        boolean hasMore = transactions.size() > pageSize;
+        if (hasMore) {
+            transactions = transactions.subList(0, pageSize);
+        }
+        Transaction last = hasMore ? transactions.get(transactions.size() - 1) : null;
+        String nextCursor = last == null ? null : new PageCursor(last.getTimestamp(), last.getTransactionId()).encode();
+        List<TransactionResponse> items = transactions.stream().map(this::convertToResponse).collect(Collectors.toList());
+        return new CursorPage<>(items, items.size(), nextCursor, hasMore);
+    }
+
     /**
      * Update transaction status
      * Used internally by refund service
@@ -77,11 +155,11 @@ public class TransactionService {
     public void updateTransactionStatus(String transactionId, String newStatus) {
         log.info("Updating transaction status for ID: {} to: {}", transactionId, newStatus);
 
-        Transaction transaction = transactionRepository.findById(transactionId)
+        Transaction transaction = transactionStore.findById(transactionId)
                 .orElseThrow(() -> new TransactionNotFoundException("Transaction not found with ID: " + transactionId));
 
         transaction.setStatus(newStatus);
-        transactionRepository.save(transaction);
+        transactionStore.save(transaction);
 
         log.info("Transaction status updated successfully");
     }
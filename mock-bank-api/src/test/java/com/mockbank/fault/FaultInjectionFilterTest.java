@@ -0,0 +1,158 @@
+package com.mockbank.fault;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:fault-injection-filter;DB_CLOSE_DELAY=-1"
+})
+public class FaultInjectionFilterTest {
+
+    private static final String API_KEY = "upi-dispute-resolver-secret-key-2024";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private FaultInjectionService faultInjectionService;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @AfterEach
+    void clearRules() {
+        faultInjectionService.replaceRules(List.of());
+    }
+
+    private static FaultRule rule(String method, String path, FaultRule.FaultType fault) {
+        FaultRule rule = new FaultRule();
+        rule.setMethod(method);
+        rule.setPath(path);
+        rule.setFault(fault);
+        return rule;
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("x-api-key", API_KEY).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("x-api-key", API_KEY).header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void testConnectionResetClosesTheSocketBeforeThePromisedBody() throws Exception {
+        // Arrange
+        faultInjectionService.addRule(rule("GET", "/bank/transaction/*", FaultRule.FaultType.CONNECTION_RESET));
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> get("/bank/transaction/TXN20240101001"));
+        assertEquals(1, faultInjectionService.getRules().get(0).getInjected());
+        // Admin endpoints stay reachable, so the rule can always be removed
+        assertEquals(200, get("/bank/admin/faults").statusCode());
+    }
+
+    @Test
+    void testSlowBodyDeliversTheRealResponseAtTheConfiguredRate() throws Exception {
+        // Arrange
+        String expected = get("/bank/transaction/TXN20240101001").body();
+        FaultRule slow = rule("GET", "/bank/transaction/*", FaultRule.FaultType.SLOW_BODY);
+        slow.setBytesPerSecond(1_000);
+        faultInjectionService.addRule(slow);
+
+        // Act
+        long started = System.nanoTime();
+        HttpResponse<String> response = get("/bank/transaction/TXN20240101001");
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+        // Assert
+        assertEquals(200, response.statusCode());
+        // Everything but the ApiResponse's own timestamp, which is the last field
+        assertEquals(expected.substring(0, expected.lastIndexOf("\"timestamp\"")),
+                response.body().substring(0, response.body().lastIndexOf("\"timestamp\"")));
+        // 100-byte chunks every 100 ms; the last chunk's pause is the only slack
+        long minimumMs = (response.body().length() / 100) * 100L - 100;
+        assertTrue(elapsedMs >= minimumMs, "took " + elapsedMs + " ms for " + response.body().length() + " bytes");
+    }
+
+    @Test
+    void testBodyReadForTransactionIdMatchingIsReplayedToTheController() throws Exception {
+        // Arrange
+        FaultRule scoped = rule("POST", "/bank/refund", FaultRule.FaultType.ERROR);
+        scoped.setTransactionIdPattern("TXN20240101004");
+        scoped.setErrorStatus(502);
+        faultInjectionService.addRule(scoped);
+
+        // Act
+        HttpResponse<String> matched = post("/bank/refund",
+                "{\"transactionId\":\"TXN20240101004\",\"reason\":\"Matched\"}");
+        HttpResponse<String> replayed = post("/bank/refund",
+                "{\"transactionId\":\"TXN20240101002\",\"reason\":\"Replayed\",\"idempotencyKey\":\"replay-1\"}");
+
+        // Assert
+        assertEquals(502, matched.statusCode());
+        assertTrue(matched.body().contains("Injected fault"), matched.body());
+        assertEquals(201, replayed.statusCode(), replayed.body());
+        assertTrue(replayed.body().contains("TXN20240101002"), replayed.body());
+        assertEquals(1, faultInjectionService.getRules().get(0).getInjected());
+    }
+
+    @Test
+    void testCachedBodyReplaysAndCallsReadListenerBackAtOnce() throws Exception {
+        // Arrange
+        MockHttpServletRequest original = new MockHttpServletRequest("POST", "/bank/refund");
+        original.setContent("{\"transactionId\":\"TXN1\"}".getBytes(StandardCharsets.UTF_8));
+        CachedBodyHttpServletRequest cached = new CachedBodyHttpServletRequest(original);
+        ServletInputStream in = cached.getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        List<String> events = new ArrayList<>();
+
+        // Act
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                events.add("data");
+                byte[] buffer = new byte[4];
+                while (in.isReady() && !in.isFinished()) {
+                    read.write(buffer, 0, in.read(buffer));
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.add("done");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                events.add("error");
+            }
+        });
+
+        // Assert
+        assertEquals(List.of("data", "done"), events);
+        assertEquals("{\"transactionId\":\"TXN1\"}", read.toString(StandardCharsets.UTF_8));
+        assertEquals("{\"transactionId\":\"TXN1\"}", cached.getReader().readLine());
+        assertEquals(24, cached.getContentLength());
+    }
+}
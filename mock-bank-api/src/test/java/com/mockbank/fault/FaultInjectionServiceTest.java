@@ -0,0 +1,137 @@
+package com.mockbank.fault;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FaultInjectionServiceTest {
+
+    private FaultInjectionService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new FaultInjectionService(new FaultProperties());
+    }
+
+    private static FaultRule rule(String method, String path, FaultRule.FaultType fault) {
+        FaultRule rule = new FaultRule();
+        rule.setMethod(method);
+        rule.setPath(path);
+        rule.setFault(fault);
+        return rule;
+    }
+
+    @Test
+    void testFirstMatchingRuleApplies() {
+        // Arrange
+        FaultRule scoped = rule("POST", "/bank/refund", FaultRule.FaultType.ERROR);
+        scoped.setTransactionIdPattern("TXN.*003");
+        scoped.setErrorStatus(502);
+        FaultRule catchAll = rule(null, "/bank/**", FaultRule.FaultType.RATE_LIMIT);
+        service.addRule(scoped);
+        service.addRule(catchAll);
+
+        // Act
+        FaultInjectionService.Injection matchedId = service.decide("POST", "/bank/refund", "TXN20240101003").orElseThrow();
+        FaultInjectionService.Injection otherId = service.decide("POST", "/bank/refund", "TXN20240101002").orElseThrow();
+        FaultInjectionService.Injection noId = service.decide("POST", "/bank/refund", null).orElseThrow();
+
+        // Assert
+        assertEquals(FaultRule.FaultType.ERROR, matchedId.fault());
+        assertEquals(502, matchedId.errorStatus());
+        assertEquals(FaultRule.FaultType.RATE_LIMIT, otherId.fault());
+        assertEquals(FaultRule.FaultType.RATE_LIMIT, noId.fault());
+        assertTrue(service.needsTransactionId("POST", "/bank/refund"));
+        assertFalse(service.needsTransactionId("GET", "/bank/transaction/TXN1"));
+        List<FaultRule> rules = service.getRules();
+        assertEquals(1, rules.get(0).getMatched());
+        assertEquals(2, rules.get(1).getInjected());
+    }
+
+    @Test
+    void testAdminEndpointsAreNeverAffected() {
+        // Arrange
+        service.addRule(rule(null, "/bank/**", FaultRule.FaultType.CONNECTION_RESET));
+
+        // Act & Assert
+        assertTrue(service.decide("GET", "/bank/admin/faults", null).isEmpty());
+        assertTrue(service.decide("GET", "/bank/transaction/TXN1", "TXN1").isPresent());
+    }
+
+    @Test
+    void testLatencyProfilesStayInTheirRanges() {
+        // Arrange
+        FaultRule uniform = rule("GET", "/bank/transaction/*", FaultRule.FaultType.NONE);
+        uniform.setLatency(FaultRule.LatencyType.UNIFORM);
+        uniform.setMinMs(20);
+        uniform.setMaxMs(40);
+        FaultRule histogram = rule("POST", "/bank/refund", FaultRule.FaultType.NONE);
+        histogram.setLatency(FaultRule.LatencyType.HISTOGRAM);
+        histogram.setHistogram(List.of(new FaultRule.HistogramBucket(0, 10, 90),
+                new FaultRule.HistogramBucket(500, 600, 10)));
+        FaultRule logNormal = rule("GET", "/bank/refund/all", FaultRule.FaultType.NONE);
+        logNormal.setLatency(FaultRule.LatencyType.LOG_NORMAL);
+        logNormal.setMedianMs(100);
+        logNormal.setSigma(2);
+        logNormal.setMaxMs(1_000);
+        service.replaceRules(List.of(uniform, histogram, logNormal));
+
+        // Act
+        int slow = 0;
+        for (int i = 0; i < 10_000; i++) {
+            long uniformMs = service.decide("GET", "/bank/transaction/TXN1", null).orElseThrow().delayMs();
+            long histogramMs = service.decide("POST", "/bank/refund", null).orElseThrow().delayMs();
+            long logNormalMs = service.decide("GET", "/bank/refund/all", null).orElseThrow().delayMs();
+
+            // Assert
+            assertTrue(uniformMs >= 20 && uniformMs <= 40);
+            assertTrue(histogramMs < 10 || (histogramMs >= 500 && histogramMs < 600));
+            assertTrue(logNormalMs >= 0 && logNormalMs <= 1_000);
+            if (histogramMs >= 500) {
+                slow++;
+            }
+        }
+        assertEquals(0.10, slow / 10_000.0, 0.02);
+    }
+
+    @Test
+    void testFaultProbabilityIsRespected() {
+        // Arrange
+        FaultRule flaky = rule(null, "/bank/**", FaultRule.FaultType.ERROR);
+        flaky.setFaultProbability(0.25);
+        service.addRule(flaky);
+
+        // Act
+        int failed = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (service.decide("GET", "/bank/transaction/TXN1", null).orElseThrow().fault() == FaultRule.FaultType.ERROR) {
+                failed++;
+            }
+        }
+
+        // Assert
+        assertEquals(0.25, failed / 10_000.0, 0.02);
+    }
+
+    @Test
+    void testInvalidRuleLeavesExistingRulesInPlace() {
+        // Arrange
+        service.addRule(rule(null, "/bank/**", FaultRule.FaultType.RATE_LIMIT));
+        FaultRule badStatus = rule(null, "/bank/**", FaultRule.FaultType.ERROR);
+        badStatus.setErrorStatus(404);
+        FaultRule badPattern = rule(null, "/bank/**", FaultRule.FaultType.NONE);
+        badPattern.setTransactionIdPattern("TXN(");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> service.replaceRules(List.of(rule(null, "/bank/**", FaultRule.FaultType.NONE), badStatus)));
+        assertThrows(IllegalArgumentException.class, () -> service.addRule(badPattern));
+        assertEquals(1, service.getRules().size());
+        assertEquals(FaultRule.FaultType.RATE_LIMIT, service.getRules().get(0).getFault());
+        assertTrue(service.removeRule(service.getRules().get(0).getId()));
+        assertFalse(service.isActive());
+    }
+}
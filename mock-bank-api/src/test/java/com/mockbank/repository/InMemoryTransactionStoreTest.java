@@ -0,0 +1,216 @@
+package com.mockbank.repository;
+
+import com.mockbank.entity.Transaction;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryTransactionStoreTest {
+
+    private static Transaction transaction(String id, String status) {
+        return new Transaction(id, 1000.50, status, LocalDateTime.of(2024, 1, 15, 10, 30, 15, 123_456_789),
+                "CUST001", "MERCHANT001", "Payment for grocery shopping");
+    }
+
+    @Test
+    void testSavedTransactionIsReturnedFieldForField() {
+        // Arrange
+        InMemoryTransactionStore store = new InMemoryTransactionStore(16);
+        Transaction saved = transaction("TXN20240101001", "SUCCESS");
+        Transaction withoutParties = new Transaction("TXN20240101002", 5.0, "FAILED",
+                LocalDateTime.of(1969, 12, 31, 23, 59, 59, 1), null, null, null);
+
+        // Act
+        store.save(saved);
+        store.save(withoutParties);
+
+        // Assert
+        assertEquals(saved, store.findById("TXN20240101001").orElseThrow());
+        assertEquals(withoutParties, store.findById("TXN20240101002").orElseThrow());
+        assertTrue(store.findById("TXN20240101003").isEmpty());
+        assertTrue(store.findById(null).isEmpty());
+        assertEquals(2, store.count());
+    }
+
+    @Test
+    void testSaveWithExistingIdUpdatesInPlace() {
+        // Arrange
+        InMemoryTransactionStore store = new InMemoryTransactionStore(16);
+        store.save(transaction("TXN20240101001", "SUCCESS"));
+
+        // Act
+        store.save(transaction("TXN20240101001", "REFUNDED"));
+
+        // Assert
+        assertEquals("REFUNDED", store.findById("TXN20240101001").orElseThrow().getStatus());
+        assertEquals(1, store.count());
+    }
+
+    @Test
+    void testInsertNeverOverwritesAnExistingId() {
+        // Arrange
+        InMemoryTransactionStore store = new InMemoryTransactionStore(16);
+        store.insert(transaction("TXN20240101001", "SUCCESS"));
+
+        // Act & Assert
+        assertThrows(DuplicateKeyException.class, () -> store.insert(transaction("TXN20240101001", "FAILED")));
+        assertEquals("SUCCESS", store.findById("TXN20240101001").orElseThrow().getStatus());
+        assertEquals(1, store.count());
+    }
+
+    @Test
+    void testStoreGrowsPastItsInitialCapacity() {
+        // Arrange
+        InMemoryTransactionStore store = new InMemoryTransactionStore(16);
+        List<Transaction> batch = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            batch.add(transaction("TXN" + i, i % 2 == 0 ? "SUCCESS" : "FAILED"));
+        }
+
+        // Act
+        store.saveAll(batch.subList(0, 20_000));
+        for (Transaction txn : batch.subList(20_000, 50_000)) {
+            store.save(txn);
+        }
+
+        // Assert
+        assertEquals(50_000, store.count());
+        for (Transaction txn : batch) {
+            assertEquals(txn, store.findById(txn.getTransactionId()).orElseThrow());
+        }
+    }
+
+    @Test
+    void testTransactionWithoutRequiredFieldsIsRejected() {
+        // Arrange
+        InMemoryTransactionStore store = new InMemoryTransactionStore(16);
+        Transaction missingStatus = transaction("TXN20240101001", null);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> store.save(missingStatus));
+        assertEquals(0, store.count());
+    }
+
+    @Test
+    void testLookupsDuringConcurrentInsertsNeverMissStoredRows() throws Exception {
+        // Arrange
+        InMemoryTransactionStore store = new InMemoryTransactionStore(16);
+        store.save(transaction("TXN_STABLE", "SUCCESS"));
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+
+        // Act
+        Future<?> writer = pool.submit(() -> {
+            for (int i = 0; i < 200_000; i++) {
+                store.save(transaction("TXN" + i, "SUCCESS"));
+            }
+            writing.set(false);
+        });
+        List<Future<Integer>> readers = new ArrayList<>();
+        for (int r = 0; r < 2; r++) {
+            readers.add(pool.submit(() -> {
+                int misses = 0;
+                while (writing.get()) {
+                    if (store.findById("TXN_STABLE").isEmpty()) {
+                        misses++;
+                    }
+                }
+                return misses;
+            }));
+        }
+        writer.get(60, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        // Assert
+        for (Future<Integer> reader : readers) {
+            assertEquals(0, reader.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(200_001, store.count());
+    }
+
+    @Test
+    void testCompareAndSetStatusesChangesOnlyExpectedRows() {
+        // Arrange
+        InMemoryTransactionStore store = new InMemoryTransactionStore(16);
+        store.save(transaction("TXN1", "SUCCESS"));
+        store.save(transaction("TXN2", "FAILED"));
+        store.save(transaction("TXN3", "SUCCESS"));
+
+        // Act
+        boolean[] updated = store.compareAndSetStatuses(List.of("TXN1", "TXN2", "TXN3", "TXN4", "TXN1"),
+                "SUCCESS", "REFUNDED");
+
+        // Assert
+        assertArrayEquals(new boolean[] {true, false, true, false, false}, updated);
+        assertEquals("REFUNDED", store.findById("TXN1").orElseThrow().getStatus());
+        assertEquals("FAILED", store.findById("TXN2").orElseThrow().getStatus());
+        assertEquals(2, store.findAllById(List.of("TXN1", "TXN2", "TXN4")).size());
+    }
+
+    @Test
+    void testStatusChangeIsUndoneWhenSurroundingTransactionRollsBack() {
+        // Arrange
+        InMemoryTransactionStore store = new InMemoryTransactionStore(16);
+        store.save(transaction("TXN1", "SUCCESS"));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            assertTrue(store.compareAndSetStatus("TXN1", "SUCCESS", "REFUNDED"));
+            assertEquals("REFUNDED", store.findById("TXN1").orElseThrow().getStatus());
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        assertEquals("SUCCESS", store.findById("TXN1").orElseThrow().getStatus());
+    }
+
+    @Test
+    void testPagesOfAPayerCoverItsRangeInKeysetOrder() {
+        // Arrange: three transactions per second, inserted out of order, so pages end inside a timestamp
+        InMemoryTransactionStore store = new InMemoryTransactionStore(16);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<String> expected = new ArrayList<>();
+        for (int i = 999; i >= 0; i--) {
+            store.save(new Transaction(String.format("TXN%04d", i), 10.0, i % 5 == 0 ? "FAILED" : "SUCCESS",
+                    start.plusSeconds(i / 3), "PAYER" + (i % 2), "PAYEE" + (i % 3), null));
+        }
+        for (int i = 0; i < 1000; i++) {
+            if (i % 2 == 0 && i % 5 != 0 && i / 3 >= 10 && i / 3 < 300) {
+                expected.add(String.format("TXN%04d", i));
+            }
+        }
+        TransactionStore.Filter filter = new TransactionStore.Filter("PAYER0", null, start.plusSeconds(10),
+                start.plusSeconds(300), "SUCCESS");
+
+        // Act
+        List<String> seen = new ArrayList<>();
+        List<Transaction> page = store.findPage(filter, null, null, 7);
+        while (!page.isEmpty()) {
+            page.forEach(transaction -> seen.add(transaction.getTransactionId()));
+            Transaction last = page.get(page.size() - 1);
+            page = store.findPage(filter, last.getTimestamp(), last.getTransactionId(), 7);
+        }
+
+        // Assert
+        assertEquals(expected, seen);
+        assertTrue(store.findPage(new TransactionStore.Filter("PAYER9", null, null, null, null), null, null, 7).isEmpty());
+        assertEquals(3, store.findPage(new TransactionStore.Filter("PAYER1", "PAYEE2", null, null, null), null, null, 3)
+                .stream().filter(t -> t.getPayerId().equals("PAYER1") && t.getPayeeId().equals("PAYEE2")).count());
+    }
+}
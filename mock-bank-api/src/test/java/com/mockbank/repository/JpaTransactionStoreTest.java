@@ -0,0 +1,106 @@
+package com.mockbank.repository;
+
+import com.mockbank.entity.Transaction;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:transaction-plans;DB_CLOSE_DELAY=-1"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class JpaTransactionStoreTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+    @Autowired
+    private TransactionStore transactionStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void insertSkewedTransactions() {
+        // The planner's worst case: two payers and two payees, so each party value matches half the table
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            transactions.add(new Transaction("PLAN" + i, 100.0, i % 5 == 0 ? "FAILED" : "SUCCESS",
+                    START.plusSeconds(i), "PAYER" + (i % 2), "PAYEE" + (i % 2), "Plan test"));
+        }
+        transactionStore.saveAll(transactions);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void testEveryPageShapeReadsOnlyItsIndexRangeInIndexOrder() {
+        // Arrange
+        LocalDateTime time = START.plusHours(1);
+        List<TransactionStore.Filter> filters = new ArrayList<>();
+        for (String[] parties : new String[][]{{"PAYER0", null}, {null, "PAYEE0"}, {"PAYER0", "PAYEE0"}}) {
+            filters.add(new TransactionStore.Filter(parties[0], parties[1], null, null, null));
+            filters.add(new TransactionStore.Filter(parties[0], parties[1], time, null, null));
+            filters.add(new TransactionStore.Filter(parties[0], parties[1], time, time.plusDays(1), "SUCCESS"));
+        }
+        // Selectivity 1 tells H2 every row has the same party, as if a table of any size held a single payer
+        jdbcTemplate.execute("ALTER TABLE transactions ALTER COLUMN payer_id SELECTIVITY 1");
+        jdbcTemplate.execute("ALTER TABLE transactions ALTER COLUMN payee_id SELECTIVITY 1");
+
+        // Act
+        List<String[]> plans = new ArrayList<>();
+        for (TransactionStore.Filter filter : filters) {
+            for (boolean afterCursor : new boolean[]{false, true}) {
+                String index = filter.payerId() != null
+                        ? "IDX_TRANSACTIONS_PAYER_TIMESTAMP: " : "IDX_TRANSACTIONS_PAYEE_TIMESTAMP: ";
+                String party = filter.payerId() != null ? "PAYER_ID = ?1" : "PAYEE_ID = ?1";
+                String range = afterCursor || filter.from() != null ? "TIMESTAMP >=" : party;
+                String plan = explain(JpaTransactionStore.pageSql(filter, afterCursor)).replaceAll("\\s+", " ");
+                plans.add(new String[]{plan, index, party, range});
+            }
+        }
+
+        // Assert: the IDs come from the party's range of its index, in key order with no sort step, and a cursor or
+        // from also bounds that range by time; only the page's rows are then read, by primary key
+        assertEquals(18, plans.size());
+        for (String[] expected : plans) {
+            String plan = expected[0];
+            assertTrue(plan.contains(expected[1]), plan);
+            int start = plan.indexOf(expected[1]);
+            String indexCondition = plan.substring(start, plan.indexOf("*/", start));
+            assertTrue(indexCondition.contains(expected[2]), plan);
+            assertTrue(indexCondition.contains(expected[3]), plan);
+            assertTrue(plan.contains("index sorted"), plan);
+            assertTrue(plan.contains("PRIMARY_KEY"), plan);
+            assertFalse(plan.contains("tableScan"), plan);
+        }
+    }
+
+    @Test
+    void testPageWithBothPartiesIsTheFirstMatchesInKeysetOrder() {
+        // Act
+        List<Transaction> first = transactionStore.findPage(
+                new TransactionStore.Filter("PAYER1", "PAYEE1", START.plusSeconds(100), null, "SUCCESS"), null, null, 3);
+        Transaction last = first.get(first.size() - 1);
+        List<Transaction> second = transactionStore.findPage(
+                new TransactionStore.Filter("PAYER1", "PAYEE1", START.plusSeconds(100), null, "SUCCESS"),
+                last.getTimestamp(), last.getTransactionId(), 3);
+
+        // Assert
+        assertEquals(List.of("PLAN101", "PLAN103", "PLAN107"), first.stream().map(Transaction::getTransactionId).toList());
+        assertEquals(List.of("PLAN109", "PLAN111", "PLAN113"), second.stream().map(Transaction::getTransactionId).toList());
+        assertEquals("Plan test", first.get(0).getDescription());
+    }
+
+    // H2 plans parameterized statements with the ? placeholders left in
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+}
@@ -0,0 +1,68 @@
+package com.mockbank.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:refund-listing;DB_CLOSE_DELAY=-1"
+})
+public class RefundQueryRepositoryTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testEveryPageShapeIsAnOrderedRangeScanOfTheTimestampIndex() {
+        // Arrange
+        LocalDateTime time = LocalDateTime.of(2020, 1, 1, 0, 0);
+        List<RefundQueryRepository.Filter> filters = List.of(
+                new RefundQueryRepository.Filter(null, null, null),
+                new RefundQueryRepository.Filter(time, null, null),
+                new RefundQueryRepository.Filter(time, time.plusDays(1), null),
+                new RefundQueryRepository.Filter(time, time.plusDays(1), "SUCCESS"));
+
+        // Act
+        List<String> plans = new ArrayList<>();
+        List<String> boundedPlans = new ArrayList<>();
+        for (RefundQueryRepository.Filter filter : filters) {
+            for (boolean afterCursor : new boolean[]{false, true}) {
+                String plan = explain(RefundQueryRepository.pageSql(filter, afterCursor));
+                plans.add(plan);
+                if (afterCursor || filter.from() != null) {
+                    boundedPlans.add(plan);
+                }
+            }
+        }
+
+        // Assert: no sort step, and a cursor or from starts the scan at that time instead of the first row
+        for (String plan : plans) {
+            assertTrue(plan.contains("IDX_REFUNDS_TIMESTAMP_ID"), plan);
+            assertTrue(plan.contains("index sorted"), plan);
+        }
+        for (String plan : boundedPlans) {
+            assertTrue(plan.contains("IDX_REFUNDS_TIMESTAMP_ID: REFUND_TIMESTAMP >="), plan);
+        }
+    }
+
+    @Test
+    void testRefundsOfATransactionAreAnIndexLookup() {
+        // Act
+        String plan = explain("SELECT refund_id FROM refunds WHERE transaction_id = ?");
+
+        // Assert
+        assertTrue(plan.contains("IDX_REFUNDS_TRANSACTION_ID"), plan);
+    }
+
+    // H2 plans parameterized statements with the ? placeholders left in
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+}
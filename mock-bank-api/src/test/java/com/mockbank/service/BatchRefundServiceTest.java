@@ -0,0 +1,195 @@
+package com.mockbank.service;
+
+import com.mockbank.dto.BatchRefundItem;
+import com.mockbank.dto.BatchRefundRequest;
+import com.mockbank.dto.BatchRefundResponse;
+import com.mockbank.dto.RefundRequest;
+import com.mockbank.dto.RefundResponse;
+import com.mockbank.entity.Transaction;
+import com.mockbank.exception.InvalidRefundException;
+import com.mockbank.repository.RefundRepository;
+import com.mockbank.repository.TransactionStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:batch-refund;DB_CLOSE_DELAY=-1",
+        "app.refund.batch.chunk-size=100"
+})
+public class BatchRefundServiceTest {
+
+    @Autowired
+    private BatchRefundService batchRefundService;
+
+    @Autowired
+    private RefundService refundService;
+
+    @Autowired
+    private RefundRepository refundRepository;
+
+    @Autowired
+    private TransactionStore transactionStore;
+
+    private String prefix;
+
+    @BeforeEach
+    void setUp() {
+        prefix = "BATCH" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Test
+    void testEachItemGetsItsOwnOutcome() {
+        // Arrange
+        String ok = createTransaction(0, "SUCCESS");
+        String failed = createTransaction(1, "FAILED");
+        String twice = createTransaction(2, "SUCCESS");
+        String keyed = createTransaction(3, "SUCCESS");
+        String earlier = createTransaction(4, "SUCCESS");
+        RefundResponse earlierRefund = refundService.processRefund(new RefundRequest(earlier, "Earlier", prefix + "-earlier"));
+        BatchRefundRequest request = new BatchRefundRequest(List.of(
+                new RefundRequest(ok, "Settlement", null),
+                new RefundRequest(prefix + "-missing", "Settlement", null),
+                new RefundRequest(failed, "Settlement", null),
+                new RefundRequest(twice, "Settlement", null),
+                new RefundRequest(twice, "Settlement", null),
+                new RefundRequest(keyed, "Settlement", prefix + "-keyed"),
+                new RefundRequest(keyed, "Settlement retry", prefix + "-keyed"),
+                new RefundRequest(earlier, "Settlement retry", prefix + "-earlier"),
+                new RefundRequest(ok, "Wrong transaction", prefix + "-earlier")
+        ));
+
+        // Act
+        BatchRefundResponse response = batchRefundService.processRefunds(request);
+
+        // Assert
+        List<BatchRefundItem> results = response.getResults();
+        assertEquals(9, response.getTotal());
+        assertEquals(5, response.getSucceeded());
+        assertEquals(List.of(201, 404, 400, 201, 400, 201, 201, 201, 400),
+                results.stream().map(BatchRefundItem::getStatusCode).toList());
+        assertEquals("Refund not allowed for FAILED transactions", results.get(2).getError());
+        assertEquals("Transaction already refunded", results.get(4).getError());
+        assertEquals(results.get(5).getRefund().getRefundId(), results.get(6).getRefund().getRefundId());
+        assertEquals(earlierRefund.getRefundId(), results.get(7).getRefund().getRefundId());
+        for (String transactionId : List.of(ok, twice, keyed, earlier)) {
+            assertEquals(1, refundRepository.findByTransactionId(transactionId).size());
+            assertEquals("REFUNDED", transactionStore.findById(transactionId).orElseThrow().getStatus());
+        }
+        assertEquals("FAILED", transactionStore.findById(failed).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testLargeBatchIsAppliedInChunks() {
+        // Arrange
+        List<RefundRequest> refunds = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            refunds.add(new RefundRequest(createTransaction(i, "SUCCESS"), "Nightly settlement", prefix + "-key-" + i));
+        }
+
+        // Act
+        BatchRefundResponse response = batchRefundService.processRefunds(new BatchRefundRequest(refunds));
+
+        // Assert
+        assertEquals(5_000, response.getSucceeded());
+        for (int i = 0; i < 5_000; i += 499) {
+            BatchRefundItem item = response.getResults().get(i);
+            assertEquals(i, item.getIndex());
+            assertNotNull(item.getRefund().getRefundId());
+            assertEquals(prefix + "-key-" + i, item.getRefund().getIdempotencyKey());
+            assertEquals("REFUNDED", transactionStore.findById(item.getTransactionId()).orElseThrow().getStatus());
+        }
+    }
+
+    @Test
+    void testBatchAndConcurrentSingleRefundsNeverDoubleRefund() throws Exception {
+        // Arrange
+        int count = 300;
+        List<RefundRequest> refunds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            refunds.add(new RefundRequest(createTransaction(i, "SUCCESS"), "Settlement", prefix + "-key-" + i));
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+
+        // Act
+        Future<BatchRefundResponse> batch = pool.submit(() -> batchRefundService.processRefunds(new BatchRefundRequest(refunds)));
+        List<Future<RefundResponse>> singles = new ArrayList<>();
+        for (int i = count - 1; i >= 0; i -= 3) {
+            RefundRequest single = refunds.get(i);
+            singles.add(pool.submit(() -> refundService.processRefund(single)));
+        }
+        BatchRefundResponse response = batch.get(60, TimeUnit.SECONDS);
+        for (Future<RefundResponse> single : singles) {
+            single.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        // Assert
+        assertEquals(count, response.getSucceeded());
+        for (int i = 0; i < count; i++) {
+            assertEquals(1, refundRepository.findByTransactionId(refunds.get(i).getTransactionId()).size());
+        }
+    }
+
+    @Test
+    void testDisputeReversalsRefundFailedTransactionsOnly() {
+        // Arrange
+        String failed = createTransaction(0, "FAILED");
+        String succeeded = createTransaction(1, "SUCCESS");
+        String plain = createTransaction(2, "SUCCESS");
+        String single = createTransaction(3, "FAILED");
+        BatchRefundRequest request = new BatchRefundRequest(List.of(
+                new RefundRequest(failed, "Dispute", prefix + "-failed", true),
+                new RefundRequest(succeeded, "Dispute", prefix + "-succeeded", true),
+                new RefundRequest(plain, "Settlement", null),
+                new RefundRequest(failed, "Dispute retry", prefix + "-failed", true)
+        ));
+
+        // Act
+        BatchRefundResponse response = batchRefundService.processRefunds(request);
+        RefundResponse singleReversal = refundService.processRefund(new RefundRequest(single, "Dispute", null, true));
+
+        // Assert
+        List<BatchRefundItem> results = response.getResults();
+        assertEquals(List.of(201, 400, 201, 201), results.stream().map(BatchRefundItem::getStatusCode).toList());
+        assertEquals("Dispute reversal only applies to FAILED transactions", results.get(1).getError());
+        assertEquals(results.get(0).getRefund().getRefundId(), results.get(3).getRefund().getRefundId());
+        assertEquals("REFUNDED", transactionStore.findById(failed).orElseThrow().getStatus());
+        assertEquals("SUCCESS", transactionStore.findById(succeeded).orElseThrow().getStatus());
+        assertEquals("REFUNDED", transactionStore.findById(single).orElseThrow().getStatus());
+        assertNotNull(singleReversal.getRefundId());
+        assertThrows(InvalidRefundException.class,
+                () -> refundService.processRefund(new RefundRequest(single, "Dispute again", null, true)));
+    }
+
+    @Test
+    void testEmptyOrOversizedBatchIsRejected() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> batchRefundService.processRefunds(new BatchRefundRequest()));
+        List<RefundRequest> tooMany = new ArrayList<>();
+        for (int i = 0; i <= 10_000; i++) {
+            tooMany.add(new RefundRequest("TXN" + i, null, null));
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> batchRefundService.processRefunds(new BatchRefundRequest(tooMany)));
+    }
+
+    private String createTransaction(int index, String status) {
+        String transactionId = prefix + "-" + index;
+        transactionStore.save(new Transaction(transactionId, 100.0 + index, status, LocalDateTime.now(),
+                "CUST" + index, "MERCHANT" + index, "Batch refund test"));
+        return transactionId;
+    }
+}
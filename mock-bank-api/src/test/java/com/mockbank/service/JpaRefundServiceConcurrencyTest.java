@@ -0,0 +1,10 @@
+package com.mockbank.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "app.store.mode=jpa",
+        "spring.datasource.url=jdbc:h2:mem:refund-concurrency-jpa;DB_CLOSE_DELAY=-1"
+})
+public class JpaRefundServiceConcurrencyTest extends RefundServiceConcurrencyTestBase {
+}
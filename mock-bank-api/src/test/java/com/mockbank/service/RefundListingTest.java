@@ -0,0 +1,126 @@
+package com.mockbank.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mockbank.dto.CursorPage;
+import com.mockbank.dto.RefundResponse;
+import com.mockbank.entity.Refund;
+import com.mockbank.repository.RefundBatchRepository;
+import com.mockbank.repository.RefundQueryRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:refund-listing;DB_CLOSE_DELAY=-1"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class RefundListingTest {
+
+    private static final int REFUNDS = 2500;
+    private static final LocalDateTime START = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+    @Autowired
+    private RefundService refundService;
+
+    @Autowired
+    private RefundBatchRepository refundBatchRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Refund> refunds = new ArrayList<>();
+
+    @BeforeAll
+    void insertRefunds() {
+        // Three refunds per second, so pages end in the middle of a timestamp; every fifth one FAILED
+        for (int i = 0; i < REFUNDS; i++) {
+            Refund refund = new Refund();
+            refund.setTransactionId("LIST" + i);
+            refund.setAmount(100.0 + i);
+            refund.setRefundTimestamp(START.plusSeconds(i / 3));
+            refund.setStatus(i % 5 == 0 ? "FAILED" : "SUCCESS");
+            refund.setReason("Listing test");
+            refunds.add(refund);
+        }
+        transactionTemplate.executeWithoutResult(status -> refundBatchRepository.insertAll(refunds));
+    }
+
+    @Test
+    void testPagesCoverTheFilteredRangeInOrderWithoutGapsOrRepeats() {
+        // Arrange
+        LocalDateTime from = START.plusSeconds(100);
+        LocalDateTime to = START.plusSeconds(700);
+        List<Long> expected = refunds.stream()
+                .filter(r -> !r.getRefundTimestamp().isBefore(from) && r.getRefundTimestamp().isBefore(to))
+                .filter(r -> r.getStatus().equals("SUCCESS"))
+                .map(Refund::getRefundId)
+                .toList();
+        RefundQueryRepository.Filter filter = refundService.refundFilter(from.toString(), to.toString(), "success");
+
+        // Act
+        List<Long> seen = new ArrayList<>();
+        int pages = 0;
+        String cursor = null;
+        do {
+            CursorPage<RefundResponse> page = refundService.getRefunds(filter, cursor, 97);
+            page.getItems().forEach(r -> seen.add(r.getRefundId()));
+            assertEquals(page.getItems().size(), page.getCount());
+            assertEquals(page.getNextCursor() != null, page.getHasMore());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // Assert
+        assertEquals(expected, seen);
+        assertEquals((expected.size() + 96) / 97, pages);
+    }
+
+    @Test
+    void testStreamWritesEveryMatchingRefundAsOneLine() throws Exception {
+        // Arrange
+        RefundQueryRepository.Filter filter = refundService.refundFilter(START.toString(), "2020-01-02", null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long written = refundService.streamRefunds(filter, out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(REFUNDS, written);
+        assertEquals(REFUNDS, lines.length);
+        for (int i = 0; i < REFUNDS; i++) {
+            assertTrue(lines[i].startsWith("{"), lines[i]);
+            JsonNode line = objectMapper.readTree(lines[i]);
+            assertEquals(refunds.get(i).getRefundId(), line.get("refund_id").asLong());
+            assertEquals("LIST" + i, line.get("transaction_id").asText());
+        }
+    }
+
+    @Test
+    void testInvalidParametersAreRejected() {
+        // Arrange
+        RefundQueryRepository.Filter all = refundService.refundFilter(null, null, null);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> refundService.getRefunds(all, "not-a-cursor", 10));
+        assertThrows(IllegalArgumentException.class, () -> refundService.getRefunds(all, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> refundService.getRefunds(all, null, 1001));
+        assertThrows(IllegalArgumentException.class, () -> refundService.refundFilter("2020-02-01", "2020-01-01", null));
+        assertThrows(IllegalArgumentException.class, () -> refundService.refundFilter("yesterday", null, null));
+    }
+}
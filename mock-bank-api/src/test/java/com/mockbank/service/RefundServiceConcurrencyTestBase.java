@@ -0,0 +1,190 @@
+package com.mockbank.service;
+
+import com.mockbank.dto.RefundRequest;
+import com.mockbank.dto.RefundResponse;
+import com.mockbank.entity.Transaction;
+import com.mockbank.exception.InvalidRefundException;
+import com.mockbank.repository.RefundRepository;
+import com.mockbank.repository.TransactionStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrent refund submissions against RefundService, run once per store mode by the subclasses
+ */
+abstract class RefundServiceConcurrencyTestBase {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private RefundService refundService;
+
+    @Autowired
+    private RefundRepository refundRepository;
+
+    @Autowired
+    private TransactionStore transactionStore;
+
+    private ExecutorService executor;
+    private String prefix;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(THREADS);
+        prefix = "CONC" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testSameKeyFromManyThreadsCreatesOneRefund() throws Exception {
+        // Arrange
+        String transactionId = createTransaction(0);
+        RefundRequest request = new RefundRequest(transactionId, "Duplicate submit", prefix + "-key");
+        List<Callable<RefundResponse>> calls = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            calls.add(() -> refundService.processRefund(request));
+        }
+
+        // Act
+        List<Future<RefundResponse>> results = runTogether(calls);
+
+        // Assert
+        Set<Long> refundIds = new HashSet<>();
+        for (Future<RefundResponse> result : results) {
+            refundIds.add(result.get().getRefundId());
+        }
+        assertEquals(1, refundIds.size());
+        assertEquals(1, refundRepository.findByTransactionId(transactionId).size());
+        assertEquals("REFUNDED", transactionStore.findById(transactionId).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testDifferentKeysFromManyThreadsRefundOnce() throws Exception {
+        // Arrange
+        String transactionId = createTransaction(0);
+        List<Callable<RefundResponse>> calls = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            String key = prefix + "-key-" + i;
+            calls.add(() -> refundService.processRefund(new RefundRequest(transactionId, "Racing refund", key)));
+        }
+
+        // Act
+        List<Future<RefundResponse>> results = runTogether(calls);
+
+        // Assert
+        int succeeded = 0;
+        for (Future<RefundResponse> result : results) {
+            try {
+                result.get();
+                succeeded++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(InvalidRefundException.class, e.getCause());
+            }
+        }
+        assertEquals(1, succeeded);
+        assertEquals(1, refundRepository.findByTransactionId(transactionId).size());
+    }
+
+    @Test
+    void testRetriedSubmissionsAcrossManyTransactions() throws Exception {
+        // Arrange
+        int transactions = 200;
+        int copies = 5;
+        List<Callable<RefundResponse>> calls = new ArrayList<>();
+        for (int t = 0; t < transactions; t++) {
+            String transactionId = createTransaction(t);
+            RefundRequest request = new RefundRequest(transactionId, "Client retry", transactionId + "-key");
+            for (int c = 0; c < copies; c++) {
+                calls.add(() -> refundService.processRefund(request));
+            }
+        }
+        Collections.shuffle(calls, new Random(7));
+
+        // Act
+        List<Future<RefundResponse>> results = runTogether(calls);
+
+        // Assert
+        Map<String, Long> refundByTransaction = new HashMap<>();
+        for (Future<RefundResponse> result : results) {
+            RefundResponse response = result.get();
+            Long previous = refundByTransaction.putIfAbsent(response.getTransactionId(), response.getRefundId());
+            assertTrue(previous == null || previous.equals(response.getRefundId()));
+        }
+        assertEquals(transactions, refundByTransaction.size());
+        for (String transactionId : refundByTransaction.keySet()) {
+            assertEquals(1, refundRepository.findByTransactionId(transactionId).size());
+            assertEquals("REFUNDED", transactionStore.findById(transactionId).orElseThrow().getStatus());
+        }
+    }
+
+    @Test
+    void testKeyReusedForAnotherTransactionIsRejected() {
+        // Arrange
+        String first = createTransaction(0);
+        String second = createTransaction(1);
+        refundService.processRefund(new RefundRequest(first, "Original", prefix + "-key"));
+
+        // Act & Assert
+        assertThrows(InvalidRefundException.class,
+                () -> refundService.processRefund(new RefundRequest(second, "Reused key", prefix + "-key")));
+        assertEquals("SUCCESS", transactionStore.findById(second).orElseThrow().getStatus());
+        assertTrue(refundRepository.findByTransactionId(second).isEmpty());
+    }
+
+    private String createTransaction(int index) {
+        String transactionId = prefix + "-" + index;
+        transactionStore.save(new Transaction(transactionId, 100.0 + index, "SUCCESS", LocalDateTime.now(),
+                "CUST" + index, "MERCHANT" + index, "Concurrency test"));
+        return transactionId;
+    }
+
+    // Releases all calls at once so they contend for the same rows
+    private <T> List<Future<T>> runTogether(List<Callable<T>> calls) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        for (Callable<T> call : calls) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return call.call();
+            }));
+        }
+        start.countDown();
+        for (Future<T> future : futures) {
+            try {
+                future.get(60, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                // Asserted by the caller
+            } catch (TimeoutException e) {
+                fail("Refund call did not finish: " + e);
+            }
+        }
+        return futures;
+    }
+}
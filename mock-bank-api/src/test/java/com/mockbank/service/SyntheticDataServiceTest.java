@@ -0,0 +1,137 @@
+package com.mockbank.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mockbank.dto.SeedRequest;
+import com.mockbank.dto.SeedResult;
+import com.mockbank.entity.Transaction;
+import com.mockbank.repository.InMemoryTransactionStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SyntheticDataServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    private static SeedRequest request(long rows) {
+        SeedRequest request = new SeedRequest();
+        request.setRows(rows);
+        request.setPayers(100);
+        request.setPayees(10);
+        request.setBatchSize(1_000);
+        return request;
+    }
+
+    @Test
+    void testSameSeedProducesSameTransactions() throws Exception {
+        // Arrange
+        InMemoryTransactionStore first = new InMemoryTransactionStore(10_000);
+        InMemoryTransactionStore second = new InMemoryTransactionStore(10_000);
+        SeedRequest withDisputes = request(10_000);
+        withDisputes.setDisputesFile("disputes.ndjson");
+
+        // Act
+        new SyntheticDataService(first, objectMapper, tempDir.toString()).seed(request(10_000));
+        new SyntheticDataService(second, objectMapper, tempDir.toString()).seed(withDisputes);
+
+        // Assert
+        for (int i = 0; i < 10_000; i += 97) {
+            String id = String.format("SYN%012d", i);
+            assertEquals(first.findById(id).orElseThrow(), second.findById(id).orElseThrow());
+        }
+    }
+
+    @Test
+    void testMixAmountsAndCardinalitiesFollowTheRequest() throws Exception {
+        // Arrange
+        InMemoryTransactionStore store = new InMemoryTransactionStore(20_000);
+        SeedRequest request = request(20_000);
+        request.setSuccessShare(0.6);
+        request.setFailedShare(0.3);
+        request.setAmountMin(10);
+        request.setAmountMax(1_000);
+
+        // Act
+        SeedResult result = new SyntheticDataService(store, objectMapper, tempDir.toString()).seed(request);
+
+        // Assert
+        assertEquals(20_000, store.count());
+        assertEquals(20_000, result.getSuccess() + result.getFailed() + result.getRefunded());
+        assertEquals(0.6, result.getSuccess() / 20_000.0, 0.02);
+        assertEquals(0.3, result.getFailed() / 20_000.0, 0.02);
+        for (int i = 0; i < 20_000; i += 13) {
+            Transaction transaction = store.findById(String.format("SYN%012d", i)).orElseThrow();
+            assertTrue(transaction.getAmount() >= 10 && transaction.getAmount() <= 1_000);
+            assertTrue(Integer.parseInt(transaction.getPayerId().substring(4)) < 100);
+            assertTrue(Integer.parseInt(transaction.getPayeeId().substring(8)) < 10);
+        }
+    }
+
+    @Test
+    void testDisputesFileHoldsBackendRequestsForSeededTransactions() throws Exception {
+        // Arrange
+        InMemoryTransactionStore store = new InMemoryTransactionStore(5_000);
+        SeedRequest request = request(5_000);
+        request.setDisputeShare(0.1);
+        request.setDisputesFile("runs/disputes.ndjson");
+
+        // Act
+        SeedResult result = new SyntheticDataService(store, objectMapper, tempDir.toString()).seed(request);
+
+        // Assert
+        assertEquals(tempDir.resolve("runs/disputes.ndjson").toAbsolutePath().toString(), result.getDisputesFile());
+        List<String> lines = Files.readAllLines(Path.of(result.getDisputesFile()));
+        assertEquals(result.getDisputes(), lines.size());
+        assertTrue(lines.size() > 300 && lines.size() < 600);
+        for (String line : lines) {
+            JsonNode dispute = objectMapper.readTree(line);
+            Transaction transaction = store.findById(dispute.get("transactionId").asText()).orElseThrow();
+            assertNotEquals("REFUNDED", transaction.getStatus());
+            assertEquals(transaction.getAmount(), dispute.get("amount").asDouble());
+            assertEquals("merchant" + transaction.getPayeeId().substring(8) + "@upi", dispute.get("merchantUPI").asText());
+            assertTrue(dispute.get("phone").asText().matches("^[0-9]{10}$"));
+        }
+    }
+
+    @Test
+    void testOutOfRangeRequestIsRejected() {
+        // Arrange
+        SyntheticDataService service = new SyntheticDataService(new InMemoryTransactionStore(16), objectMapper, tempDir.toString());
+        SeedRequest shares = request(10);
+        shares.setSuccessShare(0.9);
+        shares.setFailedShare(0.2);
+        SeedRequest date = request(10);
+        date.setStartDate("01/01/2024");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> service.seed(shares));
+        assertThrows(IllegalArgumentException.class, () -> service.seed(date));
+    }
+
+    @Test
+    void testDisputesFileOutsideTheOutputDirectoryIsRejectedBeforeAnyRowIsStored() {
+        // Arrange
+        InMemoryTransactionStore store = new InMemoryTransactionStore(16);
+        SyntheticDataService service = new SyntheticDataService(store, objectMapper, tempDir.resolve("out").toString());
+        List<String> names = List.of(tempDir.resolve("escape.ndjson").toAbsolutePath().toString(),
+                "../escape.ndjson", "runs/../../escape.ndjson", "runs/..", ".");
+
+        // Act & Assert
+        for (String name : names) {
+            SeedRequest request = request(10);
+            request.setDisputesFile(name);
+            assertThrows(IllegalArgumentException.class, () -> service.seed(request), name);
+        }
+        assertEquals(0, store.count());
+        assertFalse(Files.exists(tempDir.resolve("escape.ndjson")));
+    }
+}
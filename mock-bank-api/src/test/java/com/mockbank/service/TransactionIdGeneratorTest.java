@@ -0,0 +1,113 @@
+package com.mockbank.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TransactionIdGeneratorTest {
+
+    private static final long NOW = TransactionIdGenerator.EPOCH_MS + 86_400_000L;
+
+    @Test
+    void testIdsCarryTimeNodeAndSequenceAndSortAsStrings() {
+        // Arrange
+        TransactionIdGenerator generator = new TransactionIdGenerator(5, () -> NOW);
+
+        // Act
+        long first = generator.nextId();
+        long second = generator.nextId();
+        String firstText = TransactionIdGenerator.encode(first);
+        String secondText = TransactionIdGenerator.encode(second);
+
+        // Assert
+        assertEquals(NOW, TransactionIdGenerator.timestampOf(first));
+        assertEquals(first + 1, second);
+        assertEquals(5, (first >>> 12) & 1023);
+        assertEquals(16, firstText.length());
+        assertTrue(firstText.startsWith("TXN"));
+        assertTrue(firstText.compareTo(secondText) < 0);
+        assertEquals("TXN0000000000000", TransactionIdGenerator.encode(0));
+        assertEquals("TXN7ZZZZZZZZZZZZ", TransactionIdGenerator.encode(Long.MAX_VALUE));
+    }
+
+    @Test
+    void testExhaustedSequenceAndClockStepBackNeverRepeatOrGoBackwards() {
+        // Arrange
+        AtomicLong clock = new AtomicLong(NOW);
+        TransactionIdGenerator generator = new TransactionIdGenerator(1, clock::get);
+
+        // Act
+        long previous = -1;
+        for (int i = 0; i < 10_000; i++) {
+            if (i == 5_000) {
+                clock.addAndGet(-1_000);
+            }
+            long id = generator.nextId();
+
+            // Assert
+            assertTrue(id > previous, "ID " + i + " went backwards");
+            previous = id;
+        }
+        // 10,000 IDs within one millisecond borrow two from the following ones
+        assertEquals(NOW + 2, TransactionIdGenerator.timestampOf(previous));
+    }
+
+    @Test
+    void testConcurrentIdsAreUniqueAndIncreasingPerThread() throws Exception {
+        // Arrange
+        TransactionIdGenerator generator = new TransactionIdGenerator(0, System::currentTimeMillis);
+        int threads = 16;
+        int perThread = 50_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        // Act
+        List<Future<String[]>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                String[] ids = new String[perThread];
+                for (int i = 0; i < perThread; i++) {
+                    ids[i] = generator.next();
+                }
+                return ids;
+            }));
+        }
+        Set<String> all = new HashSet<>();
+        for (Future<String[]> future : futures) {
+            String[] ids = future.get();
+            for (int i = 0; i < ids.length; i++) {
+                // Assert
+                assertTrue(i == 0 || ids[i - 1].compareTo(ids[i]) < 0, "IDs of one thread must increase");
+                all.add(ids[i]);
+            }
+        }
+        pool.shutdown();
+        assertEquals(threads * perThread, all.size());
+    }
+
+    @Test
+    void testNodeIdOutOfRangeIsRejected() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new TransactionIdGenerator(1024, () -> NOW));
+        assertThrows(IllegalArgumentException.class, () -> new TransactionIdGenerator(-1, () -> NOW));
+        assertEquals(1023, new TransactionIdGenerator(1023, () -> NOW).nodeId());
+    }
+
+    @Test
+    void testUnsetNodeIdIsZeroOnlyForAPrivateInMemoryDatabase() {
+        // Act & Assert
+        assertEquals(0, TransactionIdGenerator.resolveNodeId(-1, "jdbc:h2:mem:mockbankdb;DB_CLOSE_DELAY=-1"));
+        assertEquals(7, TransactionIdGenerator.resolveNodeId(7, "jdbc:postgresql://db:5432/bank"));
+        assertThrows(IllegalStateException.class,
+                () -> TransactionIdGenerator.resolveNodeId(-1, "jdbc:postgresql://db:5432/bank"));
+        assertThrows(IllegalStateException.class, () -> TransactionIdGenerator.resolveNodeId(-1, "jdbc:h2:file:./bank"));
+    }
+}
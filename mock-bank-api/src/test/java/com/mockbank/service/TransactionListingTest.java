@@ -0,0 +1,93 @@
+package com.mockbank.service;
+
+import com.mockbank.dto.CursorPage;
+import com.mockbank.dto.TransactionResponse;
+import com.mockbank.entity.Transaction;
+import com.mockbank.repository.TransactionStore;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:transaction-listing;DB_CLOSE_DELAY=-1"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class TransactionListingTest {
+
+    private static final int TRANSACTIONS = 3000;
+    private static final LocalDateTime START = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionStore transactionStore;
+
+    private final List<Transaction> transactions = new ArrayList<>();
+
+    @BeforeAll
+    void insertTransactions() {
+        // Three transactions per second, so pages end in the middle of a timestamp; every fifth one FAILED
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            transactions.add(new Transaction(String.format("LIST%05d", i), 100.0 + i,
+                    i % 5 == 0 ? "FAILED" : "SUCCESS", START.plusSeconds(i / 3),
+                    "LISTPAYER" + (i % 4), "LISTPAYEE" + (i % 3), "Listing test"));
+        }
+        transactionStore.saveAll(transactions);
+    }
+
+    @Test
+    void testPagesCoverTheFilteredRangeInOrderWithoutGapsOrRepeats() {
+        // Arrange
+        LocalDateTime from = START.plusSeconds(100);
+        LocalDateTime to = START.plusSeconds(800);
+        List<String> expected = transactions.stream()
+                .filter(t -> t.getPayeeId().equals("LISTPAYEE1"))
+                .filter(t -> !t.getTimestamp().isBefore(from) && t.getTimestamp().isBefore(to))
+                .filter(t -> t.getStatus().equals("SUCCESS"))
+                .map(Transaction::getTransactionId)
+                .toList();
+        TransactionStore.Filter filter = transactionService.transactionFilter(null, " LISTPAYEE1 ",
+                from.toString(), to.toString(), "success");
+
+        // Act
+        List<String> seen = new ArrayList<>();
+        int pages = 0;
+        String cursor = null;
+        do {
+            CursorPage<TransactionResponse> page = transactionService.getTransactions(filter, cursor, 97);
+            page.getItems().forEach(item -> seen.add(item.getTransactionId()));
+            assertEquals(page.getItems().size(), page.getCount());
+            assertEquals(page.getNextCursor() != null, page.getHasMore());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // Assert
+        assertEquals(expected, seen);
+        assertEquals((expected.size() + 96) / 97, pages);
+    }
+
+    @Test
+    void testListingNeedsAPartyAndAValidLimitAndCursor() {
+        // Arrange
+        TransactionStore.Filter filter = transactionService.transactionFilter("LISTPAYER0", null, "2020-01-01", null, null);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.transactionFilter(" ", null, "2020-01-01", "2020-01-02", null));
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.transactionFilter("LISTPAYER0", null, "2020-01-02", "2020-01-01", null));
+        assertThrows(IllegalArgumentException.class, () -> transactionService.getTransactions(filter, null, 1001));
+        assertThrows(IllegalArgumentException.class, () -> transactionService.getTransactions(filter, "not-a-cursor", 10));
+        assertEquals(750, transactionService.getTransactions(filter, null, 1000).getCount());
+    }
+}
@@ -0,0 +1,78 @@
+package com.mockbank.service;
+
+import com.mockbank.dto.CreateTransactionRequest;
+import com.mockbank.dto.TransactionResponse;
+import com.mockbank.repository.TransactionStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:transaction-create;DB_CLOSE_DELAY=-1"
+})
+public class TransactionServiceTest {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionStore transactionStore;
+
+    @Test
+    void testConcurrentCreatesWithOneIdLeaveExactlyOneTransaction() throws Exception {
+        // Arrange
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<TransactionResponse>> futures = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < threads; i++) {
+            double amount = 100.0 + i;
+            futures.add(pool.submit(() -> {
+                start.await();
+                return transactionService.createTransaction(new CreateTransactionRequest(
+                        "TXNRACE001", amount, "SUCCESS", "CUST001", "MERCHANT001", "Race"));
+            }));
+        }
+        start.countDown();
+        List<TransactionResponse> created = new ArrayList<>();
+        int rejected = 0;
+        for (Future<TransactionResponse> future : futures) {
+            try {
+                created.add(future.get());
+            } catch (ExecutionException e) {
+                assertInstanceOf(IllegalArgumentException.class, e.getCause());
+                assertEquals("Transaction already exists with ID: TXNRACE001", e.getCause().getMessage());
+                rejected++;
+            }
+        }
+        pool.shutdown();
+
+        // Assert
+        assertEquals(1, created.size());
+        assertEquals(threads - 1, rejected);
+        assertEquals(created.get(0).getAmount(), transactionStore.findById("TXNRACE001").orElseThrow().getAmount());
+    }
+
+    @Test
+    void testCreateWithoutIdGeneratesOne() {
+        // Act
+        TransactionResponse created = transactionService.createTransaction(new CreateTransactionRequest(
+                null, 10.0, "FAILED", "CUST001", "MERCHANT001", "Generated"));
+
+        // Assert
+        assertTrue(created.getTransactionId().startsWith("TXN"));
+        assertEquals("FAILED", transactionStore.findById(created.getTransactionId()).orElseThrow().getStatus());
+    }
+}